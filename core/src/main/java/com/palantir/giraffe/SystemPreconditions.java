@@ -56,7 +56,7 @@ public final class SystemPreconditions {
      * @throws IllegalArgumentException if the hosts are not equal
      */
     public static void checkSameHost(FileSystem fs, ExecutionSystem es) {
-        Host fsHost = Host.fromUri(fs.getPath("").toUri());
+        Host fsHost = getHost(fs);
         Host esHost = Host.fromUri(es.uri());
         checkArgument(fsHost.equals(esHost),
                 "file system host (%s) must equal execution system host (%s)",
@@ -83,7 +83,7 @@ public final class SystemPreconditions {
      * @throws IllegalArgumentException if the hosts are not equal
      */
     public static void checkSameHost(Host host, FileSystem fs) {
-        Host fsHost = Host.fromUri(fs.getPath("").toUri());
+        Host fsHost = getHost(fs);
         checkArgument(fsHost.equals(host),
                 "file system host (%s) must equal %s",
                 fsHost, host);
@@ -120,6 +120,16 @@ public final class SystemPreconditions {
         checkArgument(es.isOpen(), "executions system must be open");
     }
 
+    /**
+     * Returns the host of a file system using a root directory. Root
+     * directories are absolute, so this does not require the file system to
+     * resolve its default directory, which may need a connection.
+     */
+    private static Host getHost(FileSystem fs) {
+        Path root = fs.getRootDirectories().iterator().next();
+        return Host.fromUri(root.toUri());
+    }
+
     private SystemPreconditions() {
         throw new UnsupportedOperationException();
     }
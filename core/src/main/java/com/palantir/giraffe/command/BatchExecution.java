@@ -0,0 +1,273 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.giraffe.file.UniformPath;
+import com.palantir.giraffe.internal.ShellQuoting;
+
+/**
+ * Executes a batch of independent commands.
+ * <p>
+ * Commands associated with the local execution system execute concurrently.
+ * Commands associated with each remote execution system execute sequentially
+ * in a single shell script so that the batch requires one command on each
+ * remote system. After each command exits, the script prints a unique marker
+ * to the output and error streams, followed by the exit status on the output
+ * stream. The output is split into per-command results at these markers.
+ */
+final class BatchExecution extends AbstractFuture<List<CommandResult>> {
+
+    public static ListenableFuture<List<CommandResult>> execute(List<? extends Command> commands,
+            CommandContext context) {
+        checkArgument(!context.getStdoutStreamCapacity().isPresent()
+                && !context.getStdinStreamCapacity().isPresent()
+                && !context.getInputSource().isPresent(),
+                "batched commands cannot stream input or output");
+
+        BatchExecution execution = new BatchExecution(commands, context);
+        execution.start();
+        return execution;
+    }
+
+    private final ImmutableList<Command> commands;
+    private final CommandContext context;
+
+    private final String marker;
+
+    private final List<Group> groups;
+    private final List<CommandFuture> futures;
+
+    private BatchExecution(List<? extends Command> commands, CommandContext context) {
+        this.commands = ImmutableList.copyOf(commands);
+        this.context = context;
+
+        marker = "giraffe-batch-" + UUID.randomUUID();
+
+        groups = createGroups();
+        futures = new ArrayList<>();
+    }
+
+    private void start() {
+        try {
+            for (Group group : groups) {
+                group.execute(futures);
+            }
+        } catch (RuntimeException e) {
+            for (CommandFuture future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+
+        Futures.whenAllComplete(futures).call(new Callable<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    complete();
+                } catch (Throwable t) {
+                    setException(t);
+                }
+                return null;
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    protected void afterDone() {
+        // no-op for commands that already terminated
+        for (CommandFuture future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private void complete() {
+        CommandResult[] results = new CommandResult[commands.size()];
+        for (Group group : groups) {
+            List<CommandResult> groupResults = new ArrayList<>(group.indices.size());
+            for (CommandFuture future : group.futures) {
+                if (future.isCancelled()) {
+                    // the batch was cancelled or already failed
+                    return;
+                }
+                try {
+                    groupResults.add(Futures.getDone(future));
+                } catch (ExecutionException e) {
+                    setException(e.getCause());
+                    return;
+                }
+            }
+
+            if (group.isScript()) {
+                try {
+                    groupResults = group.parseResults(groupResults.get(0));
+                } catch (IOException e) {
+                    setException(e);
+                    return;
+                }
+            }
+
+            for (int i = 0; i < group.indices.size(); i++) {
+                results[group.indices.get(i)] = groupResults.get(i);
+            }
+        }
+
+        for (int c = 0; c < commands.size(); c++) {
+            CommandResult result = results[c];
+            if (!context.getExitStatusVerifier().apply(result.getExitStatus())) {
+                TerminatedCommand failed = new TerminatedCommand(commands.get(c), context, result);
+                setException(new CommandException(failed));
+                return;
+            }
+        }
+        set(ImmutableList.copyOf(results));
+    }
+
+    private List<Group> createGroups() {
+        Map<ExecutionSystem, Group> remoteGroups = new LinkedHashMap<>();
+        List<Group> result = new ArrayList<>();
+        for (int c = 0; c < commands.size(); c++) {
+            Command command = commands.get(c);
+            if (Commands.isLocal(command)) {
+                result.add(new Group(command.getExecutionSystem()));
+                result.get(result.size() - 1).indices.add(c);
+            } else {
+                ExecutionSystem es = command.getExecutionSystem();
+                if (!remoteGroups.containsKey(es)) {
+                    remoteGroups.put(es, new Group(es));
+                    result.add(remoteGroups.get(es));
+                }
+                remoteGroups.get(es).indices.add(c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A set of commands that execute as one command.
+     */
+    private final class Group {
+        private final ExecutionSystem es;
+        private final List<Integer> indices = new ArrayList<>();
+        private final List<CommandFuture> futures = new ArrayList<>();
+
+        Group(ExecutionSystem es) {
+            this.es = es;
+        }
+
+        boolean isScript() {
+            return indices.size() > 1;
+        }
+
+        void execute(List<CommandFuture> allFutures) {
+            // exit status is verified for each command once all groups finish
+            CommandFuture future;
+            if (isScript()) {
+                future = Commands.executeAsync(buildScriptCommand(), buildScriptContext());
+            } else {
+                CommandContext single = context.toBuilder().ignoreExitStatus().build();
+                future = Commands.executeAsync(commands.get(indices.get(0)), single);
+            }
+            futures.add(future);
+            allFutures.add(future);
+        }
+
+        private Command buildScriptCommand() {
+            StringBuilder script = new StringBuilder();
+            for (int i = 0; i < indices.size(); i++) {
+                Command command = commands.get(indices.get(i));
+
+                // a subshell isolates builtins like cd and exit
+                script.append("( ").append(ShellQuoting.quote(command.getExecutable()));
+                for (String arg : command.getArguments()) {
+                    script.append(' ').append(ShellQuoting.quote(arg));
+                }
+                script.append(" ) < /dev/null; ");
+                script.append("printf '\\n").append(marker).append(':').append(i);
+                script.append(":%d\\n' $?; ");
+                script.append("printf '\\n").append(marker).append(':').append(i);
+                script.append("\\n' >&2\n");
+            }
+            return es.getCommandBuilder("sh").addArguments("-c", script).build();
+        }
+
+        private CommandContext buildScriptContext() {
+            // output windows are applied to the output of each command
+            CommandContext.Builder builder = CommandContext.builder().ignoreExitStatus();
+            builder.environment(context.getEnvironment());
+            Optional<UniformPath> workingDir = context.getWorkingDirectory();
+            if (workingDir.isPresent()) {
+                builder.workingDirectory(workingDir.get());
+            }
+            return builder.build();
+        }
+
+        List<CommandResult> parseResults(CommandResult scriptResult) throws IOException {
+            String stdout = scriptResult.getStdOut();
+            String stderr = scriptResult.getStdErr();
+
+            List<CommandResult> results = new ArrayList<>(indices.size());
+            int outStart = 0;
+            int errStart = 0;
+            for (int i = 0; i < indices.size(); i++) {
+                String outMarker = "\n" + marker + ":" + i + ":";
+                String errMarker = "\n" + marker + ":" + i + "\n";
+
+                int outEnd = stdout.indexOf(outMarker, outStart);
+                int errEnd = stderr.indexOf(errMarker, errStart);
+                int statusEnd = outEnd < 0 ? -1 : stdout.indexOf('\n', outEnd + outMarker.length());
+                if (outEnd < 0 || errEnd < 0 || statusEnd < 0) {
+                    Command command = commands.get(indices.get(i));
+                    throw new IOException("batch terminated before " + command + " finished");
+                }
+
+                int status = Integer.parseInt(
+                        stdout.substring(outEnd + outMarker.length(), statusEnd));
+                results.add(new CommandResult(status,
+                        window(stdout.substring(outStart, outEnd), context.getStdoutWindowSize()),
+                        window(stderr.substring(errStart, errEnd), context.getStderrWindowSize())));
+
+                outStart = statusEnd + 1;
+                errStart = errEnd + errMarker.length();
+            }
+            return results;
+        }
+    }
+
+    private static String window(String output, Optional<Integer> window) {
+        if (window.isPresent() && output.length() > window.get()) {
+            return output.substring(output.length() - window.get());
+        } else {
+            return output;
+        }
+    }
+}
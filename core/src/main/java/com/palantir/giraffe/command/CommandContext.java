@@ -16,7 +16,10 @@
 package com.palantir.giraffe.command;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.file.Path;
 
 import com.google.common.base.Optional;
@@ -33,7 +36,9 @@ import com.palantir.giraffe.file.UniformPath;
  * contexts. For more complex contexts that set multiple properties, use the
  * {@linkplain #builder() builder}.
  * <p>
- * Instances of this class are immutable.
+ * Instances of this class are immutable. Contexts that
+ * {@linkplain Builder#redirectInput(InputStream) redirect input} refer to a
+ * stream and should only be used to execute a single command.
  *
  * @author bkeyes
  */
@@ -52,6 +57,10 @@ public final class CommandContext {
         private Optional<UniformPath> workingDir = Optional.absent();
         private Optional<Integer> stdoutWindow = Optional.absent();
         private Optional<Integer> stderrWindow = Optional.absent();
+        private Optional<Integer> stdoutCapacity = Optional.absent();
+        private Optional<Integer> stdinCapacity = Optional.absent();
+        private Optional<InputStream> inputSource = Optional.absent();
+        private boolean inputDiscarded = false;
 
         private Builder() {
             // use static builder() method externally
@@ -175,6 +184,87 @@ public final class CommandContext {
             return this;
         }
 
+        /**
+         * Streams process output through a bounded buffer.
+         * <p>
+         * Output is discarded from the buffer as soon as it is read. When
+         * {@code capacity} bytes of unread output are buffered, the process
+         * is blocked until more output is read. Clients must read all output
+         * from the {@linkplain CommandFuture#getStdOut() output stream} or
+         * the command may never terminate. If the output stream is closed
+         * before the process terminates, the command fails.
+         * <p>
+         * When set, this overrides the output window size. The error stream is
+         * not affected.
+         *
+         * @param capacity the maximum amount of unread output
+         *
+         * @return this builder
+         */
+        public Builder streamOutput(int capacity) {
+            checkArgument(capacity > 0, "capacity must be positive");
+            this.stdoutCapacity = Optional.of(capacity);
+            return this;
+        }
+
+        /**
+         * Streams process input through a bounded buffer.
+         * <p>
+         * Writes to the {@linkplain CommandFuture#getStdIn() input stream}
+         * block while {@code capacity} bytes are waiting to be sent to the
+         * process. Closing the input stream closes the standard input of the
+         * process. If the process closes its standard input first, writes to
+         * the input stream fail instead of the command.
+         *
+         * @param capacity the maximum amount of unsent input
+         *
+         * @return this builder
+         */
+        public Builder streamInput(int capacity) {
+            checkArgument(capacity > 0, "capacity must be positive");
+            this.stdinCapacity = Optional.of(capacity);
+            return this;
+        }
+
+        /**
+         * Reads process input from the given stream instead of the
+         * {@linkplain CommandFuture#getStdIn() input stream}, which is closed.
+         * <p>
+         * Input is copied directly to the process without additional
+         * buffering. When {@code source} ends, the standard input of the
+         * process is closed. If the process closes its standard input first
+         * or terminates before {@code source} ends, {@code source} is closed.
+         * When set, this overrides input streaming.
+         *
+         * @param source the stream to read input from
+         *
+         * @return this builder
+         */
+        public Builder redirectInput(InputStream source) {
+            this.inputSource = Optional.of(checkNotNull(source, "source must be non-null"));
+            this.inputDiscarded = false;
+            return this;
+        }
+
+        /**
+         * Runs commands without input. Commands read end of file from their
+         * standard input and the {@linkplain CommandFuture#getStdIn() input
+         * stream} is closed.
+         * <p>
+         * This is equivalent to redirecting input from an empty stream, but
+         * also allows execution systems to run commands in ways that cannot
+         * provide input. For example, SSH execution systems may run these
+         * commands in a persistent shell. When set, this overrides input
+         * streaming.
+         *
+         * @return this builder
+         */
+        public Builder discardInput() {
+            this.inputSource = Optional.<InputStream>of(new ByteArrayInputStream(new byte[0]));
+            this.inputDiscarded = true;
+            return this;
+        }
+
         /**
          * Creates a new {@code CommandContext} using the settings configured by
          * this builder. The builder may be reused to create more contexts after
@@ -190,6 +280,10 @@ public final class CommandContext {
     private final Optional<UniformPath> workingDir;
     private final Optional<Integer> stdoutWindow;
     private final Optional<Integer> stderrWindow;
+    private final Optional<Integer> stdoutCapacity;
+    private final Optional<Integer> stdinCapacity;
+    private final Optional<InputStream> inputSource;
+    private final boolean inputDiscarded;
 
     private CommandContext(Builder builder) {
         this.environment = builder.environment.copy();
@@ -197,6 +291,10 @@ public final class CommandContext {
         this.workingDir = builder.workingDir;
         this.stdoutWindow = builder.stdoutWindow;
         this.stderrWindow = builder.stderrWindow;
+        this.stdoutCapacity = builder.stdoutCapacity;
+        this.stdinCapacity = builder.stdinCapacity;
+        this.inputSource = builder.inputSource;
+        this.inputDiscarded = builder.inputDiscarded;
     }
 
     /**
@@ -206,6 +304,23 @@ public final class CommandContext {
         return new Builder();
     }
 
+    /**
+     * Returns a new builder initialized with the settings of this context.
+     */
+    Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.environment = environment.copy();
+        builder.exitStatusVerifier = exitStatusVerifier;
+        builder.workingDir = workingDir;
+        builder.stdoutWindow = stdoutWindow;
+        builder.stderrWindow = stderrWindow;
+        builder.stdoutCapacity = stdoutCapacity;
+        builder.stdinCapacity = stdinCapacity;
+        builder.inputSource = inputSource;
+        builder.inputDiscarded = inputDiscarded;
+        return builder;
+    }
+
     /**
      * Returns the default context object. The default context uses the default
      * environment, the default working directory, and requires that commands
@@ -308,4 +423,45 @@ public final class CommandContext {
     public Optional<Integer> getStderrWindowSize() {
         return stderrWindow;
     }
+
+    /**
+     * Returns the capacity of this context's output buffer. If the returned
+     * {@code Optional} is present, output is streamed through a bounded
+     * buffer.
+     *
+     * @see Builder#streamOutput(int)
+     */
+    public Optional<Integer> getStdoutStreamCapacity() {
+        return stdoutCapacity;
+    }
+
+    /**
+     * Returns the capacity of this context's input buffer. If the returned
+     * {@code Optional} is present, input is streamed through a bounded buffer.
+     *
+     * @see Builder#streamInput(int)
+     */
+    public Optional<Integer> getStdinStreamCapacity() {
+        return stdinCapacity;
+    }
+
+    /**
+     * Returns the stream this context reads process input from. If the
+     * returned {@code Optional} is not present, input is read from the
+     * command's input stream.
+     *
+     * @see Builder#redirectInput(InputStream)
+     */
+    public Optional<InputStream> getInputSource() {
+        return inputSource;
+    }
+
+    /**
+     * Returns {@code true} if commands run with this context have no input.
+     *
+     * @see Builder#discardInput()
+     */
+    public boolean isInputDiscarded() {
+        return inputDiscarded;
+    }
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A sequence of commands where the output of each command is the input of the
+ * next command. The commands in a pipeline may be associated with different
+ * execution systems.
+ * <p>
+ * When a pipeline is {@linkplain Commands#executeAsync(CommandPipeline)
+ * executed}, adjacent commands associated with the same execution system are
+ * combined into a single shell pipeline on that system, provided they use the
+ * same working directory and the default environment. Output is transferred
+ * between other commands through a single bounded buffer of
+ * {@linkplain #getBufferSize() fixed size}, so a slow command pauses the
+ * commands before it instead of accumulating their output in memory.
+ * <p>
+ * Instances of this class are immutable.
+ */
+public final class CommandPipeline {
+
+    /**
+     * The default size of the buffer used to transfer output between commands.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Builds {@link CommandPipeline} objects.
+     */
+    @SuppressWarnings({ "hiding", "checkstyle:hiddenfield" })
+    public static final class Builder {
+
+        private final ImmutableList.Builder<Command> commands = ImmutableList.builder();
+        private final ImmutableList.Builder<CommandContext> contexts = ImmutableList.builder();
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        private Builder() {
+            // use static builder() method externally
+        }
+
+        /**
+         * Adds a command to the end of this pipeline that executes with the
+         * default context.
+         *
+         * @param command the command to add
+         *
+         * @return this builder
+         */
+        public Builder pipe(Command command) {
+            return pipe(command, CommandContext.defaultContext());
+        }
+
+        /**
+         * Adds a command to the end of this pipeline that executes with the
+         * given context.
+         * <p>
+         * The context's exit status requirement is applied to the command. Its
+         * output window is only used for the last command in the pipeline.
+         *
+         * @param command the command to add
+         * @param context the {@link CommandContext}
+         *
+         * @return this builder
+         */
+        public Builder pipe(Command command, CommandContext context) {
+            commands.add(checkNotNull(command, "command must be non-null"));
+            contexts.add(checkNotNull(context, "context must be non-null"));
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffer used to transfer output between commands
+         * on different execution systems.
+         *
+         * @param bufferSize the buffer size in bytes
+         *
+         * @return this builder
+         */
+        public Builder bufferSize(int bufferSize) {
+            checkArgument(bufferSize > 0, "bufferSize must be positive");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Creates a new {@code CommandPipeline} using the settings configured
+         * by this builder. The builder may be reused to create more pipelines
+         * after calling this method.
+         *
+         * @throws IllegalStateException if no commands were added
+         */
+        public CommandPipeline build() {
+            return new CommandPipeline(this);
+        }
+    }
+
+    private final ImmutableList<Command> commands;
+    private final ImmutableList<CommandContext> contexts;
+    private final int bufferSize;
+
+    private CommandPipeline(Builder builder) {
+        this.commands = builder.commands.build();
+        this.contexts = builder.contexts.build();
+        this.bufferSize = builder.bufferSize;
+        checkState(!commands.isEmpty(), "pipeline must contain at least one command");
+    }
+
+    /**
+     * Returns a new {@code CommandPipeline} builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a pipeline of commands that execute with the default context.
+     *
+     * @param first the first command
+     * @param second the second command
+     * @param more any additional commands
+     */
+    public static CommandPipeline of(Command first, Command second, Command... more) {
+        Builder builder = builder().pipe(first).pipe(second);
+        for (Command command : more) {
+            builder.pipe(command);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the commands in this pipeline, in order.
+     */
+    public ImmutableList<Command> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Returns the contexts of the commands in this pipeline, in order.
+     */
+    public ImmutableList<CommandContext> getContexts() {
+        return contexts;
+    }
+
+    /**
+     * Returns the size of the buffer used to transfer output between commands
+     * on different execution systems.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public String toString() {
+        return Joiner.on(" | ").join(commands);
+    }
+}
@@ -27,11 +27,13 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.giraffe.command.spi.ExecutionSystemProvider;
 
@@ -233,6 +235,146 @@ public final class Commands {
         return provider(command).execute(command, context);
     }
 
+    /**
+     * Synchronously executes a pipeline of commands.
+     * <p>
+     * This method blocks until all commands in the pipeline terminate.
+     *
+     * @param pipeline the {@link CommandPipeline} to execute
+     *
+     * @return the {@linkplain PipelineResult result} of executing the pipeline
+     *
+     * @throws CommandException if any command exits with a status other than
+     *         that specified by its {@link CommandContext}
+     * @throws IOException if an I/O error occurs while executing the pipeline
+     *
+     * @see #executeAsync(CommandPipeline)
+     */
+    public static PipelineResult execute(CommandPipeline pipeline) throws IOException {
+        checkNotNull(pipeline);
+        try {
+            return Uninterruptibles.getUninterruptibly(executeAsync(pipeline));
+        } catch (ExecutionException e) {
+            throw propagateCause(e);
+        }
+    }
+
+    /**
+     * Executes a pipeline of commands asynchronously. Returns a
+     * {@link PipelineFuture} that allows clients to wait for the commands to
+     * finish, write input to the first command, and read output from the last
+     * command.
+     * <p>
+     * Adjacent commands associated with the same execution system may execute
+     * as a single shell pipeline. Output is transferred between commands on
+     * different execution systems through a single bounded buffer for each
+     * pair of commands.
+     * <p>
+     * If a command terminates before reading all of its input, the command
+     * before it is cancelled and its exit status is not checked, similar to a
+     * shell pipeline.
+     *
+     * @param pipeline the {@link CommandPipeline} to execute
+     *
+     * @return a {@link PipelineFuture} for the executing pipeline
+     */
+    public static PipelineFuture executeAsync(CommandPipeline pipeline) {
+        checkNotNull(pipeline);
+        return PipelineExecution.execute(pipeline);
+    }
+
+    /**
+     * Synchronously executes a batch of independent commands with the default
+     * context.
+     *
+     * @param commands the commands to execute
+     *
+     * @return the {@linkplain CommandResult result} of each command, in order
+     *
+     * @throws CommandException if any command exits with non-zero status
+     * @throws IOException if an I/O error occurs while executing the commands
+     *
+     * @see #executeBatch(List, CommandContext)
+     */
+    public static List<CommandResult> executeBatch(List<? extends Command> commands)
+            throws IOException {
+        return executeBatch(commands, CommandContext.defaultContext());
+    }
+
+    /**
+     * Synchronously executes a batch of independent commands with the
+     * specified context.
+     * <p>
+     * This method blocks until all commands terminate. Every command executes,
+     * even if other commands in the batch fail.
+     *
+     * @param commands the commands to execute
+     * @param context the {@link CommandContext} for all commands
+     *
+     * @return the {@linkplain CommandResult result} of each command, in order
+     *
+     * @throws CommandException if any command exits with a status other than
+     *         that specified by the {@link CommandContext}; the exception
+     *         describes the first such command in the batch
+     * @throws IOException if an I/O error occurs while executing the commands
+     *
+     * @see #executeBatchAsync(List, CommandContext)
+     */
+    public static List<CommandResult> executeBatch(List<? extends Command> commands,
+            CommandContext context) throws IOException {
+        checkNotNull(commands);
+        checkNotNull(context);
+        try {
+            return Uninterruptibles.getUninterruptibly(executeBatchAsync(commands, context));
+        } catch (ExecutionException e) {
+            throw propagateCause(e);
+        }
+    }
+
+    /**
+     * Executes a batch of independent commands asynchronously with the
+     * default context.
+     *
+     * @param commands the commands to execute
+     *
+     * @return a future for the results of the commands
+     *
+     * @see #executeBatchAsync(List, CommandContext)
+     */
+    public static ListenableFuture<List<CommandResult>> executeBatchAsync(
+            List<? extends Command> commands) {
+        return executeBatchAsync(commands, CommandContext.defaultContext());
+    }
+
+    /**
+     * Executes a batch of independent commands asynchronously with the
+     * specified context. Returns a future that resolves to the result of each
+     * command, in order, once all commands terminate.
+     * <p>
+     * Commands associated with the local execution system execute
+     * concurrently. Commands associated with a remote execution system execute
+     * sequentially in a single shell script, so that the batch requires one
+     * round trip to each remote system instead of one for each command. Each
+     * command in a script reads input from {@code /dev/null}.
+     * <p>
+     * Because commands in a batch do not provide streams, the context may not
+     * {@linkplain CommandContext.Builder#streamInput(int) stream input} or
+     * {@linkplain CommandContext.Builder#streamOutput(int) output}.
+     *
+     * @param commands the commands to execute
+     * @param context the {@link CommandContext} for all commands
+     *
+     * @return a future for the results of the commands
+     *
+     * @throws IllegalArgumentException if the context streams input or output
+     */
+    public static ListenableFuture<List<CommandResult>> executeBatchAsync(
+            List<? extends Command> commands, CommandContext context) {
+        checkNotNull(commands);
+        checkNotNull(context);
+        return BatchExecution.execute(commands, context);
+    }
+
     /**
      * Waits for the command associated with a {@code CommandFuture} to
      * terminate.
@@ -0,0 +1,375 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.giraffe.file.UniformPath;
+import com.palantir.giraffe.internal.OsDetector;
+import com.palantir.giraffe.internal.ShellQuoting;
+
+/**
+ * Executes a {@link CommandPipeline}.
+ * <p>
+ * The pipeline is split into groups of adjacent commands that can run as a
+ * single shell pipeline on one execution system. Each group runs as one
+ * command that streams its output through a bounded buffer and each group
+ * after the first reads its input directly from that buffer. Because the
+ * shell only reports the exit status of the last command in a pipeline, each
+ * command in a combined group prints its exit status to the error stream with
+ * a unique marker that is removed from the final output.
+ * <p>
+ * A command that stops because the next command closed its input has a
+ * broken pipe. This is not an error: the exit status of the command is not
+ * verified. Commands in a combined group detect this with {@code SIGPIPE}
+ * and other commands are terminated when they next write to the closed
+ * stream.
+ */
+final class PipelineExecution extends AbstractFuture<PipelineResult> implements PipelineFuture {
+
+    // the shell exit status of a process killed by SIGPIPE
+    private static final int SIGPIPE_STATUS = 128 + 13;
+
+    public static PipelineFuture execute(CommandPipeline pipeline) {
+        PipelineExecution execution = new PipelineExecution(pipeline);
+        execution.start();
+        return execution;
+    }
+
+    private final ImmutableList<Command> commands;
+    private final ImmutableList<CommandContext> contexts;
+    private final int bufferSize;
+
+    private final String marker;
+    private final Pattern statusPattern;
+
+    private final List<Group> groups;
+    private final List<CommandFuture> futures;
+    private final Set<Integer> brokenPipes;
+
+    private PipelineExecution(CommandPipeline pipeline) {
+        this.commands = pipeline.getCommands();
+        this.contexts = pipeline.getContexts();
+        this.bufferSize = pipeline.getBufferSize();
+
+        marker = "giraffe-pipeline-" + UUID.randomUUID();
+        statusPattern = Pattern.compile(Pattern.quote(marker) + ":(\\d+):(\\d+)\n");
+
+        groups = createGroups();
+        futures = new ArrayList<>(groups.size());
+        brokenPipes = Sets.newConcurrentHashSet();
+    }
+
+    @Override
+    public InputStream getStdOut() {
+        return futures.get(futures.size() - 1).getStdOut();
+    }
+
+    @Override
+    public OutputStream getStdIn() {
+        return futures.get(0).getStdIn();
+    }
+
+    private void start() {
+        try {
+            for (int i = 0; i < groups.size(); i++) {
+                InputStream source = null;
+                if (i > 0) {
+                    source = new PipeSource(i - 1, futures.get(i - 1).getStdOut());
+                }
+                futures.add(groups.get(i).execute(source, i == groups.size() - 1));
+            }
+        } catch (RuntimeException e) {
+            for (CommandFuture future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+
+        Futures.whenAllComplete(futures).call(new Callable<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    complete();
+                } catch (Throwable t) {
+                    setException(t);
+                }
+                return null;
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    protected void afterDone() {
+        // no-op for commands that already terminated
+        for (CommandFuture future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private void complete() {
+        List<CommandResult> results = new ArrayList<>(commands.size());
+        boolean[] verify = new boolean[commands.size()];
+
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            CommandFuture future = futures.get(i);
+
+            CommandResult result;
+            if (future.isCancelled()) {
+                // the pipeline was cancelled or already failed
+                return;
+            }
+            try {
+                result = Futures.getDone(future);
+            } catch (ExecutionException e) {
+                if (!brokenPipes.contains(i)) {
+                    setException(e.getCause());
+                    return;
+                }
+                // the command failed writing to a closed pipe and was terminated
+                try {
+                    String stdErr = readAvailable(future.getStdErr());
+                    result = new CommandResult(CommandResult.NO_EXIT_STATUS, "", stdErr);
+                } catch (IOException ioe) {
+                    setException(ioe);
+                    return;
+                }
+            }
+
+            group.addResults(result, results);
+            for (int c = group.start; c < group.end; c++) {
+                int status = results.get(c).getExitStatus();
+                boolean brokenPipe = c < group.end - 1
+                        ? status == SIGPIPE_STATUS
+                        : brokenPipes.contains(i) && status == CommandResult.NO_EXIT_STATUS;
+                verify[c] = !brokenPipe;
+            }
+        }
+
+        for (int c = 0; c < commands.size(); c++) {
+            CommandContext context = contexts.get(c);
+            CommandResult result = results.get(c);
+            if (verify[c] && !context.getExitStatusVerifier().apply(result.getExitStatus())) {
+                TerminatedCommand failed = new TerminatedCommand(commands.get(c), context, result);
+                setException(new CommandException(failed));
+                return;
+            }
+        }
+        set(new PipelineResult(results));
+    }
+
+    private List<Group> createGroups() {
+        List<Group> result = new ArrayList<>();
+        int start = 0;
+        for (int c = 1; c <= commands.size(); c++) {
+            if (c == commands.size() || !canCombine(c - 1, c)) {
+                result.add(new Group(start, c));
+                start = c;
+            }
+        }
+        return result;
+    }
+
+    private boolean canCombine(int first, int second) {
+        Command a = commands.get(first);
+        Command b = commands.get(second);
+        if (!a.getExecutionSystem().equals(b.getExecutionSystem())) {
+            return false;
+        } else if (Commands.isLocal(a) && OsDetector.isWindows()) {
+            return false;
+        }
+
+        CommandContext ca = contexts.get(first);
+        CommandContext cb = contexts.get(second);
+        return ca == cb || (ca.getEnvironment().isDefault()
+                && cb.getEnvironment().isDefault()
+                && ca.getWorkingDirectory().equals(cb.getWorkingDirectory()));
+    }
+
+    /**
+     * A range of adjacent commands that execute as one command.
+     */
+    private final class Group {
+        private final int start;
+        private final int end;
+
+        Group(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        CommandFuture execute(InputStream source, boolean last) {
+            Command command;
+            CommandContext.Builder context;
+            if (end - start == 1) {
+                command = commands.get(start);
+                context = contexts.get(start).toBuilder();
+            } else {
+                command = buildShellCommand();
+                context = buildShellContext(last);
+            }
+
+            // exit status is verified for each command once all groups finish
+            context.ignoreExitStatus();
+            if (source == null) {
+                context.streamInput(bufferSize);
+            } else {
+                context.redirectInput(source);
+            }
+            if (!last) {
+                context.streamOutput(bufferSize);
+            }
+            return Commands.executeAsync(command, context.build());
+        }
+
+        private Command buildShellCommand() {
+            StringBuilder script = new StringBuilder();
+            for (int c = start; c < end; c++) {
+                if (c > start) {
+                    script.append(" | ");
+                }
+
+                Command command = commands.get(c);
+                script.append("{ ").append(ShellQuoting.quote(command.getExecutable()));
+                for (String arg : command.getArguments()) {
+                    script.append(' ').append(ShellQuoting.quote(arg));
+                }
+                script.append("; printf '").append(marker).append(':').append(c);
+                script.append(":%d\\n' $? >&2; }");
+            }
+
+            ExecutionSystem es = commands.get(start).getExecutionSystem();
+            return es.getCommandBuilder("sh").addArguments("-c", script).build();
+        }
+
+        private CommandContext.Builder buildShellContext(boolean last) {
+            CommandContext.Builder context = CommandContext.builder();
+
+            CommandContext first = contexts.get(start);
+            context.environment(first.getEnvironment());
+            Optional<UniformPath> workingDir = first.getWorkingDirectory();
+            if (workingDir.isPresent()) {
+                context.workingDirectory(workingDir.get());
+            }
+
+            // the error stream is unbounded so no exit status markers are lost
+            Optional<Integer> window = contexts.get(end - 1).getStdoutWindowSize();
+            if (last && window.isPresent()) {
+                context.outputWindowSizes(window.get(), Integer.MAX_VALUE);
+            }
+            return context;
+        }
+
+        void addResults(CommandResult result, List<CommandResult> results) {
+            if (end - start == 1) {
+                results.add(result);
+                return;
+            }
+
+            int[] statuses = new int[end - start];
+            Arrays.fill(statuses, CommandResult.NO_EXIT_STATUS);
+
+            StringBuffer stdErr = new StringBuffer();
+            Matcher matcher = statusPattern.matcher(result.getStdErr());
+            while (matcher.find()) {
+                int c = Integer.parseInt(matcher.group(1));
+                if (c >= start && c < end) {
+                    statuses[c - start] = Integer.parseInt(matcher.group(2));
+                }
+                matcher.appendReplacement(stdErr, "");
+            }
+            matcher.appendTail(stdErr);
+
+            for (int c = start; c < end - 1; c++) {
+                results.add(new CommandResult(statuses[c - start], "", ""));
+            }
+            results.add(new CommandResult(
+                    statuses[end - 1 - start],
+                    result.getStdOut(),
+                    stdErr.toString()));
+        }
+
+        @Override
+        public String toString() {
+            return commands.subList(start, end).toString();
+        }
+    }
+
+    /**
+     * Reads the output of one group as the input of the next group. If the
+     * next group closes this stream before reading all output, later writes
+     * by the source group fail and the source group has a broken pipe. Like a
+     * shell pipe, a source group that writes nothing more is unaffected.
+     */
+    private final class PipeSource extends FilterInputStream {
+        private final int source;
+        private volatile boolean finished;
+
+        PipeSource(int source, InputStream in) {
+            super(in);
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            finished = b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int r = super.read(b, off, len);
+            finished = r == -1;
+            return r;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                brokenPipes.add(source);
+            }
+            super.close();
+        }
+    }
+
+    private static String readAvailable(InputStream in) throws IOException {
+        byte[] data = new byte[in.available()];
+        ByteStreams.readFully(in, data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * A {@link ListenableFuture} that provides access to the input and output of
+ * an asynchronous {@link CommandPipeline}.
+ * <p>
+ * This future is resolved when all commands in the pipeline terminate. If
+ * every command exits with a status allowed by its context, {@link #get() get}
+ * returns a {@link PipelineResult} containing the result of each command.
+ * Otherwise, {@code get} throws an {@code ExecutionException} whose cause is a
+ * {@link CommandException} for the first command that failed, an
+ * {@code IOException}, or a runtime exception. The exit status of a command
+ * that stops because a later command closed its input, a broken pipe, is not
+ * verified: for commands on the same system, this is an exit status of 141
+ * ({@code SIGPIPE}); other commands are terminated and have no exit status.
+ * <p>
+ * Calling {@link #cancel(boolean) cancel(true)} makes a best-effort attempt to
+ * terminate all commands in the pipeline.
+ */
+public interface PipelineFuture extends ListenableFuture<PipelineResult> {
+
+    /**
+     * Returns the standard output stream of the last command in the pipeline.
+     * <p>
+     * Any content read from this stream will not be available in the
+     * {@code PipelineResult} returned by this future.
+     */
+    InputStream getStdOut();
+
+    /**
+     * Returns the standard input stream of the first command in the pipeline.
+     * <p>
+     * Writes to this stream block while the first command is not reading
+     * input. Closing this stream closes the standard input of the first
+     * command.
+     */
+    OutputStream getStdIn();
+}
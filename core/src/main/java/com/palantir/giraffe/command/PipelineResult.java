@@ -0,0 +1,84 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Contains the results of the commands in a completed {@link CommandPipeline}.
+ * <p>
+ * Each command has a result, but only the last command has standard output.
+ * When several commands are combined into a shell pipeline on the same
+ * execution system, their error output is combined and included in the result
+ * of the last of these commands.
+ */
+public final class PipelineResult implements Serializable {
+
+    private final ImmutableList<CommandResult> results;
+
+    public PipelineResult(List<CommandResult> results) {
+        checkArgument(!results.isEmpty(), "results must be non-empty");
+        this.results = ImmutableList.copyOf(results);
+    }
+
+    /**
+     * Returns the result of each command in the pipeline, in order.
+     */
+    public ImmutableList<CommandResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the exit status of each command in the pipeline, in order.
+     */
+    public ImmutableList<Integer> getExitStatuses() {
+        ImmutableList.Builder<Integer> statuses = ImmutableList.builder();
+        for (CommandResult result : results) {
+            statuses.add(result.getExitStatus());
+        }
+        return statuses.build();
+    }
+
+    /**
+     * Returns the exit status of the last command in the pipeline.
+     */
+    public int getExitStatus() {
+        return getLastResult().getExitStatus();
+    }
+
+    /**
+     * Returns the standard output of the last command in the pipeline.
+     */
+    public String getStdOut() {
+        return getLastResult().getStdOut();
+    }
+
+    private CommandResult getLastResult() {
+        return results.get(results.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PipelineResult[exitStatuses = %s]", getExitStatuses());
+    }
+
+    private static final long serialVersionUID = 1L;
+}
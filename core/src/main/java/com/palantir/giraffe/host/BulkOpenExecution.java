@@ -0,0 +1,253 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.host;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Opens host control systems for many hosts concurrently.
+ * <p>
+ * Hosts wait in a queue until one of a bounded number of slots is free. Each
+ * open has a timeout that starts when the open starts. A slot is freed as
+ * soon as the host's future completes, so every slot is free again within one
+ * timeout and queued hosts always start. An open that times out is
+ * interrupted, but the underlying {@link HostAccessor#open()} call may not
+ * return immediately; if it eventually succeeds, the system is closed.
+ */
+final class BulkOpenExecution {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkOpenExecution.class);
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("giraffe-bulk-open-%d")
+            .setDaemon(true)
+            .build();
+
+    public static Map<Host, ListenableFuture<HostControlSystem>> open(
+            Iterable<? extends HostAccessor> accessors,
+            int maxConcurrent,
+            long timeout,
+            TimeUnit unit) {
+        checkArgument(maxConcurrent > 0, "maxConcurrent must be positive");
+        checkArgument(timeout > 0, "timeout must be positive");
+
+        List<HostAccessor> accessorList = ImmutableList.copyOf(accessors);
+        Set<Host> hosts = new HashSet<>();
+        for (HostAccessor accessor : accessorList) {
+            Host host = accessor.getHost();
+            checkArgument(hosts.add(host), "duplicate host: %s", host);
+        }
+
+        BulkOpenExecution execution = new BulkOpenExecution(maxConcurrent, unit.toNanos(timeout));
+        Map<Host, ListenableFuture<HostControlSystem>> results = execution.addAll(accessorList);
+        execution.startNext();
+        return results;
+    }
+
+    private final int maxConcurrent;
+    private final long timeoutNanos;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+
+    @GuardedBy("this")
+    private final Deque<OpenTask> pending = new ArrayDeque<>();
+
+    @GuardedBy("this")
+    private int running;
+
+    @GuardedBy("this")
+    private int remaining;
+
+    private BulkOpenExecution(int maxConcurrent, long timeoutNanos) {
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutNanos = timeoutNanos;
+        this.executor = Executors.newCachedThreadPool(THREAD_FACTORY);
+        this.timer = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+    }
+
+    private Map<Host, ListenableFuture<HostControlSystem>> addAll(List<HostAccessor> accessors) {
+        Map<Host, ListenableFuture<HostControlSystem>> results = new LinkedHashMap<>();
+        List<OpenTask> tasks = new ArrayList<>();
+        for (HostAccessor accessor : accessors) {
+            OpenTask task = new OpenTask(accessor);
+            results.put(task.host, task.result);
+            tasks.add(task);
+        }
+
+        synchronized (this) {
+            pending.addAll(tasks);
+            remaining = tasks.size();
+        }
+
+        for (final OpenTask task : tasks) {
+            task.result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    finished();
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        if (tasks.isEmpty()) {
+            shutdown();
+        }
+        return ImmutableMap.copyOf(results);
+    }
+
+    private void startNext() {
+        List<OpenTask> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrent && !pending.isEmpty()) {
+                OpenTask task = pending.poll();
+                if (!task.result.isDone()) {
+                    running++;
+                    toStart.add(task);
+                }
+            }
+        }
+
+        for (OpenTask task : toStart) {
+            task.start();
+        }
+    }
+
+    private void finished() {
+        boolean done;
+        synchronized (this) {
+            remaining--;
+            done = remaining == 0;
+        }
+
+        if (done) {
+            shutdown();
+        }
+    }
+
+    private void release() {
+        synchronized (this) {
+            running--;
+        }
+        startNext();
+    }
+
+    private void shutdown() {
+        // running opens that timed out are allowed to finish; queued tasks
+        // are all done, so releasing their slots starts nothing new
+        executor.shutdown();
+        timer.shutdownNow();
+    }
+
+    private final class OpenTask implements Runnable {
+        private final HostAccessor accessor;
+        private final Host host;
+        private final SettableFuture<HostControlSystem> result = SettableFuture.create();
+
+        OpenTask(HostAccessor accessor) {
+            this.accessor = accessor;
+            this.host = accessor.getHost();
+        }
+
+        void start() {
+            // the result completes exactly once: when the open returns, times
+            // out, or is cancelled
+            result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    release();
+                }
+            }, MoreExecutors.directExecutor());
+
+            try {
+                final Future<?> open = executor.submit(this);
+                final ScheduledFuture<?> timeout = timer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (result.setException(
+                                new TimeoutException("timed out opening " + host))) {
+                            // wake up opens blocked in interruptible calls
+                            open.cancel(true);
+                        }
+                    }
+                }, timeoutNanos, TimeUnit.NANOSECONDS);
+
+                result.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        timeout.cancel(false);
+                    }
+                }, MoreExecutors.directExecutor());
+            } catch (RejectedExecutionException e) {
+                // all results, including this one, were cancelled before it started
+                result.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+
+            HostControlSystem system;
+            try {
+                system = accessor.open();
+            } catch (IOException | RuntimeException e) {
+                result.setException(e);
+                return;
+            }
+
+            if (!result.set(system)) {
+                // the open timed out or was cancelled
+                try {
+                    system.close();
+                } catch (IOException e) {
+                    LOG.warn("failed to close system for {}", host, e);
+                }
+            }
+        }
+    }
+}
@@ -19,7 +19,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.giraffe.host.spi.HostAccessorProvider;
 import com.palantir.giraffe.internal.LocalHostAcessorProvider.LocalHostAccessor;
 import com.palantir.giraffe.internal.SchemeProviderFinder;
@@ -71,6 +75,41 @@ public final class HostAccessors {
 
     }
 
+    /**
+     * Opens host control systems for the given accessors concurrently.
+     * <p>
+     * At most {@code maxConcurrent} systems are opened at the same time. Each
+     * open must finish within the timeout, measured from when the open
+     * starts; otherwise, the host's future fails with a
+     * {@link TimeoutException}. A host that times out or is cancelled frees
+     * its slot immediately, so slow or hung hosts do not keep queued hosts
+     * from starting. The timed out open is interrupted and, if it finishes
+     * opening anyway, the system is closed.
+     * <p>
+     * The returned map contains a future for each host in the iteration order
+     * of {@code accessors}. Futures complete independently as hosts open or
+     * fail, so callers may use the systems of fast hosts while slow hosts are
+     * still connecting. Callers must close the opened systems.
+     *
+     * @param accessors the accessors for the hosts to open
+     * @param maxConcurrent the maximum number of hosts to open at once
+     * @param timeout the maximum time to wait for each host
+     * @param unit the unit of {@code timeout}
+     *
+     * @return a map from each host to the future result of opening it
+     *
+     * @throws IllegalArgumentException if two accessors have the same host
+     */
+    public static Map<Host, ListenableFuture<HostControlSystem>> openAsync(
+            Iterable<? extends HostAccessor> accessors,
+            int maxConcurrent,
+            long timeout,
+            TimeUnit unit) {
+        checkNotNull(accessors, "accessors must be non-null");
+        checkNotNull(unit, "unit must be non-null");
+        return BulkOpenExecution.open(accessors, maxConcurrent, timeout, unit);
+    }
+
     private HostAccessors() {
         throw new UnsupportedOperationException();
     }
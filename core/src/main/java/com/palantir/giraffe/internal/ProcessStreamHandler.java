@@ -15,6 +15,7 @@
  */
 package com.palantir.giraffe.internal;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
@@ -44,6 +45,8 @@ final class ProcessStreamHandler {
     private final SharedByteArrayStream stdout;
     private final SharedByteArrayStream stderr;
     private final SharedByteArrayStream stdin;
+    private final InputStream inputSource;
+    private final boolean closeInput;
 
     private final CopyOnWriteArrayList<ExceptionListener> listeners;
 
@@ -54,9 +57,29 @@ final class ProcessStreamHandler {
     public ProcessStreamHandler(CommandContext context) {
         copierLatch = new CountDownLatch(NUM_COPIERS);
 
-        stdout = newStreamWithWindow(context.getStdoutWindowSize());
+        Optional<Integer> stdoutCapacity = context.getStdoutStreamCapacity();
+        if (stdoutCapacity.isPresent()) {
+            stdout = SharedByteArrayStream.streaming(stdoutCapacity.get());
+        } else {
+            stdout = newStreamWithWindow(context.getStdoutWindowSize());
+        }
         stderr = newStreamWithWindow(context.getStderrWindowSize());
-        stdin = new SharedByteArrayStream();
+
+        Optional<InputStream> redirect = context.getInputSource();
+        Optional<Integer> stdinCapacity = context.getStdinStreamCapacity();
+        if (redirect.isPresent()) {
+            stdin = new SharedByteArrayStream();
+            stdin.getOutputStream().close();
+            inputSource = redirect.get();
+        } else {
+            if (stdinCapacity.isPresent()) {
+                stdin = SharedByteArrayStream.streaming(stdinCapacity.get());
+            } else {
+                stdin = new SharedByteArrayStream();
+            }
+            inputSource = stdin.getInputStream();
+        }
+        closeInput = redirect.isPresent() || stdinCapacity.isPresent();
 
         listeners = new CopyOnWriteArrayList<>();
     }
@@ -88,11 +111,11 @@ final class ProcessStreamHandler {
     public void startCopy(HandlableProcess process, Executor executor) {
         outCopier = new StreamCopier(process.getOutput(), stdout.getOutputStream());
         errCopier = new StreamCopier(process.getError(), stderr.getOutputStream());
-        inCopier = new StreamCopier(stdin.getInputStream(), process.getInput(), true);
+        inCopier = new StreamCopier(inputSource, process.getInput(), true, closeInput);
 
-        submitCopier(outCopier, executor);
-        submitCopier(errCopier, executor);
-        submitCopier(inCopier, executor);
+        submitCopier(outCopier, executor, false);
+        submitCopier(errCopier, executor, false);
+        submitCopier(inCopier, executor, closeInput);
     }
 
     /**
@@ -102,6 +125,10 @@ final class ProcessStreamHandler {
     public void finishCopy() {
         // close write() side of stdin to unblock copier
         stdin.getOutputStream().close();
+        if (inputSource != stdin.getInputStream()) {
+            // the process terminated before reading all redirected input
+            closeInputSource();
+        }
 
         // wait for copier threads to exit
         Uninterruptibles.awaitUninterruptibly(copierLatch);
@@ -117,7 +144,16 @@ final class ProcessStreamHandler {
         return new CommandResult(exitStatus, stdOut, stdErr);
     }
 
-    private void submitCopier(StreamCopier copier, Executor executor) {
+    private void closeInputSource() {
+        try {
+            inputSource.close();
+        } catch (IOException ignore) {
+            // writers see the stream as closed even if closing failed
+        }
+    }
+
+    private void submitCopier(StreamCopier copier, Executor executor,
+            final boolean isStreamingInput) {
         ListenableFutureTask<Void> task = ListenableFutureTask.create(copier);
         Futures.addCallback(task, new FutureCallback<Void>() {
             @Override
@@ -127,6 +163,14 @@ final class ProcessStreamHandler {
 
             @Override
             public void onFailure(Throwable t) {
+                if (isStreamingInput) {
+                    // the process closed its input before reading all of it;
+                    // like a shell pipeline, fail writes instead of the command
+                    closeInputSource();
+                    copierLatch.countDown();
+                    return;
+                }
+
                 copierLatch.countDown();
                 for (ExceptionListener listener : listeners) {
                     listener.onException(t);
@@ -34,6 +34,10 @@ import com.google.common.annotations.VisibleForTesting;
 /**
  * Provides output and input streams that read and write to the same array.
  * Automatically increases size as needed.
+ * <p>
+ * By default, all data within the window is retained after it is read. In
+ * streaming mode, data is released as soon as it is read and writes block
+ * while the amount of unread data is at the stream's capacity.
  *
  * @author jchien
  * @author bkeyes
@@ -55,6 +59,7 @@ final class SharedByteArrayStream {
     private final SharedInputStream inputStream;
 
     private final int windowSize;
+    private final int maxUnread;
 
     // startPosition is the first byte of the window
     // readPosition is the first byte unread byte
@@ -94,16 +99,37 @@ final class SharedByteArrayStream {
 
     @VisibleForTesting
     SharedByteArrayStream(int windowSize, int bufferSize) {
+        this(windowSize, bufferSize, Integer.MAX_VALUE);
+    }
+
+    private SharedByteArrayStream(int windowSize, int bufferSize, int maxUnread) {
         checkArgument(windowSize >= 0, "windowSize must be non-negative");
         checkArgument(bufferSize > 0, "bufferSize must be positive");
+        checkArgument(maxUnread > 0, "maxUnread must be positive");
 
         this.windowSize = windowSize;
+        this.maxUnread = maxUnread;
         this.buffer = new byte[bufferSize];
 
         outputStream = new SharedOutputStream();
         inputStream = new SharedInputStream();
     }
 
+    /**
+     * Creates a stream in streaming mode. Data is discarded once it is read
+     * and writes block while {@code capacity} bytes of unread data are
+     * buffered. If the input stream is closed, blocked and future writes
+     * fail.
+     *
+     * @param capacity the maximum amount of unread data
+     */
+    public static SharedByteArrayStream streaming(int capacity) {
+        return new SharedByteArrayStream(
+                Integer.MAX_VALUE,
+                Math.min(DEFAULT_BUFFER_SIZE, capacity + 1),
+                capacity);
+    }
+
     final class SharedInputStream extends InputStream {
 
         private SharedInputStream() {}
@@ -123,7 +149,7 @@ final class SharedByteArrayStream {
                 if (read(oneByte, 0, 1) == -1) {
                     return -1;
                 } else {
-                    return oneByte[0];
+                    return oneByte[0] & 0xff;
                 }
             }
         }
@@ -144,9 +170,15 @@ final class SharedByteArrayStream {
                 int total = readSize();
                 if (total == 0) {
                     return -1;
-                } else {
-                    return readFromBuffer(b, off, Math.min(len, total));
                 }
+
+                int read = readFromBuffer(b, off, Math.min(len, total));
+                if (isStreaming()) {
+                    // release read data and wake any blocked writers
+                    startPosition = readPosition;
+                    lock.notifyAll();
+                }
+                return read;
             }
         }
 
@@ -192,6 +224,11 @@ final class SharedByteArrayStream {
                     return;
                 }
 
+                if (isStreaming()) {
+                    writeStreaming(b, off, len);
+                    return;
+                }
+
                 // truncate writes that exceed the window size
                 int length = len;
                 int offset = off;
@@ -215,6 +252,39 @@ final class SharedByteArrayStream {
             }
         }
 
+        @GuardedBy("lock")
+        private void writeStreaming(byte[] b, int off, int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                waitForSpace();
+                checkOpen(Mode.WRITE);
+                checkOpen(Mode.READ);
+
+                int length = Math.min(remaining, maxUnread - readSize());
+                if (length > writeSize()) {
+                    resize(length);
+                }
+                writeToBuffer(b, offset, length);
+                offset += length;
+                remaining -= length;
+
+                lock.notifyAll();
+            }
+        }
+
+        @GuardedBy("lock")
+        private void waitForSpace() throws IOException {
+            while (readSize() >= maxUnread && isMode(Mode.READ) && isMode(Mode.WRITE)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+
         @Override
         public void close() {
             synchronized (lock) {
@@ -231,6 +301,10 @@ final class SharedByteArrayStream {
         }
     }
 
+    private boolean isStreaming() {
+        return maxUnread < Integer.MAX_VALUE;
+    }
+
     @GuardedBy("lock")
     private boolean isMode(Mode mode) {
         return modes.contains(mode);
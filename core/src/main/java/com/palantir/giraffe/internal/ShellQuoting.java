@@ -0,0 +1,35 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.internal;
+
+/**
+ * Quotes strings for use as single words in POSIX shell commands.
+ */
+public final class ShellQuoting {
+
+    /**
+     * Returns {@code arg} surrounded by single quotes, with any single quotes
+     * it contains escaped. The result is always one word, even if {@code arg}
+     * is empty.
+     */
+    public static String quote(String arg) {
+        return "'" + arg.replace("'", "'\\''") + "'";
+    }
+
+    private ShellQuoting() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -27,16 +27,19 @@ final class StreamCopier implements Callable<Void> {
     private final InputStream source;
     private final OutputStream target;
     private final boolean flushAfterWrite;
+    private final boolean closeTarget;
     private final byte[] buffer;
 
     StreamCopier(InputStream source, OutputStream target) {
-        this(source, target, false);
+        this(source, target, false, false);
     }
 
-    StreamCopier(InputStream source, OutputStream target, boolean flushAfterWrite) {
+    StreamCopier(InputStream source, OutputStream target,
+            boolean flushAfterWrite, boolean closeTarget) {
         this.source = source;
         this.target = target;
         this.flushAfterWrite = flushAfterWrite;
+        this.closeTarget = closeTarget;
 
         buffer = new byte[BUFFER_SIZE];
     }
@@ -53,6 +56,13 @@ final class StreamCopier implements Callable<Void> {
                 target.flush();
             }
         }
+        if (closeTarget) {
+            try {
+                target.close();
+            } catch (IOException ignore) {
+                // the target may already be closed if the process terminated
+            }
+        }
         return null;
     }
 
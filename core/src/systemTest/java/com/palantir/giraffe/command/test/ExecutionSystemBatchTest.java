@@ -0,0 +1,105 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandException;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.test.creator.ScriptExtractionCreator;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+
+/**
+ * Tests executing batches of commands.
+ */
+public class ExecutionSystemBatchTest extends ExecutionSystemBaseTest {
+
+    public ExecutionSystemBatchTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void returnsResultsInOrder() throws Exception {
+        List<CommandResult> results = execute(ImmutableList.of(
+                getSystemCommand("printf", "first"),
+                getCommand(ScriptExtractionCreator.HELLO_ERROR),
+                getSystemCommand("printf", "third\\n\\n")), CommandContext.defaultContext());
+
+        assertEquals("incorrect number of results", 3, results.size());
+        assertEquals("incorrect output", "first", results.get(0).getStdOut());
+        assertEquals("incorrect error output", "", results.get(0).getStdErr());
+        assertEquals("incorrect error output", "Hello World", results.get(1).getStdErr());
+        assertEquals("incorrect output", "third\n\n", results.get(2).getStdOut());
+    }
+
+    @Test
+    public void readsExitStatuses() throws Exception {
+        List<CommandResult> results = execute(ImmutableList.of(
+                getCommand(ScriptExtractionCreator.EXIT, 3),
+                getCommand(ScriptExtractionCreator.EXIT, 0),
+                getCommand(ScriptExtractionCreator.EXIT, 7)), CommandContext.ignoreExitStatus());
+
+        assertEquals("incorrect status", 3, results.get(0).getExitStatus());
+        assertEquals("incorrect status", 0, results.get(1).getExitStatus());
+        assertEquals("incorrect status", 7, results.get(2).getExitStatus());
+    }
+
+    @Test
+    public void usesContextForAllCommands() throws Exception {
+        CommandContext context = CommandContext.builder()
+                .workingDirectory(getExecutionSystemRule().getTestFilesRoot())
+                .ignoreExitStatus()
+                .build();
+
+        List<CommandResult> results = execute(ImmutableList.of(
+                getSystemCommand("test", "-f", ScriptExtractionCreator.EXIT),
+                getSystemCommand("sh", "-c", "cd / && test -f " + ScriptExtractionCreator.EXIT),
+                getSystemCommand("test", "-f", ScriptExtractionCreator.EXIT)), context);
+
+        assertEquals("incorrect status", 0, results.get(0).getExitStatus());
+        assertEquals("incorrect status", 1, results.get(1).getExitStatus());
+        assertEquals("incorrect status", 0, results.get(2).getExitStatus());
+    }
+
+    @Test
+    public void failsOnFirstExitStatus() throws Exception {
+        Command exit = getCommand(ScriptExtractionCreator.EXIT, 3);
+        try {
+            execute(ImmutableList.of(
+                    getSystemCommand("true"),
+                    exit,
+                    getCommand(ScriptExtractionCreator.EXIT, 4)), CommandContext.defaultContext());
+            fail("batch did not fail");
+        } catch (CommandException e) {
+            assertEquals("incorrect executable", exit.getExecutable(), e.getExecutable());
+            assertEquals("incorrect status", 3, e.getResult().getExitStatus());
+        }
+    }
+
+    private static List<CommandResult> execute(List<Command> commands, CommandContext context)
+            throws Exception {
+        return Commands.executeBatch(commands, context);
+    }
+}
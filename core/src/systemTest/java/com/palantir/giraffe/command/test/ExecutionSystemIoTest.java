@@ -127,6 +127,14 @@ public class ExecutionSystemIoTest extends ExecutionSystemBaseTest {
         assertEquals("incorrect output", data, result.getStdOut());
     }
 
+    @Test
+    public void discardsInput() throws Exception {
+        CommandContext context = CommandContext.builder().discardInput().build();
+        CommandResult result = Commands.execute(getSystemCommand("cat"), context,
+                10, TimeUnit.SECONDS);
+        assertEquals("incorrect output", "", result.getStdOut());
+    }
+
     @Test
     public void writesSmallInput() throws Exception {
         String data = "y\n";
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.command.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandEnvironment;
+import com.palantir.giraffe.command.CommandException;
+import com.palantir.giraffe.command.CommandPipeline;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.PipelineResult;
+import com.palantir.giraffe.command.test.creator.ScriptExtractionCreator;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+
+/**
+ * Tests executing pipelines of commands.
+ */
+public class ExecutionSystemPipelineTest extends ExecutionSystemBaseTest {
+
+    private static final int LARGE_SIZE = 10 * 1024 * 1024;
+
+    public ExecutionSystemPipelineTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void pipesCombinedCommands() throws Exception {
+        CommandPipeline pipeline = CommandPipeline.of(
+                getSystemCommand("printf", "a\\nb\\nc\\n"),
+                getSystemCommand("sort", "-r"));
+
+        PipelineResult result = execute(pipeline);
+        assertEquals("incorrect output", "c\nb\na\n", result.getStdOut());
+        assertEquals("incorrect statuses", ImmutableList.of(0, 0), result.getExitStatuses());
+    }
+
+    @Test
+    public void pipesSeparateCommands() throws Exception {
+        CommandPipeline pipeline = CommandPipeline.builder()
+                .pipe(getCommand(ScriptExtractionCreator.STREAM, LARGE_SIZE), separateContext())
+                .pipe(getSystemCommand("wc", "-c"))
+                .bufferSize(1024)
+                .build();
+
+        PipelineResult result = execute(pipeline);
+        assertEquals("incorrect output", LARGE_SIZE, Integer.parseInt(result.getStdOut().trim()));
+        assertEquals("incorrect statuses", ImmutableList.of(0, 0), result.getExitStatuses());
+    }
+
+    @Test
+    public void readsCombinedExitStatuses() throws Exception {
+        readsExitStatuses(CommandContext.ignoreExitStatus());
+    }
+
+    @Test
+    public void readsSeparateExitStatuses() throws Exception {
+        readsExitStatuses(separateContext());
+    }
+
+    @Test
+    public void failsOnCombinedExitStatus() throws Exception {
+        failsOnExitStatus(CommandContext.defaultContext());
+    }
+
+    @Test
+    public void failsOnSeparateExitStatus() throws Exception {
+        failsOnExitStatus(CommandContext.builder().environment(testEnvironment()).build());
+    }
+
+    @Test
+    public void cancelsCommandWhenPipeCloses() throws Exception {
+        CommandPipeline pipeline = CommandPipeline.builder()
+                .pipe(getCommand(ScriptExtractionCreator.STREAM, LARGE_SIZE), separateContext())
+                .pipe(getCommand(ScriptExtractionCreator.EXIT, 0))
+                .bufferSize(1024)
+                .build();
+
+        PipelineResult result = execute(pipeline);
+        assertEquals("incorrect status", 0, result.getExitStatus());
+        assertEquals("incorrect upstream status",
+                CommandResult.NO_EXIT_STATUS,
+                (int) result.getExitStatuses().get(0));
+    }
+
+    @Test
+    public void combinedBrokenPipeIsNotAnError() throws Exception {
+        CommandPipeline pipeline = CommandPipeline.of(
+                getCommand(ScriptExtractionCreator.STREAM, LARGE_SIZE),
+                getCommand(ScriptExtractionCreator.EXIT, 0));
+
+        PipelineResult result = execute(pipeline);
+        assertEquals("incorrect status", 0, result.getExitStatus());
+        assertEquals("incorrect upstream status", 141, (int) result.getExitStatuses().get(0));
+    }
+
+    private void readsExitStatuses(CommandContext context) throws Exception {
+        CommandPipeline pipeline = CommandPipeline.builder()
+                .pipe(getCommand(ScriptExtractionCreator.EXIT, 3), context)
+                .pipe(getCommand(ScriptExtractionCreator.HELLO_ERROR))
+                .build();
+
+        PipelineResult result = execute(pipeline);
+        assertEquals("incorrect statuses", ImmutableList.of(3, 0), result.getExitStatuses());
+        assertEquals("incorrect error output", "Hello World",
+                result.getResults().get(1).getStdErr());
+    }
+
+    private void failsOnExitStatus(CommandContext context) throws Exception {
+        Command exit = getCommand(ScriptExtractionCreator.EXIT, 3);
+        CommandPipeline pipeline = CommandPipeline.builder()
+                .pipe(exit, context)
+                .pipe(getSystemCommand("cat"))
+                .build();
+
+        try {
+            Commands.execute(pipeline);
+            fail("pipeline did not fail");
+        } catch (CommandException e) {
+            assertEquals("incorrect executable", exit.getExecutable(), e.getExecutable());
+            assertEquals("incorrect status", 3, e.getResult().getExitStatus());
+        }
+    }
+
+    private static PipelineResult execute(CommandPipeline pipeline) throws Exception {
+        return Commands.executeAsync(pipeline).get(20, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns a context that prevents combining commands into a shell
+     * pipeline, forcing output to transfer through the pipeline buffer.
+     */
+    private static CommandContext separateContext() {
+        return CommandContext.builder()
+                .environment(testEnvironment())
+                .ignoreExitStatus()
+                .build();
+    }
+
+    private static CommandEnvironment testEnvironment() {
+        return CommandEnvironment.defaultEnvironment().set("GIRAFFE_PIPELINE", "true");
+    }
+}
@@ -23,9 +23,11 @@ import org.junit.runner.manipulation.Filter;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.palantir.giraffe.command.test.ExecutionSystemArgumentsTest;
+import com.palantir.giraffe.command.test.ExecutionSystemBatchTest;
 import com.palantir.giraffe.command.test.ExecutionSystemCancellationTest;
 import com.palantir.giraffe.command.test.ExecutionSystemContextTest;
 import com.palantir.giraffe.command.test.ExecutionSystemIoTest;
+import com.palantir.giraffe.command.test.ExecutionSystemPipelineTest;
 import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
 import com.palantir.giraffe.test.runner.SystemSuite;
 import com.palantir.giraffe.test.runner.SystemSuite.Filterable;
@@ -43,6 +45,8 @@ import com.palantir.giraffe.test.runner.SystemSuite.SystemRule;
     ExecutionSystemArgumentsTest.class,
     ExecutionSystemCancellationTest.class,
     ExecutionSystemContextTest.class,
+    ExecutionSystemPipelineTest.class,
+    ExecutionSystemBatchTest.class,
     LocalExecutionSystemConfigurationTest.class
 })
 public class LocalExecutionSystemSuite implements Filterable {
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.host;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.ExecutionSystem;
+
+/**
+ * Tests opening many hosts with {@link HostAccessors#openAsync}.
+ */
+public class HostAccessorsTest {
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Test
+    public void opensAllHostsInOrder() throws Exception {
+        List<FakeAccessor> accessors = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            accessors.add(new FakeAccessor("host" + i));
+        }
+
+        Map<Host, ListenableFuture<HostControlSystem>> results = openAsync(accessors, 2, 10);
+        assertEquals("incorrect hosts", hosts(accessors), ImmutableList.copyOf(results.keySet()));
+        for (FakeAccessor accessor : accessors) {
+            HostControlSystem hcs = get(results, accessor);
+            assertSame("incorrect system", accessor.system, hcs);
+        }
+    }
+
+    @Test
+    public void limitsConcurrentOpens() throws Exception {
+        List<FakeAccessor> accessors = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            accessors.add(new FakeAccessor("host" + i).delay(50));
+        }
+
+        Map<Host, ListenableFuture<HostControlSystem>> results = openAsync(accessors, 3, 10);
+        for (FakeAccessor accessor : accessors) {
+            get(results, accessor);
+        }
+        assertTrue("too many concurrent opens: " + maxRunning.get(), maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void reportsFailuresPerHost() throws Exception {
+        FakeAccessor failing = new FakeAccessor("failing").fail();
+        FakeAccessor working = new FakeAccessor("working");
+
+        Map<Host, ListenableFuture<HostControlSystem>> results =
+                openAsync(ImmutableList.of(failing, working), 2, 10);
+        assertSame("incorrect system", working.system, get(results, working));
+        try {
+            get(results, failing);
+            fail("opened failing host");
+        } catch (ExecutionException e) {
+            assertTrue("incorrect cause: " + e.getCause(), e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void timedOutOpensReleaseTheirSlot() throws Exception {
+        FakeAccessor hung1 = new FakeAccessor("hung1").block();
+        FakeAccessor hung2 = new FakeAccessor("hung2").block();
+        FakeAccessor fast = new FakeAccessor("fast");
+
+        Map<Host, ListenableFuture<HostControlSystem>> results =
+                openAsync(ImmutableList.of(hung1, hung2, fast), 1, 1);
+        try {
+            for (FakeAccessor hung : ImmutableList.of(hung1, hung2)) {
+                assertTimedOut(results, hung);
+            }
+
+            // the queued host opens even though both hung opens never returned
+            assertSame("incorrect system", fast.system, get(results, fast));
+            assertEquals("hung opens returned", 2, running.get());
+        } finally {
+            hung1.unblock();
+            hung2.unblock();
+        }
+
+        // systems opened after the timeout are closed
+        assertTrue("hung1 system was not closed", hung1.system.closed.await(10, TimeUnit.SECONDS));
+        assertTrue("hung2 system was not closed", hung2.system.closed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateHosts() {
+        openAsync(ImmutableList.of(new FakeAccessor("host"), new FakeAccessor("host")), 1, 10);
+    }
+
+    private synchronized void updateMaxRunning(int current) {
+        maxRunning.set(Math.max(maxRunning.get(), current));
+    }
+
+    private static void assertTimedOut(Map<Host, ListenableFuture<HostControlSystem>> results,
+                                       FakeAccessor accessor) throws Exception {
+        try {
+            get(results, accessor);
+            fail("opened " + accessor.getHost());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            assertTrue("incorrect cause: " + cause, cause instanceof TimeoutException);
+        }
+    }
+
+    private static Map<Host, ListenableFuture<HostControlSystem>> openAsync(
+            List<FakeAccessor> accessors, int maxConcurrent, int timeoutSeconds) {
+        return HostAccessors.openAsync(accessors, maxConcurrent, timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    private static HostControlSystem get(Map<Host, ListenableFuture<HostControlSystem>> results,
+                                         FakeAccessor accessor) throws Exception {
+        return results.get(accessor.getHost()).get(20, TimeUnit.SECONDS);
+    }
+
+    private static List<Host> hosts(List<FakeAccessor> accessors) {
+        List<Host> hosts = new ArrayList<>();
+        for (FakeAccessor accessor : accessors) {
+            hosts.add(accessor.getHost());
+        }
+        return hosts;
+    }
+
+    private final class FakeAccessor implements HostAccessor {
+        private final Host host;
+        private final FakeSystem system;
+        private final CountDownLatch unblocked = new CountDownLatch(1);
+
+        private long delayMillis;
+        private boolean blocking;
+        private boolean fail;
+
+        FakeAccessor(String name) {
+            this.host = Host.fromUri(URI.create("fake://" + name + ".example.com"));
+            this.system = new FakeSystem(host);
+        }
+
+        FakeAccessor delay(long millis) {
+            delayMillis = millis;
+            return this;
+        }
+
+        FakeAccessor fail() {
+            fail = true;
+            return this;
+        }
+
+        FakeAccessor block() {
+            blocking = true;
+            return this;
+        }
+
+        void unblock() {
+            unblocked.countDown();
+        }
+
+        @Override
+        public Host getHost() {
+            return host;
+        }
+
+        @Override
+        public SystemRequest request() {
+            return new SystemRequest(URI.create("fake://" + host.getHostname()));
+        }
+
+        @Override
+        public HostControlSystem open() throws IOException {
+            int current = running.incrementAndGet();
+            try {
+                updateMaxRunning(current);
+                Thread.sleep(delayMillis);
+                if (blocking) {
+                    // like a hung connection, ignore interrupts
+                    Uninterruptibles.awaitUninterruptibly(unblocked);
+                }
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+
+            if (fail) {
+                throw new IOException("failed to open " + host);
+            }
+            return system;
+        }
+    }
+
+    private static final class FakeSystem implements HostControlSystem {
+        private final Host host;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        FakeSystem(Host host) {
+            this.host = host;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        @Override
+        public Host getHost() {
+            return host;
+        }
+
+        @Override
+        public String getHostname() {
+            return host.getHostname();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create("fake://" + host.getHostname());
+        }
+
+        @Override
+        public Path getPath(String first, String... more) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Command getCommand(String executable, Object... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Command getCommand(Path executable, Object... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileSystem getFileSystem() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ExecutionSystem getExecutionSystem() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -55,6 +55,12 @@ public class SharedByteArrayStreamTest {
         assertArrayEquals("incorrect buffer data", writeBuf, stream.getBufferedData());
     }
 
+    @Test
+    public void readSingleByteIsUnsigned() throws IOException {
+        stream.getOutputStream().write(0xfe);
+        assertEquals("incorrect byte", 0xfe, stream.getInputStream().read());
+    }
+
     @Test
     public void readWithWindow() throws IOException {
         byte[] writeBuf = new byte[40];
@@ -140,6 +146,32 @@ public class SharedByteArrayStreamTest {
         assertEquals("length is incorrect", -1, newLength);
     }
 
+    @Test
+    public void streamingReleasesReadData() throws IOException {
+        byte[] writeBuf = new byte[48];
+        random.nextBytes(writeBuf);
+
+        byte[] readBuf = new byte[16];
+
+        SharedByteArrayStream sbas = SharedByteArrayStream.streaming(16);
+        InputStream is = sbas.getInputStream();
+        OutputStream os = sbas.getOutputStream();
+
+        for (int off = 0; off < writeBuf.length; off += 16) {
+            os.write(writeBuf, off, 16);
+            assertEquals("incorrect read size", 16, is.read(readBuf, 0, 16));
+            assertArrayRange(writeBuf, off, 16, readBuf);
+        }
+        assertEquals("incorrect buffered size", 0, sbas.getBufferedData().length);
+    }
+
+    @Test(expected = IOException.class)
+    public void streamingWriteFailsWhenInputClosed() throws IOException {
+        SharedByteArrayStream sbas = SharedByteArrayStream.streaming(16);
+        sbas.getInputStream().close();
+        sbas.getOutputStream().write(new byte[32]);
+    }
+
     private static void assertArrayRange(byte[] expected, int off, int len, byte[] actual) {
         assertArrayEquals(
                 "incorrect data",
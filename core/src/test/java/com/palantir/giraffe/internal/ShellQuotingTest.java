@@ -0,0 +1,50 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.command.Commands;
+
+/**
+ * Tests that {@link ShellQuoting} produces single shell words.
+ */
+public class ShellQuotingTest {
+
+    @Test
+    public void quotesEmptyString() {
+        assertEquals("incorrect quoting", "''", ShellQuoting.quote(""));
+    }
+
+    @Test
+    public void escapesSingleQuotes() {
+        assertEquals("incorrect quoting", "'it'\\''s'", ShellQuoting.quote("it's"));
+    }
+
+    @Test
+    public void shellSeesOriginalWords() throws IOException {
+        String[] words = { "", "two words", "it's", "'", "$HOME `id` \\ \"", "a\nb" };
+        for (String word : words) {
+            String script = "printf '%s' " + ShellQuoting.quote(word);
+            assertEquals("incorrect word", word,
+                    Commands.execute(Commands.get("sh", "-c", script)).getStdOut());
+        }
+    }
+}
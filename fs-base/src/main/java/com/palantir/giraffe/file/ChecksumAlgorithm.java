@@ -0,0 +1,57 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Digest algorithms supported by {@link MoreFiles#checksum(java.nio.file.Path,
+ * ChecksumAlgorithm)}.
+ */
+public enum ChecksumAlgorithm {
+    MD5("MD5"),
+    SHA_1("SHA-1"),
+    SHA_256("SHA-256"),
+    SHA_512("SHA-512");
+
+    private final String digestName;
+
+    private ChecksumAlgorithm(String digestName) {
+        this.digestName = digestName;
+    }
+
+    /**
+     * Returns the standard Java name of this algorithm.
+     *
+     * @see MessageDigest#getInstance(String)
+     */
+    public String getDigestName() {
+        return digestName;
+    }
+
+    /**
+     * Creates a new {@code MessageDigest} that implements this algorithm.
+     */
+    public MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(digestName);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must support these algorithms
+            throw new AssertionError(digestName + " is not supported", e);
+        }
+    }
+}
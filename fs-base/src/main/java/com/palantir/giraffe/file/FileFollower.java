@@ -0,0 +1,331 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.giraffe.file.base.feature.PathTrackingChannel;
+
+/**
+ * Follows files as they grow, delivering new lines to listeners, like
+ * {@code tail -F}.
+ * <p>
+ * Each followed file keeps a channel open and is polled by a small, shared
+ * pool of threads, so many files on many hosts can be followed without a
+ * thread or a new connection per file. Polls check the size of the open file
+ * and read any new bytes; idle files are polled less often. A file is
+ * considered rotated if its size decreases or if its path refers to a new
+ * file. After rotation, the new file is read from the beginning.
+ * <p>
+ * Channels that implement {@link PathTrackingChannel} detect new files
+ * themselves. For other channels, the follower compares
+ * {@linkplain BasicFileAttributes#fileKey() file keys} when the open file
+ * stops growing.
+ */
+public final class FileFollower implements Closeable {
+
+    private static final int DEFAULT_THREADS = 2;
+    private static final int READ_SIZE = 256 * 1024;
+
+    /**
+     * Creates a follower that polls files with two threads.
+     */
+    public static FileFollower create() {
+        return create(DEFAULT_THREADS);
+    }
+
+    /**
+     * Creates a follower that polls files with the given number of threads.
+     */
+    public static FileFollower create(int threads) {
+        checkArgument(threads > 0, "threads must be positive");
+        return new FileFollower(threads);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final Set<Follow> follows;
+
+    private volatile boolean closed;
+
+    private FileFollower(int threads) {
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("giraffe-follow-%d")
+                        .setDaemon(true)
+                        .build());
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+        this.follows = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts following a file with default options.
+     *
+     * @return a handle that stops following the file when closed
+     *
+     * @throws IOException if the file cannot be opened
+     *
+     * @see #follow(Path, FollowOptions, FollowListener)
+     */
+    public Closeable follow(Path file, FollowListener listener) throws IOException {
+        return follow(file, FollowOptions.defaults(), listener);
+    }
+
+    /**
+     * Starts following a file. The file is opened immediately and remains open
+     * until following stops.
+     *
+     * @param file the file to follow
+     * @param options options that control how the file is read
+     * @param listener the listener that receives lines and events
+     *
+     * @return a handle that stops following the file when closed
+     *
+     * @throws NoSuchFileException if the file does not exist
+     * @throws IOException if the file cannot be opened
+     */
+    public Closeable follow(Path file, FollowOptions options, FollowListener listener)
+            throws IOException {
+        checkNotNull(file, "file must be non-null");
+        checkNotNull(options, "options must be non-null");
+        checkNotNull(listener, "listener must be non-null");
+        checkState(!closed, "follower is closed");
+
+        Follow follow = new Follow(file, options, listener);
+        follows.add(follow);
+        follow.schedule(0);
+        return follow;
+    }
+
+    /**
+     * Stops following all files and releases the polling threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Follow follow : follows) {
+            follow.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private final class Follow implements Runnable, Closeable {
+        private final Path file;
+        private final FollowOptions options;
+        private final FollowListener listener;
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+
+        private SeekableByteChannel channel;
+        private Object fileKey;
+        private long position;
+        private long interval;
+        private boolean idle;
+
+        private volatile boolean stopped;
+        private volatile ScheduledFuture<?> future;
+
+        Follow(Path file, FollowOptions options, FollowListener listener) throws IOException {
+            this.file = file;
+            this.options = options;
+            this.listener = listener;
+            this.interval = options.getMinPollMillis();
+
+            open();
+            if (!options.isFromBeginning()) {
+                position = channel.size();
+                channel.position(position);
+            }
+        }
+
+        void schedule(long delay) {
+            future = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                return;
+            }
+
+            boolean changed;
+            try {
+                changed = poll();
+            } catch (IOException | RuntimeException e) {
+                if (!stopped) {
+                    close();
+                    listener.onError(file, e);
+                }
+                return;
+            }
+
+            interval = changed
+                    ? options.getMinPollMillis()
+                    : Math.min(interval * 2, options.getMaxPollMillis());
+            if (!stopped) {
+                schedule(interval);
+            }
+        }
+
+        private boolean poll() throws IOException {
+            long size = channel.size();
+            if (size < position) {
+                flushPartial();
+                listener.onRotate(file);
+                position = 0;
+                channel.position(0);
+                idle = false;
+                return true;
+            } else if (size > position) {
+                read(size);
+                idle = false;
+                return true;
+            } else if (idle && isReplaced()) {
+                // read anything written to the old file since the last poll
+                read(channel.size());
+                flushPartial();
+                listener.onRotate(file);
+
+                channel.close();
+                open();
+                position = 0;
+                idle = false;
+                return true;
+            } else {
+                // check for replacement on the next poll so that a file that
+                // is briefly idle between writes is not checked every time
+                idle = true;
+                return false;
+            }
+        }
+
+        private void read(long size) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - position, READ_SIZE));
+            while (position < size) {
+                buffer.clear();
+                if (buffer.capacity() > size - position) {
+                    buffer.limit((int) (size - position));
+                }
+
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                deliver(buffer.array(), read);
+            }
+        }
+
+        private void deliver(byte[] bytes, int length) {
+            List<String> lines = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    partial.write(bytes, start, i - start);
+                    lines.add(takePartial());
+                    start = i + 1;
+                }
+            }
+            partial.write(bytes, start, length - start);
+
+            if (!lines.isEmpty()) {
+                listener.onLines(file, lines);
+            }
+        }
+
+        private void flushPartial() {
+            if (partial.size() > 0) {
+                List<String> lines = new ArrayList<>(1);
+                lines.add(takePartial());
+                listener.onLines(file, lines);
+            }
+        }
+
+        private String takePartial() {
+            byte[] bytes = partial.toByteArray();
+            partial.reset();
+
+            int length = bytes.length;
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+            return new String(bytes, 0, length, options.getCharset());
+        }
+
+        private void open() throws IOException {
+            channel = Files.newByteChannel(file, StandardOpenOption.READ);
+            if (!(channel instanceof PathTrackingChannel)) {
+                fileKey = readFileKey();
+            }
+        }
+
+        private boolean isReplaced() throws IOException {
+            if (channel instanceof PathTrackingChannel) {
+                return ((PathTrackingChannel) channel).isPathReplaced();
+            } else if (fileKey == null) {
+                return false;
+            } else {
+                Object currentKey = readFileKey();
+                return currentKey != null && !currentKey.equals(fileKey);
+            }
+        }
+
+        private Object readFileKey() throws IOException {
+            try {
+                return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            stopped = true;
+            follows.remove(this);
+
+            ScheduledFuture<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Swallow... the file is no longer followed
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import com.google.common.base.Optional;
+
+/**
+ * Criteria for finding paths in a file tree with
+ * {@link MoreFiles#search(Path, FileSearch)}. A path matches if it satisfies
+ * every configured criterion.
+ * <p>
+ * Instances of this class are immutable.
+ */
+public final class FileSearch {
+
+    /**
+     * Builds {@link FileSearch} objects.
+     */
+    @SuppressWarnings({ "hiding", "checkstyle:hiddenfield" })
+    public static final class Builder {
+        private Optional<String> nameGlob = Optional.absent();
+        private Optional<String> pathGlob = Optional.absent();
+        private Optional<Long> minSize = Optional.absent();
+        private Optional<Long> maxSize = Optional.absent();
+        private Optional<FileTime> modifiedAfter = Optional.absent();
+        private Optional<FileTime> modifiedBefore = Optional.absent();
+        private Optional<Integer> maxDepth = Optional.absent();
+        private boolean filesOnly = false;
+
+        private Builder() {
+            // use static builder() method externally
+        }
+
+        /**
+         * Matches paths with a file name that matches a glob pattern, like
+         * {@code *.log}.
+         *
+         * @param glob the pattern, using the syntax of
+         *        {@link java.nio.file.FileSystem#getPathMatcher(String)}
+         *
+         * @return this builder
+         */
+        public Builder nameGlob(String glob) {
+            this.nameGlob = Optional.of(checkNotNull(glob, "glob must be non-null"));
+            return this;
+        }
+
+        /**
+         * Matches paths that match a glob pattern when relativized against
+         * the search directory, like {@code logs/**}{@code /*.gz}.
+         *
+         * @param glob the pattern, using the syntax of
+         *        {@link java.nio.file.FileSystem#getPathMatcher(String)}
+         *
+         * @return this builder
+         */
+        public Builder pathGlob(String glob) {
+            this.pathGlob = Optional.of(checkNotNull(glob, "glob must be non-null"));
+            return this;
+        }
+
+        /**
+         * Matches paths with a size of at least {@code size} bytes.
+         *
+         * @return this builder
+         */
+        public Builder minSize(long size) {
+            checkArgument(size >= 0, "size must be non-negative");
+            this.minSize = Optional.of(size);
+            return this;
+        }
+
+        /**
+         * Matches paths with a size of at most {@code size} bytes.
+         *
+         * @return this builder
+         */
+        public Builder maxSize(long size) {
+            checkArgument(size >= 0, "size must be non-negative");
+            this.maxSize = Optional.of(size);
+            return this;
+        }
+
+        /**
+         * Matches paths modified after {@code time}.
+         *
+         * @return this builder
+         */
+        public Builder modifiedAfter(FileTime time) {
+            this.modifiedAfter = Optional.of(checkNotNull(time, "time must be non-null"));
+            return this;
+        }
+
+        /**
+         * Matches paths modified before {@code time}.
+         *
+         * @return this builder
+         */
+        public Builder modifiedBefore(FileTime time) {
+            this.modifiedBefore = Optional.of(checkNotNull(time, "time must be non-null"));
+            return this;
+        }
+
+        /**
+         * Limits the search to paths at most {@code depth} levels below the
+         * search directory. The search directory itself has depth 0.
+         *
+         * @return this builder
+         */
+        public Builder maxDepth(int depth) {
+            checkArgument(depth >= 0, "depth must be non-negative");
+            this.maxDepth = Optional.of(depth);
+            return this;
+        }
+
+        /**
+         * Matches only regular files.
+         *
+         * @return this builder
+         */
+        public Builder filesOnly() {
+            this.filesOnly = true;
+            return this;
+        }
+
+        public FileSearch build() {
+            return new FileSearch(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Optional<String> nameGlob;
+    private final Optional<String> pathGlob;
+    private final Optional<Long> minSize;
+    private final Optional<Long> maxSize;
+    private final Optional<FileTime> modifiedAfter;
+    private final Optional<FileTime> modifiedBefore;
+    private final Optional<Integer> maxDepth;
+    private final boolean filesOnly;
+
+    private FileSearch(Builder builder) {
+        this.nameGlob = builder.nameGlob;
+        this.pathGlob = builder.pathGlob;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.modifiedAfter = builder.modifiedAfter;
+        this.modifiedBefore = builder.modifiedBefore;
+        this.maxDepth = builder.maxDepth;
+        this.filesOnly = builder.filesOnly;
+    }
+
+    public Optional<String> getNameGlob() {
+        return nameGlob;
+    }
+
+    public Optional<String> getPathGlob() {
+        return pathGlob;
+    }
+
+    public Optional<Long> getMinSize() {
+        return minSize;
+    }
+
+    public Optional<Long> getMaxSize() {
+        return maxSize;
+    }
+
+    public Optional<FileTime> getModifiedAfter() {
+        return modifiedAfter;
+    }
+
+    public Optional<FileTime> getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    public Optional<Integer> getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean isFilesOnly() {
+        return filesOnly;
+    }
+
+    /**
+     * Returns a matcher that applies these criteria to paths under
+     * {@code dir}. Matchers are not thread-safe.
+     */
+    Matcher newMatcher(Path dir) {
+        return new Matcher(dir);
+    }
+
+    /**
+     * Applies search criteria to paths with known attributes.
+     */
+    final class Matcher {
+        private final Path dir;
+        private final Optional<PathMatcher> nameMatcher;
+        private final Optional<PathMatcher> pathMatcher;
+
+        private Matcher(Path dir) {
+            this.dir = dir;
+            this.nameMatcher = globMatcher(dir, nameGlob);
+            this.pathMatcher = globMatcher(dir, pathGlob);
+        }
+
+        boolean matches(Path path, BasicFileAttributes attrs) {
+            if (filesOnly && !attrs.isRegularFile()) {
+                return false;
+            } else if (minSize.isPresent() && attrs.size() < minSize.get()) {
+                return false;
+            } else if (maxSize.isPresent() && attrs.size() > maxSize.get()) {
+                return false;
+            } else if (modifiedAfter.isPresent()
+                    && attrs.lastModifiedTime().compareTo(modifiedAfter.get()) <= 0) {
+                return false;
+            } else if (modifiedBefore.isPresent()
+                    && attrs.lastModifiedTime().compareTo(modifiedBefore.get()) >= 0) {
+                return false;
+            } else if (maxDepth.isPresent() && depth(path) > maxDepth.get()) {
+                return false;
+            } else if (nameMatcher.isPresent() && !matchesName(path)) {
+                return false;
+            } else {
+                return !pathMatcher.isPresent() || pathMatcher.get().matches(dir.relativize(path));
+            }
+        }
+
+        private boolean matchesName(Path path) {
+            Path name = path.getFileName();
+            return name != null && nameMatcher.get().matches(name);
+        }
+
+        private int depth(Path path) {
+            Path relative = dir.relativize(path);
+            return relative.toString().isEmpty() ? 0 : relative.getNameCount();
+        }
+    }
+
+    private static Optional<PathMatcher> globMatcher(Path dir, Optional<String> glob) {
+        if (glob.isPresent()) {
+            return Optional.of(dir.getFileSystem().getPathMatcher("glob:" + glob.get()));
+        } else {
+            return Optional.absent();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FileSearch[nameGlob = %s, pathGlob = %s, minSize = %s, "
+                + "maxSize = %s, modifiedAfter = %s, modifiedBefore = %s, maxDepth = %s, "
+                + "filesOnly = %s]",
+                nameGlob, pathGlob, minSize, maxSize, modifiedAfter, modifiedBefore, maxDepth,
+                filesOnly);
+    }
+}
@@ -0,0 +1,373 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Synchronizes a target path with a source path, possibly on different file
+ * systems.
+ * <p>
+ * Both trees are listed before any changes are made. Entries are identified
+ * by their path relative to the root, so the source and target may use
+ * different path implementations.
+ */
+final class FileSync {
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("giraffe-sync-%d")
+            .setDaemon(true)
+            .build();
+
+    private static final String ROOT = "";
+    private static final Joiner KEY_JOINER = Joiner.on('/');
+    private static final Splitter KEY_SPLITTER = Splitter.on('/');
+
+    private enum Type {
+        FILE, DIRECTORY, OTHER
+    }
+
+    private static final class Entry {
+        final Path path;
+        final Type type;
+        final long size;
+        final FileTime lastModifiedTime;
+
+        Entry(Path path, BasicFileAttributes attrs) {
+            this.path = path;
+            this.size = attrs.size();
+            this.lastModifiedTime = attrs.lastModifiedTime();
+            if (attrs.isRegularFile()) {
+                this.type = Type.FILE;
+            } else if (attrs.isDirectory()) {
+                this.type = Type.DIRECTORY;
+            } else {
+                this.type = Type.OTHER;
+            }
+        }
+    }
+
+    private final Path source;
+    private final Path target;
+    private final SyncOptions options;
+
+    private final List<Path> createdFiles = new ArrayList<>();
+    private final List<Path> updatedFiles = new ArrayList<>();
+    private final List<Path> createdDirectories = new ArrayList<>();
+    private final List<String> missingDirectories = new ArrayList<>();
+    private final List<Path> deletedPaths = new ArrayList<>();
+    private int unchangedFileCount = 0;
+
+    FileSync(Path source, Path target, SyncOptions options) {
+        this.source = source;
+        this.target = target.toAbsolutePath();
+        this.options = options;
+    }
+
+    SyncReport sync() throws IOException {
+        Map<String, Entry> sourceEntries = list(source);
+        Map<String, Entry> targetEntries = Collections.emptyMap();
+        if (Files.exists(target)) {
+            targetEntries = list(target);
+        } else if (target.getParent() != null && !Files.exists(target.getParent())) {
+            throw new NoSuchFileException(target.toString());
+        }
+        checkRoots(sourceEntries.get(ROOT), targetEntries.get(ROOT));
+
+        Map<String, Entry> copies = new LinkedHashMap<>();
+        Map<String, Entry> sameSize = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> e : sourceEntries.entrySet()) {
+            String key = e.getKey();
+            Entry src = e.getValue();
+            Entry dst = targetEntries.get(key);
+
+            if (src.type == Type.DIRECTORY) {
+                syncDirectory(key, dst);
+            } else if (src.type == Type.FILE) {
+                if (dst == null) {
+                    copies.put(key, src);
+                } else if (dst.type != Type.FILE) {
+                    delete(dst.path);
+                    copies.put(key, src);
+                } else if (src.size != dst.size) {
+                    copies.put(key, src);
+                } else if (options.getChecksumAlgorithm().isPresent()) {
+                    sameSize.put(key, src);
+                } else if (!sameTime(src.lastModifiedTime, dst.lastModifiedTime)) {
+                    copies.put(key, src);
+                } else {
+                    unchangedFileCount++;
+                }
+            }
+        }
+        createMissingDirectories();
+        copies.putAll(changedChecksums(sameSize));
+
+        long bytesCopied = copyFiles(copies, targetEntries);
+        if (options.isDeleteExtraneous()) {
+            deleteExtraneous(sourceEntries, targetEntries);
+        }
+
+        return new SyncReport(
+                createdFiles,
+                updatedFiles,
+                createdDirectories,
+                deletedPaths,
+                unchangedFileCount,
+                bytesCopied);
+    }
+
+    private void checkRoots(Entry src, Entry dst) throws IOException {
+        if (src.type == Type.OTHER) {
+            throw new FileSystemException(source.toString(), null,
+                    "source must be a regular file or directory");
+        } else if (dst != null && src.type == Type.DIRECTORY && dst.type != Type.DIRECTORY) {
+            throw new FileSystemException(source.toString(), target.toString(),
+                    "cannot sync a directory to an existing non-directory");
+        } else if (dst != null && src.type == Type.FILE && dst.type == Type.DIRECTORY) {
+            throw new FileSystemException(source.toString(), target.toString(),
+                    "cannot sync a file to an existing directory");
+        }
+
+        if (src.type == Type.DIRECTORY && source.getFileSystem().equals(target.getFileSystem())) {
+            Path normalizedSource = source.toAbsolutePath().normalize();
+            if (target.normalize().startsWith(normalizedSource)) {
+                throw new FileSystemException(normalizedSource.toString(),
+                        target.normalize().toString(),
+                        "cannot sync a path into itself");
+            }
+        }
+    }
+
+    private void syncDirectory(String key, Entry dst) throws IOException {
+        if (dst != null && dst.type == Type.DIRECTORY) {
+            return;
+        } else if (dst != null) {
+            delete(dst.path);
+        }
+
+        missingDirectories.add(key);
+        createdDirectories.add(resolve(key));
+    }
+
+    /**
+     * Creates the missing directories. Only directories without missing
+     * children are created explicitly; their missing parents are created
+     * with them, which some file systems do in a single operation.
+     */
+    private void createMissingDirectories() throws IOException {
+        Set<String> parents = new HashSet<>();
+        for (String key : missingDirectories) {
+            if (!key.equals(ROOT)) {
+                parents.add(parentKey(key));
+            }
+        }
+        for (String key : missingDirectories) {
+            if (!parents.contains(key)) {
+                MoreFiles.createDirectories(resolve(key));
+            }
+        }
+    }
+
+    private Map<String, Entry> changedChecksums(Map<String, Entry> sameSize) throws IOException {
+        if (sameSize.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Path> sourceFiles = new ArrayList<>();
+        List<Path> targetFiles = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : sameSize.entrySet()) {
+            sourceFiles.add(e.getValue().path);
+            targetFiles.add(resolve(e.getKey()));
+        }
+
+        ChecksumAlgorithm algorithm = options.getChecksumAlgorithm().get();
+        Map<Path, HashCode> sourceSums = MoreFiles.checksums(sourceFiles, algorithm);
+        Map<Path, HashCode> targetSums = MoreFiles.checksums(targetFiles, algorithm);
+
+        Map<String, Entry> changed = new LinkedHashMap<>();
+        int i = 0;
+        for (Map.Entry<String, Entry> e : sameSize.entrySet()) {
+            HashCode sourceSum = sourceSums.get(sourceFiles.get(i));
+            HashCode targetSum = targetSums.get(targetFiles.get(i));
+            if (sourceSum.equals(targetSum)) {
+                unchangedFileCount++;
+            } else {
+                changed.put(e.getKey(), e.getValue());
+            }
+            i++;
+        }
+        return changed;
+    }
+
+    private long copyFiles(Map<String, Entry> copies, Map<String, Entry> targetEntries)
+            throws IOException {
+        if (copies.isEmpty()) {
+            return 0;
+        }
+
+        int threads = Math.min(options.getParallelism(), copies.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (Map.Entry<String, Entry> e : copies.entrySet()) {
+                Path targetFile = resolve(e.getKey());
+                Entry dst = targetEntries.get(e.getKey());
+                if (dst != null && dst.type == Type.FILE) {
+                    updatedFiles.add(targetFile);
+                } else {
+                    createdFiles.add(targetFile);
+                }
+                futures.add(executor.submit(new CopyTask(e.getValue(), targetFile)));
+            }
+
+            long bytesCopied = 0;
+            for (Future<Long> future : futures) {
+                bytesCopied += getCopyResult(future);
+            }
+            return bytesCopied;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long getCopyResult(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while copying files", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static final class CopyTask implements Callable<Long> {
+        private final Entry source;
+        private final Path target;
+
+        CopyTask(Entry source, Path target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public Long call() throws IOException {
+            MoreFiles.copyLarge(source.path, target);
+            Files.setLastModifiedTime(target, source.lastModifiedTime);
+            return source.size;
+        }
+    }
+
+    private void deleteExtraneous(Map<String, Entry> sourceEntries,
+            Map<String, Entry> targetEntries) throws IOException {
+        for (Map.Entry<String, Entry> e : targetEntries.entrySet()) {
+            String key = e.getKey();
+            boolean extraneous = !sourceEntries.containsKey(key);
+            if (extraneous && isSourceDirectory(parentKey(key), sourceEntries)) {
+                delete(e.getValue().path);
+            }
+        }
+    }
+
+    private static boolean isSourceDirectory(String key, Map<String, Entry> sourceEntries) {
+        Entry entry = sourceEntries.get(key);
+        return entry != null && entry.type == Type.DIRECTORY;
+    }
+
+    private void delete(Path path) throws IOException {
+        MoreFiles.deleteRecursive(path);
+        deletedPaths.add(path);
+    }
+
+    /**
+     * Gets the location of the entry with {@code key} in {@code target}.
+     */
+    private Path resolve(String key) {
+        Path path = target;
+        if (!key.equals(ROOT)) {
+            for (String name : KEY_SPLITTER.split(key)) {
+                path = path.resolve(name);
+            }
+        }
+        return path;
+    }
+
+    private static String parentKey(String key) {
+        int index = key.lastIndexOf('/');
+        return index < 0 ? ROOT : key.substring(0, index);
+    }
+
+    /**
+     * Compares modification times at second resolution, the finest resolution
+     * supported by all file systems.
+     */
+    private static boolean sameTime(FileTime a, FileTime b) {
+        return a.to(TimeUnit.SECONDS) == b.to(TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lists all entries under {@code root}, including {@code root} itself.
+     * Symbolic links are not followed. Parents are listed before their
+     * children.
+     */
+    private static Map<String, Entry> list(Path root) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Map.Entry<Path, BasicFileAttributes> e
+                : MoreFiles.readAttributesRecursive(root).entrySet()) {
+            entries.put(key(root, e.getKey()), new Entry(e.getKey(), e.getValue()));
+        }
+        return entries;
+    }
+
+    private static String key(Path root, Path path) {
+        List<String> names = new ArrayList<>();
+        for (Path name : root.relativize(path)) {
+            if (!name.toString().isEmpty()) {
+                names.add(name.toString());
+            }
+        }
+        return KEY_JOINER.join(names);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Receives the content of files followed by a {@link FileFollower}.
+ * <p>
+ * Methods for a given file are called by one thread at a time, in the order
+ * events occur. Methods should return quickly because the same threads poll
+ * all files followed by a {@code FileFollower}.
+ */
+public interface FollowListener {
+
+    /**
+     * Called with complete lines read from a file. Lines do not include line
+     * terminators.
+     *
+     * @param file the followed file
+     * @param lines the new lines, in file order
+     */
+    void onLines(Path file, List<String> lines);
+
+    /**
+     * Called when a file is truncated or replaced by a new file, after all
+     * lines from the previous content are delivered. Following continues
+     * from the beginning of the new content.
+     *
+     * @param file the followed file
+     */
+    void onRotate(Path file);
+
+    /**
+     * Called when following a file fails. Following stops after this method
+     * returns.
+     *
+     * @param file the followed file
+     * @param e the error, either an {@code IOException} or an exception
+     *        thrown by another method of this listener
+     */
+    void onError(Path file, Exception e);
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options that control how a {@link FileFollower} reads a file.
+ */
+public final class FollowOptions {
+
+    private static final FollowOptions DEFAULTS = builder().build();
+
+    /**
+     * Returns options that start at the end of the file, decode lines as
+     * UTF-8, and poll between every 250 milliseconds and every 5 seconds.
+     */
+    public static FollowOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds {@link FollowOptions} instances.
+     */
+    @SuppressWarnings({ "hiding", "checkstyle:hiddenfield" })
+    public static final class Builder {
+        private boolean fromBeginning = false;
+        private Charset charset = StandardCharsets.UTF_8;
+        private long minPollMillis = 250;
+        private long maxPollMillis = 5000;
+
+        private Builder() {
+            // use static builder() method externally
+        }
+
+        /**
+         * Reads the existing content of the file before following new
+         * content. By default, only content written after following starts is
+         * read.
+         *
+         * @return this builder
+         */
+        public Builder fromBeginning() {
+            this.fromBeginning = true;
+            return this;
+        }
+
+        /**
+         * Sets the charset used to decode lines. The charset must encode the
+         * newline character as the single byte {@code 0x0A}, like UTF-8 and
+         * ISO-8859-1.
+         *
+         * @return this builder
+         */
+        public Builder charset(Charset charset) {
+            this.charset = checkNotNull(charset, "charset must be non-null");
+            return this;
+        }
+
+        /**
+         * Sets the poll interval. The file is polled at the minimum interval
+         * while it changes; the interval doubles each time a poll finds no
+         * changes, up to the maximum interval.
+         *
+         * @param min the minimum interval
+         * @param max the maximum interval
+         * @param unit the unit of {@code min} and {@code max}
+         *
+         * @return this builder
+         */
+        public Builder pollInterval(long min, long max, TimeUnit unit) {
+            checkArgument(min > 0, "min must be positive");
+            checkArgument(max >= min, "max must be at least min");
+            this.minPollMillis = unit.toMillis(min);
+            this.maxPollMillis = unit.toMillis(max);
+            return this;
+        }
+
+        /**
+         * Creates a new {@code FollowOptions} using the settings configured
+         * by this builder. The builder may be reused to create more options
+         * after calling this method.
+         */
+        public FollowOptions build() {
+            return new FollowOptions(this);
+        }
+    }
+
+    private final boolean fromBeginning;
+    private final Charset charset;
+    private final long minPollMillis;
+    private final long maxPollMillis;
+
+    private FollowOptions(Builder builder) {
+        this.fromBeginning = builder.fromBeginning;
+        this.charset = builder.charset;
+        this.minPollMillis = builder.minPollMillis;
+        this.maxPollMillis = builder.maxPollMillis;
+    }
+
+    public boolean isFromBeginning() {
+        return fromBeginning;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public long getMinPollMillis() {
+        return minPollMillis;
+    }
+
+    public long getMaxPollMillis() {
+        return maxPollMillis;
+    }
+}
@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
@@ -27,6 +28,7 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemException;
 import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
@@ -35,21 +37,36 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.spi.FileSystemProvider;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.io.ByteStreams;
 import com.palantir.giraffe.file.base.attribute.PermissionChange;
+import com.palantir.giraffe.file.base.feature.DigestingFileCopy;
+import com.palantir.giraffe.file.base.feature.FileChecksums;
 import com.palantir.giraffe.file.base.feature.LargeFileCopy;
 import com.palantir.giraffe.file.base.feature.RecursiveCopy;
+import com.palantir.giraffe.file.base.feature.RecursiveCreateDirectory;
 import com.palantir.giraffe.file.base.feature.RecursiveDelete;
+import com.palantir.giraffe.file.base.feature.RecursiveList;
 import com.palantir.giraffe.file.base.feature.RecursivePermissions;
+import com.palantir.giraffe.file.base.feature.RecursiveSearch;
+import com.palantir.giraffe.file.base.feature.RecursiveStatistics;
 
 /**
  * Provides static methods that extend the functionality provided by
@@ -59,6 +76,8 @@ import com.palantir.giraffe.file.base.feature.RecursivePermissions;
  */
 public final class MoreFiles {
 
+    private static final int DEFAULT_LARGEST_FILES = 10;
+
     private static final DirectoryStream.Filter<Path> FILE_FILTER =
         new DirectoryStream.Filter<Path>() {
             @Override
@@ -91,6 +110,47 @@ public final class MoreFiles {
         return DIRECTORY_FILTER;
     }
 
+    /**
+     * Creates a directory and all nonexistent parent directories.
+     * <p>
+     * This method is equivalent to
+     * {@link Files#createDirectories(Path, FileAttribute...)}, but if the file
+     * system supports it, all directories are created in a single operation
+     * instead of one or more operations per directory. For example, SSH file
+     * systems create the directories with one command on the remote host.
+     * <p>
+     * {@code Files.createDirectories} cannot use this mechanism because it
+     * creates each missing directory with a separate call to the provider's
+     * {@code createDirectory} method. Prefer this method when creating
+     * directory trees on remote file systems.
+     *
+     * @param dir the directory to create
+     * @param attrs attributes to set when creating the directories
+     *
+     * @return the directory
+     *
+     * @throws UnsupportedOperationException if {@code attrs} contains an
+     *         attribute that cannot be set when creating a directory
+     * @throws FileAlreadyExistsException if {@code dir} exists but is not a
+     *         directory
+     * @throws IOException if an I/O error occurs while creating directories
+     */
+    public static Path createDirectories(Path dir, FileAttribute<?>... attrs)
+            throws IOException {
+        checkNotNull(dir, "dir must be non-null");
+
+        FileSystemProvider provider = dir.getFileSystem().provider();
+        if (provider instanceof RecursiveCreateDirectory) {
+            try {
+                ((RecursiveCreateDirectory) provider).createDirectories(dir, attrs);
+                return dir;
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to creating each directory
+            }
+        }
+        return Files.createDirectories(dir, attrs);
+    }
+
     /**
      * Deletes a path recursively.
      * <p>
@@ -233,6 +293,106 @@ public final class MoreFiles {
         Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
     }
 
+    /**
+     * Copy a file to a target file in an efficient way and compute the digest
+     * of the copied bytes.
+     * <p>
+     * The digest is computed from the bytes as they are transferred, so it
+     * does not require reading either file again. Use
+     * {@link #copyLargeVerified(Path, Path, ChecksumAlgorithm)} to also check
+     * the digest against the copied file.
+     *
+     * @param source the file to copy
+     * @param target the target file
+     * @param algorithm the digest algorithm
+     *
+     * @return the digest of the copied bytes
+     *
+     * @throws IllegalArgumentException if {@code source} is not a regular file
+     *         or {@code target} is a directory.
+     * @throws IOException if an IO error occurs while copying
+     *
+     * @see #copyLarge(Path, Path)
+     */
+    public static HashCode copyLarge(Path source, Path target, ChecksumAlgorithm algorithm)
+            throws IOException {
+        checkNotNull(algorithm, "algorithm must be non-null");
+        checkArgument(Files.isRegularFile(source),
+                "source (%s) must be a regular file.", source.toAbsolutePath());
+        checkArgument(!Files.isDirectory(target),
+                "target (%s) cannot be a directory.", target.toAbsolutePath());
+
+        FileSystemProvider sourceProvider = source.getFileSystem().provider();
+        FileSystemProvider targetProvider = target.getFileSystem().provider();
+
+        if (sourceProvider instanceof DigestingFileCopy) {
+            try {
+                return ((DigestingFileCopy) sourceProvider).copyLarge(source, target, algorithm);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to other copy strategies
+            }
+        }
+
+        if (targetProvider instanceof DigestingFileCopy) {
+            try {
+                return ((DigestingFileCopy) targetProvider).copyLarge(source, target, algorithm);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to other copy strategies
+            }
+        }
+
+        // Default
+        MessageDigest digest = algorithm.newMessageDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HashCode.fromBytes(digest.digest());
+    }
+
+    /**
+     * Copy a file to a target file in an efficient way and verify that the
+     * target has the same digest as the copied bytes.
+     * <p>
+     * The expected digest is computed while copying. It is compared with the
+     * checksum of the target if the target's file system can compute
+     * checksums without reading the file, like a remote file system. If it
+     * cannot and the source's file system can, it is compared with the
+     * checksum of the source instead, which detects corruption in transit.
+     * Otherwise, the target is read to compute its checksum.
+     *
+     * @param source the file to copy
+     * @param target the target file
+     * @param algorithm the digest algorithm
+     *
+     * @return the verified digest of the copied bytes
+     *
+     * @throws IllegalArgumentException if {@code source} is not a regular file
+     *         or {@code target} is a directory.
+     * @throws FileSystemException if the digests do not match
+     * @throws IOException if an IO error occurs while copying
+     */
+    public static HashCode copyLargeVerified(Path source, Path target,
+            ChecksumAlgorithm algorithm) throws IOException {
+        HashCode copied = copyLarge(source, target, algorithm);
+
+        Path reference = target;
+        if (!hasChecksums(target) && hasChecksums(source)) {
+            reference = source;
+        }
+
+        HashCode expected = checksum(reference, algorithm);
+        if (!copied.equals(expected)) {
+            throw new FileSystemException(source.toString(), target.toString(),
+                    String.format("checksum mismatch [copied = %s, %s = %s]",
+                            copied, reference.toAbsolutePath(), expected));
+        }
+        return copied;
+    }
+
+    private static boolean hasChecksums(Path path) {
+        return path.getFileSystem().provider() instanceof FileChecksums;
+    }
+
     /**
      * Copy a path to a target path recursively.
      * <p>
@@ -296,6 +456,63 @@ public final class MoreFiles {
         Files.walkFileTree(source, new CopyVisitor(source, target));
     }
 
+    /**
+     * Synchronizes a target path with a source path using the
+     * {@linkplain SyncOptions#defaults() default options}.
+     *
+     * @param source the path to copy from
+     * @param target the path to update
+     *
+     * @return a report of the changes made to the target
+     *
+     * @throws IOException if an I/O error occurs while synchronizing
+     *
+     * @see #sync(Path, Path, SyncOptions)
+     */
+    public static SyncReport sync(Path source, Path target) throws IOException {
+        return sync(source, target, SyncOptions.defaults());
+    }
+
+    /**
+     * Synchronizes a target path with a source path, copying only files that
+     * are new or changed.
+     * <p>
+     * Unlike {@link #copyRecursive(Path, Path)}, the target may already exist.
+     * A file is copied if it does not exist in the target or if the target
+     * file has a different size. Files with the same size are compared by
+     * modification time or, if configured in the options, by checksum. Copied
+     * files are given the modification time of their source so that later
+     * syncs can skip them. Missing directories are created and, if
+     * configured, target paths that do not exist in the source are deleted.
+     * Target paths with a different type than the source path are replaced.
+     * Symbolic links and other special files in the source are ignored.
+     * <p>
+     * The source and target may be associated with different file systems.
+     * Files are copied in parallel using {@link #copyLarge(Path, Path)}.
+     * <p>
+     * If an {@code IOException} occurs, the target may be partially updated.
+     * Running the sync again completes the update.
+     *
+     * @param source the path to copy from
+     * @param target the path to update
+     * @param options options that control how files are compared and copied
+     *
+     * @return a report of the changes made to the target
+     *
+     * @throws NoSuchFileException if the source or the parent of the target
+     *         does not exist
+     * @throws FileSystemException if the source is a directory and the target
+     *         is not or the source is a file and the target is a directory
+     * @throws IOException if an I/O error occurs while synchronizing
+     */
+    public static SyncReport sync(Path source, Path target, SyncOptions options)
+            throws IOException {
+        checkNotNull(source, "source must be non-null");
+        checkNotNull(target, "target must be non-null");
+        checkNotNull(options, "options must be non-null");
+        return new FileSync(source, target, options).sync();
+    }
+
     /**
      * Reads the contents of a file as a string.
      *
@@ -334,6 +551,94 @@ public final class MoreFiles {
         return path;
     }
 
+    /**
+     * Computes the checksum of a regular file.
+     * <p>
+     * If the file system supports it, the checksum is computed without
+     * reading the file through the file system. For instance, checksums of
+     * files on remote hosts may be computed on the remote host so that only
+     * the checksum is transferred.
+     *
+     * @param file the file to checksum
+     * @param algorithm the digest algorithm
+     *
+     * @return the checksum of the file
+     *
+     * @throws NoSuchFileException if the file does not exist
+     * @throws IOException if an I/O error occurs while computing the checksum
+     *
+     * @see #checksums(Collection, ChecksumAlgorithm)
+     */
+    public static HashCode checksum(Path file, ChecksumAlgorithm algorithm) throws IOException {
+        checkNotNull(file, "file must be non-null");
+        return checksums(Collections.singletonList(file), algorithm).get(file);
+    }
+
+    /**
+     * Computes the checksums of regular files.
+     * <p>
+     * Files may be associated with different file systems. If a file system
+     * supports it, the checksums of its files are computed together without
+     * reading the files through the file system.
+     *
+     * @param files the files to checksum
+     * @param algorithm the digest algorithm
+     *
+     * @return the checksum of each file, in the iteration order of
+     *         {@code files}
+     *
+     * @throws NoSuchFileException if a file does not exist
+     * @throws IOException if an I/O error occurs while computing checksums
+     */
+    public static Map<Path, HashCode> checksums(Collection<? extends Path> files,
+            ChecksumAlgorithm algorithm) throws IOException {
+        checkNotNull(files, "files must be non-null");
+        checkNotNull(algorithm, "algorithm must be non-null");
+
+        Map<FileSystem, List<Path>> filesBySystem = new LinkedHashMap<>();
+        for (Path file : files) {
+            List<Path> systemFiles = filesBySystem.get(file.getFileSystem());
+            if (systemFiles == null) {
+                systemFiles = new ArrayList<>();
+                filesBySystem.put(file.getFileSystem(), systemFiles);
+            }
+            systemFiles.add(file);
+        }
+
+        Map<Path, HashCode> checksums = new HashMap<>();
+        for (List<Path> systemFiles : filesBySystem.values()) {
+            checksums.putAll(fileSystemChecksums(systemFiles, algorithm));
+        }
+
+        Map<Path, HashCode> ordered = new LinkedHashMap<>();
+        for (Path file : files) {
+            ordered.put(file, checksums.get(file));
+        }
+        return ordered;
+    }
+
+    private static Map<Path, HashCode> fileSystemChecksums(List<Path> files,
+            ChecksumAlgorithm algorithm) throws IOException {
+        FileSystemProvider provider = files.get(0).getFileSystem().provider();
+        if (provider instanceof FileChecksums) {
+            try {
+                return ((FileChecksums) provider).checksums(files, algorithm);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to reading the files
+            }
+        }
+
+        Map<Path, HashCode> checksums = new HashMap<>();
+        for (Path file : files) {
+            MessageDigest digest = algorithm.newMessageDigest();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                ByteStreams.exhaust(in);
+            }
+            checksums.put(file, HashCode.fromBytes(digest.digest()));
+        }
+        return checksums;
+    }
+
     /**
      * Returns the default directory for the given file system.
      */
@@ -535,56 +840,67 @@ public final class MoreFiles {
         }
     }
 
-    private enum ListDirectoryMode {
-        FILES, DIRS;
-
-        private static Set<ListDirectoryMode> all() {
-            return EnumSet.allOf(ListDirectoryMode.class);
-        }
-
-        private static Set<ListDirectoryMode> filesOnly() {
-            return EnumSet.of(FILES);
-        }
-    }
-
     /**
-     * A {@code FileVisitor} that builds a list of {@code Path} objects it visits.
+     * A {@code FileVisitor} that records the attributes of every path it
+     * visits.
      *
      * @author jyu
      * @author bkeyes
      */
-    private static final class ListVisitor extends SimpleFileVisitor<Path> {
-        private final Set<ListDirectoryMode> mode;
-        private final ArrayList<Path> paths;
-
-        ListVisitor(Set<ListDirectoryMode> mode) {
-            this.mode = mode;
-            paths = new ArrayList<>();
-        }
+    private static final class AttributesVisitor extends SimpleFileVisitor<Path> {
+        private final Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
 
         @Override
         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
                 throws IOException {
-            if (mode.contains(ListDirectoryMode.DIRS)) {
-                paths.add(dir);
-            }
+            attributes.put(dir, attrs);
             return FileVisitResult.CONTINUE;
         }
 
         @Override
         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                 throws IOException {
-            if (mode.contains(ListDirectoryMode.FILES)) {
-                paths.add(file);
-            }
+            attributes.put(file, attrs);
             return FileVisitResult.CONTINUE;
         }
 
-        public List<Path> getPaths() {
-            return paths;
+        public Map<Path, BasicFileAttributes> getAttributes() {
+            return attributes;
         }
     }
 
+    /**
+     * Reads the attributes of a path and all of its descendants. Symbolic
+     * links are not followed. The returned paths are
+     * {@linkplain Path#resolve(Path) resolved} against the given path and
+     * iterate with each directory before its contents.
+     * <p>
+     * If the file system supports it, the tree is listed in a single
+     * operation instead of one operation per directory and file. For example,
+     * SSH file systems list the tree on the remote host.
+     *
+     * @param dir the {@code Path} to list
+     *
+     * @throws IOException if an I/O error occurs while descending the file tree
+     */
+    public static Map<Path, BasicFileAttributes> readAttributesRecursive(Path dir)
+            throws IOException {
+        checkNotNull(dir, "dir must be non-null");
+
+        FileSystemProvider provider = dir.getFileSystem().provider();
+        if (provider instanceof RecursiveList) {
+            try {
+                return ((RecursiveList) provider).listRecursive(dir);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to walking the tree
+            }
+        }
+
+        AttributesVisitor visitor = new AttributesVisitor();
+        Files.walkFileTree(dir, visitor);
+        return visitor.getAttributes();
+    }
+
     /**
      * Gets a list of the files and directories in the given directory and all
      * sub-directories. The returned paths are {@linkplain Path#resolve(Path)
@@ -593,11 +909,11 @@ public final class MoreFiles {
      * @param dir the {@code Path} to list
      *
      * @throws IOException if an I/O error occurs while descending the file tree
+     *
+     * @see #readAttributesRecursive(Path)
      */
     public static List<Path> listDirectoryRecursive(Path dir) throws IOException {
-        ListVisitor visitor = new ListVisitor(ListDirectoryMode.all());
-        Files.walkFileTree(dir, visitor);
-        return visitor.getPaths();
+        return new ArrayList<>(readAttributesRecursive(dir).keySet());
     }
 
     /**
@@ -608,11 +924,112 @@ public final class MoreFiles {
      * @param dir the {@code Path} to list
      *
      * @throws IOException if an I/O error occurs while descending the file tree
+     *
+     * @see #readAttributesRecursive(Path)
      */
     public static List<Path> listDirectoryFilesRecursive(Path dir) throws IOException {
-        ListVisitor visitor = new ListVisitor(ListDirectoryMode.filesOnly());
-        Files.walkFileTree(dir, visitor);
-        return visitor.getPaths();
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<Path, BasicFileAttributes> entry : readAttributesRecursive(dir).entrySet()) {
+            if (!entry.getValue().isDirectory()) {
+                files.add(entry.getKey());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Finds the paths in a file tree that match the given criteria. Symbolic
+     * links are not followed. The returned paths are
+     * {@linkplain Path#resolve(Path) resolved} against the given path and
+     * iterate with each directory before its contents. The given path is
+     * included if it matches.
+     * <p>
+     * If the file system supports it, the criteria are applied where the files
+     * are stored so that only matching paths are listed. For example, SSH file
+     * systems search the tree on the remote host. Otherwise, this method walks
+     * the tree and filters paths locally.
+     *
+     * @param dir the {@code Path} to search
+     * @param search the search criteria
+     *
+     * @throws IOException if an I/O error occurs while descending the file tree
+     */
+    public static List<Path> search(Path dir, FileSearch search) throws IOException {
+        checkNotNull(dir, "dir must be non-null");
+        checkNotNull(search, "search must be non-null");
+
+        Map<Path, BasicFileAttributes> candidates = null;
+        FileSystemProvider provider = dir.getFileSystem().provider();
+        if (provider instanceof RecursiveSearch) {
+            try {
+                candidates = ((RecursiveSearch) provider).searchRecursive(dir, search);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to walking the tree
+            }
+        }
+
+        if (candidates == null) {
+            if (search.getMaxDepth().isPresent()) {
+                AttributesVisitor visitor = new AttributesVisitor();
+                Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class),
+                        search.getMaxDepth().get(), visitor);
+                candidates = visitor.getAttributes();
+            } else {
+                candidates = readAttributesRecursive(dir);
+            }
+        }
+
+        FileSearch.Matcher matcher = search.newMatcher(dir);
+        List<Path> matches = new ArrayList<>();
+        for (Map.Entry<Path, BasicFileAttributes> entry : candidates.entrySet()) {
+            if (matcher.matches(entry.getKey(), entry.getValue())) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Computes statistics for a file tree, reporting the 10 largest files.
+     *
+     * @param dir the root of the tree
+     *
+     * @throws IOException if an I/O error occurs while descending the file tree
+     *
+     * @see #treeStatistics(Path, int)
+     */
+    public static TreeStatistics treeStatistics(Path dir) throws IOException {
+        return treeStatistics(dir, DEFAULT_LARGEST_FILES);
+    }
+
+    /**
+     * Computes statistics for a file tree: the total size of all files, the
+     * number of files and directories, and the largest files. Symbolic links
+     * are not followed.
+     * <p>
+     * If the file system supports it, the statistics are computed where the
+     * files are stored. For example, SSH file systems compute statistics on
+     * the remote host with a single command. Otherwise, this method reads the
+     * attributes of every path, listing directories in parallel.
+     *
+     * @param dir the root of the tree
+     * @param largestFiles the maximum number of largest files to report
+     *
+     * @throws IOException if an I/O error occurs while descending the file tree
+     */
+    public static TreeStatistics treeStatistics(Path dir, int largestFiles) throws IOException {
+        checkNotNull(dir, "dir must be non-null");
+        checkArgument(largestFiles >= 0, "largestFiles must be non-negative");
+
+        FileSystemProvider provider = dir.getFileSystem().provider();
+        if (provider instanceof RecursiveStatistics) {
+            try {
+                return ((RecursiveStatistics) provider).treeStatistics(dir, largestFiles);
+            } catch (UnsupportedOperationException e) {
+                // Swallow... fall back to walking the tree
+            }
+        }
+        return TreeStatisticsWalk.compute(dir, largestFiles);
     }
 
     /**
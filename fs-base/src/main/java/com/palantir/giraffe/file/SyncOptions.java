@@ -0,0 +1,133 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+
+/**
+ * Options that control how {@link MoreFiles#sync(java.nio.file.Path,
+ * java.nio.file.Path, SyncOptions)} compares and transfers files.
+ */
+public final class SyncOptions {
+
+    private static final SyncOptions DEFAULTS = builder().build();
+
+    /**
+     * Returns options that compare files by size and modification time,
+     * keep extraneous target files, and copy up to 4 files at once.
+     */
+    public static SyncOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds {@link SyncOptions} instances.
+     */
+    @SuppressWarnings({ "hiding", "checkstyle:hiddenfield" })
+    public static final class Builder {
+        private Optional<ChecksumAlgorithm> checksumAlgorithm = Optional.absent();
+        private boolean deleteExtraneous = false;
+        private int parallelism = 4;
+
+        private Builder() {
+            // use static builder() method externally
+        }
+
+        /**
+         * Compares files of the same size by checksum instead of modification
+         * time. This detects changes that preserve the modification time and
+         * avoids copying files that were touched without changes, but reads
+         * every file with the same size on both systems. File systems that
+         * support it compute checksums without transferring file contents.
+         *
+         * @param algorithm the digest algorithm
+         *
+         * @return this builder
+         *
+         * @see MoreFiles#checksums(java.util.Collection, ChecksumAlgorithm)
+         */
+        public Builder compareChecksums(ChecksumAlgorithm algorithm) {
+            this.checksumAlgorithm = Optional.of(checkNotNull(algorithm));
+            return this;
+        }
+
+        /**
+         * Deletes files and directories in the target that do not exist in
+         * the source.
+         *
+         * @return this builder
+         */
+        public Builder deleteExtraneous() {
+            this.deleteExtraneous = true;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files copied at the same time.
+         *
+         * @param parallelism the maximum number of concurrent copies
+         *
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            checkArgument(parallelism > 0, "parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Creates a new {@code SyncOptions} using the settings configured by
+         * this builder. The builder may be reused to create more options after
+         * calling this method.
+         */
+        public SyncOptions build() {
+            return new SyncOptions(this);
+        }
+    }
+
+    private final Optional<ChecksumAlgorithm> checksumAlgorithm;
+    private final boolean deleteExtraneous;
+    private final int parallelism;
+
+    private SyncOptions(Builder builder) {
+        this.checksumAlgorithm = builder.checksumAlgorithm;
+        this.deleteExtraneous = builder.deleteExtraneous;
+        this.parallelism = builder.parallelism;
+    }
+
+    /**
+     * Returns the algorithm used to compare files, if files are compared by
+     * checksum.
+     */
+    public Optional<ChecksumAlgorithm> getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public boolean isDeleteExtraneous() {
+        return deleteExtraneous;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Describes the changes made to a target by
+ * {@link MoreFiles#sync(Path, Path, SyncOptions)}.
+ * <p>
+ * All paths in a report are paths in the target.
+ */
+public final class SyncReport {
+
+    private final List<Path> createdFiles;
+    private final List<Path> updatedFiles;
+    private final List<Path> createdDirectories;
+    private final List<Path> deletedPaths;
+    private final int unchangedFileCount;
+    private final long bytesCopied;
+
+    SyncReport(List<Path> createdFiles,
+               List<Path> updatedFiles,
+               List<Path> createdDirectories,
+               List<Path> deletedPaths,
+               int unchangedFileCount,
+               long bytesCopied) {
+        this.createdFiles = ImmutableList.copyOf(createdFiles);
+        this.updatedFiles = ImmutableList.copyOf(updatedFiles);
+        this.createdDirectories = ImmutableList.copyOf(createdDirectories);
+        this.deletedPaths = ImmutableList.copyOf(deletedPaths);
+        this.unchangedFileCount = unchangedFileCount;
+        this.bytesCopied = bytesCopied;
+    }
+
+    /**
+     * Returns files that did not exist in the target and were copied from the
+     * source.
+     */
+    public List<Path> getCreatedFiles() {
+        return createdFiles;
+    }
+
+    /**
+     * Returns files that existed in the target but differed from the source
+     * and were replaced.
+     */
+    public List<Path> getUpdatedFiles() {
+        return updatedFiles;
+    }
+
+    public List<Path> getCreatedDirectories() {
+        return createdDirectories;
+    }
+
+    /**
+     * Returns paths that were deleted from the target, either because they
+     * did not exist in the source or because they had a different type than
+     * the corresponding source path. If a directory was deleted, its
+     * descendants are not listed.
+     */
+    public List<Path> getDeletedPaths() {
+        return deletedPaths;
+    }
+
+    /**
+     * Returns the number of files in the target that matched the source and
+     * were not copied.
+     */
+    public int getUnchangedFileCount() {
+        return unchangedFileCount;
+    }
+
+    /**
+     * Returns the total size of all created and updated files.
+     */
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    /**
+     * Returns {@code true} if the sync modified the target in any way.
+     */
+    public boolean hasChanges() {
+        return !createdFiles.isEmpty()
+                || !updatedFiles.isEmpty()
+                || !createdDirectories.isEmpty()
+                || !deletedPaths.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "SyncReport[created = %s, updated = %s, createdDirs = %s, deleted = %s, "
+                        + "unchanged = %s, bytesCopied = %s]",
+                createdFiles.size(),
+                updatedFiles.size(),
+                createdDirectories.size(),
+                deletedPaths.size(),
+                unchangedFileCount,
+                bytesCopied);
+    }
+}
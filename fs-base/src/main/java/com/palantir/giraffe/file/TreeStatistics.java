@@ -0,0 +1,87 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Summarizes the contents of a file tree. Created by
+ * {@link MoreFiles#treeStatistics(Path, int)}.
+ * <p>
+ * Directories, including the root of the tree, are counted as directories.
+ * All other paths, including symbolic links, are counted as files and their
+ * sizes contribute to the total size. Symbolic links are not followed.
+ */
+public final class TreeStatistics {
+
+    private final long totalBytes;
+    private final long fileCount;
+    private final long directoryCount;
+    private final Map<Path, Long> largestFiles;
+
+    /**
+     * Creates a new statistics object.
+     *
+     * @param totalBytes the total size of all files
+     * @param fileCount the number of files
+     * @param directoryCount the number of directories
+     * @param largestFiles the sizes of the largest files, in iteration order
+     *        from largest to smallest
+     */
+    public TreeStatistics(long totalBytes,
+                          long fileCount,
+                          long directoryCount,
+                          Map<Path, Long> largestFiles) {
+        this.totalBytes = totalBytes;
+        this.fileCount = fileCount;
+        this.directoryCount = directoryCount;
+        this.largestFiles = ImmutableMap.copyOf(largestFiles);
+    }
+
+    /**
+     * Returns the total size of all files in the tree, in bytes.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getFileCount() {
+        return fileCount;
+    }
+
+    public long getDirectoryCount() {
+        return directoryCount;
+    }
+
+    /**
+     * Returns the sizes of the largest files in the tree. Files iterate from
+     * largest to smallest; the order of files with the same size is
+     * unspecified.
+     */
+    public Map<Path, Long> getLargestFiles() {
+        return largestFiles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TreeStatistics[totalBytes = %s, files = %s, directories = %s, "
+                + "largestFiles = %s]",
+                totalBytes, fileCount, directoryCount, largestFiles);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes {@link TreeStatistics} by walking a file tree in parallel. Each
+ * directory is listed by a separate task so that the attributes of different
+ * directories are read concurrently.
+ */
+final class TreeStatisticsWalk {
+
+    private static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    public static TreeStatistics compute(Path dir, int largestFiles) throws IOException {
+        BasicFileAttributes attrs = readAttributes(dir);
+        if (!attrs.isDirectory()) {
+            Totals totals = new Totals(largestFiles);
+            totals.addFile(dir, attrs.size());
+            return totals.toStatistics();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            return pool.invoke(new DirectoryTask(dir, largestFiles)).toStatistics();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class DirectoryTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final int largestFiles;
+
+        DirectoryTask(Path dir, int largestFiles) {
+            this.dir = dir;
+            this.largestFiles = largestFiles;
+        }
+
+        @Override
+        protected Totals compute() {
+            Totals totals = new Totals(largestFiles);
+            totals.directories++;
+
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    BasicFileAttributes attrs = readAttributes(child);
+                    if (attrs.isDirectory()) {
+                        DirectoryTask task = new DirectoryTask(child, largestFiles);
+                        task.fork();
+                        subtasks.add(task);
+                    } else {
+                        totals.addFile(child, attrs.size());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (DirectoryTask task : subtasks) {
+                totals.add(task.join());
+            }
+            return totals;
+        }
+    }
+
+    private static final class FileSize {
+        final Path path;
+        final long size;
+
+        FileSize(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    private static final Comparator<FileSize> SIZE_ORDER = new Comparator<FileSize>() {
+        @Override
+        public int compare(FileSize a, FileSize b) {
+            return Long.compare(a.size, b.size);
+        }
+    };
+
+    private static final class Totals {
+        private final int largestFiles;
+        private final PriorityQueue<FileSize> largest;
+
+        long bytes;
+        long files;
+        long directories;
+
+        Totals(int largestFiles) {
+            this.largestFiles = largestFiles;
+            this.largest = new PriorityQueue<>(Math.max(1, largestFiles + 1), SIZE_ORDER);
+        }
+
+        void addFile(Path file, long size) {
+            bytes += size;
+            files++;
+            offer(new FileSize(file, size));
+        }
+
+        void add(Totals other) {
+            bytes += other.bytes;
+            files += other.files;
+            directories += other.directories;
+            for (FileSize file : other.largest) {
+                offer(file);
+            }
+        }
+
+        private void offer(FileSize file) {
+            if (largestFiles > 0) {
+                largest.add(file);
+                if (largest.size() > largestFiles) {
+                    largest.poll();
+                }
+            }
+        }
+
+        TreeStatistics toStatistics() {
+            List<FileSize> sorted = new ArrayList<>(largest);
+            Collections.sort(sorted, Collections.reverseOrder(SIZE_ORDER));
+
+            Map<Path, Long> largestSizes = new LinkedHashMap<>();
+            for (FileSize file : sorted) {
+                largestSizes.put(file.path, file.size);
+            }
+            return new TreeStatistics(bytes, files, directories, largestSizes);
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private TreeStatisticsWalk() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -18,6 +18,7 @@ package com.palantir.giraffe.file.base;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
@@ -99,7 +100,13 @@ public abstract class BasePath<P extends BasePath<P>> implements Path {
     @Override
     public WatchKey register(WatchService watcher, Kind<?>[] events, Modifier... modifiers)
             throws IOException {
-        throw new UnsupportedOperationException();
+        if (watcher instanceof BaseWatchService) {
+            return ((BaseWatchService) watcher).register(this, events, modifiers);
+        } else if (watcher == null) {
+            throw new NullPointerException("watcher must be non-null");
+        } else {
+            throw new ProviderMismatchException("watcher is not associated with this path");
+        }
     }
 
     @Override
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base;
+
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A {@link WatchKey} for a {@link BaseWatchService}.
+ * <p>
+ * Watch services signal events on keys with {@link #signalEvent(Kind, Path)}.
+ * Repeated events of the same kind for the same path are coalesced and if too
+ * many events are pending, they are replaced by a single
+ * {@link StandardWatchEventKinds#OVERFLOW OVERFLOW} event.
+ */
+public class BaseWatchKey implements WatchKey {
+
+    static final int MAX_EVENTS = 512;
+
+    private enum State {
+        READY,
+        SIGNALLED
+    }
+
+    private final BaseWatchService watcher;
+    private final Path dir;
+
+    private volatile Set<Kind<?>> kinds;
+    private volatile boolean valid = true;
+
+    private State state = State.READY;
+    private List<WatchEvent<?>> events = new ArrayList<>();
+
+    protected BaseWatchKey(BaseWatchService watcher, Path dir, Set<? extends Kind<?>> kinds) {
+        this.watcher = watcher;
+        this.dir = dir;
+        this.kinds = ImmutableSet.copyOf(kinds);
+    }
+
+    /**
+     * Returns the kinds of events reported by this key.
+     */
+    public Set<Kind<?>> kinds() {
+        return kinds;
+    }
+
+    /**
+     * Sets the kinds of events reported by this key. Events of other kinds
+     * that are already pending are still reported.
+     */
+    public void setKinds(Set<? extends Kind<?>> kinds) {
+        this.kinds = ImmutableSet.copyOf(kinds);
+    }
+
+    /**
+     * Adds an event to this key and signals the key if it is ready. Events of
+     * kinds that are not reported by this key are ignored, except for
+     * {@code OVERFLOW} events, which are always reported.
+     *
+     * @param kind the kind of event
+     * @param context the path relative to the watched directory, or
+     *        {@code null} for {@code OVERFLOW} events
+     */
+    public final void signalEvent(Kind<?> kind, Path context) {
+        if (kind != StandardWatchEventKinds.OVERFLOW && !kinds.contains(kind)) {
+            return;
+        }
+
+        synchronized (this) {
+            int size = events.size();
+            if (size > 0) {
+                Event last = (Event) events.get(size - 1);
+                if (last.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    last.increment();
+                    return;
+                } else if (last.kind() == kind && last.context().equals(context)) {
+                    last.increment();
+                    return;
+                }
+            }
+
+            if (kind == StandardWatchEventKinds.OVERFLOW || size >= MAX_EVENTS) {
+                events.clear();
+                events.add(new Event(StandardWatchEventKinds.OVERFLOW, null));
+            } else {
+                events.add(new Event(kind, context));
+            }
+            signal();
+        }
+    }
+
+    /**
+     * Cancels this key because the watched directory is no longer accessible
+     * and queues the key so that clients observe the cancellation.
+     */
+    public final void invalidate() {
+        valid = false;
+        signal();
+    }
+
+    private synchronized void signal() {
+        if (state == State.READY) {
+            state = State.SIGNALLED;
+            watcher.enqueueKey(this);
+        }
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid && watcher.isOpen();
+    }
+
+    @Override
+    public synchronized List<WatchEvent<?>> pollEvents() {
+        if (events.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<WatchEvent<?>> result = events;
+        events = new ArrayList<>();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean reset() {
+        if (state == State.SIGNALLED && isValid()) {
+            if (events.isEmpty()) {
+                state = State.READY;
+            } else {
+                watcher.enqueueKey(this);
+            }
+        }
+        return isValid();
+    }
+
+    @Override
+    public void cancel() {
+        if (valid) {
+            valid = false;
+            watcher.cancelled(this);
+        }
+    }
+
+    @Override
+    public Path watchable() {
+        return dir;
+    }
+
+    private static final class Event implements WatchEvent<Object> {
+        private final Kind<?> kind;
+        private final Object context;
+        private int count = 1;
+
+        Event(Kind<?> kind, Object context) {
+            this.kind = kind;
+            this.context = context;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Kind<Object> kind() {
+            return (Kind<Object>) kind;
+        }
+
+        @Override
+        public synchronized int count() {
+            return count;
+        }
+
+        synchronized void increment() {
+            count++;
+        }
+
+        @Override
+        public Object context() {
+            return context;
+        }
+
+        @Override
+        public String toString() {
+            return kind + ": " + context;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchEvent.Modifier;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An abstract {@link WatchService} implementation that manages the queue of
+ * signalled keys. Implementations register paths, detect changes, and signal
+ * events on {@link BaseWatchKey}s.
+ */
+public abstract class BaseWatchService implements WatchService {
+
+    // queued when the service closes to wake threads waiting in take()
+    private final WatchKey closeKey = new BaseWatchKey(this, null,
+            Collections.<Kind<?>>emptySet());
+
+    private final LinkedBlockingDeque<WatchKey> pendingKeys = new LinkedBlockingDeque<>();
+    private final Object closeLock = new Object();
+
+    private volatile boolean closed;
+
+    /**
+     * Registers {@code path} with this service. If the path is already
+     * registered, the kinds of events reported by the existing key are
+     * replaced and the existing key is returned.
+     *
+     * @throws java.nio.file.ProviderMismatchException if the path is not
+     *         associated with the file system that created this service
+     */
+    protected abstract WatchKey register(BasePath<?> path, Kind<?>[] events,
+            Modifier... modifiers) throws IOException;
+
+    /**
+     * Removes a cancelled key from this service. This method is called at most
+     * once for each key.
+     */
+    protected abstract void cancelled(BaseWatchKey key);
+
+    /**
+     * Performs implementation-specific close actions. This method is called at
+     * most once.
+     */
+    protected abstract void doClose() throws IOException;
+
+    /**
+     * Validates the events and modifiers given when registering a path and
+     * returns the kinds of events to report.
+     *
+     * @throws UnsupportedOperationException if an event kind or modifier is
+     *         not supported
+     * @throws IllegalArgumentException if no event kinds are given
+     */
+    protected static Set<Kind<?>> checkEvents(Kind<?>[] events, Modifier... modifiers) {
+        if (modifiers.length > 0) {
+            throw new UnsupportedOperationException("modifiers are not supported");
+        }
+
+        Set<Kind<?>> kinds = new HashSet<>();
+        for (Kind<?> kind : events) {
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE
+                    || kind == StandardWatchEventKinds.ENTRY_DELETE
+                    || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                kinds.add(kind);
+            } else if (kind != StandardWatchEventKinds.OVERFLOW) {
+                throw new UnsupportedOperationException("unsupported event kind: " + kind);
+            }
+        }
+        if (kinds.isEmpty()) {
+            throw new IllegalArgumentException("no events to register");
+        }
+        return kinds;
+    }
+
+    final void enqueueKey(WatchKey key) {
+        pendingKeys.offer(key);
+    }
+
+    public final boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Throws {@link ClosedWatchServiceException} if this service is closed.
+     */
+    protected final void checkOpen() {
+        if (closed) {
+            throw new ClosedWatchServiceException();
+        }
+    }
+
+    @Override
+    public final WatchKey poll() {
+        checkOpen();
+        return checkKey(pendingKeys.poll());
+    }
+
+    @Override
+    public final WatchKey poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        return checkKey(pendingKeys.poll(timeout, unit));
+    }
+
+    @Override
+    public final WatchKey take() throws InterruptedException {
+        checkOpen();
+        return checkKey(pendingKeys.take());
+    }
+
+    private WatchKey checkKey(WatchKey key) {
+        if (key == closeKey) {
+            // wake any other waiting threads
+            enqueueKey(closeKey);
+        }
+        checkOpen();
+        return key;
+    }
+
+    @Override
+    public final void close() throws IOException {
+        synchronized (closeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            doClose();
+        } finally {
+            pendingKeys.clear();
+            enqueueKey(closeKey);
+        }
+    }
+}
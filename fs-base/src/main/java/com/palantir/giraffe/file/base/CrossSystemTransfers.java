@@ -18,6 +18,7 @@ package com.palantir.giraffe.file.base;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
@@ -27,11 +28,14 @@ import java.nio.file.LinkOption;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.util.HashSet;
 import java.util.Set;
 
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
 import com.google.common.io.ByteStreams;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
 import com.palantir.giraffe.file.base.attribute.PosixFileAttributeViews;
 
 /**
@@ -43,6 +47,8 @@ import com.palantir.giraffe.file.base.attribute.PosixFileAttributeViews;
  */
 public final class CrossSystemTransfers {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     public static void copyFile(Path source, Path target, CopyFlags flags) throws IOException {
         checkPaths(source, target, flags);
 
@@ -50,7 +56,39 @@ public final class CrossSystemTransfers {
              WritableByteChannel targetChannel = openTargetChannel(target, flags)) {
             ByteStreams.copy(sourceChannel, targetChannel);
         }
+        copyAttributes(source, target, flags);
+    }
+
+    /**
+     * Copies a file and computes the digest of the copied bytes from the same
+     * buffers used to write the target.
+     *
+     * @return the digest of the copied bytes
+     */
+    public static HashCode copyFile(Path source, Path target, CopyFlags flags,
+            ChecksumAlgorithm algorithm) throws IOException {
+        checkPaths(source, target, flags);
+        checkNotNull(algorithm, "algorithm must be non-null");
+
+        MessageDigest digest = algorithm.newMessageDigest();
+        try (ReadableByteChannel sourceChannel = openSourceChannel(source);
+             WritableByteChannel targetChannel = openTargetChannel(target, flags)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (sourceChannel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    targetChannel.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        copyAttributes(source, target, flags);
+        return HashCode.fromBytes(digest.digest());
+    }
 
+    private static void copyAttributes(Path source, Path target, CopyFlags flags)
+            throws IOException {
         if (flags.copyAttributes) {
             LinkOption[] options = LinkOptions.toArray(flags.followLinks);
             PosixFileAttributeViews.copyAttributes(source, target, options);
@@ -85,12 +85,23 @@ public final class FileAttributeViewRegistry {
         throw noFactoryError(viewName);
     }
 
+    /**
+     * Returns the factory for views of the given type. If no factory creates
+     * views of exactly this type, returns a factory that creates views of a
+     * subtype, so that requests for {@code FileOwnerAttributeView} are served
+     * by the POSIX factory.
+     */
     public FileAttributeViewFactory<?> getByViewType(Class<? extends FileAttributeView> type) {
         for (FileAttributeViewFactory<?> factory : factories) {
             if (factory.viewType().equals(type)) {
                 return factory;
             }
         }
+        for (FileAttributeViewFactory<?> factory : factories) {
+            if (type.isAssignableFrom(factory.viewType())) {
+                return factory;
+            }
+        }
         throw noFactoryError(type.getName());
     }
 
@@ -19,6 +19,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.nio.file.attribute.GroupPrincipal;
 
+import javax.annotation.Nullable;
+
+import com.google.common.base.Optional;
+
 /**
  * A {@link GroupPrincipal} that represents users by integer IDs.
  *
@@ -51,15 +55,37 @@ public final class GroupIdPrincipal implements GroupPrincipal {
     }
 
     private final int gid;
+    private final Optional<String> groupName;
 
     public GroupIdPrincipal(int gid) {
+        this(gid, null);
+    }
+
+    /**
+     * Creates a principal for the given ID that also records the group's name.
+     * The name is informational: principals with the same ID are equal
+     * regardless of their names.
+     *
+     * @param gid the group ID
+     * @param groupName the group's name, or {@code null} if it is not known
+     */
+    public GroupIdPrincipal(int gid, @Nullable String groupName) {
         this.gid = gid;
+        this.groupName = Optional.fromNullable(groupName);
     }
 
     public int getGid() {
         return gid;
     }
 
+    /**
+     * Returns the name of this group on the system that created this principal,
+     * if it is known.
+     */
+    public Optional<String> getGroupName() {
+        return groupName;
+    }
+
     /**
      * Returns a string representation of this group's ID.
      */
@@ -82,4 +108,13 @@ public final class GroupIdPrincipal implements GroupPrincipal {
         }
     }
 
+    @Override
+    public String toString() {
+        if (groupName.isPresent()) {
+            return groupName.get() + " (" + gid + ")";
+        } else {
+            return Integer.toString(gid);
+        }
+    }
+
 }
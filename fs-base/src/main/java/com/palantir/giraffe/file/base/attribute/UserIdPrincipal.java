@@ -19,6 +19,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.nio.file.attribute.UserPrincipal;
 
+import javax.annotation.Nullable;
+
+import com.google.common.base.Optional;
+
 /**
  * A {@link UserPrincipal} that represents users by integer IDs.
  *
@@ -51,15 +55,37 @@ public final class UserIdPrincipal implements UserPrincipal {
     }
 
     private final int uid;
+    private final Optional<String> userName;
 
     public UserIdPrincipal(int uid) {
+        this(uid, null);
+    }
+
+    /**
+     * Creates a principal for the given ID that also records the user's name.
+     * The name is informational: principals with the same ID are equal
+     * regardless of their names.
+     *
+     * @param uid the user ID
+     * @param userName the user's name, or {@code null} if it is not known
+     */
+    public UserIdPrincipal(int uid, @Nullable String userName) {
         this.uid = uid;
+        this.userName = Optional.fromNullable(userName);
     }
 
     public int getUid() {
         return uid;
     }
 
+    /**
+     * Returns the name of this user on the system that created this principal,
+     * if it is known.
+     */
+    public Optional<String> getUserName() {
+        return userName;
+    }
+
     /**
      * Returns a string representation of this user's ID.
      */
@@ -82,4 +108,13 @@ public final class UserIdPrincipal implements UserPrincipal {
         }
     }
 
+    @Override
+    public String toString() {
+        if (userName.isPresent()) {
+            return userName.get() + " (" + uid + ")";
+        } else {
+            return Integer.toString(uid);
+        }
+    }
+
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+
+/**
+ * Indicates that a {@code FileSystemProvider} can compute a digest of a file
+ * while efficiently copying it, without reading the file again.
+ */
+public interface DigestingFileCopy {
+
+    /**
+     * Copies the source file to the target path, replacing the target if it
+     * exists, and computes the digest of the copied bytes as they are
+     * transferred.
+     * <p>
+     * At least one of {@code source} or {@code target} will be associated with
+     * a {@code FileSystem} from this provider. If this method cannot
+     * efficiently copy between the given paths, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller should
+     * fall back to another mechanism.
+     *
+     * @param source the path to the file to copy
+     * @param target the target path
+     * @param algorithm the digest algorithm
+     *
+     * @return the digest of the copied bytes
+     *
+     * @throws UnsupportedOperationException if this implementation does not
+     *         support copies between a given {@code source}-{@code target} pair
+     * @throws IOException if an I/O error occurs while copying
+     *
+     * @see LargeFileCopy
+     */
+    HashCode copyLarge(Path source, Path target, ChecksumAlgorithm algorithm) throws IOException;
+}
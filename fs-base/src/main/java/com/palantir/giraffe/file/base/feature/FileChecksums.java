@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+
+/**
+ * Indicates that a {@code FileSystemProvider} can compute file checksums
+ * without reading file contents through the file system. For example, a
+ * remote provider may compute checksums on the remote host.
+ */
+public interface FileChecksums {
+
+    /**
+     * Computes the checksums of regular files. All files are associated with
+     * the same file system from this provider. If this method does not
+     * support the given algorithm, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller
+     * should read the files instead.
+     *
+     * @param files the files to checksum
+     * @param algorithm the digest algorithm
+     *
+     * @return the checksum of each file, keyed by the given paths
+     *
+     * @throws UnsupportedOperationException if this implementation does not
+     *         support {@code algorithm}
+     * @throws NoSuchFileException if a file does not exist
+     * @throws IOException if an I/O error occurs while computing checksums
+     */
+    Map<Path, HashCode> checksums(List<? extends Path> files, ChecksumAlgorithm algorithm)
+            throws IOException;
+}
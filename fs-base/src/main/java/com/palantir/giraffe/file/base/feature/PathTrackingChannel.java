@@ -0,0 +1,36 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.channels.Channel;
+
+/**
+ * Indicates that a {@code Channel} opened for a path can efficiently detect
+ * when the path no longer refers to the file the channel reads, for example
+ * after log rotation renames the file and creates a new one.
+ */
+public interface PathTrackingChannel extends Channel {
+
+    /**
+     * Returns {@code true} if the path used to open this channel now refers
+     * to a different file. Returns {@code false} if the path does not exist
+     * or if the file cannot be distinguished from the open file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    boolean isPathReplaced() throws IOException;
+}
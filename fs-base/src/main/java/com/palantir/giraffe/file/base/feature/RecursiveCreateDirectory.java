@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+
+/**
+ * Indicates that a {@code FileSystemProvider} supports efficient creation of
+ * directories and their missing parents.
+ */
+public interface RecursiveCreateDirectory {
+
+    /**
+     * Creates a directory and all nonexistent parent directories in an
+     * efficient way. An efficient mechanism is one that generally performs
+     * better than checking and creating each parent separately. For example,
+     * a remote provider may create all directories with one command.
+     * <p>
+     * This method has the same behavior as
+     * {@link java.nio.file.Files#createDirectories Files.createDirectories}:
+     * it does not fail if the directory already exists and the attributes are
+     * set on every directory that is created. If this method cannot
+     * efficiently create the directories, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller should
+     * fall back to another mechanism.
+     *
+     * @param dir the directory to create
+     * @param attrs attributes to set when creating the directories
+     *
+     * @throws UnsupportedOperationException if this implementation cannot
+     *         create {@code dir} or set the attributes
+     * @throws FileAlreadyExistsException if {@code dir} exists but is not a
+     *         directory
+     * @throws IOException if an I/O error occurs while creating directories
+     */
+    void createDirectories(Path dir, FileAttribute<?>... attrs) throws IOException;
+}
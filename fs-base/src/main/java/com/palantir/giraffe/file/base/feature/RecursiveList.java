@@ -0,0 +1,55 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+/**
+ * Indicates that a {@code FileSystemProvider} supports efficient recursive
+ * listing.
+ */
+public interface RecursiveList {
+
+    /**
+     * Lists a path and all of its descendants with their attributes in an
+     * efficient way. An efficient mechanism is one that generally performs
+     * better than the default mechanism of walking the file tree and reading
+     * the attributes of each path. For example, a remote provider may list
+     * the tree on the remote host.
+     * <p>
+     * Symbolic links are not followed. The returned paths are
+     * {@linkplain Path#resolve(String) resolved} against {@code dir} and
+     * iterate in the same order as {@link java.nio.file.Files#walkFileTree
+     * Files.walkFileTree}: {@code dir} first and every directory before its
+     * contents. If this method cannot efficiently list the path, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller should
+     * fall back to another mechanism.
+     *
+     * @param dir the path to list
+     *
+     * @return the attributes of {@code dir} and all descendants
+     *
+     * @throws UnsupportedOperationException if this implementation cannot
+     *         list {@code dir}
+     * @throws NoSuchFileException if {@code dir} does not exist
+     * @throws IOException if an I/O error occurs while listing
+     */
+    Map<Path, BasicFileAttributes> listRecursive(Path dir) throws IOException;
+}
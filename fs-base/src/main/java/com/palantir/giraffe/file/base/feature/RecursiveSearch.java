@@ -0,0 +1,62 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+import com.palantir.giraffe.file.FileSearch;
+
+/**
+ * Indicates that a {@code FileSystemProvider} supports efficient searches of
+ * file trees.
+ */
+public interface RecursiveSearch {
+
+    /**
+     * Finds the paths in a file tree that may match the given criteria in an
+     * efficient way. An efficient mechanism is one that generally performs
+     * better than the default mechanism of listing the whole tree and
+     * filtering the results. For example, a remote provider may apply the
+     * criteria on the remote host and only return matching paths.
+     * <p>
+     * Implementations may return paths that do not match the criteria if they
+     * cannot apply some criteria efficiently; callers filter the returned
+     * paths using the returned attributes. Implementations must not omit
+     * paths that match. Symbolic links are not followed and the returned
+     * paths are {@linkplain Path#resolve(String) resolved} against
+     * {@code dir}, with every directory before its contents. If this method
+     * cannot efficiently search the path, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller
+     * should fall back to another mechanism.
+     *
+     * @param dir the path to search
+     * @param search the search criteria
+     *
+     * @return the attributes of all matching paths and possibly some
+     *         non-matching paths
+     *
+     * @throws UnsupportedOperationException if this implementation cannot
+     *         search {@code dir}
+     * @throws NoSuchFileException if {@code dir} does not exist
+     * @throws IOException if an I/O error occurs while searching
+     */
+    Map<Path, BasicFileAttributes> searchRecursive(Path dir, FileSearch search)
+            throws IOException;
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base.feature;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import com.palantir.giraffe.file.TreeStatistics;
+
+/**
+ * Indicates that a {@code FileSystemProvider} supports efficient computation
+ * of file tree statistics.
+ */
+public interface RecursiveStatistics {
+
+    /**
+     * Computes statistics for a path and all of its descendants in an
+     * efficient way. An efficient mechanism is one that generally performs
+     * better than the default mechanism of walking the file tree and reading
+     * the attributes of each path. For example, a remote provider may compute
+     * the statistics on the remote host.
+     * <p>
+     * Symbolic links are not followed. If this method cannot efficiently
+     * compute statistics for the path, it throws
+     * {@code UnsupportedOperationException}, indicating that the caller should
+     * fall back to another mechanism.
+     *
+     * @param dir the root of the tree
+     * @param largestFiles the maximum number of largest files to report
+     *
+     * @throws UnsupportedOperationException if this implementation cannot
+     *         compute statistics for {@code dir}
+     * @throws NoSuchFileException if {@code dir} does not exist
+     * @throws IOException if an I/O error occurs while computing statistics
+     */
+    TreeStatistics treeStatistics(Path dir, int largestFiles) throws IOException;
+}
@@ -25,14 +25,21 @@ import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import com.palantir.giraffe.file.FileSearch;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.TreeStatistics;
 import com.palantir.giraffe.file.test.creator.DirectoryTestCreator;
 import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
 
@@ -86,6 +93,113 @@ public final class FileSystemListDirectoryTest extends FileSystemBaseTest {
         }
     }
 
+    @Test
+    public void listsDirectoryRecursive() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        Path subdir = dir.resolve(DirectoryTestCreator.F_RO_SUBDIR);
+        assertThat("incorrect paths", MoreFiles.listDirectoryRecursive(dir), containsInAnyOrder(
+                equalTo(dir),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_LOG)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_SYMLINK)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT)),
+                equalTo(subdir),
+                equalTo(subdir.resolve(DirectoryTestCreator.F_RO_NESTED))));
+    }
+
+    @Test
+    public void listsFilesRecursive() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        Path subdir = dir.resolve(DirectoryTestCreator.F_RO_SUBDIR);
+        assertThat("incorrect paths", MoreFiles.listDirectoryFilesRecursive(dir),
+                containsInAnyOrder(
+                        equalTo(dir.resolve(DirectoryTestCreator.F_RO_LOG)),
+                        equalTo(dir.resolve(DirectoryTestCreator.F_RO_SYMLINK)),
+                        equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT)),
+                        equalTo(subdir.resolve(DirectoryTestCreator.F_RO_NESTED))));
+    }
+
+    @Test
+    public void readsAttributesRecursive() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        Path subdir = dir.resolve(DirectoryTestCreator.F_RO_SUBDIR);
+        Path text = dir.resolve(DirectoryTestCreator.F_RO_TEXT);
+        Path nested = subdir.resolve(DirectoryTestCreator.F_RO_NESTED);
+
+        Map<Path, BasicFileAttributes> attributes = MoreFiles.readAttributesRecursive(dir);
+        List<Path> paths = new ArrayList<>(attributes.keySet());
+        assertThat("root is not first", paths.get(0), equalTo(dir));
+        assertThat("subdir is not before contents",
+                paths.indexOf(subdir) < paths.indexOf(nested), equalTo(true));
+
+        assertThat("subdir is not a directory",
+                attributes.get(subdir).isDirectory(), equalTo(true));
+        assertThat("symlink was followed",
+                attributes.get(dir.resolve(DirectoryTestCreator.F_RO_SYMLINK)).isSymbolicLink(),
+                equalTo(true));
+
+        BasicFileAttributes expected = Files.readAttributes(text, BasicFileAttributes.class);
+        BasicFileAttributes actual = attributes.get(text);
+        assertThat("file is not regular", actual.isRegularFile(), equalTo(true));
+        assertThat("incorrect size", actual.size(), equalTo(expected.size()));
+        assertThat("incorrect modification time",
+                actual.lastModifiedTime().to(TimeUnit.SECONDS),
+                equalTo(expected.lastModifiedTime().to(TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void searchesByNameGlob() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        FileSearch search = FileSearch.builder().nameGlob("*.txt").build();
+        assertThat("incorrect paths", MoreFiles.search(dir, search), containsInAnyOrder(
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_SYMLINK)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_SUBDIR)
+                        .resolve(DirectoryTestCreator.F_RO_NESTED))));
+    }
+
+    @Test
+    public void searchesByPathGlobAndType() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        FileSearch search = FileSearch.builder().pathGlob("*.txt").filesOnly().build();
+        assertThat("incorrect paths", MoreFiles.search(dir, search), containsInAnyOrder(
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT))));
+    }
+
+    @Test
+    public void searchesWithUntranslatableGlob() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        FileSearch search = FileSearch.builder().pathGlob("**.{log,txt}").filesOnly().build();
+        assertThat("incorrect paths", MoreFiles.search(dir, search), containsInAnyOrder(
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_LOG)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_SUBDIR)
+                        .resolve(DirectoryTestCreator.F_RO_NESTED))));
+    }
+
+    @Test
+    public void searchesToMaxDepth() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        FileSearch search = FileSearch.builder().maxDepth(1).maxSize(0).build();
+        assertThat("incorrect paths", MoreFiles.search(dir, search), containsInAnyOrder(
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_LOG)),
+                equalTo(dir.resolve(DirectoryTestCreator.F_RO_TEXT))));
+    }
+
+    @Test
+    public void computesTreeStatistics() throws IOException {
+        Path dir = getTestPath(DirectoryTestCreator.F_RO_DIRECTORY);
+        Path symlink = dir.resolve(DirectoryTestCreator.F_RO_SYMLINK);
+        long symlinkSize = Files.readAttributes(symlink, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS).size();
+
+        TreeStatistics stats = MoreFiles.treeStatistics(dir, 1);
+        assertThat("incorrect file count", stats.getFileCount(), equalTo(4L));
+        assertThat("incorrect directory count", stats.getDirectoryCount(), equalTo(2L));
+        assertThat("incorrect total size", stats.getTotalBytes(), equalTo(symlinkSize));
+        assertThat("incorrect largest files", stats.getLargestFiles(),
+                equalTo(Collections.singletonMap(symlink, symlinkSize)));
+    }
+
     private static void assertStreamEquals(DirectoryStream<Path> stream, Path dir,
             String... children) {
         Collection<Matcher<? super Path>> childMatchers = new HashSet<>();
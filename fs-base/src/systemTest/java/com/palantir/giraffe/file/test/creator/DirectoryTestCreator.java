@@ -32,6 +32,7 @@ public class DirectoryTestCreator implements Creator {
     public static final String F_RO_LOG = "ro_error.log";
     public static final String F_RO_SYMLINK = "ro_symlink.txt";
     public static final String F_RO_SUBDIR = "ro_subdir";
+    public static final String F_RO_NESTED = "ro_nested.txt";
 
     @Override
     public void createScript(ScriptWriter script) throws IOException {
@@ -43,6 +44,7 @@ public class DirectoryTestCreator implements Creator {
         script.createSymlink(dirPrefix + F_RO_SYMLINK, F_RO_TEXT);
 
         script.createDir(dirPrefix + F_RO_SUBDIR);
+        script.createFile(dirPrefix + F_RO_SUBDIR + "/" + F_RO_NESTED);
     }
 
 }
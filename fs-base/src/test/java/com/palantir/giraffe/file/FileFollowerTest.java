@@ -0,0 +1,151 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests basic functionality of {@link FileFollower}.
+ */
+public class FileFollowerTest {
+
+    private static final FollowOptions OPTIONS = FollowOptions.builder()
+            .pollInterval(10, 50, TimeUnit.MILLISECONDS)
+            .build();
+
+    @Rule
+    public final TemporaryFolder workingDir = new TemporaryFolder();
+
+    private final FileFollower follower = FileFollower.create(1);
+    private final RecordingListener listener = new RecordingListener();
+
+    @After
+    public void closeFollower() {
+        follower.close();
+    }
+
+    @Test
+    public void followsAppendedLines() throws IOException, InterruptedException {
+        Path file = write(workingDir.newFile("log").toPath(), "old\n");
+        follower.follow(file, OPTIONS, listener);
+
+        append(file, "a\nb");
+        append(file, "c\r\n");
+        assertEquals("incorrect events", Arrays.asList("a", "bc"), listener.take(2));
+    }
+
+    @Test
+    public void readsFromBeginning() throws IOException, InterruptedException {
+        Path file = write(workingDir.newFile("log").toPath(), "one\ntwo\n");
+        FollowOptions options = FollowOptions.builder()
+                .fromBeginning()
+                .pollInterval(10, 50, TimeUnit.MILLISECONDS)
+                .build();
+        follower.follow(file, options, listener);
+        assertEquals("incorrect events", Arrays.asList("one", "two"), listener.take(2));
+    }
+
+    @Test
+    public void detectsTruncation() throws IOException, InterruptedException {
+        Path file = write(workingDir.newFile("log").toPath(), "");
+        follower.follow(file, OPTIONS, listener);
+
+        append(file, "first\n");
+        assertEquals("incorrect events", Arrays.asList("first"), listener.take(1));
+
+        write(file, "2\n");
+        assertEquals("incorrect events",
+                Arrays.asList(RecordingListener.ROTATE, "2"),
+                listener.take(2));
+    }
+
+    @Test
+    public void detectsReplacement() throws IOException, InterruptedException {
+        Path file = write(workingDir.newFile("log").toPath(), "");
+        follower.follow(file, OPTIONS, listener);
+
+        append(file, "first\n");
+        assertEquals("incorrect events", Arrays.asList("first"), listener.take(1));
+
+        Path rotated = Files.move(file, file.resolveSibling("log.1"));
+        append(rotated, "last");
+        write(file, "new file\n");
+        assertEquals("incorrect events",
+                Arrays.asList("last", RecordingListener.ROTATE, "new file"),
+                listener.take(3));
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Records lines and rotations as strings.
+     */
+    static final class RecordingListener implements FollowListener {
+        static final String ROTATE = "<rotate>";
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onLines(Path file, List<String> lines) {
+            events.addAll(lines);
+        }
+
+        @Override
+        public void onRotate(Path file) {
+            events.add(ROTATE);
+        }
+
+        @Override
+        public void onError(Path file, Exception e) {
+            events.add("<error: " + e + ">");
+        }
+
+        List<String> take(int count) throws InterruptedException {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = events.poll(5, TimeUnit.SECONDS);
+                if (event == null) {
+                    break;
+                }
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}
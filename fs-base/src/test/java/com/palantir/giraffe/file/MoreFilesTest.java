@@ -15,16 +15,29 @@
  */
 package com.palantir.giraffe.file;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystemException;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+
 /**
  * Tests basic functionality of {@link MoreFiles} methods using the local file
  * system.
@@ -57,4 +70,189 @@ public class MoreFilesTest {
         MoreFiles.copyRecursive(source, target);
     }
 
+    @Test
+    public void checksumsLocalFiles() throws IOException {
+        Path hello = MoreFiles.write(workingDir.newFile("hello").toPath(), "hello",
+                StandardCharsets.UTF_8);
+        Path empty = workingDir.newFile("empty").toPath();
+
+        Map<Path, HashCode> checksums = MoreFiles.checksums(
+                Arrays.asList(hello, empty), ChecksumAlgorithm.SHA_1);
+        assertEquals("incorrect order", Arrays.asList(hello, empty),
+                new ArrayList<>(checksums.keySet()));
+        assertEquals("incorrect checksum",
+                HashCode.fromString("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d"),
+                checksums.get(hello));
+        assertEquals("incorrect checksum",
+                HashCode.fromString("da39a3ee5e6b4b0d3255bfef95601890afd80709"),
+                checksums.get(empty));
+    }
+
+    @Test
+    public void copyLargeComputesDigest() throws IOException {
+        Path source = write(workingDir.newFile("source").toPath(), "hello");
+        Path target = workingDir.newFile("target").toPath();
+
+        HashCode digest = MoreFiles.copyLargeVerified(source, target, ChecksumAlgorithm.SHA_1);
+        assertEquals("incorrect digest",
+                HashCode.fromString("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d"),
+                digest);
+        assertEquals("incorrect content", "hello",
+                MoreFiles.readAllString(target, StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void checksumFailsIfFileMissing() throws IOException {
+        Path missing = workingDir.getRoot().toPath().resolve("missing");
+        MoreFiles.checksum(missing, ChecksumAlgorithm.MD5);
+    }
+
+    @Test
+    public void syncCopiesOnlyChangedFiles() throws IOException {
+        Path source = workingDir.newFolder("source").toPath();
+        Path target = workingDir.getRoot().toPath().resolve("target");
+        write(source.resolve("a"), "alpha");
+        Files.createDirectory(source.resolve("dir"));
+        write(source.resolve("dir").resolve("b"), "bravo");
+
+        SyncReport report = MoreFiles.sync(source, target);
+        assertEquals("incorrect created files",
+                ImmutableSet.of(target.resolve("a"), target.resolve("dir").resolve("b")),
+                ImmutableSet.copyOf(report.getCreatedFiles()));
+        assertEquals("incorrect created directories",
+                Arrays.asList(target, target.resolve("dir")),
+                report.getCreatedDirectories());
+        assertEquals("incorrect bytes copied", 10, report.getBytesCopied());
+        Path copied = target.resolve("dir").resolve("b");
+        assertEquals("incorrect content", "bravo",
+                MoreFiles.readAllString(copied, StandardCharsets.UTF_8));
+
+        write(source.resolve("a"), "alpha-2");
+        report = MoreFiles.sync(source, target);
+        assertEquals("incorrect updated files",
+                Collections.singletonList(target.resolve("a")),
+                report.getUpdatedFiles());
+        assertEquals("incorrect unchanged count", 1, report.getUnchangedFileCount());
+
+        report = MoreFiles.sync(source, target);
+        assertFalse("unexpected changes: " + report, report.hasChanges());
+        assertEquals("incorrect unchanged count", 2, report.getUnchangedFileCount());
+    }
+
+    @Test
+    public void syncComparesChecksums() throws IOException {
+        Path source = workingDir.newFolder("source").toPath();
+        Path target = workingDir.newFolder("target").toPath();
+        FileTime time = FileTime.fromMillis(1400000000000L);
+        Files.setLastModifiedTime(write(source.resolve("a"), "alpha"), time);
+        Files.setLastModifiedTime(write(target.resolve("a"), "aleph"), time);
+
+        SyncReport report = MoreFiles.sync(source, target);
+        assertFalse("unexpected changes: " + report, report.hasChanges());
+
+        SyncOptions options = SyncOptions.builder()
+                .compareChecksums(ChecksumAlgorithm.MD5)
+                .build();
+        report = MoreFiles.sync(source, target, options);
+        assertEquals("incorrect updated files",
+                Collections.singletonList(target.resolve("a")),
+                report.getUpdatedFiles());
+        assertEquals("incorrect content", "alpha",
+                MoreFiles.readAllString(target.resolve("a"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void syncDeletesExtraneousPaths() throws IOException {
+        Path source = workingDir.newFolder("source").toPath();
+        Path target = workingDir.newFolder("target").toPath();
+        write(source.resolve("a"), "alpha");
+        write(target.resolve("b"), "bravo");
+        Files.createDirectory(target.resolve("dir"));
+        write(target.resolve("dir").resolve("c"), "charlie");
+
+        SyncReport report = MoreFiles.sync(source, target);
+        assertEquals("unexpected deletions", 0, report.getDeletedPaths().size());
+
+        SyncOptions options = SyncOptions.builder().deleteExtraneous().build();
+        report = MoreFiles.sync(source, target, options);
+        assertEquals("incorrect deleted paths",
+                ImmutableSet.of(target.resolve("b"), target.resolve("dir")),
+                ImmutableSet.copyOf(report.getDeletedPaths()));
+        assertEquals("incorrect target contents",
+                Collections.singletonList(target.resolve("a")),
+                MoreFiles.listDirectory(target));
+    }
+
+    @Test(expected = FileSystemException.class)
+    public void syncFailsIfSourceDirectoryAndTargetFile() throws IOException {
+        Path source = workingDir.newFolder("source").toPath();
+        Path target = workingDir.newFile("target").toPath();
+        MoreFiles.sync(source, target);
+    }
+
+    @Test
+    public void searchFiltersBySizeAndTime() throws IOException {
+        Path dir = workingDir.newFolder("dir").toPath();
+        FileTime old = FileTime.fromMillis(1400000000000L);
+        FileTime recent = FileTime.fromMillis(1500000000000L);
+        Files.setLastModifiedTime(write(dir.resolve("a"), "alpha"), old);
+        Files.setLastModifiedTime(write(dir.resolve("b"), "bravo"), recent);
+        Files.setLastModifiedTime(write(dir.resolve("c"), "charlie"), recent);
+
+        FileSearch search = FileSearch.builder()
+                .maxSize(5)
+                .modifiedAfter(FileTime.fromMillis(1450000000000L))
+                .build();
+        assertEquals("incorrect matches",
+                Collections.singletonList(dir.resolve("b")),
+                MoreFiles.search(dir, search));
+
+        search = FileSearch.builder().minSize(6).filesOnly().build();
+        assertEquals("incorrect matches",
+                Collections.singletonList(dir.resolve("c")),
+                MoreFiles.search(dir, search));
+
+        search = FileSearch.builder().modifiedBefore(recent).filesOnly().build();
+        assertEquals("incorrect matches",
+                Collections.singletonList(dir.resolve("a")),
+                MoreFiles.search(dir, search));
+    }
+
+    @Test
+    public void searchIncludesMatchingRoot() throws IOException {
+        Path dir = workingDir.newFolder("dir").toPath();
+        write(dir.resolve("a"), "alpha");
+
+        FileSearch search = FileSearch.builder().nameGlob("di?").build();
+        assertEquals("incorrect matches",
+                Collections.singletonList(dir),
+                MoreFiles.search(dir, search));
+    }
+
+    @Test
+    public void treeStatisticsCountsTree() throws IOException {
+        Path dir = workingDir.newFolder("dir").toPath();
+        Path sub = Files.createDirectories(dir.resolve("a").resolve("b"));
+        write(dir.resolve("x"), "x-ray");
+        write(sub.resolve("y"), "yankee");
+        write(sub.resolve("z"), "zulu");
+
+        TreeStatistics stats = MoreFiles.treeStatistics(dir, 2);
+        assertEquals("incorrect file count", 3, stats.getFileCount());
+        assertEquals("incorrect directory count", 3, stats.getDirectoryCount());
+        assertEquals("incorrect total size", 15, stats.getTotalBytes());
+        assertEquals("incorrect largest files",
+                Arrays.asList(sub.resolve("y"), dir.resolve("x")),
+                new ArrayList<>(stats.getLargestFiles().keySet()));
+
+        stats = MoreFiles.treeStatistics(sub.resolve("z"));
+        assertEquals("incorrect file count", 1, stats.getFileCount());
+        assertEquals("incorrect directory count", 0, stats.getDirectoryCount());
+        assertEquals("incorrect total size", 4, stats.getTotalBytes());
+    }
+
+    private static Path write(Path path, String content) throws IOException {
+        return MoreFiles.write(path, content, StandardCharsets.UTF_8);
+    }
+
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.file.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchEvent.Modifier;
+import java.nio.file.WatchKey;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests basic functionality of {@link BaseWatchService} and
+ * {@link BaseWatchKey}.
+ */
+public class BaseWatchServiceTest {
+
+    private TestWatchService watcher;
+    private BaseWatchKey key;
+
+    @Before
+    public void setup() {
+        watcher = new TestWatchService();
+        key = new BaseWatchKey(watcher, Paths.get("dir"), ImmutableSet.of(
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+    }
+
+    @Test
+    public void queuesKeyOnceUntilReset() {
+        key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE, Paths.get("a"));
+        key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE, Paths.get("b"));
+
+        assertSame("key not queued", key, watcher.poll());
+        assertNull("key queued twice", watcher.poll());
+        assertEquals("incorrect events", 2, key.pollEvents().size());
+
+        key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE, Paths.get("c"));
+        assertNull("signalled key queued", watcher.poll());
+
+        assertTrue("key invalid", key.reset());
+        assertSame("key with events not queued on reset", key, watcher.poll());
+    }
+
+    @Test
+    public void coalescesRepeatedEvents() {
+        Path context = Paths.get("a");
+        key.signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, context);
+        key.signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, context);
+        key.signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, context);
+
+        List<WatchEvent<?>> events = key.pollEvents();
+        assertEquals("incorrect events", 1, events.size());
+        assertEquals("incorrect count", 3, events.get(0).count());
+    }
+
+    @Test
+    public void ignoresUnregisteredKinds() {
+        key.signalEvent(StandardWatchEventKinds.ENTRY_DELETE, Paths.get("a"));
+        assertNull("key queued", watcher.poll());
+        assertTrue("unexpected events", key.pollEvents().isEmpty());
+    }
+
+    @Test
+    public void overflowsWhenFull() {
+        for (int i = 0; i <= BaseWatchKey.MAX_EVENTS; i++) {
+            key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE, Paths.get("file" + i));
+        }
+
+        List<WatchEvent<?>> events = key.pollEvents();
+        assertEquals("incorrect events", 1, events.size());
+        assertEquals("incorrect kind", StandardWatchEventKinds.OVERFLOW, events.get(0).kind());
+    }
+
+    @Test
+    public void invalidatedKeysAreQueued() {
+        key.invalidate();
+        assertSame("key not queued", key, watcher.poll());
+        assertFalse("key is valid", key.isValid());
+        assertFalse("reset returned true", key.reset());
+    }
+
+    @Test
+    public void cancelNotifiesService() {
+        key.cancel();
+        key.cancel();
+        assertFalse("key is valid", key.isValid());
+        assertEquals("incorrect cancel count", 1, watcher.cancelled);
+    }
+
+    @Test(expected = ClosedWatchServiceException.class)
+    public void takeFailsWhenClosed() throws Exception {
+        watcher.close();
+        watcher.take();
+    }
+
+    private static final class TestWatchService extends BaseWatchService {
+        private int cancelled;
+
+        @Override
+        protected WatchKey register(BasePath<?> path, Kind<?>[] events, Modifier... modifiers) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void cancelled(BaseWatchKey cancelledKey) {
+            cancelled++;
+        }
+
+        @Override
+        protected void doClose() throws IOException {}
+    }
+}
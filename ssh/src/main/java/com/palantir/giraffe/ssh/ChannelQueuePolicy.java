@@ -0,0 +1,37 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+/**
+ * Determines the order in which waiting operations receive channels when the
+ * number of channels on an SSH connection is limited.
+ *
+ * @see SshSystemRequest#setMaxChannels(int)
+ */
+public enum ChannelQueuePolicy {
+    /**
+     * Operations receive channels in the order they were requested.
+     */
+    FIFO,
+
+    /**
+     * File system operations receive channels before commands. File system
+     * operations usually hold a channel for a short time, so this reduces
+     * their latency when many long-running commands are queued. Operations of
+     * the same kind receive channels in the order they were requested.
+     */
+    PRIORITY
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Algorithm preferences used when negotiating SSH connections.
+ * <p>
+ * Each list names algorithms in order of preference. During negotiation, the
+ * preferred algorithms are offered first, followed by the remaining supported
+ * algorithms in their default order, so connections still succeed with
+ * servers that support none of the preferred algorithms. Unsupported names
+ * are ignored.
+ * <p>
+ * By default, connections are not compressed. Naming {@code "zlib"} or
+ * {@code "zlib@openssh.com"} in the compression preferences enables
+ * compression with servers that support it.
+ *
+ * @see SshSystemRequest#setAlgorithms(SshAlgorithms)
+ */
+public final class SshAlgorithms {
+
+    private static final SshAlgorithms DEFAULTS = builder().build();
+
+    private static final SshAlgorithms THROUGHPUT = builder()
+            .setCiphers("aes128-ctr", "aes192-ctr", "aes256-ctr")
+            .setMacs("hmac-sha1-etm@openssh.com", "hmac-sha1",
+                    "hmac-sha2-256-etm@openssh.com", "hmac-sha2-256")
+            .setCompression("none")
+            .build();
+
+    private static final SshAlgorithms FAST_HANDSHAKE = builder()
+            .setKeyExchanges("curve25519-sha256", "curve25519-sha256@libssh.org",
+                    "ecdh-sha2-nistp256")
+            .build();
+
+    /**
+     * Returns preferences that use the default order for all algorithms.
+     */
+    public static SshAlgorithms defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns preferences for connections that transfer large amounts of
+     * data. These prefer AES in counter mode, which is hardware accelerated
+     * on most processors, and the least expensive secure MAC. Connections are
+     * not compressed.
+     */
+    public static SshAlgorithms throughput() {
+        return THROUGHPUT;
+    }
+
+    /**
+     * Returns preferences for short-lived connections. These prefer elliptic
+     * curve key exchanges, which require less computation and fewer messages
+     * than Diffie-Hellman group exchange.
+     */
+    public static SshAlgorithms fastHandshake() {
+        return FAST_HANDSHAKE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final ImmutableList<String> ciphers;
+    private final ImmutableList<String> macs;
+    private final ImmutableList<String> keyExchanges;
+    private final ImmutableList<String> compression;
+
+    private SshAlgorithms(Builder builder) {
+        this.ciphers = builder.ciphers;
+        this.macs = builder.macs;
+        this.keyExchanges = builder.keyExchanges;
+        this.compression = builder.compression;
+    }
+
+    public List<String> getCiphers() {
+        return ciphers;
+    }
+
+    public List<String> getMacs() {
+        return macs;
+    }
+
+    public List<String> getKeyExchanges() {
+        return keyExchanges;
+    }
+
+    public List<String> getCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns a builder initialized with the preferences of this object.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.ciphers = ciphers;
+        builder.macs = macs;
+        builder.keyExchanges = keyExchanges;
+        builder.compression = compression;
+        return builder;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ciphers, macs, keyExchanges, compression);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof SshAlgorithms)) {
+            return false;
+        } else {
+            SshAlgorithms that = (SshAlgorithms) obj;
+            return ciphers.equals(that.ciphers)
+                    && macs.equals(that.macs)
+                    && keyExchanges.equals(that.keyExchanges)
+                    && compression.equals(that.compression);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SshAlgorithms[ciphers = %s, macs = %s, keyExchanges = %s, "
+                + "compression = %s]",
+                ciphers, macs, keyExchanges, compression);
+    }
+
+    /**
+     * Builds {@code SshAlgorithms} instances. Lists that are not set use the
+     * default order.
+     */
+    public static final class Builder {
+        private ImmutableList<String> ciphers = ImmutableList.of();
+        private ImmutableList<String> macs = ImmutableList.of();
+        private ImmutableList<String> keyExchanges = ImmutableList.of();
+        private ImmutableList<String> compression = ImmutableList.of();
+
+        private Builder() {}
+
+        public Builder setCiphers(String... names) {
+            ciphers = copyNames(names);
+            return this;
+        }
+
+        public Builder setMacs(String... names) {
+            macs = copyNames(names);
+            return this;
+        }
+
+        public Builder setKeyExchanges(String... names) {
+            keyExchanges = copyNames(names);
+            return this;
+        }
+
+        public Builder setCompression(String... names) {
+            compression = copyNames(names);
+            return this;
+        }
+
+        public SshAlgorithms build() {
+            return new SshAlgorithms(this);
+        }
+
+        private static ImmutableList<String> copyNames(String... names) {
+            return ImmutableList.copyOf(checkNotNull(names, "names must be non-null"));
+        }
+    }
+}
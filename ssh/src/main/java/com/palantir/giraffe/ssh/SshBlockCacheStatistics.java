@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+/**
+ * A snapshot of the usage of an SSH file system's block cache.
+ *
+ * @see SshSystemRequest#setBlockCacheSize(long)
+ */
+public final class SshBlockCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final long cachedBytes;
+    private final long maxBytes;
+
+    public SshBlockCacheStatistics(long hits,
+                                   long misses,
+                                   long evictions,
+                                   long invalidations,
+                                   long cachedBytes,
+                                   long maxBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.cachedBytes = cachedBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the total number of block reads served from memory.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the total number of block reads sent to the remote host.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the total number of blocks removed to make space for new blocks.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the total number of blocks removed because their file changed
+     * or was opened for writing.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Returns the number of bytes currently cached.
+     */
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Returns the maximum number of bytes the cache holds. If 0, the cache
+     * is disabled.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SshBlockCacheStatistics[hits = %d, misses = %d, evictions = %d, "
+                + "invalidations = %d, cached = %d, max = %d]",
+                hits, misses, evictions, invalidations, cachedBytes, maxBytes);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of channel usage on the connections of an SSH system.
+ * <p>
+ * Commands, file system operations, and persistent shells each use a channel.
+ * If the number of channels is {@linkplain SshSystemRequest#setMaxChannels(int)
+ * limited}, operations wait in a queue until a channel is available. The
+ * queue times reported here include operations that did not wait.
+ */
+public final class SshChannelStatistics {
+
+    private final int connections;
+    private final int maxChannels;
+    private final int openChannels;
+    private final int queuedRequests;
+    private final long acquiredChannels;
+    private final long totalQueueNanos;
+    private final long maxQueueNanos;
+
+    public SshChannelStatistics(int connections,
+                                int maxChannels,
+                                int openChannels,
+                                int queuedRequests,
+                                long acquiredChannels,
+                                long totalQueueNanos,
+                                long maxQueueNanos) {
+        this.connections = connections;
+        this.maxChannels = maxChannels;
+        this.openChannels = openChannels;
+        this.queuedRequests = queuedRequests;
+        this.acquiredChannels = acquiredChannels;
+        this.totalQueueNanos = totalQueueNanos;
+        this.maxQueueNanos = maxQueueNanos;
+    }
+
+    /**
+     * Returns the number of connections that share channels.
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Returns the maximum number of open channels on all connections, or 0 if
+     * the number of channels is not limited.
+     */
+    public int getMaxChannels() {
+        return maxChannels;
+    }
+
+    public int getOpenChannels() {
+        return openChannels;
+    }
+
+    /**
+     * Returns the number of operations waiting for a channel.
+     */
+    public int getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    /**
+     * Returns the total number of channels acquired since the connection
+     * opened.
+     */
+    public long getAcquiredChannels() {
+        return acquiredChannels;
+    }
+
+    public long getTotalQueueTime(TimeUnit unit) {
+        return unit.convert(totalQueueNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxQueueTime(TimeUnit unit) {
+        return unit.convert(maxQueueNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getAverageQueueTime(TimeUnit unit) {
+        if (acquiredChannels == 0) {
+            return 0;
+        } else {
+            return unit.convert(totalQueueNanos / acquiredChannels, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SshChannelStatistics[connections = %d, open = %d, max = %d, "
+                + "queued = %d, acquired = %d, averageQueueMillis = %d, maxQueueMillis = %d]",
+                connections, openChannels, maxChannels, queuedRequests, acquiredChannels,
+                getAverageQueueTime(TimeUnit.MILLISECONDS),
+                getMaxQueueTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+import com.palantir.giraffe.ssh.internal.RefCountedConnectionPool;
+
+/**
+ * Shares authenticated SSH connections between host control systems.
+ * <p>
+ * Opening a connection requires a TCP handshake, key exchange, and
+ * authentication. If a pool is {@linkplain
+ * SshSystemRequest#setConnectionPool(SshConnectionPool) set on a request},
+ * systems opened with the request lease connections from the pool instead.
+ * Closing a system closes its file system and execution system as usual, but
+ * returns its connections to the pool, where they remain open until they are
+ * idle for longer than the idle timeout.
+ * <p>
+ * Connections are keyed by host, port, credential, and
+ * {@linkplain SshSystemRequest#setAlgorithms(SshAlgorithms) algorithm
+ * preferences}. Credentials are compared by type, username, and secret, so
+ * equivalent credentials created separately share connections. Idle
+ * connections send keepalive messages and are checked periodically;
+ * connections that are disconnected or fail a check are closed and never
+ * leased again.
+ */
+public abstract class SshConnectionPool implements Closeable {
+
+    private static final class SharedPoolHolder {
+        private static final SshConnectionPool pool = builder().buildShared();
+    }
+
+    /**
+     * Returns the process-wide pool with default settings. The shared pool
+     * cannot be closed.
+     */
+    public static SshConnectionPool shared() {
+        return SharedPoolHolder.pool;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    protected SshConnectionPool() {}
+
+    /**
+     * Returns a snapshot of the connections in this pool.
+     */
+    public abstract SshConnectionPoolStatistics statistics();
+
+    /**
+     * Closes all idle connections. Leased connections are not affected.
+     */
+    public abstract void evictIdle();
+
+    /**
+     * Closes all idle connections and stops accepting new leases. Leased
+     * connections are closed when the systems that use them are closed.
+     *
+     * @throws UnsupportedOperationException if this is the
+     *         {@linkplain #shared() shared} pool
+     */
+    @Override
+    public abstract void close();
+
+    /**
+     * Builds {@code SshConnectionPool} instances.
+     */
+    public static final class Builder {
+        private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(5);
+        private long healthCheckMillis = TimeUnit.SECONDS.toMillis(30);
+        private int keepaliveInterval = 30;
+        private int maxIdleConnections = 4;
+        private int maxLeasesPerConnection = 1;
+
+        private Builder() {}
+
+        /**
+         * Sets how long a connection may be idle before it is closed. The
+         * default is 5 minutes.
+         */
+        public Builder setIdleTimeout(long duration, TimeUnit unit) {
+            checkArgument(duration > 0, "duration must be positive");
+            idleTimeoutMillis = checkNotNull(unit, "unit must be non-null").toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets how often idle connections are checked for failures and
+         * timeouts. The default is 30 seconds.
+         */
+        public Builder setHealthCheckInterval(long duration, TimeUnit unit) {
+            checkArgument(duration > 0, "duration must be positive");
+            healthCheckMillis = checkNotNull(unit, "unit must be non-null").toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets the keepalive interval, in seconds, for pooled connections
+         * opened with requests that do not set a
+         * {@linkplain SshSystemRequest#setKeepaliveInterval(int) keepalive
+         * interval}. The default is 30 seconds; 0 disables keepalive.
+         */
+        public Builder setKeepaliveInterval(int seconds) {
+            checkArgument(seconds >= 0, "seconds must be non-negative");
+            keepaliveInterval = seconds;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle connections kept for each host,
+         * port, and credential. Connections released while the maximum number
+         * are idle are closed. The default is 4.
+         */
+        public Builder setMaxIdleConnections(int maxIdle) {
+            checkArgument(maxIdle >= 0, "maxIdle must be non-negative");
+            maxIdleConnections = maxIdle;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of open systems that may use a connection at
+         * the same time. The default is 1, so each connection is used by one
+         * system at a time.
+         * <p>
+         * Systems that share a connection also share its channels, so
+         * {@linkplain SshSystemRequest#setMaxChannels(int) channel limits} of
+         * individual systems may not prevent the server's limit from being
+         * exceeded.
+         */
+        public Builder setMaxLeasesPerConnection(int maxLeases) {
+            checkArgument(maxLeases >= 1, "maxLeases must be positive");
+            maxLeasesPerConnection = maxLeases;
+            return this;
+        }
+
+        public SshConnectionPool build() {
+            return newPool(true);
+        }
+
+        private SshConnectionPool buildShared() {
+            return newPool(false);
+        }
+
+        private SshConnectionPool newPool(boolean closeable) {
+            return new RefCountedConnectionPool(
+                    idleTimeoutMillis,
+                    healthCheckMillis,
+                    keepaliveInterval,
+                    maxIdleConnections,
+                    maxLeasesPerConnection,
+                    closeable);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+/**
+ * A snapshot of the connections held by an {@link SshConnectionPool}.
+ */
+public final class SshConnectionPoolStatistics {
+
+    private final int leasedConnections;
+    private final int idleConnections;
+    private final long leases;
+    private final long openedConnections;
+    private final long evictedConnections;
+
+    public SshConnectionPoolStatistics(int leasedConnections,
+                                       int idleConnections,
+                                       long leases,
+                                       long openedConnections,
+                                       long evictedConnections) {
+        this.leasedConnections = leasedConnections;
+        this.idleConnections = idleConnections;
+        this.leases = leases;
+        this.openedConnections = openedConnections;
+        this.evictedConnections = evictedConnections;
+    }
+
+    /**
+     * Returns the number of connections used by at least one open system.
+     */
+    public int getLeasedConnections() {
+        return leasedConnections;
+    }
+
+    /**
+     * Returns the number of open connections that are not used by any system.
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * Returns the total number of connections leased from the pool, including
+     * leases that reused an existing connection.
+     */
+    public long getLeases() {
+        return leases;
+    }
+
+    /**
+     * Returns the total number of connections opened by the pool.
+     */
+    public long getOpenedConnections() {
+        return openedConnections;
+    }
+
+    /**
+     * Returns the total number of connections closed because they were idle
+     * for too long, failed a health check, or exceeded the idle limit.
+     */
+    public long getEvictedConnections() {
+        return evictedConnections;
+    }
+
+    /**
+     * Returns the number of leases that reused an existing connection.
+     */
+    public long getReusedLeases() {
+        return leases - openedConnections;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SshConnectionPoolStatistics[leased = %d, idle = %d, leases = %d, "
+                + "opened = %d, evicted = %d]",
+                leasedConnections, idleConnections, leases, openedConnections,
+                evictedConnections);
+    }
+}
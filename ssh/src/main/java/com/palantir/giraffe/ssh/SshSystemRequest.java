@@ -15,12 +15,16 @@
  */
 package com.palantir.giraffe.ssh;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.net.URI;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Optional;
 import com.palantir.giraffe.host.AuthenticatedSystemRequest;
 import com.palantir.giraffe.host.HostControlSystem;
 import com.palantir.giraffe.ssh.internal.SshUris;
@@ -36,6 +40,19 @@ public class SshSystemRequest extends AuthenticatedSystemRequest<SshCredential>
     public static final String PORT_KEY = "port";
     public static final String LOGGER_KEY = "logger";
     public static final String KEEPALIVE_INTERVAL_KEY = "keepalive_interval";
+    public static final String PERSISTENT_SHELLS_KEY = "persistent_shells";
+    public static final String MAX_CHANNELS_KEY = "max_channels";
+    public static final String CHANNEL_QUEUE_POLICY_KEY = "channel_queue_policy";
+    public static final String CONNECTIONS_KEY = "connections";
+    public static final String CONNECTION_POOL_KEY = "connection_pool";
+    public static final String LAZY_CONNECT_KEY = "lazy_connect";
+    public static final String ALGORITHMS_KEY = "algorithms";
+    public static final String TRANSFER_COMPRESSION_KEY = "transfer_compression";
+    public static final String DELTA_TRANSFER_KEY = "delta_transfer";
+    public static final String BLOCK_CACHE_SIZE_KEY = "block_cache_size";
+    public static final String BLOCK_CACHE_BLOCK_SIZE_KEY = "block_cache_block_size";
+    public static final String WATCH_POLL_INTERVAL_KEY = "watch_poll_interval";
+    public static final String PRINCIPAL_CACHE_TTL_KEY = "principal_cache_ttl";
 
     private static final String DEFAULT_LOGGER_NAME = "com.palantir.giraffe.ssh";
 
@@ -53,12 +70,32 @@ public class SshSystemRequest extends AuthenticatedSystemRequest<SshCredential>
         setDefaults();
     }
 
-    // only called from constructors
+    // only called from constructors; options from the environment take priority
     private void setDefaults() {
-        setPort(uri().getPort());
-        setLogger(LoggerFactory.getLogger(DEFAULT_LOGGER_NAME));
+        setDefault(PORT_KEY, uri().getPort());
+        setDefault(LOGGER_KEY, LoggerFactory.getLogger(DEFAULT_LOGGER_NAME));
         // by default, no keepalive
-        setKeepaliveInterval(0);
+        setDefault(KEEPALIVE_INTERVAL_KEY, 0);
+        // by default, every command uses a new exec channel
+        setDefault(PERSISTENT_SHELLS_KEY, 0);
+        // by default, the server limits the number of channels
+        setDefault(MAX_CHANNELS_KEY, 0);
+        setDefault(CHANNEL_QUEUE_POLICY_KEY, ChannelQueuePolicy.FIFO);
+        setDefault(CONNECTIONS_KEY, 1);
+        setDefault(LAZY_CONNECT_KEY, false);
+        setDefault(ALGORITHMS_KEY, SshAlgorithms.defaults());
+        setDefault(TRANSFER_COMPRESSION_KEY, TransferCompression.NEVER);
+        setDefault(DELTA_TRANSFER_KEY, false);
+        setDefault(BLOCK_CACHE_SIZE_KEY, 0L);
+        setDefault(BLOCK_CACHE_BLOCK_SIZE_KEY, 64 * 1024);
+        setDefault(WATCH_POLL_INTERVAL_KEY, 2000);
+        setDefault(PRINCIPAL_CACHE_TTL_KEY, 300);
+    }
+
+    private void setDefault(String key, Object value) {
+        if (!contains(key)) {
+            set(key, value);
+        }
     }
 
     public int getPort() {
@@ -85,6 +122,240 @@ public class SshSystemRequest extends AuthenticatedSystemRequest<SshCredential>
         set(KEEPALIVE_INTERVAL_KEY, keepaliveInterval);
     }
 
+    public int getPersistentShells() {
+        return get(PERSISTENT_SHELLS_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the maximum number of persistent remote shells used to execute
+     * commands. Running commands in an existing shell avoids the cost of
+     * opening a new channel and login shell for each command.
+     * <p>
+     * Only commands executed with a context that {@linkplain
+     * com.palantir.giraffe.command.CommandContext.Builder#discardInput()
+     * discards input} run in a persistent shell. Other commands, and commands
+     * executed while all shells are busy, use a new channel.
+     */
+    public void setPersistentShells(int persistentShells) {
+        checkArgument(persistentShells >= 0, "persistentShells must be non-negative");
+        set(PERSISTENT_SHELLS_KEY, persistentShells);
+    }
+
+    public int getMaxChannels() {
+        return get(MAX_CHANNELS_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the maximum number of channels open at the same time on each
+     * connection. Each executing command, persistent shell, open file, and
+     * file system operation uses a channel. Operations that need a channel
+     * while the maximum number are open wait until another channel closes.
+     * <p>
+     * Servers usually limit the number of channels for each connection and
+     * fail requests for additional channels. For instance, OpenSSH allows 10
+     * channels by default. If {@code maxChannels} is 0, the number of channels
+     * is not limited by the client.
+     *
+     * @see #setChannelQueuePolicy(ChannelQueuePolicy)
+     */
+    public void setMaxChannels(int maxChannels) {
+        checkArgument(maxChannels >= 0, "maxChannels must be non-negative");
+        set(MAX_CHANNELS_KEY, maxChannels);
+    }
+
+    public ChannelQueuePolicy getChannelQueuePolicy() {
+        return get(CHANNEL_QUEUE_POLICY_KEY, ChannelQueuePolicy.class);
+    }
+
+    public void setChannelQueuePolicy(ChannelQueuePolicy policy) {
+        set(CHANNEL_QUEUE_POLICY_KEY, checkNotNull(policy, "policy must be non-null"));
+    }
+
+    public int getConnections() {
+        return get(CONNECTIONS_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the number of authenticated connections opened to the host. Each
+     * command, file system operation, and transfer opens its channel on the
+     * connection with the fewest open and queued channels.
+     * <p>
+     * Servers process the channels of a connection in a single stream, so
+     * parallel operations that move large amounts of data may finish faster
+     * when spread across several connections. If the number of channels is
+     * {@linkplain #setMaxChannels(int) limited}, the limit applies to each
+     * connection separately.
+     */
+    public void setConnections(int connections) {
+        checkArgument(connections >= 1, "connections must be positive");
+        set(CONNECTIONS_KEY, connections);
+    }
+
+    public Optional<SshConnectionPool> getConnectionPool() {
+        if (contains(CONNECTION_POOL_KEY)) {
+            return Optional.of(get(CONNECTION_POOL_KEY, SshConnectionPool.class));
+        } else {
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * Sets the pool that provides connections for systems opened with this
+     * request. By default, each system opens new connections and closes them
+     * when the system is closed.
+     *
+     * @see SshConnectionPool#shared()
+     */
+    public void setConnectionPool(SshConnectionPool pool) {
+        set(CONNECTION_POOL_KEY, checkNotNull(pool, "pool must be non-null"));
+    }
+
+    public boolean isLazyConnect() {
+        return get(LAZY_CONNECT_KEY, Boolean.class);
+    }
+
+    /**
+     * Sets whether systems connect to the host when they are opened or when
+     * they are first used. By default, systems connect when opened and fail
+     * to open if the host is unreachable or authentication fails.
+     * <p>
+     * Lazy systems open immediately and connect on the first file system or
+     * execution system operation that needs a connection. Operations that
+     * start while the connection is being established wait for the same
+     * attempt. If the attempt fails, these operations fail with the
+     * connection error and the next operation tries again.
+     */
+    public void setLazyConnect(boolean lazyConnect) {
+        set(LAZY_CONNECT_KEY, lazyConnect);
+    }
+
+    public SshAlgorithms getAlgorithms() {
+        return get(ALGORITHMS_KEY, SshAlgorithms.class);
+    }
+
+    /**
+     * Sets the cipher, MAC, key exchange, and compression preferences used
+     * when connecting to the host. By default, the SSH library's preferences
+     * are used.
+     *
+     * @see SshAlgorithms#throughput()
+     * @see SshAlgorithms#fastHandshake()
+     */
+    public void setAlgorithms(SshAlgorithms algorithms) {
+        set(ALGORITHMS_KEY, checkNotNull(algorithms, "algorithms must be non-null"));
+    }
+
+    public TransferCompression getTransferCompression() {
+        return get(TRANSFER_COMPRESSION_KEY, TransferCompression.class);
+    }
+
+    /**
+     * Sets when file transfers between the local host and the SSH host
+     * compress data. By default, transfers are not compressed.
+     * <p>
+     * Transfer compression is independent of
+     * {@linkplain #setAlgorithms(SshAlgorithms) connection compression} and
+     * only applies to file transfers.
+     */
+    public void setTransferCompression(TransferCompression compression) {
+        set(TRANSFER_COMPRESSION_KEY, checkNotNull(compression, "compression must be non-null"));
+    }
+
+    public boolean isDeltaTransfer() {
+        return get(DELTA_TRANSFER_KEY, Boolean.class);
+    }
+
+    /**
+     * Sets whether file transfers between the local host and the SSH host
+     * send only the changed parts of files that already exist at the target.
+     * By default, the entire file is always sent.
+     * <p>
+     * Delta transfers compare blocks of the source and target using a rolling
+     * checksum and are most effective for large files with small changes,
+     * like appended logs or modified disk images. The SSH host must provide
+     * GNU {@code split} and {@code dd}; if it does not, or if no blocks
+     * match, files are transferred normally.
+     */
+    public void setDeltaTransfer(boolean deltaTransfer) {
+        set(DELTA_TRANSFER_KEY, deltaTransfer);
+    }
+
+    public long getBlockCacheSize() {
+        return get(BLOCK_CACHE_SIZE_KEY, Long.class);
+    }
+
+    /**
+     * Sets the maximum number of bytes of file content cached in memory for
+     * random-access reads. By default, file content is not cached.
+     * <p>
+     * The cache is shared by all channels opened for reading only on the
+     * system's file system and stores fixed-size blocks, evicting the least
+     * recently used blocks when full. Blocks are identified by path,
+     * modification time, and size, which are checked when a channel is
+     * opened; channels read a consistent version of the file even if it
+     * changes while they are open. Modifications that preserve both the size
+     * and the modification time, to the second, of a file are not detected.
+     *
+     * @see #setBlockCacheBlockSize(int)
+     */
+    public void setBlockCacheSize(long bytes) {
+        checkArgument(bytes >= 0, "bytes must be non-negative");
+        set(BLOCK_CACHE_SIZE_KEY, bytes);
+    }
+
+    public int getBlockCacheBlockSize() {
+        return get(BLOCK_CACHE_BLOCK_SIZE_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the size of the blocks stored by the
+     * {@linkplain #setBlockCacheSize(long) block cache}. Each cache miss reads
+     * a full block. The default block size is 64 KiB.
+     */
+    public void setBlockCacheBlockSize(int bytes) {
+        checkArgument(bytes > 0, "bytes must be positive");
+        set(BLOCK_CACHE_BLOCK_SIZE_KEY, bytes);
+    }
+
+    public int getWatchPollInterval() {
+        return get(WATCH_POLL_INTERVAL_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the interval, in milliseconds, at which watch services poll
+     * registered directories when the SSH host does not provide
+     * {@code inotifywait}. The default interval is 2 seconds.
+     * <p>
+     * Each poll lists every registered directory over a single SFTP channel
+     * and compares the name, modification time, and size of each entry with
+     * the previous listing. Modifications that preserve both the size and the
+     * modification time, to the second, of a file are not detected.
+     */
+    public void setWatchPollInterval(int millis) {
+        checkArgument(millis > 0, "millis must be positive");
+        set(WATCH_POLL_INTERVAL_KEY, millis);
+    }
+
+    public int getPrincipalCacheTtl() {
+        return get(PRINCIPAL_CACHE_TTL_KEY, Integer.class);
+    }
+
+    /**
+     * Sets the time, in seconds, for which the file system's
+     * {@linkplain java.nio.file.FileSystem#getUserPrincipalLookupService()
+     * principal lookup service} caches the user and group names of the SSH
+     * host. The default time is 5 minutes. If the time is 0, every lookup
+     * reloads the names.
+     * <p>
+     * All names are loaded with a single command, so lookups and the names of
+     * file owners and groups do not require additional round trips while the
+     * cache is valid.
+     */
+    public void setPrincipalCacheTtl(int seconds) {
+        checkArgument(seconds >= 0, "seconds must be non-negative");
+        set(PRINCIPAL_CACHE_TTL_KEY, seconds);
+    }
+
     public String getUsername() {
         return getCredential().getUsername();
     }
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+/**
+ * Determines when file transfers between the local host and an SSH host
+ * compress data.
+ * <p>
+ * Compressed transfers run {@code gzip} on the remote host and compress or
+ * decompress data locally. This applies to regular files copied with
+ * {@link com.palantir.giraffe.file.MoreFiles#copyLarge(java.nio.file.Path,
+ * java.nio.file.Path) MoreFiles.copyLarge} and
+ * {@link com.palantir.giraffe.file.MoreFiles#copyRecursive(java.nio.file.Path,
+ * java.nio.file.Path) MoreFiles.copyRecursive}. Other copies, such as
+ * {@link java.nio.file.Files#copy(java.nio.file.Path, java.nio.file.Path,
+ * java.nio.file.CopyOption...) Files.copy} between systems, are not
+ * compressed. If {@code gzip} is not available on the remote host, files are
+ * transferred without compression. Compressed transfers preserve the
+ * permissions and modification time of the source file.
+ *
+ * @see SshSystemRequest#setTransferCompression(TransferCompression)
+ */
+public enum TransferCompression {
+    /**
+     * Files are transferred without compression.
+     */
+    NEVER,
+
+    /**
+     * Files are compressed if compressing a sample of the file shows that
+     * compression is likely to reduce the transfer time. The decision uses the
+     * compression ratio and speed of the sample and the bandwidth measured
+     * during previous uncompressed transfers; occasional large transfers are
+     * not compressed to keep this measurement current. Small files are never
+     * compressed.
+     */
+    ADAPTIVE,
+
+    /**
+     * Files are always compressed.
+     */
+    ALWAYS
+}
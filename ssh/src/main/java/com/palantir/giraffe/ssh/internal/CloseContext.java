@@ -26,12 +26,12 @@ final class CloseContext implements Closeable {
     private final AtomicBoolean closed = new AtomicBoolean();
     private final CloseableRegistry registry = new CloseableRegistry();
 
-    public void registerCloseable(Closeable closeable) {
-        registry.register(closeable);
+    public boolean registerCloseable(Closeable closeable) {
+        return registry.register(closeable);
     }
 
-    public void registerCloseable(Closeable closeable, int priority) {
-        registry.register(closeable, priority);
+    public boolean registerCloseable(Closeable closeable, int priority) {
+        return registry.register(closeable, priority);
     }
 
     public void unregister(Closeable closeable) {
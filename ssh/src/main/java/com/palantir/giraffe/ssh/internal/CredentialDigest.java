@@ -0,0 +1,76 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.palantir.giraffe.ssh.KerberosSshCredential;
+import com.palantir.giraffe.ssh.PasswordSshCredential;
+import com.palantir.giraffe.ssh.PublicKeySshCredential;
+import com.palantir.giraffe.ssh.SshAuthenticator;
+import com.palantir.giraffe.ssh.SshCredential;
+
+/**
+ * Computes a digest that identifies the content of a credential. Credentials
+ * with the same type, username, and secret have the same digest, so the digest
+ * can key caches without storing secrets.
+ */
+final class CredentialDigest implements SshAuthenticator {
+
+    public static String of(SshCredential credential) {
+        CredentialDigest digest = new CredentialDigest();
+        try {
+            credential.authenticate(digest);
+        } catch (IOException e) {
+            throw new AssertionError("digest does not throw", e);
+        }
+        return digest.hasher.hash().toString();
+    }
+
+    private final Hasher hasher = Hashing.sha256().newHasher();
+
+    private CredentialDigest() {}
+
+    @Override
+    public void authByPassword(PasswordSshCredential credential) {
+        putCredential(credential);
+        for (char c : credential.getPassword()) {
+            hasher.putChar(c);
+        }
+    }
+
+    @Override
+    public void authByPublicKey(PublicKeySshCredential credential) {
+        putCredential(credential);
+        hasher.putBytes(credential.getPrivateKey());
+    }
+
+    @Override
+    public void authByKerberos(KerberosSshCredential credential) {
+        putCredential(credential);
+    }
+
+    private void putCredential(SshCredential credential) {
+        // prefix lengths so that different field boundaries never collide
+        String type = credential.getClass().getName();
+        hasher.putInt(type.length()).putString(type, StandardCharsets.UTF_8);
+        String username = credential.getUsername();
+        hasher.putInt(username.length()).putString(username, StandardCharsets.UTF_8);
+    }
+}
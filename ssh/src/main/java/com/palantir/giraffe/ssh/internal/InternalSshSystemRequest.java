@@ -15,7 +15,6 @@
  */
 package com.palantir.giraffe.ssh.internal;
 
-import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 
@@ -28,6 +27,7 @@ class InternalSshSystemRequest extends SshSystemRequest {
     public static final String SOURCE_KEY = "giraffe.internal.source";
     public static final String CLIENT_KEY = "giraffe.internal.sshClient";
     public static final String CLOSE_CTX_KEY = "giraffe.internal.closeContext";
+    public static final String CONNECTION_GROUP_KEY = "giraffe.internal.connectionGroup";
 
     public InternalSshSystemRequest(URI uri, Map<String, ?> env) {
         super(SshUris.replaceScheme(uri, SshUris.getHostScheme()), env);
@@ -41,14 +41,12 @@ class InternalSshSystemRequest extends SshSystemRequest {
         return get(CLIENT_KEY, SSHClient.class);
     }
 
-    public boolean setClientIfMissing(SshConnectionFactory factory) throws IOException {
-        if (!contains(CLIENT_KEY)) {
-            SSHClient client = factory.newAuthedConnection(this);
-            set(CLIENT_KEY, client);
-            return true;
-        } else {
+    public boolean hasClient() {
+        if (contains(CLIENT_KEY)) {
             // call getClient() for type check
             getClient();
+            return true;
+        } else {
             return false;
         }
     }
@@ -73,6 +71,14 @@ class InternalSshSystemRequest extends SshSystemRequest {
         set(CLOSE_CTX_KEY, context);
     }
 
+    public SshConnectionGroup getConnectionGroup() {
+        return get(CONNECTION_GROUP_KEY, SshConnectionGroup.class);
+    }
+
+    public void setConnectionGroup(SshConnectionGroup group) {
+        set(CONNECTION_GROUP_KEY, group);
+    }
+
     public URI fileSystemUri() {
         return SshUris.replaceScheme(uri(), SshUris.getFileScheme());
     }
@@ -0,0 +1,448 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.giraffe.ssh.SshAlgorithms;
+import com.palantir.giraffe.ssh.SshConnectionPool;
+import com.palantir.giraffe.ssh.SshConnectionPoolStatistics;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.common.IOUtils;
+import net.schmizz.sshj.common.Message;
+import net.schmizz.sshj.common.SSHPacket;
+import net.schmizz.sshj.transport.TransportException;
+
+/**
+ * An {@link SshConnectionPool} that leases reference-counted connections.
+ * <p>
+ * A connection may be leased by several systems up to the configured limit.
+ * When the last lease is released, the connection becomes idle until it is
+ * leased again or evicted by the periodic health check.
+ */
+public final class RefCountedConnectionPool extends SshConnectionPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SshConnectionPool.class);
+
+    public static RefCountedConnectionPool cast(SshConnectionPool pool) {
+        checkArgument(pool instanceof RefCountedConnectionPool,
+                "unsupported connection pool type: %s", pool.getClass().getName());
+        return (RefCountedConnectionPool) pool;
+    }
+
+    private final long idleTimeoutNanos;
+    private final int keepaliveInterval;
+    private final int maxIdleConnections;
+    private final int maxLeasesPerConnection;
+    private final boolean closeable;
+    private final ScheduledExecutorService healthChecker;
+
+    @GuardedBy("this")
+    private final Map<ConnectionKey, List<PooledConnection>> connections = new HashMap<>();
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    @GuardedBy("this")
+    private long leases;
+
+    @GuardedBy("this")
+    private long openedConnections;
+
+    @GuardedBy("this")
+    private long evictedConnections;
+
+    public RefCountedConnectionPool(long idleTimeoutMillis,
+                                    long healthCheckMillis,
+                                    int keepaliveInterval,
+                                    int maxIdleConnections,
+                                    int maxLeasesPerConnection,
+                                    boolean closeable) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.keepaliveInterval = keepaliveInterval;
+        this.maxIdleConnections = maxIdleConnections;
+        this.maxLeasesPerConnection = maxLeasesPerConnection;
+        this.closeable = closeable;
+
+        healthChecker = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("giraffe-ssh-pool-%d")
+                .setDaemon(true)
+                .build());
+        healthChecker.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkIdleConnections();
+                } catch (RuntimeException e) {
+                    LOG.warn("connection pool health check failed", e);
+                }
+            }
+        }, healthCheckMillis, healthCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leases a connection for the given request, opening a new connection if
+     * no pooled connection is available. Connections in {@code exclude} are
+     * never returned, so a system that needs several connections gets
+     * distinct ones.
+     */
+    Lease lease(InternalSshSystemRequest request,
+                SshConnectionFactory factory,
+                Collection<SSHClient> exclude) throws IOException {
+        ConnectionKey key = ConnectionKey.forRequest(request);
+
+        List<PooledConnection> failed = new ArrayList<>();
+        try {
+            synchronized (this) {
+                checkNotClosed();
+                Optional<PooledConnection> available = findAvailable(key, exclude, failed);
+                if (available.isPresent()) {
+                    available.get().leases++;
+                    leases++;
+                    return new Lease(available.get());
+                }
+            }
+        } finally {
+            closeAll(failed);
+        }
+
+        // open the connection without holding the lock
+        SSHClient client = factory.newAuthedConnection(request);
+        if (request.getKeepaliveInterval() == 0 && keepaliveInterval > 0) {
+            client.getConnection().getKeepAlive().setKeepAliveInterval(keepaliveInterval);
+        }
+
+        PooledConnection connection = new PooledConnection(key, client);
+        synchronized (this) {
+            if (!closed) {
+                List<PooledConnection> pooled = connections.get(key);
+                if (pooled == null) {
+                    pooled = new ArrayList<>();
+                    connections.put(key, pooled);
+                }
+                pooled.add(connection);
+
+                connection.leases++;
+                leases++;
+                openedConnections++;
+                return new Lease(connection);
+            }
+        }
+        IOUtils.closeQuietly(client);
+        throw new IllegalStateException("connection pool is closed");
+    }
+
+    @Override
+    public synchronized SshConnectionPoolStatistics statistics() {
+        int leased = 0;
+        int idle = 0;
+        for (List<PooledConnection> pooled : connections.values()) {
+            for (PooledConnection connection : pooled) {
+                if (connection.leases > 0) {
+                    leased++;
+                } else {
+                    idle++;
+                }
+            }
+        }
+        return new SshConnectionPoolStatistics(
+                leased,
+                idle,
+                leases,
+                openedConnections,
+                evictedConnections);
+    }
+
+    @Override
+    public void evictIdle() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<List<PooledConnection>> it = connections.values().iterator();
+                    it.hasNext();) {
+                List<PooledConnection> pooled = it.next();
+                for (Iterator<PooledConnection> pit = pooled.iterator(); pit.hasNext();) {
+                    PooledConnection connection = pit.next();
+                    if (connection.leases == 0) {
+                        pit.remove();
+                        evicted.add(connection);
+                    }
+                }
+                if (pooled.isEmpty()) {
+                    it.remove();
+                }
+            }
+            evictedConnections += evicted.size();
+        }
+        closeAll(evicted);
+    }
+
+    @Override
+    public void close() {
+        if (!closeable) {
+            throw new UnsupportedOperationException("the shared connection pool cannot be closed");
+        }
+
+        synchronized (this) {
+            closed = true;
+        }
+        healthChecker.shutdownNow();
+        evictIdle();
+    }
+
+    @GuardedBy("this")
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("connection pool is closed");
+        }
+    }
+
+    @GuardedBy("this")
+    private Optional<PooledConnection> findAvailable(ConnectionKey key,
+                                                     Collection<SSHClient> exclude,
+                                                     List<PooledConnection> failed) {
+        List<PooledConnection> pooled = connections.get(key);
+        if (pooled == null) {
+            return Optional.absent();
+        }
+
+        PooledConnection best = null;
+        for (Iterator<PooledConnection> it = pooled.iterator(); it.hasNext();) {
+            PooledConnection connection = it.next();
+            if (!connection.isHealthy()) {
+                if (connection.leases == 0) {
+                    it.remove();
+                    failed.add(connection);
+                    evictedConnections++;
+                }
+            } else if (isAvailable(connection, exclude)
+                    && (best == null || connection.leases < best.leases)) {
+                best = connection;
+            }
+        }
+
+        if (pooled.isEmpty()) {
+            connections.remove(key);
+        }
+        return Optional.fromNullable(best);
+    }
+
+    private boolean isAvailable(PooledConnection connection, Collection<SSHClient> exclude) {
+        return connection.leases < maxLeasesPerConnection
+                && !exclude.contains(connection.client);
+    }
+
+    private void release(PooledConnection connection) {
+        boolean evict = false;
+        synchronized (this) {
+            connection.leases--;
+            if (connection.leases == 0) {
+                if (shouldEvict(connection)) {
+                    remove(connection);
+                    evictedConnections++;
+                    evict = true;
+                } else {
+                    connection.idleSinceNanos = System.nanoTime();
+                }
+            }
+        }
+
+        if (evict) {
+            IOUtils.closeQuietly(connection.client);
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean shouldEvict(PooledConnection connection) {
+        return closed
+                || !connection.isHealthy()
+                || countIdle(connection.key) > maxIdleConnections;
+    }
+
+    @GuardedBy("this")
+    private int countIdle(ConnectionKey key) {
+        int idle = 0;
+        for (PooledConnection connection : connections.get(key)) {
+            if (connection.leases == 0) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    @GuardedBy("this")
+    private void remove(PooledConnection connection) {
+        List<PooledConnection> pooled = connections.get(connection.key);
+        pooled.remove(connection);
+        if (pooled.isEmpty()) {
+            connections.remove(connection.key);
+        }
+    }
+
+    /**
+     * Closes idle connections that timed out or disconnected and probes the
+     * remaining idle connections.
+     */
+    private void checkIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> idle = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (List<PooledConnection> pooled : connections.values()) {
+                for (PooledConnection connection : pooled) {
+                    if (connection.leases > 0) {
+                        continue;
+                    } else if (!connection.isHealthy()
+                            || now - connection.idleSinceNanos >= idleTimeoutNanos) {
+                        evicted.add(connection);
+                    } else {
+                        idle.add(connection);
+                    }
+                }
+            }
+
+            for (PooledConnection connection : evicted) {
+                remove(connection);
+            }
+            evictedConnections += evicted.size();
+        }
+        closeAll(evicted);
+
+        // failed probes close the connection; the next check evicts it
+        for (PooledConnection connection : idle) {
+            try {
+                connection.client.getTransport().write(new SSHPacket(Message.IGNORE));
+            } catch (TransportException e) {
+                LOG.debug("health check failed for pooled connection", e);
+                IOUtils.closeQuietly(connection.client);
+            }
+        }
+    }
+
+    private static void closeAll(List<PooledConnection> toClose) {
+        for (PooledConnection connection : toClose) {
+            IOUtils.closeQuietly(connection.client);
+        }
+    }
+
+    /**
+     * A connection leased to a system. Closing the lease releases the
+     * connection back to the pool; closing it more than once has no effect.
+     */
+    final class Lease implements Closeable {
+        private final PooledConnection connection;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Lease(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        public SSHClient getClient() {
+            return connection.client;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(connection);
+            }
+        }
+    }
+
+    private static final class PooledConnection {
+        private final ConnectionKey key;
+        private final SSHClient client;
+
+        private int leases;
+        private long idleSinceNanos;
+
+        PooledConnection(ConnectionKey key, SSHClient client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        boolean isHealthy() {
+            return client.isConnected() && client.isAuthenticated();
+        }
+    }
+
+    /**
+     * Identifies connections that can be shared: connections to the same host
+     * and port, authenticated with equivalent credentials. Secrets are only
+     * stored as digests.
+     */
+    private static final class ConnectionKey {
+        static ConnectionKey forRequest(InternalSshSystemRequest request) {
+            String credential = CredentialDigest.of(request.getCredential());
+            return new ConnectionKey(request.uri().getHost(), request.getPort(), credential,
+                    request.getAlgorithms());
+        }
+
+        private final String host;
+        private final int port;
+        private final String credential;
+        private final SshAlgorithms algorithms;
+
+        private ConnectionKey(String host, int port, String credential,
+                SshAlgorithms algorithms) {
+            this.host = host;
+            this.port = port;
+            this.credential = credential;
+            this.algorithms = algorithms;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, credential, algorithms);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof ConnectionKey)) {
+                return false;
+            } else {
+                ConnectionKey that = (ConnectionKey) obj;
+                return host.equals(that.host)
+                        && port == that.port
+                        && credential.equals(that.credential)
+                        && algorithms.equals(that.algorithms);
+            }
+        }
+    }
+}
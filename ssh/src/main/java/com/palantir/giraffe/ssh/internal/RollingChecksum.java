@@ -0,0 +1,134 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Computes the POSIX {@code cksum} value of a fixed-size window as it slides
+ * over data one byte at a time.
+ * <p>
+ * The {@code cksum} CRC has no initial value or reflection, so the
+ * contribution of the byte leaving the window depends only on that byte and
+ * the window size and can be removed with a precomputed table. This allows
+ * block checksums computed on a remote host with standard tools to be
+ * matched at every offset of a local file.
+ */
+final class RollingChecksum {
+
+    private static final int POLYNOMIAL = 0x04C11DB7;
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) {
+            int crc = i << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ POLYNOMIAL : crc << 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    /**
+     * Returns the {@code cksum} value of {@code length} bytes of
+     * {@code data}, starting at {@code offset}.
+     */
+    public static int of(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = update(crc, data[i]);
+        }
+        return finish(crc, length);
+    }
+
+    private static int update(int crc, byte b) {
+        return (crc << 8) ^ TABLE[((crc >>> 24) ^ b) & 0xff];
+    }
+
+    private static int finish(int crc, long length) {
+        int value = crc;
+        for (long n = length; n != 0; n >>>= 8) {
+            value = update(value, (byte) n);
+        }
+        return ~value;
+    }
+
+    private final int windowSize;
+    private final int[] outTable = new int[256];
+
+    private int crc;
+    private int count;
+
+    RollingChecksum(int windowSize) {
+        checkArgument(windowSize > 0, "window size must be positive");
+        this.windowSize = windowSize;
+
+        // removal is linear in the removed byte, so only powers of two
+        // need to be shifted through the window
+        int[] bits = new int[8];
+        for (int k = 0; k < bits.length; k++) {
+            int value = update(0, (byte) (1 << k));
+            for (int i = 0; i < windowSize; i++) {
+                value = update(value, (byte) 0);
+            }
+            bits[k] = value;
+        }
+        for (int b = 0; b < outTable.length; b++) {
+            int value = 0;
+            for (int k = 0; k < bits.length; k++) {
+                if ((b & (1 << k)) != 0) {
+                    value ^= bits[k];
+                }
+            }
+            outTable[b] = value;
+        }
+    }
+
+    /**
+     * Adds a byte to a window that is not yet full.
+     */
+    public void append(byte b) {
+        checkArgument(count < windowSize, "window is full");
+        crc = update(crc, b);
+        count++;
+    }
+
+    /**
+     * Slides a full window forward by one byte.
+     *
+     * @param out the first byte in the current window
+     * @param in the byte following the current window
+     */
+    public void roll(byte out, byte in) {
+        crc = update(crc, in) ^ outTable[out & 0xff];
+    }
+
+    public boolean isFull() {
+        return count == windowSize;
+    }
+
+    public void reset() {
+        crc = 0;
+        count = 0;
+    }
+
+    /**
+     * Returns the {@code cksum} value of the current window.
+     */
+    public int getValue() {
+        return finish(crc, count);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.Closeable;
+import java.nio.channels.AsynchronousCloseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Completes outstanding SFTP requests for asynchronous file channels.
+ * <p>
+ * sshj delivers responses to promises that can only be waited on, so each
+ * {@linkplain #newQueue() queue} waits for its responses in the order the
+ * requests were sent and invokes each request's callback. SFTP servers answer
+ * requests on a session in order, so waiting in order rarely delays a
+ * response that has already arrived. Each channel has its own SFTP session
+ * and its own queue; queues with outstanding requests wait on separate
+ * threads from a shared pool, so a slow channel does not delay others.
+ */
+final class SshAsyncCompleter implements Closeable {
+
+    /**
+     * Receives the result of an SFTP request. Callbacks run on the completion
+     * thread and must not block.
+     */
+    interface Callback {
+        void completed(Response response);
+
+        void failed(Throwable t);
+    }
+
+    /**
+     * Completes requests sent on a single SFTP session in the order they
+     * were submitted.
+     */
+    final class Queue implements Runnable {
+        @GuardedBy("this")
+        private final Deque<Completion> pending = new ArrayDeque<>();
+
+        @GuardedBy("this")
+        private boolean draining;
+
+        private Queue() {}
+
+        void submit(Promise<Response, SFTPException> promise, int timeoutMs,
+                Callback callback) {
+            boolean start;
+            synchronized (this) {
+                pending.add(new Completion(promise, timeoutMs, callback));
+                start = !draining;
+                draining = true;
+            }
+
+            if (start) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    failPending();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Completion completion;
+                synchronized (this) {
+                    completion = pending.poll();
+                    if (completion == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+
+                if (executor.isShutdown()) {
+                    completion.callback.failed(new AsynchronousCloseException());
+                } else {
+                    completion.run();
+                }
+            }
+        }
+
+        void failPending() {
+            List<Completion> failed;
+            synchronized (this) {
+                failed = ImmutableList.copyOf(pending);
+                pending.clear();
+                draining = false;
+            }
+            for (Completion completion : failed) {
+                completion.callback.failed(new AsynchronousCloseException());
+            }
+        }
+    }
+
+    private final ExecutorService executor;
+
+    SshAsyncCompleter(String name) {
+        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("giraffe-sftp-async-" + name + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Returns a new queue for the requests of one SFTP session.
+     */
+    Queue newQueue() {
+        return new Queue();
+    }
+
+    @Override
+    public void close() {
+        // queues that are waiting see the shutdown and fail their remaining requests
+        List<Runnable> waiting = executor.shutdownNow();
+        for (Runnable r : waiting) {
+            ((Queue) r).failPending();
+        }
+    }
+
+    private static final class Completion implements Runnable {
+        private final Promise<Response, SFTPException> promise;
+        private final int timeoutMs;
+        private final Callback callback;
+
+        Completion(Promise<Response, SFTPException> promise, int timeoutMs, Callback callback) {
+            this.promise = promise;
+            this.timeoutMs = timeoutMs;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            Response response;
+            try {
+                response = promise.retrieve(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (SFTPException | RuntimeException e) {
+                callback.failed(e);
+                return;
+            }
+            callback.completed(response);
+        }
+    }
+}
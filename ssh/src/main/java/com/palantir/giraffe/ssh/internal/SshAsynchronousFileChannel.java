@@ -0,0 +1,451 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.OpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.giraffe.file.base.OpenFlags;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPClient;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * An {@link AsynchronousFileChannel} for SSH paths. Each read or write is
+ * split into SFTP requests that are all sent before any response is
+ * received; the operation completes when the channel's
+ * {@linkplain SshAsyncCompleter.Queue completion queue} receives the last
+ * response.
+ * <p>
+ * Completion handlers run on the executor given when the channel is opened
+ * or, if there is no executor, on the completion thread. Handlers that run
+ * on the completion thread must not block.
+ */
+final class SshAsynchronousFileChannel extends AsynchronousFileChannel {
+
+    private static final int REQUEST_SIZE = 32768;
+
+    public static SshAsynchronousFileChannel open(SshPath path,
+            Set<? extends OpenOption> options, ExecutorService executor,
+            FileAttribute<?>... attrs) throws IOException {
+        OpenFlags flags = OpenFlags.validateFromOptions(options);
+        if (flags.append) {
+            throw new UnsupportedOperationException("APPEND not allowed");
+        }
+
+        SFTPClient sftp = path.getFileSystem().openSftpClient();
+        try {
+            Set<OpenMode> modes = SshSeekableByteChannel.getOpenModes(sftp, path, flags);
+            FileAttributes fileAttrs = SshSeekableByteChannel.getAttributes(flags, attrs);
+            AsyncRemoteFile file = open(sftp.getSFTPEngine(), path, modes, fileAttrs);
+            if (flags.write) {
+                SshSeekableByteChannel.invalidateCache(path);
+            }
+            return new SshAsynchronousFileChannel(file, path, flags, sftp, executor);
+        } catch (IOException | RuntimeException e) {
+            sftp.close();
+            throw e;
+        }
+    }
+
+    private static AsyncRemoteFile open(SFTPEngine engine, SshPath path, Set<OpenMode> modes,
+            FileAttributes attrs) throws IOException {
+        String pathString = path.toString();
+        byte[] handle = engine.request(engine.newRequest(PacketType.OPEN)
+                    .putString(pathString)
+                    .putUInt32(OpenMode.toMask(modes))
+                    .putFileAttributes(attrs))
+                .retrieve(engine.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                .ensurePacketTypeIs(PacketType.HANDLE)
+                .readBytes();
+        return new AsyncRemoteFile(engine, pathString, handle);
+    }
+
+    private final AsyncRemoteFile file;
+    private final SshPath path;
+    private final OpenFlags flags;
+    private final SFTPClient sftp;
+    private final Executor handlerExecutor;
+    private final SshAsyncCompleter.Queue completions;
+    private final int timeoutMs;
+
+    private volatile boolean open = true;
+
+    private SshAsynchronousFileChannel(AsyncRemoteFile file,
+                                       SshPath path,
+                                       OpenFlags flags,
+                                       SFTPClient sftp,
+                                       ExecutorService executor) {
+        this.file = file;
+        this.path = path;
+        this.flags = flags;
+        this.sftp = sftp;
+        this.handlerExecutor = executor == null ? MoreExecutors.directExecutor() : executor;
+        this.completions = path.getFileSystem().getAsyncCompleter().newQueue();
+        this.timeoutMs = sftp.getSFTPEngine().getTimeoutMs();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+
+        path.getFileSystem().unregisterCloseable(this);
+        try {
+            path.getFileSystem().logger().debug("closing asynchronous channel for {}", path);
+            file.close();
+            if (flags.write) {
+                SshSeekableByteChannel.invalidateCache(path);
+            }
+            if (flags.deleteOnClose) {
+                sftp.rm(path.toString());
+            }
+        } finally {
+            sftp.close();
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkIsOpen();
+        return file.fetchAttributes().getSize();
+    }
+
+    @Override
+    public SshAsynchronousFileChannel truncate(long size) throws IOException {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size: " + size);
+        }
+        checkIsOpen();
+        if (!flags.write) {
+            throw new NonWritableChannelException();
+        }
+        if (size < size()) {
+            file.setLength(size);
+        }
+        return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+        // SFTP version 3 cannot sync files; writes are complete when acknowledged
+        checkIsOpen();
+    }
+
+    @Override
+    public <A> void lock(long position, long size, boolean shared, A attachment,
+            CompletionHandler<FileLock, ? super A> handler) {
+        throw new UnsupportedOperationException("SFTP does not support file locks");
+    }
+
+    @Override
+    public Future<FileLock> lock(long position, long size, boolean shared) {
+        throw new UnsupportedOperationException("SFTP does not support file locks");
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+        throw new UnsupportedOperationException("SFTP does not support file locks");
+    }
+
+    @Override
+    public <A> void read(ByteBuffer dst, long position, A attachment,
+            CompletionHandler<Integer, ? super A> handler) {
+        addHandler(read(dst, position), attachment, handler);
+    }
+
+    @Override
+    public ListenableFuture<Integer> read(ByteBuffer dst, long position) {
+        if (dst.isReadOnly()) {
+            throw new IllegalArgumentException("read-only buffer");
+        }
+        checkPosition(position);
+        if (!flags.read) {
+            throw new NonReadableChannelException();
+        }
+
+        if (!open) {
+            return Futures.immediateFailedFuture(new ClosedChannelException());
+        } else if (!dst.hasRemaining()) {
+            return Futures.immediateFuture(0);
+        }
+
+        int remaining = dst.remaining();
+        int requests = countRequests(remaining);
+        ReadOperation op = new ReadOperation(dst, requests);
+        for (int i = 0; i < requests; i++) {
+            int length = Math.min(REQUEST_SIZE, remaining - i * REQUEST_SIZE);
+            try {
+                submit(file.requestRead(position + (long) i * REQUEST_SIZE, length),
+                        op.new Chunk(i, length));
+            } catch (IOException | RuntimeException e) {
+                op.result.setException(e);
+                break;
+            }
+        }
+        return op.result;
+    }
+
+    @Override
+    public <A> void write(ByteBuffer src, long position, A attachment,
+            CompletionHandler<Integer, ? super A> handler) {
+        addHandler(write(src, position), attachment, handler);
+    }
+
+    @Override
+    public ListenableFuture<Integer> write(ByteBuffer src, long position) {
+        checkPosition(position);
+        if (!flags.write) {
+            throw new NonWritableChannelException();
+        }
+
+        if (!open) {
+            return Futures.immediateFailedFuture(new ClosedChannelException());
+        } else if (!src.hasRemaining()) {
+            return Futures.immediateFuture(0);
+        }
+
+        byte[] data = new byte[src.remaining()];
+        src.duplicate().get(data);
+
+        int requests = countRequests(data.length);
+        WriteOperation op = new WriteOperation(src, data.length, requests);
+        for (int i = 0; i < requests; i++) {
+            int offset = i * REQUEST_SIZE;
+            int length = Math.min(REQUEST_SIZE, data.length - offset);
+            try {
+                submit(file.requestWrite(position + offset, data, offset, length), op);
+            } catch (IOException | RuntimeException e) {
+                op.result.setException(e);
+                break;
+            }
+        }
+        return op.result;
+    }
+
+    private void submit(Promise<Response, SFTPException> promise,
+            SshAsyncCompleter.Callback callback) {
+        completions.submit(promise, timeoutMs, callback);
+    }
+
+    private <A> void addHandler(ListenableFuture<Integer> future, final A attachment,
+            final CompletionHandler<Integer, ? super A> handler) {
+        Futures.addCallback(future, new FutureCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer result) {
+                handler.completed(result, attachment);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                handler.failed(t, attachment);
+            }
+        }, handlerExecutor);
+    }
+
+    private static int countRequests(int length) {
+        return (length + REQUEST_SIZE - 1) / REQUEST_SIZE;
+    }
+
+    private static void checkPosition(long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("negative position: " + position);
+        }
+    }
+
+    private void checkIsOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Collects the responses to the read requests for one operation. The
+     * result is the number of contiguous bytes read from the start position;
+     * data after a short read is discarded.
+     */
+    private static final class ReadOperation {
+        private final SettableFuture<Integer> result = SettableFuture.create();
+        private final ByteBuffer dst;
+        private final byte[][] chunks;
+        private final int[] lengths;
+        private int pending;
+
+        ReadOperation(ByteBuffer dst, int requests) {
+            this.dst = dst;
+            this.chunks = new byte[requests][];
+            this.lengths = new int[requests];
+            this.pending = requests;
+        }
+
+        synchronized void completed(int index, byte[] chunk, int length) {
+            chunks[index] = chunk;
+            lengths[index] = length;
+            if (--pending == 0 && !result.isDone()) {
+                result.set(fill());
+            }
+        }
+
+        private int fill() {
+            int total = 0;
+            for (int i = 0; i < chunks.length; i++) {
+                if (lengths[i] < 0) {
+                    break;
+                }
+                dst.put(chunks[i], 0, lengths[i]);
+                total += lengths[i];
+                if (lengths[i] < chunks[i].length) {
+                    break;
+                }
+            }
+            return (total == 0 && lengths[0] < 0) ? -1 : total;
+        }
+
+        private final class Chunk implements SshAsyncCompleter.Callback {
+            private final int index;
+            private final int length;
+
+            Chunk(int index, int length) {
+                this.index = index;
+                this.length = length;
+            }
+
+            @Override
+            public void completed(Response response) {
+                byte[] chunk = new byte[length];
+                try {
+                    ReadOperation.this.completed(index, chunk,
+                            AsyncRemoteFile.readResponse(response, chunk));
+                } catch (IOException e) {
+                    failed(e);
+                }
+            }
+
+            @Override
+            public void failed(Throwable t) {
+                result.setException(t);
+            }
+        }
+    }
+
+    /**
+     * Collects the responses to the write requests for one operation. The
+     * operation succeeds only if every request succeeds.
+     */
+    private static final class WriteOperation implements SshAsyncCompleter.Callback {
+        private final SettableFuture<Integer> result = SettableFuture.create();
+        private final ByteBuffer src;
+        private final int length;
+        private int pending;
+
+        WriteOperation(ByteBuffer src, int length, int requests) {
+            this.src = src;
+            this.length = length;
+            this.pending = requests;
+        }
+
+        @Override
+        public synchronized void completed(Response response) {
+            try {
+                response.ensureStatusPacketIsOK();
+            } catch (SFTPException e) {
+                failed(e);
+                return;
+            }
+            if (--pending == 0 && !result.isDone()) {
+                src.position(src.position() + length);
+                result.set(length);
+            }
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            result.setException(t);
+        }
+    }
+
+    /**
+     * Exposes sshj's asynchronous read and write requests.
+     */
+    private static final class AsyncRemoteFile extends RemoteFile {
+        AsyncRemoteFile(SFTPEngine engine, String path, byte[] handle) {
+            super(engine, path, handle);
+        }
+
+        Promise<Response, SFTPException> requestRead(long offset, int length)
+                throws IOException {
+            return asyncRead(offset, length);
+        }
+
+        Promise<Response, SFTPException> requestWrite(long offset, byte[] data, int off,
+                int length) throws IOException {
+            return asyncWrite(offset, data, off, length);
+        }
+
+        /**
+         * Copies the data in a read response into {@code chunk} and returns
+         * the number of bytes read or -1 at the end of the file.
+         */
+        static int readResponse(Response response, byte[] chunk) throws IOException {
+            switch (response.getType()) {
+                case DATA:
+                    int length = response.readUInt32AsInt();
+                    if (length > chunk.length) {
+                        throw new SFTPException("Read response larger than request: " + length);
+                    }
+                    response.readRawBytes(chunk, 0, length);
+                    return length;
+                case STATUS:
+                    response.ensureStatusIs(Response.StatusCode.EOF);
+                    return -1;
+                default:
+                    throw new SFTPException("Unexpected packet: " + response.getType());
+            }
+        }
+    }
+}
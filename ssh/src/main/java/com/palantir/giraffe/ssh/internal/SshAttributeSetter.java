@@ -15,6 +15,8 @@
  */
 package com.palantir.giraffe.ssh.internal;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
 import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.GroupPrincipal;
@@ -37,8 +39,8 @@ final class SshAttributeSetter implements PosixFileAttributeSetter {
     private final FileAttributes.Builder attrs = new FileAttributes.Builder();
     private FileTime atime = null;
     private FileTime mtime = null;
-    private UserIdPrincipal owner = null;
-    private GroupIdPrincipal group = null;
+    private UserPrincipal owner = null;
+    private GroupPrincipal group = null;
 
     public SshAttributeSetter(SshPath path) {
         this.path = path;
@@ -69,30 +71,41 @@ final class SshAttributeSetter implements PosixFileAttributeSetter {
 
     @Override
     public SshAttributeSetter owner(UserPrincipal fileOwner) {
-        this.owner = UserIdPrincipal.fromUserPrinciple(fileOwner);
+        this.owner = checkNotNull(fileOwner, "owner must be non-null");
         return this;
     }
 
     @Override
     public SshAttributeSetter group(GroupPrincipal fileGroup) {
-        this.group = GroupIdPrincipal.fromGroupPrinciple(fileGroup);
+        this.group = checkNotNull(fileGroup, "group must be non-null");
         return this;
     }
 
     @Override
     public void set() throws IOException {
+        // resolve names before opening the SFTP channel
+        SshPrincipalLookupService principals =
+                path.getFileSystem().getUserPrincipalLookupService();
+        UserIdPrincipal ownerId = owner == null ? null : principals.toUserIdPrincipal(owner);
+        GroupIdPrincipal groupId = group == null ? null : principals.toGroupIdPrincipal(group);
+
         try (SFTPClient sftp = path.getFileSystem().openSftpClient()) {
+            if (ownerId != null || groupId != null) {
+                // SFTP sets both IDs together; preserve the one that isn't changing
+                FileAttributes current = null;
+                if (ownerId == null || groupId == null) {
+                    current = sftp.stat(path.toString());
+                }
+                attrs.withUIDGID(
+                        ownerId == null ? current.getUID() : ownerId.getUid(),
+                        groupId == null ? current.getGID() : groupId.getGid());
+            }
             // TODO(bkeyes): how to respect symlinks on setstat?
             sftp.setattr(path.toString(), getSftpAttributes());
         }
     }
 
     public FileAttributes getSftpAttributes() {
-        if (owner != null || group != null) {
-            int uid = owner == null ? 0 : owner.getUid();
-            int gid = group == null ? 0 : group.getGid();
-            attrs.withUIDGID(uid, gid);
-        }
         if (atime != null || mtime != null) {
             long atimeMils = atime == null ? 0L : atime.to(TimeUnit.SECONDS);
             long mtimeMils = mtime == null ? 0L : mtime.to(TimeUnit.SECONDS);
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.palantir.giraffe.ssh.SshBlockCacheStatistics;
+
+/**
+ * Caches fixed-size blocks of remote files in memory, shared by all read-only
+ * channels of a file system.
+ * <p>
+ * Blocks are keyed by a {@link FileVersion}, the path, modification time, and
+ * size of the file when a channel was opened. Opening a channel for a new
+ * version of a file removes blocks of older versions. The cache evicts the
+ * least recently used blocks when the cached bytes exceed the maximum size.
+ * <p>
+ * Blocks are loaded by channels outside the cache lock, so concurrent misses
+ * for the same block may read it more than once.
+ */
+final class SshBlockCache {
+
+    /**
+     * Identifies the content of a file when a channel was opened.
+     */
+    static final class FileVersion {
+        private final String path;
+        private final long mtime;
+        private final long size;
+
+        FileVersion(String path, long mtime, long size) {
+            this.path = path;
+            this.mtime = mtime;
+            this.size = size;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof FileVersion)) {
+                return false;
+            }
+            FileVersion other = (FileVersion) obj;
+            return path.equals(other.path) && mtime == other.mtime && size == other.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, mtime, size);
+        }
+    }
+
+    private static final class BlockKey {
+        final FileVersion version;
+        final long index;
+
+        BlockKey(FileVersion version, long index) {
+            this.version = version;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof BlockKey)) {
+                return false;
+            }
+            BlockKey other = (BlockKey) obj;
+            return index == other.index && version.equals(other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * version.hashCode() + Long.hashCode(index);
+        }
+    }
+
+    private final long maxBytes;
+    private final int blockSize;
+
+    // access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<BlockKey, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    SshBlockCache(long maxBytes, int blockSize) {
+        this.maxBytes = maxBytes;
+        this.blockSize = blockSize;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Records the current version of a file, removing any blocks of other
+     * versions of the same path.
+     */
+    public synchronized void validate(FileVersion version) {
+        Iterator<Map.Entry<BlockKey, byte[]>> it = blocks.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<BlockKey, byte[]> entry = it.next();
+            FileVersion cached = entry.getKey().version;
+            if (cached.path.equals(version.path) && !cached.equals(version)) {
+                remove(it, entry);
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes all blocks of a path, regardless of version.
+     */
+    public synchronized void invalidate(String path) {
+        Iterator<Map.Entry<BlockKey, byte[]>> it = blocks.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<BlockKey, byte[]> entry = it.next();
+            if (entry.getKey().version.path.equals(path)) {
+                remove(it, entry);
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Returns a cached block or {@code null} if the block is not cached.
+     */
+    public synchronized byte[] get(FileVersion version, long index) {
+        byte[] block = blocks.get(new BlockKey(version, index));
+        if (block == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return block;
+    }
+
+    public synchronized void put(FileVersion version, long index, byte[] block) {
+        if (block.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = blocks.put(new BlockKey(version, index), block);
+        if (previous != null) {
+            cachedBytes -= previous.length;
+        }
+        cachedBytes += block.length;
+
+        Iterator<Map.Entry<BlockKey, byte[]>> it = blocks.entrySet().iterator();
+        while (cachedBytes > maxBytes && it.hasNext()) {
+            remove(it, it.next());
+            evictions++;
+        }
+    }
+
+    private void remove(Iterator<Map.Entry<BlockKey, byte[]>> it, Map.Entry<BlockKey, byte[]> e) {
+        cachedBytes -= e.getValue().length;
+        it.remove();
+    }
+
+    public synchronized SshBlockCacheStatistics statistics() {
+        return new SshBlockCacheStatistics(
+                hits, misses, evictions, invalidations, cachedBytes, maxBytes);
+    }
+}
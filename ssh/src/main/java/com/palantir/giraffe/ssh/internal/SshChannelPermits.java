@@ -0,0 +1,332 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.giraffe.ssh.ChannelQueuePolicy;
+import com.palantir.giraffe.ssh.SshChannelStatistics;
+
+import net.schmizz.sshj.SSHClient;
+
+/**
+ * Limits the number of open channels on a connection.
+ * <p>
+ * Every operation that opens a channel first acquires a {@link Permit} and
+ * releases it after the channel closes. If no permit is available, the
+ * operation waits in a queue ordered by the connection's
+ * {@link ChannelQueuePolicy}. Commands wait asynchronously so that queued
+ * commands do not occupy threads.
+ */
+final class SshChannelPermits implements Closeable {
+
+    /**
+     * The kinds of operations that use channels, in priority order.
+     */
+    enum Priority {
+        FILE_SYSTEM,
+        COMMAND
+    }
+
+    private final SshConnection connection;
+    private final int maxChannels;
+    private final Logger logger;
+
+    @GuardedBy("this")
+    private final PriorityQueue<Waiter> waiters;
+
+    @GuardedBy("this")
+    private int openChannels;
+
+    @GuardedBy("this")
+    private int persistentChannels;
+
+    @GuardedBy("this")
+    private long sequence;
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    @GuardedBy("this")
+    private long acquiredChannels;
+
+    @GuardedBy("this")
+    private long totalQueueNanos;
+
+    @GuardedBy("this")
+    private long maxQueueNanos;
+
+    SshChannelPermits(SshConnection connection,
+                      int maxChannels,
+                      ChannelQueuePolicy policy,
+                      Logger logger) {
+        this.connection = connection;
+        this.maxChannels = maxChannels;
+        this.logger = logger;
+
+        Comparator<Waiter> order = policy == ChannelQueuePolicy.PRIORITY
+                ? PRIORITY_ORDER
+                : FIFO_ORDER;
+        waiters = new PriorityQueue<>(11, order);
+    }
+
+    /**
+     * Returns a future that resolves to a permit once a channel is available.
+     * Cancelling the future removes the request from the queue. If the
+     * connection is closed, the future fails with a
+     * {@link ClosedChannelException}.
+     */
+    public ListenableFuture<Permit> acquireAsync(Priority priority) {
+        final Waiter waiter;
+        synchronized (this) {
+            if (closed) {
+                return Futures.immediateFailedFuture(new ClosedChannelException());
+            } else if (waiters.isEmpty() && hasCapacity()) {
+                return Futures.immediateFuture(grant(0));
+            }
+
+            waiter = new Waiter(priority, sequence++);
+            waiters.add(waiter);
+        }
+
+        waiter.future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (waiter.future.isCancelled()) {
+                    remove(waiter);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+        return waiter.future;
+    }
+
+    /**
+     * Waits until a channel is available and returns a permit for it.
+     *
+     * @throws ClosedChannelException if the connection is closed
+     * @throws InterruptedIOException if the thread is interrupted while
+     *         waiting
+     */
+    public Permit acquire(Priority priority) throws IOException {
+        ListenableFuture<Permit> permit = acquireAsync(priority);
+        try {
+            return permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                // the permit was granted while this thread was interrupted
+                Futures.getUnchecked(permit).release();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a channel");
+        } catch (ExecutionException e) {
+            // requests only fail when the connection is closed
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Returns a permit if a channel is available without waiting.
+     */
+    public synchronized Optional<Permit> tryAcquire() {
+        if (!closed && waiters.isEmpty() && hasCapacity()) {
+            return Optional.of(grant(0));
+        } else {
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * Returns the number of open channels and queued requests.
+     */
+    public synchronized int load() {
+        return openChannels + waiters.size();
+    }
+
+    /**
+     * Returns the number of open channels held by
+     * {@linkplain Permit#markPersistent() persistent} permits.
+     */
+    public synchronized int persistentChannels() {
+        return persistentChannels;
+    }
+
+    public synchronized SshChannelStatistics statistics() {
+        return new SshChannelStatistics(
+                1,
+                maxChannels,
+                openChannels,
+                waiters.size(),
+                acquiredChannels,
+                totalQueueNanos,
+                maxQueueNanos);
+    }
+
+    /**
+     * Fails all queued requests. Open channels are closed by their owners.
+     */
+    @Override
+    public void close() {
+        List<Waiter> toFail;
+        synchronized (this) {
+            closed = true;
+            toFail = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+
+        for (Waiter waiter : toFail) {
+            waiter.future.setException(new ClosedChannelException());
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean hasCapacity() {
+        return maxChannels == 0 || openChannels < maxChannels;
+    }
+
+    @GuardedBy("this")
+    private Permit grant(long queueNanos) {
+        openChannels++;
+        acquiredChannels++;
+        totalQueueNanos += queueNanos;
+        maxQueueNanos = Math.max(maxQueueNanos, queueNanos);
+        return new Permit();
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private synchronized void markPersistent() {
+        persistentChannels++;
+    }
+
+    private void release(boolean persistent) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            openChannels--;
+            if (persistent) {
+                persistentChannels--;
+            }
+            long now = System.nanoTime();
+            while (!waiters.isEmpty() && hasCapacity()) {
+                Waiter waiter = waiters.poll();
+                waiter.queueNanos = now - waiter.startNanos;
+                waiter.permit = grant(waiter.queueNanos);
+                granted.add(waiter);
+            }
+        }
+
+        // complete futures outside the lock because listeners run immediately
+        for (Waiter waiter : granted) {
+            if (waiter.future.set(waiter.permit)) {
+                long queueMillis = TimeUnit.NANOSECONDS.toMillis(waiter.queueNanos);
+                logger.debug("waited {} ms for channel", queueMillis);
+            } else {
+                // the request was cancelled before it was granted
+                waiter.permit.release();
+            }
+        }
+    }
+
+    /**
+     * Allows the holder to open one channel on a connection. Releasing a
+     * permit more than once has no effect.
+     */
+    final class Permit implements Closeable {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicBoolean persistent = new AtomicBoolean();
+
+        /**
+         * Returns the client for the connection on which to open the channel,
+         * connecting if necessary.
+         *
+         * @throws IOException if connecting or authenticating fails
+         */
+        public SSHClient getClient() throws IOException {
+            return connection.getClient();
+        }
+
+        /**
+         * Marks this permit as held by a long-lived channel, like a
+         * persistent shell, that is not released when a command finishes.
+         */
+        public void markPersistent() {
+            if (!released.get() && persistent.compareAndSet(false, true)) {
+                SshChannelPermits.this.markPersistent();
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                SshChannelPermits.this.release(persistent.get());
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final long startNanos = System.nanoTime();
+        private final SettableFuture<Permit> future = SettableFuture.create();
+
+        private Permit permit;
+        private long queueNanos;
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Waiter> FIFO_ORDER = new Comparator<Waiter>() {
+        @Override
+        public int compare(Waiter w1, Waiter w2) {
+            return Long.compare(w1.sequence, w2.sequence);
+        }
+    };
+
+    private static final Comparator<Waiter> PRIORITY_ORDER = new Comparator<Waiter>() {
+        @Override
+        public int compare(Waiter w1, Waiter w2) {
+            int result = w1.priority.compareTo(w2.priority);
+            return result != 0 ? result : Long.compare(w1.sequence, w2.sequence);
+        }
+    };
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.Request;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.Response.StatusCode;
+import net.schmizz.sshj.sftp.SFTPClient;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Computes file checksums on the remote host. Checksums are computed with
+ * the SFTP {@code check-file-name} extension if the server supports it and
+ * with a checksum command otherwise.
+ */
+final class SshChecksums {
+
+    // limits the number of outstanding requests and the command line length
+    private static final int BATCH_SIZE = 256;
+
+    private static final Map<ChecksumAlgorithm, String> EXTENSION_NAMES = ImmutableMap.of(
+            ChecksumAlgorithm.MD5, "md5",
+            ChecksumAlgorithm.SHA_1, "sha1",
+            ChecksumAlgorithm.SHA_256, "sha256",
+            ChecksumAlgorithm.SHA_512, "sha512");
+
+    private static final Map<ChecksumAlgorithm, String> COMMANDS = ImmutableMap.of(
+            ChecksumAlgorithm.MD5, "md5sum",
+            ChecksumAlgorithm.SHA_1, "sha1sum",
+            ChecksumAlgorithm.SHA_256, "sha256sum",
+            ChecksumAlgorithm.SHA_512, "sha512sum");
+
+    private final SshFileSystem fs;
+
+    private volatile boolean checkFileSupported = true;
+
+    SshChecksums(SshFileSystem fs) {
+        this.fs = fs;
+    }
+
+    public Map<Path, HashCode> checksums(List<SshPath> files, ChecksumAlgorithm algorithm)
+            throws IOException {
+        Map<Path, HashCode> checksums = new HashMap<>();
+        for (List<SshPath> batch : Lists.partition(files, BATCH_SIZE)) {
+            List<SshPath> remaining = batch;
+            if (checkFileSupported) {
+                remaining = checkFile(batch, algorithm, checksums);
+            }
+            if (!remaining.isEmpty()) {
+                executeChecksum(remaining, algorithm, checksums);
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Sends a {@code check-file-name} request for each file before reading
+     * any responses. Returns the files that the server could not checksum;
+     * this is all files if the server does not support the extension.
+     */
+    private List<SshPath> checkFile(List<SshPath> files, ChecksumAlgorithm algorithm,
+            Map<Path, HashCode> checksums) throws IOException {
+        int digestLength = algorithm.newMessageDigest().getDigestLength();
+        List<SshPath> failed = new ArrayList<>();
+
+        try (SFTPClient sftp = fs.openSftpClient()) {
+            SFTPEngine engine = sftp.getSFTPEngine();
+
+            List<Promise<Response, SFTPException>> responses = new ArrayList<>();
+            for (SshPath file : files) {
+                // hash the whole file: offset 0, length 0 (to end), block size 0 (one block)
+                Request request = engine.newExtendedRequest("check-file-name")
+                        .putString(file.toString())
+                        .putString(EXTENSION_NAMES.get(algorithm))
+                        .putUInt64(0)
+                        .putUInt64(0)
+                        .putUInt32(0);
+                responses.add(engine.request(request));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                SshPath file = files.get(i);
+                Response response = responses.get(i)
+                        .retrieve(engine.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (response.getType() == PacketType.STATUS) {
+                    StatusCode code = response.readStatusCode();
+                    if (code == StatusCode.OP_UNSUPPORTED) {
+                        fs.logger().debug("check-file-name is not supported, using commands");
+                        checkFileSupported = false;
+                        return files;
+                    } else if (code == StatusCode.NO_SUCH_FILE) {
+                        throw new NoSuchFileException(file.toString());
+                    } else {
+                        // some servers reject valid requests, like empty files
+                        failed.add(file);
+                    }
+                } else {
+                    response.ensurePacketTypeIs(PacketType.EXTENDED_REPLY);
+                    // skip the "check-file" name and the algorithm used
+                    response.readString();
+                    response.readString();
+                    checksums.put(file, HashCode.fromBytes(readHash(response, digestLength)));
+                }
+            }
+        }
+        return failed;
+    }
+
+    private static byte[] readHash(Response response, int digestLength) throws IOException {
+        // the hash is raw bytes, but some servers write it as a length-prefixed string
+        if (response.available() == digestLength + 4) {
+            response.readUInt32();
+        }
+
+        byte[] hash = new byte[response.available()];
+        response.readRawBytes(hash);
+        if (hash.length != digestLength) {
+            throw new IOException("check-file-name returned " + hash.length
+                    + " bytes, expected " + digestLength);
+        }
+        return hash;
+    }
+
+    private void executeChecksum(List<SshPath> files, ChecksumAlgorithm algorithm,
+            Map<Path, HashCode> checksums) throws IOException {
+        List<Object> args = new ArrayList<>();
+        args.add("--");
+        args.addAll(files);
+
+        CommandResult result = fs.execute(COMMANDS.get(algorithm), args);
+        if (result.getExitStatus() != 0) {
+            for (SshPath file : files) {
+                if (Files.notExists(file)) {
+                    throw new NoSuchFileException(file.toString());
+                }
+            }
+            throw new IOException(String.format(
+                    "%s command failed [exit status = %s, output = %s]",
+                    COMMANDS.get(algorithm), result.getExitStatus(), result.getStdErr()));
+        }
+
+        // each line is "<hash>  <file>", in the same order as the arguments;
+        // names with special characters are escaped and the line starts with "\"
+        List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(result.getStdOut());
+        if (lines.size() != files.size()) {
+            throw new IOException("unexpected output from " + COMMANDS.get(algorithm)
+                    + ": " + result.getStdOut());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            String line = lines.get(i);
+            int start = line.startsWith("\\") ? 1 : 0;
+            String hash = line.substring(start, line.indexOf(' ', start));
+            checksums.put(files.get(i), HashCode.fromString(hash));
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.palantir.giraffe.ssh.internal;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -24,6 +25,7 @@ import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.giraffe.command.Command;
 import com.palantir.giraffe.command.CommandContext;
 import com.palantir.giraffe.command.CommandEnvironment;
@@ -33,21 +35,42 @@ import com.palantir.giraffe.file.UniformPath;
 import com.palantir.giraffe.internal.AbstractHandlableProcess;
 import com.palantir.giraffe.internal.CommandFutureTask;
 import com.palantir.giraffe.internal.HandlableProcess;
+import com.palantir.giraffe.internal.ShellQuoting;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
 
 import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.common.Message;
+import net.schmizz.sshj.common.SSHPacket;
 import net.schmizz.sshj.connection.channel.direct.Session;
 import net.schmizz.sshj.connection.channel.direct.Signal;
+import net.schmizz.sshj.transport.Transport;
 
 final class SshCommandFuture extends CommandFutureTask {
 
-    private final SSHClient client;
+    private final SshShellPool shells;
+
+    private volatile Permit permit;
 
     SshCommandFuture(SshCommand command,
                      CommandContext context,
-                     SSHClient client,
+                     SshShellPool shells,
                      Executor executor) {
         super(command, context, executor);
-        this.client = client;
+        this.shells = shells;
+    }
+
+    /**
+     * Sets the channel permit used by this command. The permit is released
+     * when the command terminates.
+     */
+    void setPermit(final Permit permit) {
+        this.permit = permit;
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                permit.release();
+            }
+        }, MoreExecutors.directExecutor());
     }
 
     @Override
@@ -55,11 +78,32 @@ final class SshCommandFuture extends CommandFutureTask {
         Logger logger = ((SshCommand) command).getExecutionSystem().logger();
 
         String fullCommand = buildCommandWithContext(command, context);
+
+        // only commands that discard input can run in a shell; others may
+        // write to their input stream and need a dedicated exec channel
+        if (context.isInputDiscarded()) {
+            Optional<SshShell> shell = shells.acquire();
+            if (shell.isPresent()) {
+                logger.debug("executing command in persistent shell: {}", fullCommand);
+                try {
+                    HandlableProcess process = shell.get().execute(fullCommand);
+                    // persistent shells hold their own channel permits
+                    permit.release();
+                    return process;
+                } catch (IOException e) {
+                    logger.debug("persistent shell failed, falling back to exec", e);
+                    shells.discard(shell.get());
+                }
+            }
+        }
+
         logger.debug("executing command: {}", fullCommand);
 
+        SSHClient client = permit.getClient();
         Session session = client.startSession();
         try {
-            return new SshProcess(session, session.exec(fullCommand), logger);
+            Session.Command sessionCommand = session.exec(fullCommand);
+            return new SshProcess(session, sessionCommand, client.getTransport(), logger);
         } catch (IOException e) {
             session.close();
             throw e;
@@ -74,7 +118,7 @@ final class SshCommandFuture extends CommandFutureTask {
 
         if (workingDirectory.isPresent()) {
             result.append("cd").append(' ');
-            result.append(escapeString(workingDirectory.get().toString())).append(' ');
+            result.append(ShellQuoting.quote(workingDirectory.get().toString())).append(' ');
             result.append("&&").append(' ');
         }
 
@@ -85,53 +129,30 @@ final class SshCommandFuture extends CommandFutureTask {
             }
 
             for (Map.Entry<String, String> entry : env.getChanges().entrySet()) {
-                result.append(escapeString(entry.getKey() + '=' + entry.getValue())).append(' ');
+                String assignment = entry.getKey() + '=' + entry.getValue();
+                result.append(ShellQuoting.quote(assignment)).append(' ');
             }
         }
 
-        result.append(escapeString(cmd.getExecutable()));
+        result.append(ShellQuoting.quote(cmd.getExecutable()));
         for (String arg : cmd.getArguments()) {
-            result.append(' ').append(escapeString(arg));
+            result.append(' ').append(ShellQuoting.quote(arg));
         }
 
         return result.toString();
     }
 
-    /**
-     * Single-quote argument, skipping pre-quoted strings and escaping existing
-     * single quotes.
-     */
-    private static String escapeString(String raw) {
-        StringBuilder escaped = new StringBuilder();
-
-        int start = 0;
-        int index = -1;
-        while ((index = raw.indexOf('\'', start)) >= 0) {
-            String section = raw.substring(start, index);
-            if (!section.isEmpty()) {
-                escaped.append('\'').append(section).append('\'');
-            }
-            escaped.append("\\'");
-            start = index + 1;
-        }
-
-        // add any remaining input (possibly the whole string)
-        if (start < raw.length()) {
-            escaped.append('\'').append(raw.substring(start)).append('\'');
-        }
-
-        return escaped.toString();
-    }
-
     private static final class SshProcess extends AbstractHandlableProcess {
 
         private final Session session;
         private final Session.Command command;
+        private final OutputStream input;
         private final Logger logger;
 
-        SshProcess(Session session, Session.Command command, Logger logger) {
+        SshProcess(Session session, Session.Command command, Transport transport, Logger logger) {
             this.session = session;
             this.command = command;
+            this.input = new EofOutputStream(command, transport);
             this.logger = logger;
         }
 
@@ -147,7 +168,7 @@ final class SshCommandFuture extends CommandFutureTask {
 
         @Override
         public OutputStream getInput() {
-            return command.getOutputStream();
+            return input;
         }
 
         @Override
@@ -180,4 +201,45 @@ final class SshCommandFuture extends CommandFutureTask {
         }
 
     }
+
+    /**
+     * Sends EOF to the remote process when closed. The SSHJ channel stream
+     * only flushes data when closed, so processes that read until the end of
+     * their input would never terminate.
+     */
+    private static final class EofOutputStream extends FilterOutputStream {
+
+        private final Session.Command command;
+        private final Transport transport;
+        private boolean closed;
+
+        EofOutputStream(Session.Command command, Transport transport) {
+            super(command.getOutputStream());
+            this.command = command;
+            this.transport = transport;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                if (command.isOpen()) {
+                    out.flush();
+                    transport.write(new SSHPacket(Message.CHANNEL_EOF)
+                            .putUInt32(command.getRecipient()));
+                }
+            } finally {
+                out.close();
+            }
+        }
+    }
 }
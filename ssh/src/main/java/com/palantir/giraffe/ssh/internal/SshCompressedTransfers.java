@@ -0,0 +1,294 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.ssh.TransferCompression;
+
+/**
+ * Transfers regular files between the local host and an SSH host through a
+ * remote {@code gzip} process and decides when compression is worthwhile.
+ * <p>
+ * Compressed transfers preserve the permissions and modification time of the
+ * source, like the SCP transfers they replace. Adaptive decisions use the
+ * bandwidth measured by uncompressed transfers; so that the estimate stays
+ * current while every transfer is compressed, one in every
+ * {@value #PROBE_INTERVAL} compressed adaptive transfers is sent uncompressed.
+ */
+final class SshCompressedTransfers {
+
+    // smaller files finish before compression saves more than the exec overhead
+    private static final long MIN_ADAPTIVE_SIZE = 1024 * 1024;
+    private static final int SAMPLE_SIZE = 256 * 1024;
+
+    // samples that compress worse than this are treated as incompressible
+    private static final double MAX_RATIO = 0.8;
+
+    // compress only if the estimated transfer time improves by this factor
+    private static final double MIN_SPEEDUP = 1.25;
+
+    // weight of the newest measurement in the bandwidth estimate
+    private static final double RATE_WEIGHT = 0.5;
+
+    private static final int PROBE_INTERVAL = 16;
+    private static final int MAX_CACHED_SAMPLES = 256;
+
+    private static final int STREAM_CAPACITY = 1024 * 1024;
+
+    private final SshFileSystem fs;
+    private final TransferCompression mode;
+
+    // keyed by file, size, and modification time so changed files are sampled again
+    private final Cache<String, Sample> samples = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SAMPLES)
+            .build();
+
+    private volatile Boolean gzipAvailable;
+
+    @GuardedBy("this")
+    private double bytesPerSecond;
+
+    @GuardedBy("this")
+    private int compressedSinceProbe;
+
+    SshCompressedTransfers(SshFileSystem fs, TransferCompression mode) {
+        this.fs = fs;
+        this.mode = mode;
+    }
+
+    /**
+     * Returns {@code true} if any transfers may use compression. If this
+     * returns {@code false}, callers do not need to read attributes for
+     * {@link #shouldCompress} or {@link #recordTransfer}.
+     */
+    public boolean isEnabled() {
+        return mode != TransferCompression.NEVER;
+    }
+
+    /**
+     * Returns {@code true} if transferring {@code source} should use
+     * compression. {@code source} may be on the local host or the SSH host;
+     * {@code attrs} are its attributes, read once by the caller.
+     */
+    public boolean shouldCompress(Path source, BasicFileAttributes attrs) throws IOException {
+        if (mode == TransferCompression.NEVER || !attrs.isRegularFile()) {
+            return false;
+        } else if (mode == TransferCompression.ALWAYS) {
+            return isGzipAvailable();
+        } else {
+            long size = attrs.size();
+            return size >= MIN_ADAPTIVE_SIZE
+                    && isGzipAvailable()
+                    && sampleHelps(source, attrs)
+                    && !isProbe();
+        }
+    }
+
+    private boolean sampleHelps(Path source, BasicFileAttributes attrs) throws IOException {
+        long size = attrs.size();
+        Sample sample = getSample(source, attrs);
+        double linkBytesPerSecond = getBytesPerSecond();
+        fs.logger().debug("sampled {}: ratio = {}, compression = {} B/s, link = {} B/s",
+                source, sample.ratio, sample.bytesPerSecond, linkBytesPerSecond);
+
+        if (sample.ratio > MAX_RATIO) {
+            return false;
+        } else if (linkBytesPerSecond == 0) {
+            // no measurements yet, so trust the sample
+            return true;
+        } else {
+            double rawSeconds = size / linkBytesPerSecond;
+            double compressedSeconds = Math.max(
+                    size / sample.bytesPerSecond,
+                    size * sample.ratio / linkBytesPerSecond);
+            return rawSeconds >= compressedSeconds * MIN_SPEEDUP;
+        }
+    }
+
+    private Sample getSample(Path source, BasicFileAttributes attrs) throws IOException {
+        String key = source.toUri() + ":" + attrs.size() + ":" + attrs.lastModifiedTime();
+        Sample sample = samples.getIfPresent(key);
+        if (sample == null) {
+            sample = readSample(source);
+            samples.put(key, sample);
+        }
+        return sample;
+    }
+
+    private static Sample readSample(Path source) throws IOException {
+        byte[] data = new byte[SAMPLE_SIZE];
+        int length;
+        try (InputStream in = Files.newInputStream(source)) {
+            length = ByteStreams.read(in, data, 0, data.length);
+        }
+
+        long start = System.nanoTime();
+        long compressedLength = deflatedLength(data, length);
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        return new Sample((double) compressedLength / length, length / seconds);
+    }
+
+    /**
+     * Returns {@code true} if a transfer that would be compressed should be
+     * sent uncompressed to measure the current bandwidth.
+     */
+    private synchronized boolean isProbe() {
+        if (++compressedSinceProbe < PROBE_INTERVAL) {
+            return false;
+        }
+        compressedSinceProbe = 0;
+        return true;
+    }
+    private static long deflatedLength(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                deflater.deflate(buffer);
+            }
+            return deflater.getBytesWritten();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private boolean isGzipAvailable() throws IOException {
+        if (gzipAvailable == null) {
+            CommandResult result = fs.execute("sh", "-c", "command -v gzip");
+            gzipAvailable = result.getExitStatus() == 0;
+            if (!gzipAvailable) {
+                fs.logger().debug("gzip is not available, transfers are not compressed");
+            }
+        }
+        return gzipAvailable;
+    }
+
+    /**
+     * Records the time taken by an uncompressed transfer of a file with the
+     * given attributes.
+     */
+    public void recordTransfer(BasicFileAttributes attrs, long duration, TimeUnit unit) {
+        if (mode != TransferCompression.NEVER && attrs.isRegularFile()) {
+            long size = attrs.size();
+            double seconds = Math.max(unit.toNanos(duration), 1) / 1e9;
+            if (size >= MIN_ADAPTIVE_SIZE) {
+                updateBytesPerSecond(size / seconds);
+            }
+        }
+    }
+
+    private synchronized double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    private synchronized void updateBytesPerSecond(double measured) {
+        if (bytesPerSecond == 0) {
+            bytesPerSecond = measured;
+        } else {
+            bytesPerSecond = RATE_WEIGHT * measured + (1 - RATE_WEIGHT) * bytesPerSecond;
+        }
+    }
+
+    public void upload(Path source, SshPath target, BasicFileAttributes attrs,
+                       TransferDigest digest) throws IOException {
+        CommandContext context = CommandContext.builder()
+                .ignoreExitStatus()
+                .streamInput(STREAM_CAPACITY)
+                .build();
+        CommandFuture future = fs.executeAsync(context,
+                "sh", "-c", "gzip -d -c > \"$1\"", "sh", target.toAbsolutePath().toString());
+
+        try (OutputStream out = new FastGzipOutputStream(future.getStdIn())) {
+            Files.copy(source, digest.wrap(out));
+        } catch (IOException | RuntimeException e) {
+            future.cancel(true);
+            throw e;
+        }
+        checkResult("gzip upload failed", Commands.waitFor(future));
+        TransferAttributes.setRemote(target, attrs);
+    }
+
+    public void download(SshPath source, Path target, PosixFileAttributes attrs,
+                         TransferDigest digest) throws IOException {
+        CommandContext context = CommandContext.builder()
+                .ignoreExitStatus()
+                .streamOutput(STREAM_CAPACITY)
+                .build();
+        CommandFuture future = fs.executeAsync(context,
+                "gzip", "-1", "-c", "--", source.toAbsolutePath().toString());
+
+        try (InputStream in = new GZIPInputStream(future.getStdOut())) {
+            Files.copy(digest.wrap(in), target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            future.cancel(true);
+            throw e;
+        }
+        checkResult("gzip download failed", Commands.waitFor(future));
+        TransferAttributes.setLocal(target, attrs);
+    }
+
+    private static void checkResult(String msg, CommandResult result) throws IOException {
+        if (result.getExitStatus() != 0) {
+            throw new IOException(msg + String.format(" [exit status = %s, output = %s]",
+                    result.getExitStatus(),
+                    result.getStdErr()));
+        }
+    }
+
+    private static final class Sample {
+        private final double ratio;
+        private final double bytesPerSecond;
+
+        Sample(double ratio, double bytesPerSecond) {
+            this.ratio = ratio;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+    }
+
+    /**
+     * A gzip stream that favors speed over compression ratio.
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, STREAM_CAPACITY);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
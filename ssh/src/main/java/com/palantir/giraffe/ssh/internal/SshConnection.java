@@ -0,0 +1,121 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import net.schmizz.sshj.SSHClient;
+
+/**
+ * A connection to a host that may be established on first use.
+ * <p>
+ * The first caller of {@link #getClient()} connects while concurrent callers
+ * wait for the same attempt. If the attempt fails, all waiting callers see the
+ * failure and the next call tries again.
+ */
+final class SshConnection {
+
+    /**
+     * Opens and authenticates a new connection.
+     */
+    interface Connector {
+        SSHClient connect() throws IOException;
+    }
+
+    public static SshConnection connected(SSHClient client) {
+        SshConnection connection = new SshConnection(null);
+        connection.client = Futures.immediateFuture(client);
+        return connection;
+    }
+
+    public static SshConnection lazy(Connector connector) {
+        return new SshConnection(connector);
+    }
+
+    private final Connector connector;
+
+    @GuardedBy("this")
+    private Future<SSHClient> client;
+
+    private SshConnection(Connector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Returns the client for this connection, connecting if necessary.
+     *
+     * @throws IOException if connecting or authenticating fails
+     */
+    public SSHClient getClient() throws IOException {
+        SettableFuture<SSHClient> attempt = null;
+        Future<SSHClient> future;
+        synchronized (this) {
+            if (client == null) {
+                attempt = SettableFuture.create();
+                client = attempt;
+            }
+            future = client;
+        }
+
+        if (attempt != null) {
+            connect(attempt);
+        }
+
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), IOException.class);
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the client for this connection if it is established.
+     */
+    public synchronized Optional<SSHClient> getClientIfConnected() {
+        if (client != null && client.isDone()) {
+            try {
+                return Optional.of(Futures.getDone(client));
+            } catch (ExecutionException e) {
+                return Optional.absent();
+            }
+        } else {
+            return Optional.absent();
+        }
+    }
+
+    private void connect(SettableFuture<SSHClient> attempt) {
+        try {
+            attempt.set(connector.connect());
+        } catch (IOException | RuntimeException | Error e) {
+            synchronized (this) {
+                // allow the next caller to try again
+                client = null;
+            }
+            attempt.setException(e);
+        }
+    }
+}
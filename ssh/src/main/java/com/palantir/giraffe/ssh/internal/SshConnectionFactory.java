@@ -16,7 +16,18 @@
 package com.palantir.giraffe.ssh.internal;
 
 import java.io.IOException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import javax.security.auth.Subject;
+import javax.security.auth.kerberos.KerberosTicket;
 import javax.security.auth.login.AppConfigurationEntry;
 import javax.security.auth.login.AppConfigurationEntry.LoginModuleControlFlag;
 import javax.security.auth.login.Configuration;
@@ -26,32 +37,67 @@ import javax.security.auth.login.LoginException;
 import org.ietf.jgss.GSSException;
 import org.ietf.jgss.Oid;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.palantir.giraffe.ssh.KerberosSshCredential;
 import com.palantir.giraffe.ssh.PasswordSshCredential;
 import com.palantir.giraffe.ssh.PublicKeySshCredential;
+import com.palantir.giraffe.ssh.SshAlgorithms;
 import com.palantir.giraffe.ssh.SshAuthenticator;
 import com.palantir.giraffe.ssh.SshSystemRequest;
 
 import net.schmizz.sshj.Config;
+import net.schmizz.sshj.ConfigImpl;
 import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.common.Factory;
 import net.schmizz.sshj.common.IOUtils;
+import net.schmizz.sshj.common.KeyType;
+import net.schmizz.sshj.transport.compression.Compression;
+import net.schmizz.sshj.transport.compression.DelayedZlibCompression;
+import net.schmizz.sshj.transport.compression.ZlibCompression;
 import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
 import net.schmizz.sshj.userauth.UserAuthException;
 import net.schmizz.sshj.userauth.keyprovider.KeyProvider;
 
-final class SshConnectionFactory {
+class SshConnectionFactory {
 
     private static final String KRB_ENTRY_NAME = "GiraffeKrb5";
 
+    private static final int MAX_CACHED_CREDENTIALS = 64;
+    private static final long CREDENTIAL_EXPIRY_MINUTES = 60;
+
+    // refresh cached Kerberos logins this long before the TGT expires
+    private static final long TICKET_REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private final Config config;
+    private final ConcurrentMap<SshAlgorithms, Config> algorithmConfigs =
+            new ConcurrentHashMap<>();
+
+    // keyed by credential digest so that changed credentials never hit stale entries
+    private final Cache<String, KeyProvider> keyProviders;
+
+    // keyed by principal; logins read the shared ticket cache, not the credential
+    private final Cache<String, LoginContext> kerberosLogins;
 
     public SshConnectionFactory(Config sshjConfiguration) {
         this.config = sshjConfiguration;
+        this.keyProviders = newCredentialCache();
+        this.kerberosLogins = newCredentialCache();
+    }
+
+    private static <V> Cache<String, V> newCredentialCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHED_CREDENTIALS)
+                .expireAfterAccess(CREDENTIAL_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                .build();
     }
 
     public SSHClient newAuthedConnection(SshSystemRequest request) throws IOException {
-        SSHClient sshClient = new SSHClient(config);
+        SSHClient sshClient = new SSHClient(getConfig(request.getAlgorithms()));
         sshClient.getTransport().addHostKeyVerifier(new PromiscuousVerifier());
         if (request.getKeepaliveInterval() > 0) {
             sshClient.getConnection().getKeepAlive().setKeepAliveInterval(
@@ -69,7 +115,83 @@ final class SshConnectionFactory {
         return sshClient;
     }
 
-    private static final class Authenticator implements SshAuthenticator {
+    private Config getConfig(SshAlgorithms algorithms) {
+        if (algorithms.equals(SshAlgorithms.defaults())) {
+            return config;
+        }
+
+        Config algorithmConfig = algorithmConfigs.get(algorithms);
+        if (algorithmConfig == null) {
+            algorithmConfig = newConfig(config, algorithms);
+            Config existing = algorithmConfigs.putIfAbsent(algorithms, algorithmConfig);
+            if (existing != null) {
+                algorithmConfig = existing;
+            }
+        }
+        return algorithmConfig;
+    }
+
+    private static Config newConfig(Config base, SshAlgorithms algorithms) {
+        ConfigImpl config = new ConfigImpl();
+        config.setVersion(base.getVersion());
+        config.setRandomFactory(base.getRandomFactory());
+        config.setSignatureFactories(base.getSignatureFactories());
+        config.setFileKeyProviderFactories(base.getFileKeyProviderFactories());
+        config.setKeepAliveProvider(base.getKeepAliveProvider());
+        config.setWaitForServerIdentBeforeSendingClientIdent(
+                base.isWaitForServerIdentBeforeSendingClientIdent());
+        config.setLoggerFactory(base.getLoggerFactory());
+
+        config.setCipherFactories(prefer(base.getCipherFactories(), algorithms.getCiphers()));
+        config.setMACFactories(prefer(base.getMACFactories(), algorithms.getMacs()));
+        config.setKeyExchangeFactories(
+                prefer(base.getKeyExchangeFactories(), algorithms.getKeyExchanges()));
+
+        // compression is disabled by default, so zlib is only offered if preferred
+        List<Factory.Named<Compression>> compression = new ArrayList<>();
+        compression.addAll(base.getCompressionFactories());
+        compression.add(new ZlibCompression.Factory());
+        compression.add(new DelayedZlibCompression.Factory());
+        compression = preferred(compression, algorithms.getCompression());
+        addMissing(compression, base.getCompressionFactories());
+        config.setCompressionFactories(compression);
+        return config;
+    }
+
+    /**
+     * Returns the named factories in {@code factories}, ordered so that
+     * factories with preferred names come first, in the order of
+     * {@code names}. Other factories follow in their original order.
+     */
+    private static <T> List<Factory.Named<T>> prefer(List<Factory.Named<T>> factories,
+            List<String> names) {
+        List<Factory.Named<T>> ordered = preferred(factories, names);
+        addMissing(ordered, factories);
+        return ordered;
+    }
+
+    private static <T> void addMissing(List<Factory.Named<T>> ordered,
+            List<Factory.Named<T>> factories) {
+        for (Factory.Named<T> factory : factories) {
+            if (!ordered.contains(factory)) {
+                ordered.add(factory);
+            }
+        }
+    }
+
+    private static <T> List<Factory.Named<T>> preferred(List<Factory.Named<T>> factories,
+            List<String> names) {
+        List<Factory.Named<T>> preferred = new ArrayList<>();
+        for (String name : names) {
+            Factory.Named<T> factory = Factory.Named.Util.get(factories, name);
+            if (factory != null && !preferred.contains(factory)) {
+                preferred.add(factory);
+            }
+        }
+        return preferred;
+    }
+
+    private final class Authenticator implements SshAuthenticator {
 
         private final SSHClient client;
 
@@ -84,36 +206,152 @@ final class SshConnectionFactory {
 
         @Override
         public void authByPublicKey(PublicKeySshCredential credential) throws IOException {
-            String privateKey = new String(credential.getPrivateKey());
-            KeyProvider keyProvider = client.loadKeys(privateKey, null, null);
-            client.authPublickey(credential.getUsername(), keyProvider);
+            client.authPublickey(credential.getUsername(), getKeyProvider(client, credential));
         }
 
         @Override
         public void authByKerberos(KerberosSshCredential credential) throws IOException {
             String user = credential.getUsername();
-            if (kerberosDebugEnabled()) {
-                System.setProperty("sun.security.krb5.debug", "true");
-            } else {
-                System.clearProperty("sun.security.krb5.debug");
-            }
 
-            LoginContext lc = null;
+            LoginContext previous = kerberosLogins.getIfPresent(user);
+            LoginContext lc = getKerberosLogin(user);
             try {
-                lc = new LoginContext(KRB_ENTRY_NAME, null, null, new KrbAuthConfiguration(user));
-                lc.login();
-            } catch (LoginException e) {
-                throw new UserAuthException(e);
+                client.authGssApiWithMic(user, lc, krb5Oid());
+            } catch (UserAuthException e) {
+                if (lc != previous) {
+                    throw e;
+                }
+                // the cached ticket may have been revoked or replaced; retry once
+                kerberosLogins.asMap().remove(user, lc);
+                LoginContext fresh = login(user);
+                client.authGssApiWithMic(user, fresh, krb5Oid());
+                kerberosLogins.put(user, fresh);
             }
+        }
+    }
 
-            Oid krb5Oid;
-            try {
-                krb5Oid = new Oid("1.2.840.113554.1.2.2");
-            } catch (GSSException e) {
-                // this will never happen, krb5 OID is always valid
-                throw new AssertionError();
+    /**
+     * Returns a parsed key provider for the credential, parsing the key only
+     * if no credential with the same content was parsed before.
+     */
+    @VisibleForTesting
+    KeyProvider getKeyProvider(final SSHClient client, final PublicKeySshCredential credential)
+            throws IOException {
+        return getCached(keyProviders, CredentialDigest.of(credential),
+                new Callable<KeyProvider>() {
+                    @Override
+                    public KeyProvider call() throws IOException {
+                        String privateKey = new String(credential.getPrivateKey());
+                        return ParsedKeyProvider.parse(client.loadKeys(privateKey, null, null));
+                    }
+                });
+    }
+
+    /**
+     * Returns a login for the principal, logging in only if there is no
+     * cached login or if the cached ticket is about to expire.
+     */
+    @VisibleForTesting
+    LoginContext getKerberosLogin(final String user) throws IOException {
+        LoginContext lc = kerberosLogins.getIfPresent(user);
+        if (lc != null && !hasFreshTicket(lc.getSubject())) {
+            kerberosLogins.asMap().remove(user, lc);
+        }
+
+        return getCached(kerberosLogins, user, new Callable<LoginContext>() {
+            @Override
+            public LoginContext call() throws IOException {
+                return login(user);
             }
-            client.authGssApiWithMic(user, lc, krb5Oid);
+        });
+    }
+
+    private static <V> V getCached(Cache<String, V> cache, String key, Callable<V> loader)
+            throws IOException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @VisibleForTesting
+    LoginContext login(String user) throws UserAuthException {
+        if (kerberosDebugEnabled()) {
+            System.setProperty("sun.security.krb5.debug", "true");
+        } else {
+            System.clearProperty("sun.security.krb5.debug");
+        }
+
+        try {
+            LoginContext lc = new LoginContext(KRB_ENTRY_NAME, null, null,
+                    new KrbAuthConfiguration(user));
+            lc.login();
+            return lc;
+        } catch (LoginException e) {
+            throw new UserAuthException(e);
+        }
+    }
+
+    private static boolean hasFreshTicket(Subject subject) {
+        long refreshTime = System.currentTimeMillis() + TICKET_REFRESH_MILLIS;
+        for (KerberosTicket ticket : subject.getPrivateCredentials(KerberosTicket.class)) {
+            boolean isTgt = ticket.getServer().getName().startsWith("krbtgt/");
+            if (isTgt && ticket.getEndTime().getTime() > refreshTime) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Oid krb5Oid() {
+        try {
+            return new Oid("1.2.840.113554.1.2.2");
+        } catch (GSSException e) {
+            // this will never happen, krb5 OID is always valid
+            throw new AssertionError();
+        }
+    }
+
+    /**
+     * A {@link KeyProvider} that holds an already parsed (and decrypted) key
+     * pair. Providers returned by {@code SSHClient.loadKeys} parse the key on
+     * every call.
+     */
+    private static final class ParsedKeyProvider implements KeyProvider {
+
+        static ParsedKeyProvider parse(KeyProvider provider) throws IOException {
+            return new ParsedKeyProvider(
+                    provider.getPrivate(),
+                    provider.getPublic(),
+                    provider.getType());
+        }
+
+        private final PrivateKey privateKey;
+        private final PublicKey publicKey;
+        private final KeyType type;
+
+        private ParsedKeyProvider(PrivateKey privateKey, PublicKey publicKey, KeyType type) {
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.type = type;
+        }
+
+        @Override
+        public PrivateKey getPrivate() {
+            return privateKey;
+        }
+
+        @Override
+        public PublicKey getPublic() {
+            return publicKey;
+        }
+
+        @Override
+        public KeyType getType() {
+            return type;
         }
     }
 
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.giraffe.ssh.SshChannelStatistics;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Priority;
+
+/**
+ * Spreads channels across one or more connections to the same host.
+ * <p>
+ * Each request is assigned to the connection with the fewest open and queued
+ * channels at the time of the request. Ties go to the connection with fewer
+ * channels held by persistent shells, because channels used by commands are
+ * released when the commands finish. Requests that wait for a channel stay in
+ * the queue of the connection they were assigned to.
+ */
+final class SshConnectionGroup implements Closeable {
+
+    private final ImmutableList<SshChannelPermits> connections;
+
+    SshConnectionGroup(List<SshChannelPermits> connections) {
+        this.connections = ImmutableList.copyOf(connections);
+    }
+
+    /**
+     * Returns a future that resolves to a permit once a channel is available
+     * on the least loaded connection.
+     *
+     * @see SshChannelPermits#acquireAsync(Priority)
+     */
+    public ListenableFuture<Permit> acquireAsync(Priority priority) {
+        return leastLoaded().acquireAsync(priority);
+    }
+
+    /**
+     * Waits until a channel is available on the least loaded connection and
+     * returns a permit for it.
+     *
+     * @see SshChannelPermits#acquire(Priority)
+     */
+    public Permit acquire(Priority priority) throws IOException {
+        return leastLoaded().acquire(priority);
+    }
+
+    /**
+     * Returns a permit if a channel is available on any connection without
+     * waiting.
+     */
+    public Optional<Permit> tryAcquire() {
+        SshChannelPermits first = leastLoaded();
+        Optional<Permit> permit = first.tryAcquire();
+        for (int i = 0; i < connections.size() && !permit.isPresent(); i++) {
+            if (connections.get(i) != first) {
+                permit = connections.get(i).tryAcquire();
+            }
+        }
+        return permit;
+    }
+
+    public SshChannelStatistics statistics() {
+        int maxChannels = 0;
+        int openChannels = 0;
+        int queuedRequests = 0;
+        long acquiredChannels = 0;
+        long totalQueueNanos = 0;
+        long maxQueueNanos = 0;
+        for (SshChannelPermits permits : connections) {
+            SshChannelStatistics stats = permits.statistics();
+            maxChannels += stats.getMaxChannels();
+            openChannels += stats.getOpenChannels();
+            queuedRequests += stats.getQueuedRequests();
+            acquiredChannels += stats.getAcquiredChannels();
+            totalQueueNanos += stats.getTotalQueueTime(TimeUnit.NANOSECONDS);
+            long queueNanos = stats.getMaxQueueTime(TimeUnit.NANOSECONDS);
+            maxQueueNanos = Math.max(maxQueueNanos, queueNanos);
+        }
+
+        return new SshChannelStatistics(
+                connections.size(),
+                maxChannels,
+                openChannels,
+                queuedRequests,
+                acquiredChannels,
+                totalQueueNanos,
+                maxQueueNanos);
+    }
+
+    @Override
+    public void close() {
+        for (SshChannelPermits permits : connections) {
+            permits.close();
+        }
+    }
+
+    private SshChannelPermits leastLoaded() {
+        SshChannelPermits best = connections.get(0);
+        int bestLoad = best.load();
+        int bestPersistent = best.persistentChannels();
+        for (int i = 1; i < connections.size(); i++) {
+            SshChannelPermits permits = connections.get(i);
+            int load = permits.load();
+            int persistent = permits.persistentChannels();
+            if (load < bestLoad || (load == bestLoad && persistent < bestPersistent)) {
+                best = permits;
+                bestLoad = load;
+                bestPersistent = persistent;
+            }
+        }
+        return best;
+    }
+}
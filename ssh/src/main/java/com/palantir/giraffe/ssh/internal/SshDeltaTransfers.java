@@ -0,0 +1,502 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+
+/**
+ * Transfers regular files between the local host and an SSH host by sending
+ * only the parts of a file that are not already present at the target.
+ * <p>
+ * The remote host computes {@code cksum} and MD5 signatures of fixed-size
+ * blocks of the remote file using GNU {@code split}. The local host then
+ * searches the local file for these blocks at every offset with a
+ * {@linkplain RollingChecksum rolling checksum}:
+ * <ul>
+ * <li>For uploads, the remote file is the old version. Blocks found in the
+ * new local file are copied on the remote host with {@code dd} and the
+ * remaining data is written with positional SFTP writes.</li>
+ * <li>For downloads, the remote file is the new version. Blocks found in the
+ * old local file are copied locally and the remaining blocks are read with
+ * positional SFTP reads.</li>
+ * </ul>
+ * In both cases, the new file is assembled in a temporary file next to the
+ * target, given the permissions and times of the source, and then moved over
+ * the target. If a digest is requested, it is
+ * computed while scanning the local file for uploads and while assembling
+ * the local file for downloads.
+ */
+final class SshDeltaTransfers {
+
+    // smaller files finish before a delta saves more than the exec overhead
+    private static final long MIN_DELTA_SIZE = 1024 * 1024;
+
+    // block size grows with the file to limit the number of remote processes
+    private static final int MIN_BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_BLOCKS = 4096;
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    // the largest SFTP write request
+    private static final int WRITE_SIZE = 32768;
+    private static final int STREAM_CAPACITY = 64 * 1024;
+
+    private static final String TEMP_SUFFIX = ".giraffe-delta";
+
+    private static final String SIGNATURE_SCRIPT = "split -b \"$1\" --filter=cksum -- \"$2\""
+            + " && split -b \"$1\" --filter=md5sum -- \"$2\"";
+
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+    private static final Splitter FIELD_SPLITTER = Splitter.on(' ').omitEmptyStrings();
+
+    /**
+     * A block of the remote file found at an offset in the local file.
+     */
+    private static final class Match {
+        final long offset;
+        final int block;
+
+        Match(long offset, int block) {
+            this.offset = offset;
+            this.block = block;
+        }
+    }
+
+    /**
+     * Signatures of the full blocks of a remote file.
+     */
+    private static final class Signatures {
+        final int blockSize;
+
+        private final BitSet filter = new BitSet(1 << 16);
+        private final Map<Integer, List<Integer>> blocksByWeak = new HashMap<>();
+        private final Map<Integer, HashCode> strongByBlock = new HashMap<>();
+
+        Signatures(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        void add(int block, int weak, HashCode strong) {
+            List<Integer> blocks = blocksByWeak.get(weak);
+            if (blocks == null) {
+                blocks = new ArrayList<>(1);
+                blocksByWeak.put(weak, blocks);
+            }
+            blocks.add(block);
+            strongByBlock.put(block, strong);
+            filter.set(filterIndex(weak));
+        }
+
+        boolean isEmpty() {
+            return strongByBlock.isEmpty();
+        }
+
+        /**
+         * Returns the block matching the window that starts at {@code head}
+         * in the circular buffer {@code window} or -1 if no block matches.
+         */
+        int find(int weak, byte[] window, int head, MessageDigest digest) {
+            if (!filter.get(filterIndex(weak))) {
+                return -1;
+            }
+
+            List<Integer> blocks = blocksByWeak.get(weak);
+            if (blocks == null) {
+                return -1;
+            }
+
+            digest.reset();
+            digest.update(window, head, window.length - head);
+            digest.update(window, 0, head);
+            HashCode strong = HashCode.fromBytes(digest.digest());
+            for (int block : blocks) {
+                if (strong.equals(strongByBlock.get(block))) {
+                    return block;
+                }
+            }
+            return -1;
+        }
+
+        private static int filterIndex(int weak) {
+            return (weak ^ (weak >>> 16)) & 0xffff;
+        }
+    }
+
+    private final SshFileSystem fs;
+    private final boolean enabled;
+
+    private volatile Boolean splitAvailable;
+
+    SshDeltaTransfers(SshFileSystem fs, boolean enabled) {
+        this.fs = fs;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Updates the remote file {@code target} to match the local file
+     * {@code source} if a delta transfer is possible.
+     *
+     * @return {@code true} if the target was updated, {@code false} if the
+     *         caller should copy the file normally
+     */
+    public boolean tryUpload(Path source, SshPath target, TransferDigest digest)
+            throws IOException {
+        if (!shouldTry(source, target)) {
+            return false;
+        }
+
+        String absTarget = target.toAbsolutePath().toString();
+        Signatures signatures = readSignatures(absTarget, Files.size(target));
+        List<Match> matches = scan(source, signatures, digest);
+        if (matches.isEmpty()) {
+            digest.reset();
+            return false;
+        }
+
+        long size = Files.size(source);
+        logDelta(source, target, matches, signatures.blockSize, size);
+
+        SshPath temp = (SshPath) target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try {
+            copyRemoteBlocks(absTarget, temp.toAbsolutePath().toString(), matches,
+                    signatures.blockSize);
+            // the digest was computed while scanning the entire source
+            try (SeekableByteChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 SshSeekableByteChannel out = SshSeekableByteChannel.open(temp,
+                         EnumSet.of(StandardOpenOption.WRITE))) {
+                long position = 0;
+                for (Match match : matches) {
+                    writeRange(in, out, position, match.offset - position);
+                    position = match.offset + signatures.blockSize;
+                }
+                writeRange(in, out, position, size - position);
+            }
+            TransferAttributes.setRemote(temp, TransferAttributes.readLocal(source));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteTemp(temp, e);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the local file {@code target} to match the remote file
+     * {@code source} if a delta transfer is possible.
+     *
+     * @return {@code true} if the target was updated, {@code false} if the
+     *         caller should copy the file normally
+     */
+    public boolean tryDownload(SshPath source, Path target, TransferDigest digest)
+            throws IOException {
+        if (!shouldTry(source, target)) {
+            return false;
+        }
+
+        long size = Files.size(source);
+        Signatures signatures = readSignatures(source.toAbsolutePath().toString(), size);
+        List<Match> matches = scan(target, signatures, TransferDigest.none());
+        if (matches.isEmpty()) {
+            return false;
+        }
+
+        int blockSize = signatures.blockSize;
+        logDelta(source, target, matches, blockSize, size);
+
+        Map<Integer, Long> localOffsets = new HashMap<>();
+        for (Match match : matches) {
+            if (!localOffsets.containsKey(match.block)) {
+                localOffsets.put(match.block, match.offset);
+            }
+        }
+
+        Path absTarget = target.toAbsolutePath();
+        Path temp = absTarget.resolveSibling(absTarget.getFileName() + TEMP_SUFFIX);
+        try {
+            try (SeekableByteChannel basis = FileChannel.open(target, StandardOpenOption.READ);
+                 SeekableByteChannel remote = Files.newByteChannel(source, StandardOpenOption.READ);
+                 SeekableByteChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long remoteStart = 0;
+                long fullBlocks = size / blockSize;
+                for (int block = 0; block < fullBlocks; block++) {
+                    Long offset = localOffsets.get(block);
+                    if (offset != null) {
+                        long position = (long) block * blockSize;
+                        copyRange(remote, remoteStart, out, remoteStart, position - remoteStart,
+                                digest);
+                        copyRange(basis, offset, out, position, blockSize, digest);
+                        remoteStart = position + blockSize;
+                    }
+                }
+                copyRange(remote, remoteStart, out, remoteStart, size - remoteStart, digest);
+            }
+            TransferAttributes.setLocal(temp,
+                    Files.readAttributes(source, PosixFileAttributes.class));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteTemp(temp, e);
+            throw e;
+        }
+        return true;
+    }
+
+    private boolean shouldTry(Path source, Path target) throws IOException {
+        return enabled
+                && Files.isRegularFile(source)
+                && Files.isRegularFile(target)
+                && Files.size(source) >= MIN_DELTA_SIZE
+                && Files.size(target) >= MIN_DELTA_SIZE
+                && isSplitAvailable();
+    }
+
+    private boolean isSplitAvailable() throws IOException {
+        if (splitAvailable == null) {
+            CommandResult result = fs.execute("split", "-b", 1, "--filter=cat", "/dev/null");
+            splitAvailable = result.getExitStatus() == 0;
+            if (!splitAvailable) {
+                fs.logger().debug("GNU split is not available, delta transfers are disabled");
+            }
+        }
+        return splitAvailable;
+    }
+
+    private static int blockSize(long fileSize) {
+        int blockSize = MIN_BLOCK_SIZE;
+        while (fileSize / blockSize > MAX_BLOCKS) {
+            blockSize *= 2;
+        }
+        return blockSize;
+    }
+
+    private Signatures readSignatures(String path, long size) throws IOException {
+        int blockSize = blockSize(size);
+        CommandResult result = fs.execute("sh", "-c", SIGNATURE_SCRIPT, "sh", blockSize, path);
+        checkResult("block signatures failed", result);
+
+        List<String> lines = LINE_SPLITTER.splitToList(result.getStdOut());
+        if (lines.size() % 2 != 0) {
+            throw new IOException("malformed block signatures for " + path);
+        }
+
+        int count = lines.size() / 2;
+        Signatures signatures = new Signatures(blockSize);
+        for (int block = 0; block < count; block++) {
+            List<String> cksum = FIELD_SPLITTER.splitToList(lines.get(block));
+            List<String> md5 = FIELD_SPLITTER.splitToList(lines.get(count + block));
+            if (Long.parseLong(cksum.get(1)) == blockSize) {
+                int weak = (int) Long.parseLong(cksum.get(0));
+                signatures.add(block, weak, HashCode.fromString(md5.get(0)));
+            }
+        }
+        return signatures;
+    }
+
+    private static List<Match> scan(Path file, Signatures signatures, TransferDigest digest)
+            throws IOException {
+        List<Match> matches = new ArrayList<>();
+        if (signatures.isEmpty()) {
+            return matches;
+        }
+
+        int blockSize = signatures.blockSize;
+        RollingChecksum checksum = new RollingChecksum(blockSize);
+        MessageDigest md5 = ChecksumAlgorithm.MD5.newMessageDigest();
+
+        byte[] window = new byte[blockSize];
+        int filled = 0;
+        int head = 0;
+        long position = 0;
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, n);
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    position++;
+                    if (filled < blockSize) {
+                        window[filled++] = b;
+                        checksum.append(b);
+                        head = 0;
+                        if (filled < blockSize) {
+                            continue;
+                        }
+                    } else {
+                        checksum.roll(window[head], b);
+                        window[head] = b;
+                        head = head + 1 == blockSize ? 0 : head + 1;
+                    }
+
+                    int block = signatures.find(checksum.getValue(), window, head, md5);
+                    if (block >= 0) {
+                        matches.add(new Match(position - blockSize, block));
+                        checksum.reset();
+                        filled = 0;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void logDelta(Path source, Path target, List<Match> matches, int blockSize,
+            long size) {
+        long matched = (long) matches.size() * blockSize;
+        fs.logger().debug("delta from {} to {}: {} of {} bytes matched in {} byte blocks",
+                source.toUri(), target.toUri(), matched, size, blockSize);
+    }
+
+    /**
+     * Creates {@code temp} on the remote host and copies matched blocks from
+     * {@code target} to their new offsets, merging adjacent blocks.
+     */
+    private void copyRemoteBlocks(String target, String temp, List<Match> matches, int blockSize)
+            throws IOException {
+        StringBuilder script = new StringBuilder();
+        script.append("set -e\n");
+        script.append(": > \"$2\"\n");
+
+        int i = 0;
+        while (i < matches.size()) {
+            Match first = matches.get(i);
+            int count = 1;
+            while (i + count < matches.size() && isNext(matches.get(i + count), first, count,
+                    blockSize)) {
+                count++;
+            }
+            script.append(String.format("dd if=\"$1\" of=\"$2\" bs=%d skip=%d seek=%d count=%d "
+                    + "oflag=seek_bytes conv=notrunc status=none\n",
+                    blockSize, first.block, first.offset, count));
+            i += count;
+        }
+
+        CommandContext context = CommandContext.builder()
+                .ignoreExitStatus()
+                .streamInput(STREAM_CAPACITY)
+                .build();
+        CommandFuture future = fs.executeAsync(context, "sh", "-s", target, temp);
+        try (OutputStream out = future.getStdIn()) {
+            out.write(script.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            future.cancel(true);
+            throw e;
+        }
+        checkResult("remote block copy failed", Commands.waitFor(future));
+    }
+
+    private static boolean isNext(Match match, Match first, int count, int blockSize) {
+        return match.block == first.block + count
+                && match.offset == first.offset + (long) count * blockSize;
+    }
+
+    private static void copyRange(SeekableByteChannel in, long inPosition,
+            SeekableByteChannel out, long outPosition, long length, TransferDigest digest)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        in.position(inPosition);
+        out.position(outPosition);
+
+        long remaining = length;
+        while (remaining > 0) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), remaining));
+            int n = in.read(buffer);
+            if (n < 0) {
+                throw new IOException("unexpected end of file at " + (inPosition + length
+                        - remaining));
+            }
+
+            buffer.flip();
+            digest.update(buffer);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Writes a range of the local file to the same position in the remote
+     * file without waiting for each write to be acknowledged.
+     */
+    private static void writeRange(SeekableByteChannel in, SshSeekableByteChannel out,
+            long position, long length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+
+        byte[] buffer = new byte[WRITE_SIZE];
+        in.position(position);
+        OutputStream stream = out.newPipelinedOutputStream(position);
+
+        long remaining = length;
+        while (remaining > 0) {
+            int n = in.read(ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, remaining)));
+            if (n < 0) {
+                throw new IOException("unexpected end of file at " + (position + length
+                        - remaining));
+            }
+            stream.write(buffer, 0, n);
+            remaining -= n;
+        }
+        // waits for all outstanding writes and reports any failures
+        stream.flush();
+    }
+
+    private static void deleteTemp(Path temp, Exception cause) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void checkResult(String msg, CommandResult result) throws IOException {
+        if (result.getExitStatus() != 0) {
+            throw new IOException(msg + String.format(" [exit status = %s, output = %s]",
+                    result.getExitStatus(),
+                    result.getStdErr()));
+        }
+    }
+}
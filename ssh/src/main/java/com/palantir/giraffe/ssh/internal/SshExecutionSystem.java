@@ -20,9 +20,14 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.giraffe.command.ClosedExecutionSystemException;
 import com.palantir.giraffe.command.CommandContext;
 import com.palantir.giraffe.command.CommandFuture;
@@ -30,19 +35,19 @@ import com.palantir.giraffe.command.ExecutionSystem;
 import com.palantir.giraffe.host.Host;
 import com.palantir.giraffe.host.HostControlSystem;
 import com.palantir.giraffe.host.HostControlSystemUpgradeable;
-import com.palantir.giraffe.internal.CommandFutureTask;
-
-import net.schmizz.sshj.SSHClient;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Priority;
 
 final class SshExecutionSystem extends ExecutionSystem implements HostControlSystemUpgradeable {
 
     private final SshExecutionSystemProvider provider;
     private final URI uri;
-    private final SSHClient client;
     private final Logger logger;
     private final CloseContext closeContext;
 
     private final ExecutorService executor;
+    private final SshConnectionGroup connections;
+    private final SshShellPool shells;
 
     private SshHostControlSystem sourceSystem;
 
@@ -51,7 +56,6 @@ final class SshExecutionSystem extends ExecutionSystem implements HostControlSys
         this.provider = provider;
 
         this.uri = request.executionSystemUri();
-        this.client = request.getClient();
         this.logger = HostLogger.create(request.getLogger(), Host.fromUri(uri));
 
         closeContext = request.getCloseContext();
@@ -63,6 +67,10 @@ final class SshExecutionSystem extends ExecutionSystem implements HostControlSys
                 executor.shutdownNow();
             }
         });
+
+        connections = request.getConnectionGroup();
+        shells = new SshShellPool(request.getPersistentShells(), connections, logger);
+        closeContext.registerCloseable(shells);
     }
 
     @Override
@@ -109,13 +117,40 @@ final class SshExecutionSystem extends ExecutionSystem implements HostControlSys
     protected CommandFuture execute(SshCommand command, CommandContext context) {
         checkOpen();
 
-        CommandFutureTask future = newFutureTask(command, context);
-        executor.execute(future);
+        final SshCommandFuture future = newFutureTask(command, context);
+
+        // queue the command without a thread until a channel is available
+        final ListenableFuture<Permit> permit = connections.acquireAsync(Priority.COMMAND);
+        Futures.addCallback(permit, new FutureCallback<Permit>() {
+            @Override
+            public void onSuccess(Permit result) {
+                future.setPermit(result);
+                try {
+                    executor.execute(future);
+                } catch (RejectedExecutionException e) {
+                    // the system closed after the permit was granted
+                    future.cancel(false);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // the system closed or the command was cancelled while queued
+                future.cancel(false);
+            }
+        }, MoreExecutors.directExecutor());
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                permit.cancel(false);
+            }
+        }, MoreExecutors.directExecutor());
         return future;
     }
 
-    private CommandFutureTask newFutureTask(SshCommand command, CommandContext context) {
-        return new SshCommandFuture(command, context, client, executor);
+    private SshCommandFuture newFutureTask(SshCommand command, CommandContext context) {
+        return new SshCommandFuture(command, context, shells, executor);
     }
 
     private void checkOpen() {
@@ -0,0 +1,269 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.util.Set;
+
+/**
+ * A {@link FileChannel} for SSH paths. Sequential I/O is provided by an
+ * {@link SshSeekableByteChannel}; transfers use pipelined requests and large
+ * buffers that are passed directly to the other channel.
+ * <p>
+ * SFTP does not support file locks or memory-mapped files.
+ */
+final class SshFileChannel extends FileChannel {
+
+    private static final int TRANSFER_BUFFER_SIZE = 256 * 1024;
+    private static final int WRITE_SIZE = 32768;
+
+    public static SshFileChannel open(SshPath path, Set<? extends OpenOption> options,
+            FileAttribute<?>... attrs) throws IOException {
+        return new SshFileChannel(SshSeekableByteChannel.open(path, options, attrs), path);
+    }
+
+    private final SshSeekableByteChannel channel;
+    private final SshPath path;
+
+    private SshFileChannel(SshSeekableByteChannel channel, SshPath path) {
+        this.channel = channel;
+        this.path = path;
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+        path.getFileSystem().unregisterCloseable(this);
+        channel.close();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        synchronized (channel) {
+            return channel.read(dst);
+        }
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        synchronized (channel) {
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                while (dsts[i].hasRemaining()) {
+                    int read = channel.read(dsts[i]);
+                    if (read < 0) {
+                        return total == 0 ? -1 : total;
+                    } else if (read == 0) {
+                        return total;
+                    }
+                    total += read;
+                }
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        checkArgument(position >= 0, "position cannot be negative");
+        synchronized (channel) {
+            long current = channel.position();
+            try {
+                channel.position(position);
+                return channel.read(dst);
+            } finally {
+                channel.position(current);
+            }
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        synchronized (channel) {
+            return channel.write(src);
+        }
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        synchronized (channel) {
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                while (srcs[i].hasRemaining()) {
+                    total += channel.write(srcs[i]);
+                }
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+        checkArgument(position >= 0, "position cannot be negative");
+        synchronized (channel) {
+            long current = channel.position();
+            try {
+                channel.position(position);
+                int total = 0;
+                while (src.hasRemaining()) {
+                    total += channel.write(src);
+                }
+                return total;
+            } finally {
+                channel.position(current);
+            }
+        }
+    }
+
+    @Override
+    public long position() throws IOException {
+        synchronized (channel) {
+            return channel.position();
+        }
+    }
+
+    @Override
+    public SshFileChannel position(long newPosition) throws IOException {
+        synchronized (channel) {
+            channel.position(newPosition);
+        }
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public SshFileChannel truncate(long size) throws IOException {
+        synchronized (channel) {
+            channel.truncate(size);
+        }
+        return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+        // SFTP version 3 cannot sync files; writes are complete when acknowledged
+        checkIsOpen();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target)
+            throws IOException {
+        checkArgument(position >= 0, "position cannot be negative");
+        checkArgument(count >= 0, "count cannot be negative");
+        checkIsOpen();
+        if (!channel.getFlags().read) {
+            throw new NonReadableChannelException();
+        }
+        synchronized (channel) {
+            long remaining = Math.min(count, channel.size() - position);
+            if (remaining <= 0) {
+                return 0;
+            }
+
+            InputStream in = channel.newPipelinedInputStream(position);
+            byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, remaining)];
+
+            long total = 0;
+            while (total < remaining) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining - total));
+                if (read < 0) {
+                    break;
+                }
+
+                ByteBuffer src = ByteBuffer.wrap(buffer, 0, read);
+                while (src.hasRemaining()) {
+                    target.write(src);
+                }
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count)
+            throws IOException {
+        checkArgument(position >= 0, "position cannot be negative");
+        checkArgument(count >= 0, "count cannot be negative");
+        checkIsOpen();
+        if (!channel.getFlags().write) {
+            throw new NonWritableChannelException();
+        }
+        synchronized (channel) {
+            if (count == 0 || position > channel.size()) {
+                return 0;
+            }
+
+            OutputStream out = channel.newPipelinedOutputStream(position);
+            byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, count)];
+
+            long total = 0;
+            while (total < count) {
+                int length = (int) Math.min(buffer.length, count - total);
+                int read = src.read(ByteBuffer.wrap(buffer, 0, length));
+                if (read <= 0) {
+                    break;
+                }
+
+                for (int offset = 0; offset < read; offset += WRITE_SIZE) {
+                    out.write(buffer, offset, Math.min(WRITE_SIZE, read - offset));
+                }
+                total += read;
+            }
+            out.flush();
+            return total;
+        }
+    }
+
+    private void checkIsOpen() throws ClosedChannelException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+        throw new UnsupportedOperationException("SFTP files cannot be mapped");
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+        throw new UnsupportedOperationException("SFTP does not support file locks");
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+        throw new UnsupportedOperationException("SFTP does not support file locks");
+    }
+}
@@ -19,6 +19,8 @@ import java.io.Closeable;
 import java.io.IOError;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AccessMode;
@@ -31,6 +33,7 @@ import java.nio.file.FileStore;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
@@ -41,11 +44,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 
 import com.palantir.giraffe.command.Command;
 import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
 import com.palantir.giraffe.command.CommandResult;
 import com.palantir.giraffe.command.Commands;
 import com.palantir.giraffe.command.ExecutionSystem;
@@ -56,13 +61,15 @@ import com.palantir.giraffe.file.base.attribute.PosixFileAttributeViews;
 import com.palantir.giraffe.host.Host;
 import com.palantir.giraffe.host.HostControlSystem;
 import com.palantir.giraffe.host.HostControlSystemUpgradeable;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Priority;
 
-import net.schmizz.sshj.SSHClient;
 import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.FileMode.Type;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
 import net.schmizz.sshj.sftp.Response.StatusCode;
 import net.schmizz.sshj.sftp.SFTPClient;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 import net.schmizz.sshj.xfer.scp.SCPFileTransfer;
 
@@ -70,14 +77,28 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
 
     public static final String SEPARATOR = "/";
 
+    // helper commands never read input, so they may run in persistent shells
+    private static final CommandContext NO_INPUT_CONTEXT = CommandContext.builder()
+            .ignoreExitStatus()
+            .discardInput()
+            .build();
+
     private final SshFileSystemProvider provider;
     private final URI uri;
-    private final SSHClient client;
     private final Logger logger;
     private final FileAttributeViewRegistry viewRegistry;
     private final CloseContext closeContext;
+    private final SshConnectionGroup connections;
+    private final SshCompressedTransfers compressedTransfers;
+    private final SshDeltaTransfers deltaTransfers;
+    private final SshChecksums checksums;
+    private final SshFileTreeListing treeListing;
+    private final SshBlockCache blockCache;
+    private final int watchPollInterval;
+    private final SshPrincipalLookupService principalLookupService;
 
     private volatile SshPath defaultDirectory;
+    private SshAsyncCompleter asyncCompleter;
 
     private SshHostControlSystem sourceSystem;
 
@@ -85,7 +106,6 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
         this.provider = provider;
 
         this.uri = request.fileSystemUri();
-        this.client = request.getClient();
         this.logger = HostLogger.create(request.getLogger(), Host.fromUri(uri));
 
         SshFileAttributeViewFactory factory = new SshFileAttributeViewFactory(provider);
@@ -95,6 +115,16 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
                 .build();
 
         closeContext = request.getCloseContext();
+        connections = request.getConnectionGroup();
+        compressedTransfers = new SshCompressedTransfers(this, request.getTransferCompression());
+        deltaTransfers = new SshDeltaTransfers(this, request.isDeltaTransfer());
+        checksums = new SshChecksums(this);
+        treeListing = new SshFileTreeListing(this);
+        blockCache = new SshBlockCache(request.getBlockCacheSize(),
+                request.getBlockCacheBlockSize());
+        watchPollInterval = request.getWatchPollInterval();
+        principalLookupService = new SshPrincipalLookupService(this,
+                request.getPrincipalCacheTtl());
     }
 
     @Override
@@ -124,6 +154,11 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
         return defaultDirectory;
     }
 
+    @Override
+    public SshPrincipalLookupService getUserPrincipalLookupService() {
+        return principalLookupService;
+    }
+
     void setSourceSystem(SshHostControlSystem sourceSystem) {
         this.sourceSystem = sourceSystem;
     }
@@ -143,17 +178,74 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
     CommandResult execute(String executable, List<Object> args) throws IOException {
         ExecutionSystem es = sourceSystem.getExecutionSystem();
         Command cmd = es.getCommandBuilder(executable).addArguments(args).build();
-        return Commands.execute(cmd, CommandContext.ignoreExitStatus());
+        return Commands.execute(cmd, NO_INPUT_CONTEXT);
+    }
+
+    CommandFuture executeAsync(CommandContext context, String executable, Object... args) {
+        ExecutionSystem es = sourceSystem.getExecutionSystem();
+        Command cmd = es.getCommandBuilder(executable).addArguments(Arrays.asList(args)).build();
+        return Commands.executeAsync(cmd, context);
     }
 
     SFTPClient openSftpClient() throws IOException {
         checkOpen();
-        return client.newSFTPClient();
+
+        Permit permit = acquireChannel();
+        try {
+            return new PermitSftpClient(new SFTPEngine(permit.getClient()).init(), permit);
+        } catch (IOException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    SCPFileTransfer getScpFileTransfer(Permit permit) throws IOException {
+        checkOpen();
+        return permit.getClient().newSCPFileTransfer();
+    }
+
+    /**
+     * Waits for a channel to be available for a file system operation. The
+     * caller must release the permit after closing the channel.
+     */
+    Permit acquireChannel() throws IOException {
+        return connections.acquire(Priority.FILE_SYSTEM);
+    }
+
+    SshCompressedTransfers getCompressedTransfers() {
+        return compressedTransfers;
+    }
+
+    SshDeltaTransfers getDeltaTransfers() {
+        return deltaTransfers;
+    }
+
+    SshChecksums getChecksums() {
+        return checksums;
+    }
+
+    SshFileTreeListing getTreeListing() {
+        return treeListing;
     }
 
-    SCPFileTransfer getScpFileTransfer() {
+    SshBlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    int getWatchPollInterval() {
+        return watchPollInterval;
+    }
+
+    /**
+     * Returns the completer for asynchronous file channels, starting it if
+     * this is the first asynchronous channel.
+     */
+    synchronized SshAsyncCompleter getAsyncCompleter() {
         checkOpen();
-        return client.newSCPFileTransfer();
+        if (asyncCompleter == null) {
+            asyncCompleter = registerCloseable(new SshAsyncCompleter(uri.getHost()));
+        }
+        return asyncCompleter;
     }
 
     Logger logger() {
@@ -294,6 +386,20 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
         return registerCloseable(SshSeekableByteChannel.open(path, options, attrs));
     }
 
+    FileChannel newFileChannel(SshPath path, Set<? extends OpenOption> options,
+            FileAttribute<?>... attrs) throws IOException {
+        logger.debug("opening file channel for {} with options {}", path, options);
+        return registerCloseable(SshFileChannel.open(path, options, attrs));
+    }
+
+    AsynchronousFileChannel newAsynchronousFileChannel(SshPath path,
+            Set<? extends OpenOption> options, ExecutorService executor,
+            FileAttribute<?>... attrs) throws IOException {
+        logger.debug("opening asynchronous channel for {} with options {}", path, options);
+        return registerCloseable(
+                SshAsynchronousFileChannel.open(path, options, executor, attrs));
+    }
+
     @Override
     protected DirectoryStream<Path> newDirectoryStream(SshPath dir, Filter<? super Path> filter)
             throws IOException {
@@ -304,6 +410,12 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
         }
     }
 
+    @Override
+    public WatchService newWatchService() throws IOException {
+        checkOpen();
+        return registerCloseable(SshWatchService.create(this));
+    }
+
     @Override
     public boolean isReadOnly() {
         return false;
@@ -338,4 +450,25 @@ final class SshFileSystem extends BaseFileSystem<SshPath> implements HostControl
             throw new ClosedFileSystemException();
         }
     }
+
+    /**
+     * An SFTP client that releases its channel permit when closed.
+     */
+    private static final class PermitSftpClient extends SFTPClient {
+        private final Permit permit;
+
+        PermitSftpClient(SFTPEngine engine, Permit permit) {
+            super(engine);
+            this.permit = permit;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
 }
@@ -17,6 +17,8 @@ package com.palantir.giraffe.ssh.internal;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.CopyOption;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
@@ -26,15 +28,29 @@ import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+import com.palantir.giraffe.file.FileSearch;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.TreeStatistics;
 import com.palantir.giraffe.file.base.BaseFileSystemProvider;
 import com.palantir.giraffe.file.base.CopyFlags;
 import com.palantir.giraffe.file.base.CrossSystemTransfers;
@@ -42,10 +58,17 @@ import com.palantir.giraffe.file.base.LinkOptions;
 import com.palantir.giraffe.file.base.attribute.ChmodFilePermissions;
 import com.palantir.giraffe.file.base.attribute.PermissionChange;
 import com.palantir.giraffe.file.base.attribute.PosixFileAttributeViews;
+import com.palantir.giraffe.file.base.feature.DigestingFileCopy;
+import com.palantir.giraffe.file.base.feature.FileChecksums;
 import com.palantir.giraffe.file.base.feature.LargeFileCopy;
 import com.palantir.giraffe.file.base.feature.RecursiveCopy;
+import com.palantir.giraffe.file.base.feature.RecursiveCreateDirectory;
 import com.palantir.giraffe.file.base.feature.RecursiveDelete;
+import com.palantir.giraffe.file.base.feature.RecursiveList;
 import com.palantir.giraffe.file.base.feature.RecursivePermissions;
+import com.palantir.giraffe.file.base.feature.RecursiveSearch;
+import com.palantir.giraffe.file.base.feature.RecursiveStatistics;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
 
 import net.schmizz.sshj.xfer.scp.SCPFileTransfer;
 
@@ -55,7 +78,9 @@ import net.schmizz.sshj.xfer.scp.SCPFileTransfer;
  * @author bkeyes
  */
 public final class SshFileSystemProvider extends BaseFileSystemProvider<SshPath>
-        implements RecursiveDelete, RecursivePermissions, LargeFileCopy, RecursiveCopy {
+        implements RecursiveDelete, RecursivePermissions, LargeFileCopy, RecursiveCopy,
+        FileChecksums, DigestingFileCopy, RecursiveList, RecursiveSearch,
+        RecursiveStatistics, RecursiveCreateDirectory {
 
     public SshFileSystemProvider() {
         super(SshPath.class);
@@ -88,6 +113,21 @@ public final class SshFileSystemProvider extends BaseFileSystemProvider<SshPath>
         throw new FileSystemNotFoundException(uri.toString());
     }
 
+    @Override
+    public FileChannel newFileChannel(Path path, Set<? extends OpenOption> options,
+            FileAttribute<?>... attrs) throws IOException {
+        SshPath file = checkPath(path);
+        return file.getFileSystem().newFileChannel(file, options, attrs);
+    }
+
+    @Override
+    public AsynchronousFileChannel newAsynchronousFileChannel(Path path,
+            Set<? extends OpenOption> options, ExecutorService executor,
+            FileAttribute<?>... attrs) throws IOException {
+        SshPath file = checkPath(path);
+        return file.getFileSystem().newAsynchronousFileChannel(file, options, executor, attrs);
+    }
+
     @Override
     public void createSymbolicLink(Path link, Path target, FileAttribute<?>... attrs)
             throws IOException {
@@ -127,6 +167,17 @@ public final class SshFileSystemProvider extends BaseFileSystemProvider<SshPath>
         }
     }
 
+    @Override
+    public void createDirectories(Path dir, FileAttribute<?>... attrs) throws IOException {
+        SshPath sshDir = checkPath(dir);
+        Set<PosixFilePermission> perms = PosixFileAttributeViews.getCreatePermissions(attrs);
+        if (perms == null) {
+            perms = PosixFilePermissions.fromString("rwxr-xr-x");
+        }
+        logger(sshDir).debug("creating directories {}", sshDir);
+        SshSameHostFileHelper.createDirectories(sshDir, ChmodFilePermissions.toBits(perms));
+    }
+
     @Override
     public void changePermissionsRecursive(Path path, PermissionChange change,
             Set<PosixFilePermission> permissions) throws IOException {
@@ -170,15 +221,9 @@ public final class SshFileSystemProvider extends BaseFileSystemProvider<SshPath>
 
         if (isLocal(source) || isLocal(target)) {
             if (isTargetSsh) {
-                SshPath sshTarget = checkPath(target);
-                logger(sshTarget).debug("scp from {} to {}", source.toUri(), absTarget);
-                SCPFileTransfer scp = sshTarget.getFileSystem().getScpFileTransfer();
-                scp.upload(absSource, absTarget);
+                upload(source, checkPath(target), TransferDigest.none());
             } else {
-                SshPath sshSource = checkPath(source);
-                logger(sshSource).debug("scp from {} to {}", absSource, target.toUri());
-                SCPFileTransfer scp = sshSource.getFileSystem().getScpFileTransfer();
-                scp.download(absSource, absTarget);
+                download(checkPath(source), target, TransferDigest.none());
             }
         } else if (isSourceSsh && isTargetSsh && isSameUri(checkPath(source), checkPath(target))) {
             SshPath sshSource = checkPath(source);
@@ -190,6 +235,145 @@ public final class SshFileSystemProvider extends BaseFileSystemProvider<SshPath>
         }
     }
 
+    @Override
+    public HashCode copyLarge(Path source, Path target, ChecksumAlgorithm algorithm)
+            throws IOException {
+        boolean isSourceSsh = isCompatible(source);
+        boolean isTargetSsh = isCompatible(target);
+
+        if (isLocal(source) || isLocal(target)) {
+            TransferDigest digest = TransferDigest.of(algorithm);
+            if (isTargetSsh) {
+                upload(source, checkPath(target), digest);
+            } else {
+                download(checkPath(source), target, digest);
+            }
+            return digest.hash();
+        } else if (isSourceSsh && isTargetSsh && isSameUri(checkPath(source), checkPath(target))) {
+            // the data never leaves the remote host, so compute the digest there
+            copyRecursive(source, target);
+            return MoreFiles.checksum(target, algorithm);
+        } else if (isSourceSsh && isTargetSsh) {
+            CopyFlags flags = new CopyFlags();
+            flags.replaceExisting = true;
+            logger(checkPath(source)).debug("copying file {} to {}", source, target.toUri());
+            return CrossSystemTransfers.copyFile(source, target, flags, algorithm);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private void upload(Path source, SshPath target, TransferDigest digest) throws IOException {
+        SshFileSystem fs = target.getFileSystem();
+        SshCompressedTransfers transfers = fs.getCompressedTransfers();
+        String absSource = source.toAbsolutePath().toString();
+        String absTarget = target.toAbsolutePath().toString();
+
+        if (fs.getDeltaTransfers().tryUpload(source, target, digest)) {
+            return;
+        }
+
+        BasicFileAttributes attrs = TransferAttributes.readLocal(source);
+        if (transfers.shouldCompress(source, attrs)) {
+            logger(target).debug("gzip from {} to {}", source.toUri(), absTarget);
+            transfers.upload(source, target, attrs, digest);
+        } else {
+            logger(target).debug("scp from {} to {}", source.toUri(), absTarget);
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            try (Permit permit = fs.acquireChannel()) {
+                SCPFileTransfer scp = fs.getScpFileTransfer(permit);
+                if (digest.isEnabled()) {
+                    scp.upload(digest.wrapFile(absSource), absTarget);
+                } else {
+                    scp.upload(absSource, absTarget);
+                }
+            }
+            transfers.recordTransfer(attrs, stopwatch.elapsed(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void download(SshPath source, Path target, TransferDigest digest) throws IOException {
+        SshFileSystem fs = source.getFileSystem();
+        SshCompressedTransfers transfers = fs.getCompressedTransfers();
+        String absSource = source.toAbsolutePath().toString();
+        String absTarget = target.toAbsolutePath().toString();
+
+        if (fs.getDeltaTransfers().tryDownload(source, target, digest)) {
+            return;
+        }
+
+        if (!transfers.isEnabled()) {
+            // skip the extra stat when attributes only matter for compression
+            logger(source).debug("scp from {} to {}", absSource, target.toUri());
+            scpDownload(fs, absSource, absTarget, digest);
+            return;
+        }
+
+        PosixFileAttributes attrs = readAttributes(source, PosixFileAttributes.class);
+        if (transfers.shouldCompress(source, attrs)) {
+            logger(source).debug("gzip from {} to {}", absSource, target.toUri());
+            transfers.download(source, target, attrs, digest);
+        } else {
+            logger(source).debug("scp from {} to {}", absSource, target.toUri());
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            scpDownload(fs, absSource, absTarget, digest);
+            transfers.recordTransfer(attrs, stopwatch.elapsed(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void scpDownload(SshFileSystem fs, String absSource, String absTarget,
+                                    TransferDigest digest) throws IOException {
+        try (Permit permit = fs.acquireChannel()) {
+            SCPFileTransfer scp = fs.getScpFileTransfer(permit);
+            if (digest.isEnabled()) {
+                scp.download(absSource, digest.wrapFile(absTarget));
+            } else {
+                scp.download(absSource, absTarget);
+            }
+        }
+    }
+
+    @Override
+    public Map<Path, BasicFileAttributes> listRecursive(Path dir) throws IOException {
+        SshPath sshDir = checkPath(dir);
+        logger(sshDir).debug("recursively listing {}", dir);
+        return sshDir.getFileSystem().getTreeListing().list(sshDir);
+    }
+
+    @Override
+    public Map<Path, BasicFileAttributes> searchRecursive(Path dir, FileSearch search)
+            throws IOException {
+        SshPath sshDir = checkPath(dir);
+        logger(sshDir).debug("searching {} for {}", dir, search);
+        return sshDir.getFileSystem().getTreeListing().search(sshDir, search);
+    }
+
+    @Override
+    public TreeStatistics treeStatistics(Path dir, int largestFiles) throws IOException {
+        SshPath sshDir = checkPath(dir);
+        logger(sshDir).debug("computing tree statistics for {}", dir);
+        return sshDir.getFileSystem().getTreeListing().statistics(sshDir, largestFiles);
+    }
+
+    @Override
+    public Map<Path, HashCode> checksums(List<? extends Path> files, ChecksumAlgorithm algorithm)
+            throws IOException {
+        if (files.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<SshPath> sshFiles = new ArrayList<>();
+        for (Path file : files) {
+            sshFiles.add(checkPath(file));
+        }
+
+        SshPath first = sshFiles.get(0);
+        logger(first).debug("computing {} checksums of {} files", algorithm, sshFiles.size());
+        return first.getFileSystem().getChecksums().checksums(sshFiles, algorithm);
+    }
+
     private void copyDirectory(SshPath source, SshPath target, CopyFlags flags) throws IOException {
         createDirectory(target);
         if (flags.copyAttributes) {
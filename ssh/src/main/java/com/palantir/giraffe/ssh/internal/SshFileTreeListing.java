@@ -0,0 +1,364 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.math.LongMath;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.file.FileSearch;
+import com.palantir.giraffe.file.TreeStatistics;
+
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.FileMode;
+
+/**
+ * Lists a file tree and the attributes of every path with a single remote
+ * {@code find} command instead of one SFTP request per directory and file.
+ * <p>
+ * Records are NUL-delimited so that any file name can be parsed and are
+ * parsed as the command output arrives. This requires GNU {@code find}; if
+ * the remote host does not support {@code -printf}, listing is unsupported
+ * and callers walk the tree with SFTP.
+ * <p>
+ * Searches add {@code find} tests for the criteria that have an equivalent
+ * test so that only candidate paths cross the network. Tree statistics are
+ * aggregated remotely with {@code awk}, {@code sort}, and {@code head}.
+ */
+final class SshFileTreeListing {
+
+    // type, size, mtime, atime, mode, uid, gid, inode, relative path
+    private static final String FORMAT = "%y\\0%s\\0%T@\\0%A@\\0%m\\0%U\\0%G\\0%i\\0%P\\0";
+
+    private static final Map<String, FileMode.Type> TYPES = ImmutableMap
+            .<String, FileMode.Type>builder()
+            .put("f", FileMode.Type.REGULAR)
+            .put("d", FileMode.Type.DIRECTORY)
+            .put("l", FileMode.Type.SYMLINK)
+            .put("b", FileMode.Type.BLOCK_SPECIAL)
+            .put("c", FileMode.Type.CHAR_SPECIAL)
+            .put("p", FileMode.Type.FIFO_SPECIAL)
+            .put("s", FileMode.Type.SOCKET_SPECIAL)
+            .build();
+
+    private static final int STREAM_CAPACITY = 1024 * 1024;
+
+    // prints "bytes files directories" and then the N largest files as
+    // NUL-terminated "size path" records; find errors fail the awk stage
+    private static final String STATISTICS_SCRIPT =
+            "{ find \"$1\" -type d -printf 'd\\n' -o -printf 'f %s\\n' || echo e; }"
+            + " | awk '$1 == \"d\" { d++ } $1 == \"f\" { f++; b += $2 } $1 == \"e\" { e = 1 }"
+            + " END { printf \"%.0f %.0f %.0f\\n\", b, f, d; exit e }'"
+            + " && if [ \"$2\" -gt 0 ]; then find \"$1\" ! -type d -printf '%s %P\\0'"
+            + " | sort -z -n -r | head -z -n \"$2\"; fi";
+
+    private static final Splitter RECORD_SPLITTER = Splitter.on('\0').omitEmptyStrings();
+    private static final Splitter FIELD_SPLITTER = Splitter.on(' ');
+
+    private final SshFileSystem fs;
+
+    private volatile Boolean printfSupported;
+    private volatile Boolean nulSortSupported;
+
+    SshFileTreeListing(SshFileSystem fs) {
+        this.fs = fs;
+    }
+
+    public Map<Path, BasicFileAttributes> list(SshPath dir) throws IOException {
+        return find(dir, Collections.<String>emptyList());
+    }
+
+    /**
+     * Lists the paths in a file tree that may match the given search. Criteria
+     * that can be expressed as {@code find} tests are applied remotely; others
+     * are left to the caller. {@code dir} is always listed so that criteria
+     * that {@code find} cannot apply to the starting point, like path globs
+     * that match the empty path, are still handled correctly by the caller.
+     */
+    public Map<Path, BasicFileAttributes> search(SshPath dir, FileSearch search)
+            throws IOException {
+        List<String> options = new ArrayList<>();
+        if (search.getMaxDepth().isPresent()) {
+            options.add("-maxdepth");
+            options.add(search.getMaxDepth().get().toString());
+        }
+
+        String root = dir.toAbsolutePath().toString();
+        List<String> tests = new ArrayList<>();
+        if (search.isFilesOnly()) {
+            tests.add("-type");
+            tests.add("f");
+        }
+        if (search.getMinSize().isPresent() && search.getMinSize().get() > 0) {
+            tests.add("-size");
+            tests.add("+" + (search.getMinSize().get() - 1) + "c");
+        }
+        if (search.getMaxSize().isPresent()) {
+            tests.add("-size");
+            tests.add("-" + (search.getMaxSize().get() + 1) + "c");
+        }
+        if (search.getModifiedAfter().isPresent()) {
+            tests.add("-newermt");
+            tests.add("@" + floorSeconds(search.getModifiedAfter().get()));
+        }
+        if (search.getModifiedBefore().isPresent()) {
+            tests.add("!");
+            tests.add("-newermt");
+            tests.add("@" + (floorSeconds(search.getModifiedBefore().get()) + 1));
+        }
+        if (search.getNameGlob().isPresent() && isTranslatable(search.getNameGlob().get())) {
+            tests.add("-name");
+            tests.add(search.getNameGlob().get());
+        }
+        if (search.getPathGlob().isPresent() && isTranslatable(search.getPathGlob().get())) {
+            // find's wildcards match '/', so '**' becomes '*' and the
+            // pattern matches a superset of the paths the glob matches
+            String prefix = escapePattern(root.endsWith("/") ? root : root + "/");
+            tests.add("-path");
+            tests.add(prefix + search.getPathGlob().get().replace("**", "*"));
+        }
+
+        if (!tests.isEmpty()) {
+            options.add("(");
+            options.add("-path");
+            options.add(escapePattern(root));
+            options.add("-o");
+            options.add("(");
+            options.addAll(tests);
+            options.add(")");
+            options.add(")");
+        }
+        return find(dir, options);
+    }
+
+    private Map<Path, BasicFileAttributes> find(SshPath dir, List<String> expression)
+            throws IOException {
+        if (!isPrintfSupported()) {
+            throw new UnsupportedOperationException();
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(dir.toAbsolutePath().toString());
+        args.addAll(expression);
+        args.add("-printf");
+        args.add(FORMAT);
+
+        CommandContext context = CommandContext.builder()
+                .ignoreExitStatus()
+                .streamOutput(STREAM_CAPACITY)
+                .build();
+        CommandFuture future = fs.executeAsync(context, "find", args.toArray());
+
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        try (InputStream in = new BufferedInputStream(future.getStdOut())) {
+            ByteArrayOutputStream field = new ByteArrayOutputStream();
+            String type;
+            while ((type = readField(in, field)) != null) {
+                long size = Long.parseLong(readRequiredField(in, field));
+                long mtime = parseTime(readRequiredField(in, field));
+                long atime = parseTime(readRequiredField(in, field));
+                int mode = Integer.parseInt(readRequiredField(in, field), 8);
+                int uid = Integer.parseInt(readRequiredField(in, field));
+                int gid = Integer.parseInt(readRequiredField(in, field));
+                String inode = readRequiredField(in, field);
+                String relative = readRequiredField(in, field);
+
+                FileAttributes attrs = new FileAttributes.Builder()
+                        .withType(toType(type))
+                        .withPermissions(mode)
+                        .withSize(size)
+                        .withAtimeMtime(atime, mtime)
+                        .withUIDGID(uid, gid)
+                        .build();
+
+                Path path = relative.isEmpty() ? dir : dir.resolve(relative);
+                attributes.put(path, new SshPosixFileAttributes(attrs, inode,
+                        fs.getUserPrincipalLookupService()));
+            }
+        } catch (IOException | RuntimeException e) {
+            future.cancel(true);
+            throw e;
+        }
+
+        CommandResult result = Commands.waitFor(future);
+        if (result.getExitStatus() != 0) {
+            throw treeError("recursive listing failed", dir, result);
+        }
+        return attributes;
+    }
+
+    /**
+     * Computes statistics for a file tree on the remote host. Only the totals
+     * and the largest files are sent back.
+     */
+    public TreeStatistics statistics(SshPath dir, int largestFiles) throws IOException {
+        if (!isPrintfSupported() || (largestFiles > 0 && !isNulSortSupported())) {
+            throw new UnsupportedOperationException();
+        }
+
+        CommandResult result = fs.execute("sh", "-c", STATISTICS_SCRIPT, "sh",
+                dir.toAbsolutePath().toString(), largestFiles);
+        if (result.getExitStatus() != 0) {
+            throw treeError("tree statistics failed", dir, result);
+        }
+
+        String output = result.getStdOut();
+        int newline = output.indexOf('\n');
+        if (newline < 0) {
+            throw new IOException("invalid statistics output: " + output);
+        }
+
+        List<String> totals = FIELD_SPLITTER.splitToList(output.substring(0, newline));
+        Map<Path, Long> largest = new LinkedHashMap<>();
+        for (String record : RECORD_SPLITTER.split(output.substring(newline + 1))) {
+            List<String> fields = FIELD_SPLITTER.limit(2).splitToList(record);
+            String relative = fields.get(1);
+            Path path = relative.isEmpty() ? dir : dir.resolve(relative);
+            largest.put(path, Long.parseLong(fields.get(0)));
+        }
+        return new TreeStatistics(
+                Long.parseLong(totals.get(0)),
+                Long.parseLong(totals.get(1)),
+                Long.parseLong(totals.get(2)),
+                largest);
+    }
+
+    private boolean isNulSortSupported() throws IOException {
+        if (nulSortSupported == null) {
+            CommandResult result = fs.execute("sh", "-c",
+                    "sort -z -n /dev/null && head -z -n 1 /dev/null");
+            nulSortSupported = result.getExitStatus() == 0;
+            if (!nulSortSupported) {
+                fs.logger().debug("sort or head does not support -z, "
+                        + "computing tree statistics with SFTP");
+            }
+        }
+        return nulSortSupported;
+    }
+
+    private boolean isPrintfSupported() throws IOException {
+        if (printfSupported == null) {
+            CommandResult result = fs.execute("find", "/", "-maxdepth", "0", "-printf", ".");
+            printfSupported = result.getExitStatus() == 0;
+            if (!printfSupported) {
+                fs.logger().debug("find does not support -printf, listing trees with SFTP");
+            }
+        }
+        return printfSupported;
+    }
+
+    private static IOException treeError(String msg, SshPath dir, CommandResult result) {
+        if (Files.notExists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            return new NoSuchFileException(dir.toString());
+        } else if (result.getStdErr().contains("Permission denied")) {
+            return new AccessDeniedException(dir.toString(), null,
+                    result.getStdErr().trim());
+        } else {
+            return new IOException(msg + String.format(
+                    " [exit status = %s, output = %s]",
+                    result.getExitStatus(),
+                    result.getStdErr()));
+        }
+    }
+
+    /**
+     * Returns {@code true} if a glob uses only features that {@code find}
+     * patterns support. Brace groups have no {@code find} equivalent.
+     */
+    private static boolean isTranslatable(String glob) {
+        return glob.indexOf('{') < 0 && glob.indexOf('}') < 0;
+    }
+
+    private static String escapePattern(String literal) {
+        StringBuilder sb = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static long floorSeconds(FileTime time) {
+        return LongMath.divide(time.toMillis(), 1000, RoundingMode.FLOOR);
+    }
+
+    private static FileMode.Type toType(String type) {
+        FileMode.Type fileType = TYPES.get(type);
+        return fileType == null ? FileMode.Type.UNKNOWN : fileType;
+    }
+
+    /**
+     * Parses a time in fractional seconds, truncating to whole seconds like
+     * SFTP attributes.
+     */
+    private static long parseTime(String time) {
+        int point = time.indexOf('.');
+        return Long.parseLong(point < 0 ? time : time.substring(0, point));
+    }
+
+    private static String readRequiredField(InputStream in, ByteArrayOutputStream field)
+            throws IOException {
+        String value = readField(in, field);
+        if (value == null) {
+            throw new IOException("truncated find output");
+        }
+        return value;
+    }
+
+    /**
+     * Reads bytes up to the next NUL byte. Returns {@code null} if the stream
+     * ends before any bytes are read.
+     */
+    private static String readField(InputStream in, ByteArrayOutputStream field)
+            throws IOException {
+        field.reset();
+        int b;
+        while ((b = in.read()) > 0) {
+            field.write(b);
+        }
+        if (b < 0 && field.size() == 0) {
+            return null;
+        } else if (b < 0) {
+            throw new IOException("truncated find output");
+        }
+        return new String(field.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -17,15 +17,27 @@ package com.palantir.giraffe.ssh.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.file.FileSystems;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.slf4j.Logger;
+
+import com.google.common.base.Optional;
 import com.palantir.giraffe.command.ExecutionSystems;
 import com.palantir.giraffe.host.AbstractHostControlSystem;
+import com.palantir.giraffe.host.Host;
 import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.SshBlockCacheStatistics;
+import com.palantir.giraffe.ssh.SshChannelStatistics;
+import com.palantir.giraffe.ssh.SshConnectionPool;
 import com.palantir.giraffe.ssh.SshSystemRequest;
 
 import net.schmizz.sshj.DefaultConfig;
+import net.schmizz.sshj.SSHClient;
 
 /**
  * A {@link HostControlSystem} implementation that uses the SSH protocol.
@@ -50,13 +62,103 @@ public final class SshHostControlSystem extends AbstractHostControlSystem {
         CloseContext closeContext = new CloseContext();
         internalRequest.setCloseContext(closeContext);
 
-        if (internalRequest.setClientIfMissing(ConnectionFactoryHolder.factory)) {
-            closeContext.registerCloseable(internalRequest.getClient(), Integer.MAX_VALUE);
+        List<SshConnection> connections = new ArrayList<>();
+        if (internalRequest.hasClient()) {
+            connections.add(SshConnection.connected(internalRequest.getClient()));
+        }
+        while (connections.size() < internalRequest.getConnections()) {
+            connections.add(SshConnection.lazy(new RequestConnector(internalRequest, connections)));
         }
 
+        if (!internalRequest.isLazyConnect()) {
+            try {
+                for (SshConnection connection : connections) {
+                    connection.getClient();
+                }
+            } catch (IOException e) {
+                // closes or releases connections opened for this system
+                try {
+                    closeContext.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+
+        SshConnectionGroup group = newConnectionGroup(internalRequest, connections);
+        internalRequest.setConnectionGroup(group);
+        closeContext.registerCloseable(group);
+
         return new Builder(internalRequest);
     }
 
+    private static SshConnectionGroup newConnectionGroup(InternalSshSystemRequest request,
+                                                         List<SshConnection> connections) {
+        Logger logger = HostLogger.create(request.getLogger(), Host.fromUri(request.uri()));
+
+        List<SshChannelPermits> permits = new ArrayList<>();
+        for (SshConnection connection : connections) {
+            permits.add(new SshChannelPermits(
+                    connection,
+                    request.getMaxChannels(),
+                    request.getChannelQueuePolicy(),
+                    logger));
+        }
+        return new SshConnectionGroup(permits);
+    }
+
+    /**
+     * Opens a new connection or leases one from the request's connection pool.
+     * The connection is closed or released when the system closes.
+     */
+    private static final class RequestConnector implements SshConnection.Connector {
+        private final InternalSshSystemRequest request;
+        private final List<SshConnection> connections;
+
+        RequestConnector(InternalSshSystemRequest request, List<SshConnection> connections) {
+            this.request = request;
+            this.connections = connections;
+        }
+
+        @Override
+        public SSHClient connect() throws IOException {
+            CloseContext closeContext = request.getCloseContext();
+            if (closeContext.isClosed()) {
+                throw new ClosedChannelException();
+            }
+
+            Closeable resource;
+            SSHClient client;
+
+            Optional<SshConnectionPool> pool = request.getConnectionPool();
+            if (pool.isPresent()) {
+                RefCountedConnectionPool.Lease lease = RefCountedConnectionPool.cast(pool.get())
+                        .lease(request, ConnectionFactoryHolder.factory, getConnectedClients());
+                resource = lease;
+                client = lease.getClient();
+            } else {
+                client = ConnectionFactoryHolder.factory.newAuthedConnection(request);
+                resource = client;
+            }
+
+            if (!closeContext.registerCloseable(resource, Integer.MAX_VALUE)) {
+                // the system closed while connecting
+                resource.close();
+                throw new ClosedChannelException();
+            }
+            return client;
+        }
+
+        private List<SSHClient> getConnectedClients() {
+            List<SSHClient> clients = new ArrayList<>();
+            for (SshConnection connection : connections) {
+                clients.addAll(connection.getClientIfConnected().asSet());
+            }
+            return clients;
+        }
+    }
+
     /**
      * Builds {@code SshHostControlSystem} instances.
      */
@@ -106,10 +208,14 @@ public final class SshHostControlSystem extends AbstractHostControlSystem {
     }
 
     private final CloseContext closeContext;
+    private final SshConnectionGroup connections;
+    private final SshBlockCache blockCache;
 
     private SshHostControlSystem(Builder builder) {
         super(builder.request.uri(), builder.fs, builder.es);
         this.closeContext = builder.request.getCloseContext();
+        this.connections = builder.request.getConnectionGroup();
+        this.blockCache = builder.fs.getBlockCache();
     }
 
     @Override
@@ -117,6 +223,23 @@ public final class SshHostControlSystem extends AbstractHostControlSystem {
         closeContext.close();
     }
 
+    /**
+     * Returns a snapshot of the channel usage of this system's connections.
+     */
+    public SshChannelStatistics getChannelStatistics() {
+        return connections.statistics();
+    }
+
+    /**
+     * Returns a snapshot of the usage of this system's file system block
+     * cache.
+     *
+     * @see com.palantir.giraffe.ssh.SshSystemRequest#setBlockCacheSize(long)
+     */
+    public SshBlockCacheStatistics getBlockCacheStatistics() {
+        return blockCache.statistics();
+    }
+
     public HostControlSystem asView() {
         return new View(this);
     }
@@ -45,7 +45,8 @@ final class SshPosixFileAttributeView extends AbstractPosixFileAttributeView {
             } else {
                 attrs = sftp.lstat(path.toString());
             }
-            return new SshPosixFileAttributes(attrs, path.getInode());
+            return new SshPosixFileAttributes(attrs, path.getInode(),
+                    path.getFileSystem().getUserPrincipalLookupService());
         } catch (SFTPException e) {
             // TODO(bkeyes): move this laundering to a utility
             if (e.getStatusCode() == StatusCode.NO_SUCH_FILE) {
@@ -35,10 +35,13 @@ final class SshPosixFileAttributes implements AnnotatedPosixFileAttributes {
 
     private final FileAttributes attrs;
     private final String inode;
+    private final SshPrincipalLookupService principals;
 
-    SshPosixFileAttributes(FileAttributes attrs, String inode) {
+    SshPosixFileAttributes(FileAttributes attrs, String inode,
+            SshPrincipalLookupService principals) {
         this.attrs = attrs;
         this.inode = inode;
+        this.principals = principals;
     }
 
     @Override
@@ -91,7 +94,7 @@ final class SshPosixFileAttributes implements AnnotatedPosixFileAttributes {
         if (attrs.getUID() == 0) {
             return new UserIdPrincipal(-1);
         } else {
-            return new UserIdPrincipal(attrs.getUID());
+            return principals.getUser(attrs.getUID());
         }
     }
 
@@ -100,7 +103,7 @@ final class SshPosixFileAttributes implements AnnotatedPosixFileAttributes {
         if (attrs.getGID() == 0) {
             return new GroupIdPrincipal(-1);
         } else {
-            return new GroupIdPrincipal(attrs.getGID());
+            return principals.getGroup(attrs.getGID());
         }
     }
 
@@ -0,0 +1,368 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.UserPrincipal;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.attribute.UserPrincipalNotFoundException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.file.base.attribute.GroupIdPrincipal;
+import com.palantir.giraffe.file.base.attribute.UserIdPrincipal;
+
+/**
+ * Resolves user and group names on the remote host. The user and group
+ * databases are loaded with a single command and cached for a configurable
+ * time. Some name services do not enumerate all entries, so names and IDs
+ * that are not in the loaded databases are queried individually with
+ * {@code getent}; these results, including missing entries, are cached with
+ * the databases.
+ */
+final class SshPrincipalLookupService extends UserPrincipalLookupService {
+
+    // separates the user and group databases; never a valid entry
+    private static final String GROUP_MARKER = "%group";
+
+    // getent includes network sources (LDAP, NIS); fall back to the files
+    // on systems without getent
+    private static final String PASSWD = "passwd";
+    private static final String GROUP = "group";
+
+    private static final String LOAD_SCRIPT = "{ getent passwd || cat /etc/passwd; }"
+            + " && echo '" + GROUP_MARKER + "'"
+            + " && { getent group || cat /etc/group; }";
+
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+    private static final Splitter FIELD_SPLITTER = Splitter.on(':');
+
+    private final SshFileSystem fs;
+    private final long ttlNanos;
+
+    @GuardedBy("this")
+    private Mappings mappings;
+
+    @GuardedBy("this")
+    private long failureTime;
+
+    SshPrincipalLookupService(SshFileSystem fs, int ttlSeconds) {
+        this.fs = fs;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    @Override
+    public UserIdPrincipal lookupPrincipalByName(String name) throws IOException {
+        Mappings current = getMappings();
+        Integer uid = current.userIds.get(name);
+        if (uid != null) {
+            return new UserIdPrincipal(uid, name);
+        }
+
+        Integer parsed = parseId(name);
+        if (parsed != null) {
+            return new UserIdPrincipal(parsed, getName(current, PASSWD, parsed));
+        }
+
+        Optional<Entry> entry = query(current, PASSWD, name);
+        if (!entry.isPresent()) {
+            throw new UserPrincipalNotFoundException(name);
+        }
+        return new UserIdPrincipal(entry.get().id, name);
+    }
+
+    @Override
+    public GroupIdPrincipal lookupPrincipalByGroupName(String group) throws IOException {
+        Mappings current = getMappings();
+        Integer gid = current.groupIds.get(group);
+        if (gid != null) {
+            return new GroupIdPrincipal(gid, group);
+        }
+
+        Integer parsed = parseId(group);
+        if (parsed != null) {
+            return new GroupIdPrincipal(parsed, getName(current, GROUP, parsed));
+        }
+
+        Optional<Entry> entry = query(current, GROUP, group);
+        if (!entry.isPresent()) {
+            throw new UserPrincipalNotFoundException(group);
+        }
+        return new GroupIdPrincipal(entry.get().id, group);
+    }
+
+    /**
+     * Converts a principal from any file system to a principal on this
+     * host. Principals with non-numeric names are resolved by name.
+     */
+    UserIdPrincipal toUserIdPrincipal(UserPrincipal user) throws IOException {
+        if (user instanceof UserIdPrincipal) {
+            return (UserIdPrincipal) user;
+        } else {
+            return lookupPrincipalByName(user.getName());
+        }
+    }
+
+    /**
+     * Converts a principal from any file system to a principal on this
+     * host. Principals with non-numeric names are resolved by name.
+     */
+    GroupIdPrincipal toGroupIdPrincipal(GroupPrincipal group) throws IOException {
+        if (group instanceof GroupIdPrincipal) {
+            return (GroupIdPrincipal) group;
+        } else {
+            return lookupPrincipalByGroupName(group.getName());
+        }
+    }
+
+    /**
+     * Returns a principal for the given user ID that includes the user's name
+     * if it is known. If the names cannot be loaded, the principal has no
+     * name and loading is not retried until the cache expires.
+     */
+    UserIdPrincipal getUser(int uid) {
+        Mappings current = getMappingsIfAvailable();
+        return new UserIdPrincipal(uid, current == null ? null : findName(current, PASSWD, uid));
+    }
+
+    /**
+     * Returns a principal for the given group ID that includes the group's
+     * name if it is known. If the names cannot be loaded, the principal has
+     * no name.
+     */
+    GroupIdPrincipal getGroup(int gid) {
+        Mappings current = getMappingsIfAvailable();
+        return new GroupIdPrincipal(gid, current == null ? null : findName(current, GROUP, gid));
+    }
+
+    /**
+     * Returns the name for an ID, querying the remote host if the ID is not
+     * in the loaded database, or {@code null} if the ID has no name.
+     */
+    private String getName(Mappings current, String database, int id) throws IOException {
+        String name = current.getNames(database).get(id);
+        if (name == null) {
+            Optional<Entry> entry = query(current, database, Integer.toString(id));
+            name = entry.isPresent() ? entry.get().name : null;
+        }
+        return name;
+    }
+
+    /**
+     * Like {@link #getName}, but returns {@code null} if the query fails.
+     * Failed queries are cached as missing entries so that every file with
+     * the same owner does not repeat the query.
+     */
+    private String findName(Mappings current, String database, int id) {
+        try {
+            return getName(current, database, id);
+        } catch (IOException e) {
+            fs.logger().debug("failed to query {} entry for {}", database, id, e);
+            current.queried.put(database + ":" + id, Optional.<Entry>absent());
+            return null;
+        }
+    }
+
+    /**
+     * Queries the remote host for the entry with the given name or ID in
+     * {@code database}.
+     */
+    private Optional<Entry> query(Mappings current, String database, String key)
+            throws IOException {
+        String cacheKey = database + ":" + key;
+        Optional<Entry> entry = current.queried.get(cacheKey);
+        if (entry != null) {
+            return entry;
+        }
+
+        // getent exits with status 2 if the entry does not exist
+        CommandResult result = fs.execute("getent", database, key);
+        entry = Optional.absent();
+        if (result.getExitStatus() == 0) {
+            String line = Iterables.getFirst(LINE_SPLITTER.split(result.getStdOut()), "");
+            entry = Optional.fromNullable(parseEntry(line));
+        }
+        fs.logger().debug("queried {} entry for {}: {}", database, key, entry);
+
+        current.queried.put(cacheKey, entry);
+        if (entry.isPresent()) {
+            // answer the reverse lookup without another query
+            Entry found = entry.get();
+            String otherKey = key.equals(found.name) ? Integer.toString(found.id) : found.name;
+            current.queried.putIfAbsent(database + ":" + otherKey, entry);
+        }
+        return entry;
+    }
+
+    private synchronized Mappings getMappingsIfAvailable() {
+        if (!fs.isOpen() || (failureTime != 0 && !isExpired(failureTime))) {
+            return mappings;
+        }
+
+        try {
+            failureTime = 0;
+            return getMappings();
+        } catch (IOException e) {
+            fs.logger().debug("failed to load user and group names", e);
+            failureTime = System.nanoTime();
+            return mappings;
+        }
+    }
+
+    private synchronized Mappings getMappings() throws IOException {
+        if (mappings == null || isExpired(mappings.loadTime)) {
+            mappings = load();
+        }
+        return mappings;
+    }
+
+    private boolean isExpired(long time) {
+        return System.nanoTime() - time >= ttlNanos;
+    }
+
+    private Mappings load() throws IOException {
+        long loadTime = System.nanoTime();
+        CommandResult result = fs.execute("sh", "-c", LOAD_SCRIPT);
+        if (result.getExitStatus() != 0) {
+            String msg = "failed to load user and group names";
+            throw new IOException(msg + String.format(" [exit status = %s, output = %s]",
+                    result.getExitStatus(), result.getStdErr().trim()));
+        }
+
+        Map<String, Integer> userIds = new HashMap<>();
+        Map<Integer, String> userNames = new HashMap<>();
+        Map<String, Integer> groupIds = new HashMap<>();
+        Map<Integer, String> groupNames = new HashMap<>();
+
+        boolean groups = false;
+        for (String line : LINE_SPLITTER.split(result.getStdOut())) {
+            if (line.equals(GROUP_MARKER)) {
+                groups = true;
+            } else if (groups) {
+                addEntry(parseEntry(line), groupIds, groupNames);
+            } else {
+                addEntry(parseEntry(line), userIds, userNames);
+            }
+        }
+        fs.logger().debug("loaded {} users and {} groups", userIds.size(), groupIds.size());
+        return new Mappings(loadTime, userIds, userNames, groupIds, groupNames);
+    }
+
+    /**
+     * Adds an entry to the loaded database. If several names share an ID,
+     * the first name is used for reverse lookups.
+     */
+    private static void addEntry(Entry entry, Map<String, Integer> ids,
+            Map<Integer, String> names) {
+        if (entry != null) {
+            if (!ids.containsKey(entry.name)) {
+                ids.put(entry.name, entry.id);
+            }
+            if (!names.containsKey(entry.id)) {
+                names.put(entry.id, entry.name);
+            }
+        }
+    }
+
+    /**
+     * Parses a {@code passwd} or {@code group} entry; both have the name in
+     * the first field and the ID in the third field. Returns {@code null} if
+     * the line is not a valid entry.
+     */
+    private static Entry parseEntry(String line) {
+        if (line.startsWith("#") || line.startsWith("+") || line.startsWith("-")) {
+            return null;
+        }
+
+        String name = null;
+        Integer id = null;
+        int field = 0;
+        for (String value : FIELD_SPLITTER.split(line)) {
+            if (field == 0) {
+                name = value;
+            } else if (field == 2) {
+                id = parseId(value);
+                break;
+            }
+            field++;
+        }
+
+        if (name != null && !name.isEmpty() && id != null) {
+            return new Entry(name, id);
+        } else {
+            return null;
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final int id;
+
+        Entry(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + id;
+        }
+    }
+
+    private static final class Mappings {
+        final long loadTime;
+        final Map<String, Integer> userIds;
+        final Map<Integer, String> userNames;
+        final Map<String, Integer> groupIds;
+        final Map<Integer, String> groupNames;
+
+        // entries queried individually, keyed by database and name or ID
+        final ConcurrentMap<String, Optional<Entry>> queried = new ConcurrentHashMap<>();
+
+        Mappings(long loadTime,
+                Map<String, Integer> userIds, Map<Integer, String> userNames,
+                Map<String, Integer> groupIds, Map<Integer, String> groupNames) {
+            this.loadTime = loadTime;
+            this.userIds = ImmutableMap.copyOf(userIds);
+            this.userNames = ImmutableMap.copyOf(userNames);
+            this.groupIds = ImmutableMap.copyOf(groupIds);
+            this.groupNames = ImmutableMap.copyOf(groupNames);
+        }
+
+        Map<Integer, String> getNames(String database) {
+            return database.equals(PASSWD) ? userNames : groupNames;
+        }
+    }
+}
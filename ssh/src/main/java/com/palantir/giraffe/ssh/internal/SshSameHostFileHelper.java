@@ -16,6 +16,9 @@
 package com.palantir.giraffe.ssh.internal;
 
 import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +27,13 @@ import com.palantir.giraffe.file.base.CopyFlags;
 
 final class SshSameHostFileHelper {
 
+    // creates each missing directory with the given mode, which unlike
+    // 'mkdir -p -m' applies the mode to parents; prints the directory that
+    // could not be created
+    private static final String MKDIRS_SCRIPT = "mode=$1; shift; for dir; do"
+            + " [ -d \"$dir\" ] || mkdir -m \"$mode\" -- \"$dir\" || [ -d \"$dir\" ]"
+            + " || { printf '%s\\n' \"$dir\"; exit 1; }; done";
+
     public static void copyFile(SshPath source, SshPath target, CopyFlags flags)
             throws IOException {
         List<Object> args = new ArrayList<>();
@@ -89,6 +99,33 @@ final class SshSameHostFileHelper {
         }
     }
 
+    public static void createDirectories(SshPath dir, int mode) throws IOException {
+        Path absolute = dir.toAbsolutePath();
+        Path root = absolute.getRoot();
+
+        List<Object> args = new ArrayList<>();
+        args.add("-c");
+        args.add(MKDIRS_SCRIPT);
+        args.add("sh");
+        args.add(Integer.toOctalString(mode));
+        for (int i = 1; i <= absolute.getNameCount(); i++) {
+            args.add(root.resolve(absolute.subpath(0, i)));
+        }
+
+        CommandResult result = dir.getFileSystem().execute("sh", args);
+        if (result.getExitStatus() != 0) {
+            String failed = result.getStdOut().trim();
+            String error = result.getStdErr().trim();
+            if (error.contains("File exists")) {
+                throw new FileAlreadyExistsException(failed);
+            } else if (error.contains("Permission denied")) {
+                throw new AccessDeniedException(failed, null, error);
+            } else {
+                throw commandError("mkdir command failed", result);
+            }
+        }
+    }
+
     public static void changePermissionsRecursive(SshPath target, String mode)
             throws IOException {
         CommandResult result = target.getFileSystem().execute("chmod", "-R", mode, target);
@@ -16,12 +16,15 @@
 package com.palantir.giraffe.ssh.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -29,13 +32,20 @@ import com.palantir.giraffe.file.base.AbstractSeekableByteChannel;
 import com.palantir.giraffe.file.base.OpenFlags;
 import com.palantir.giraffe.file.base.attribute.ChmodFilePermissions;
 import com.palantir.giraffe.file.base.attribute.PosixFileAttributeViews;
+import com.palantir.giraffe.file.base.feature.PathTrackingChannel;
+import com.palantir.giraffe.ssh.internal.SshBlockCache.FileVersion;
 
 import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.OpenMode;
 import net.schmizz.sshj.sftp.RemoteFile;
 import net.schmizz.sshj.sftp.SFTPClient;
 
-final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
+final class SshSeekableByteChannel extends AbstractSeekableByteChannel
+        implements PathTrackingChannel {
+
+    private static final int READ_SIZE = 32768;
+    private static final int MAX_PIPELINED_READS = 16;
+    private static final int MAX_PIPELINED_WRITES = 16;
 
     public static SshSeekableByteChannel open(SshPath path, Set<? extends OpenOption> options,
             FileAttribute<?>... attrs) throws IOException {
@@ -43,14 +53,56 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
         SFTPClient sftp = path.getFileSystem().openSftpClient();
         try {
             RemoteFile file = open(sftp, path, flags, getAttributes(flags, attrs));
-            return new SshSeekableByteChannel(file, path, flags, sftp);
+            try {
+                return new SshSeekableByteChannel(file, path, flags, sftp,
+                        getCacheVersion(file, path, flags));
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
         } catch (IOException e) {
             sftp.close();
             throw e;
         }
     }
 
-    private static FileAttributes getAttributes(OpenFlags flags, FileAttribute<?>[] attrs) {
+    /**
+     * Returns the version of the file to read from the block cache or
+     * {@code null} if the channel does not use the cache. Only read-only
+     * channels use the cache; opening a channel for writing removes any
+     * cached blocks for the file.
+     */
+    private static FileVersion getCacheVersion(RemoteFile file, SshPath path, OpenFlags flags)
+            throws IOException {
+        SshBlockCache cache = path.getFileSystem().getBlockCache();
+        if (!cache.isEnabled()) {
+            return null;
+        }
+
+        String key = path.toAbsolutePath().toString();
+        if (flags.write) {
+            cache.invalidate(key);
+            return null;
+        } else {
+            FileAttributes attrs = file.fetchAttributes();
+            FileVersion version = new FileVersion(key, attrs.getMtime(), attrs.getSize());
+            cache.validate(version);
+            return version;
+        }
+    }
+
+    /**
+     * Removes cached blocks of {@code path} so that reads by other channels
+     * do not return content that a writable channel may have changed.
+     */
+    static void invalidateCache(SshPath path) {
+        SshBlockCache cache = path.getFileSystem().getBlockCache();
+        if (cache.isEnabled()) {
+            cache.invalidate(path.toAbsolutePath().toString());
+        }
+    }
+
+    static FileAttributes getAttributes(OpenFlags flags, FileAttribute<?>[] attrs) {
         if (flags.create || flags.createNew) {
             Set<PosixFilePermission> perms = PosixFileAttributeViews.getCreatePermissions(attrs);
             if (perms != null) {
@@ -63,6 +115,16 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
 
     private static RemoteFile open(SFTPClient sftp, SshPath path, OpenFlags flags,
             FileAttributes attrs) throws IOException {
+        return sftp.open(path.toString(), getOpenModes(sftp, path, flags), attrs);
+    }
+
+    /**
+     * Checks that {@code path} may be opened with the given flags and
+     * returns the SFTP open modes that implement them. If necessary, an
+     * existing file is truncated before it is opened.
+     */
+    static Set<OpenMode> getOpenModes(SFTPClient sftp, SshPath path, OpenFlags flags)
+            throws IOException {
         String pathString = path.toString();
         boolean exists = sftp.statExistence(pathString) != null;
 
@@ -93,23 +155,36 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
                 sftp.truncate(pathString, 0);
             }
         }
-
-        return sftp.open(pathString, openOptions, attrs);
+        return openOptions;
     }
 
     private final RemoteFile file;
     private final SshPath path;
     private final OpenFlags flags;
     private final SFTPClient sftp;
+    private final FileVersion cacheVersion;
+
+    // pipelined reader for sequential reads into large buffers
+    private InputStream readAhead;
+    private long readAheadPosition;
 
     private SshSeekableByteChannel(RemoteFile file,
                                    SshPath path,
                                    OpenFlags flags,
-                                   SFTPClient sftp) {
+                                   SFTPClient sftp,
+                                   FileVersion cacheVersion) {
         this.file = file;
         this.path = path;
         this.flags = flags;
         this.sftp = sftp;
+        this.cacheVersion = cacheVersion;
+    }
+
+    /**
+     * Returns the flags this channel was opened with.
+     */
+    OpenFlags getFlags() {
+        return flags;
     }
 
     @Override
@@ -118,6 +193,9 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
         try {
             path.getFileSystem().logger().debug("closing byte channel for {}", path);
             file.close();
+            if (flags.write) {
+                invalidateCache(path);
+            }
             if (flags.deleteOnClose) {
                 // TODO(bkeyes): handle the case where close is never called
                 sftp.rm(path.toString());
@@ -130,7 +208,16 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
     @Override
     public int read(ByteBuffer dst) throws IOException {
         checkIsOpen();
-        if (dst.remaining() > 0) {
+        if (isCachedRead(dst)) {
+            int read = readCached(dst);
+            if (read > 0) {
+                return read;
+            }
+        }
+
+        if (dst.remaining() > READ_SIZE) {
+            return readPipelined(dst);
+        } else if (dst.remaining() > 0) {
             //  Workaround for Ganymed v2.5 capping num bytes read at one time to 32678.
             final int bytesToRead = Math.min(dst.remaining(), 32768);
             byte[] buffer = new byte[bytesToRead];
@@ -145,9 +232,114 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
         }
     }
 
+    /**
+     * Returns {@code true} if a read should use the block cache. Reads larger
+     * than a block are usually sequential and bypass the cache so they do not
+     * evict blocks used for random access.
+     */
+    private boolean isCachedRead(ByteBuffer dst) {
+        return cacheVersion != null
+                && position < cacheVersion.getSize()
+                && dst.remaining() <= path.getFileSystem().getBlockCache().getBlockSize();
+    }
+
+    private int readCached(ByteBuffer dst) throws IOException {
+        SshBlockCache cache = path.getFileSystem().getBlockCache();
+        int blockSize = cache.getBlockSize();
+
+        int total = 0;
+        while (dst.remaining() > 0 && position < cacheVersion.getSize()) {
+            long index = position / blockSize;
+            long blockStart = index * blockSize;
+
+            byte[] block = cache.get(cacheVersion, index);
+            if (block == null) {
+                int length = (int) Math.min(blockSize, cacheVersion.getSize() - blockStart);
+                block = readBlock(blockStart, length);
+                cache.put(cacheVersion, index, block);
+            }
+
+            int offset = (int) (position - blockStart);
+            if (offset >= block.length) {
+                // the file is shorter than when the channel was opened
+                break;
+            }
+            int length = Math.min(dst.remaining(), block.length - offset);
+            dst.put(block, offset, length);
+            position += length;
+            total += length;
+        }
+        return total;
+    }
+
+    private byte[] readBlock(long offset, int length) throws IOException {
+        byte[] block = new byte[length];
+        int filled = 0;
+        while (filled < length) {
+            int read = file.read(offset + filled, block, filled, length - filled);
+            if (read < 0) {
+                return Arrays.copyOf(block, filled);
+            }
+            filled += read;
+        }
+        return block;
+    }
+
+    /**
+     * Fills a large buffer with several outstanding read requests instead of
+     * waiting for each request in turn. The reader is kept for the next read
+     * if it continues at the same position, so sequential reads stay
+     * pipelined.
+     */
+    private int readPipelined(ByteBuffer dst) throws IOException {
+        if (readAhead == null || readAheadPosition != position) {
+            readAhead = file.new ReadAheadRemoteFileInputStream(MAX_PIPELINED_READS, position);
+        }
+
+        byte[] buffer = new byte[READ_SIZE];
+        int total = 0;
+        while (dst.remaining() > 0) {
+            int read = readAhead.read(buffer, 0, Math.min(buffer.length, dst.remaining()));
+            if (read < 0) {
+                readAhead = null;
+                break;
+            }
+            dst.put(buffer, 0, read);
+            total += read;
+        }
+
+        position += total;
+        readAheadPosition = position;
+        return (total == 0 && readAhead == null) ? -1 : total;
+    }
+
+    /**
+     * Returns a stream that reads the file from {@code offset} with several
+     * outstanding read requests. The stream does not change the position of
+     * this channel.
+     */
+    InputStream newPipelinedInputStream(long offset) throws IOException {
+        checkIsOpen();
+        return file.new ReadAheadRemoteFileInputStream(MAX_PIPELINED_READS, offset);
+    }
+
+    /**
+     * Returns a stream that writes the file from {@code offset} without
+     * waiting for each write request to be acknowledged. Each write to the
+     * stream must be at most 32768 bytes and the stream must be
+     * flushed to confirm that all writes succeeded. The stream does not
+     * change the position of this channel.
+     */
+    OutputStream newPipelinedOutputStream(long offset) throws IOException {
+        checkIsOpen();
+        readAhead = null;
+        return file.new RemoteFileOutputStream(offset, MAX_PIPELINED_WRITES);
+    }
+
     @Override
     public int write(ByteBuffer src) throws IOException {
         checkIsOpen();
+        readAhead = null;
 
         //  Workaround for SshJ bug. See https://github.com/shikhar/sshj/issues/145.
         final int bytesToRead = Math.min(src.remaining(), 32768);
@@ -172,9 +364,36 @@ final class SshSeekableByteChannel extends AbstractSeekableByteChannel {
     @Override
     public SshSeekableByteChannel truncate(long size) throws IOException {
         checkIsOpen();
+        readAhead = null;
         if (truncatePosition(size) && size < size()) {
             sftp.truncate(path.toString(), size);
         }
         return this;
     }
+
+    /**
+     * Compares the attributes of the open file with the attributes of the
+     * path. SFTP does not report inode numbers, so files are distinguished
+     * by size, modification time, owner, and mode; the open file must not
+     * change while the attributes are read.
+     */
+    @Override
+    public boolean isPathReplaced() throws IOException {
+        checkIsOpen();
+        FileAttributes before = file.fetchAttributes();
+        FileAttributes current = sftp.statExistence(path.toString());
+        if (current == null) {
+            return false;
+        }
+        FileAttributes after = file.fetchAttributes();
+        return isSameFile(before, after) && !isSameFile(after, current);
+    }
+
+    private static boolean isSameFile(FileAttributes a, FileAttributes b) {
+        return a.getSize() == b.getSize()
+                && a.getMtime() == b.getMtime()
+                && a.getUID() == b.getUID()
+                && a.getGID() == b.getGID()
+                && a.getMode().getMask() == b.getMode().getMask();
+    }
 }
@@ -0,0 +1,301 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.palantir.giraffe.file.base.SuppressedCloseable;
+import com.palantir.giraffe.internal.AbstractHandlableProcess;
+import com.palantir.giraffe.internal.HandlableProcess;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
+
+import net.schmizz.sshj.connection.channel.direct.Session;
+
+/**
+ * A persistent remote shell that executes commands sequentially.
+ * <p>
+ * Each command runs in a subshell with input from {@code /dev/null}, so
+ * changes to the working directory or environment do not affect the shell or
+ * later commands. After a command exits, the shell prints a delimiter to the
+ * output and error streams, followed by the exit status on the output stream.
+ * The delimiter starts with a character that does not appear anywhere else in
+ * it, so output can be scanned for the delimiter without backtracking.
+ * <p>
+ * A shell executes one command at a time. If a command is destroyed, the shell
+ * is closed because there is no way to stop the command without stopping the
+ * shell.
+ */
+final class SshShell {
+
+    private static final String SHELL = "sh";
+
+    /**
+     * Starts a new shell on the permit's connection. The shell releases the
+     * given channel permit when it is closed or if it fails to start.
+     */
+    public static SshShell start(SshShellPool pool, Permit permit) throws IOException {
+        try {
+            Session session = permit.getClient().startSession();
+            try {
+                return new SshShell(session, session.exec(SHELL), pool, permit);
+            } catch (IOException e) {
+                session.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private final Session session;
+    private final Session.Command shell;
+    private final SshShellPool pool;
+    private final Permit permit;
+
+    private final InputStream stdout;
+    private final InputStream stderr;
+    private final OutputStream stdin;
+
+    private final String delimiter;
+    private final byte[] delimiterBytes;
+
+    private SshShell(Session session, Session.Command shell, SshShellPool pool, Permit permit) {
+        this.session = session;
+        this.shell = shell;
+        this.pool = pool;
+        this.permit = permit;
+
+        stdout = new BufferedInputStream(shell.getInputStream());
+        stderr = new BufferedInputStream(shell.getErrorStream());
+        stdin = shell.getOutputStream();
+
+        delimiter = "#giraffe-" + UUID.randomUUID().toString().replace("-", "");
+        delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts executing a command in this shell. The command must already
+     * include any changes to the working directory and environment.
+     */
+    public HandlableProcess execute(String command) throws IOException {
+        StringBuilder script = new StringBuilder();
+        script.append("( ").append(command).append(" ) < /dev/null; ");
+        script.append("printf '%s%d\\n' '").append(delimiter).append("' \"$?\"; ");
+        script.append("printf '%s\\n' '").append(delimiter).append("' >&2\n");
+
+        stdin.write(script.toString().getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+        return new ShellProcess();
+    }
+
+    public void close() {
+        try {
+            SuppressedCloseable.create(shell, session, permit).close();
+        } catch (IOException ignore) {
+            // the shell may already be closed if the connection failed
+        }
+    }
+
+    private final class ShellProcess extends AbstractHandlableProcess {
+
+        private final DelimitedInputStream output = new DelimitedInputStream(stdout, true);
+        private final DelimitedInputStream error = new DelimitedInputStream(stderr, false);
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        @Override
+        public InputStream getOutput() {
+            return output;
+        }
+
+        @Override
+        public InputStream getError() {
+            return error;
+        }
+
+        @Override
+        public OutputStream getInput() {
+            return RejectingOutputStream.INSTANCE;
+        }
+
+        @Override
+        public int waitFor() throws InterruptedException, IOException {
+            output.awaitEnd();
+            error.awaitEnd();
+            if (output.failure != null || error.failure != null) {
+                if (finished.compareAndSet(false, true)) {
+                    pool.discard(SshShell.this);
+                }
+                throw new IOException("persistent shell terminated unexpectedly");
+            }
+
+            if (finished.compareAndSet(false, true)) {
+                pool.release(SshShell.this);
+            }
+            return output.status;
+        }
+
+        @Override
+        public void destroy() {
+            if (finished.compareAndSet(false, true)) {
+                pool.discard(SshShell.this);
+            }
+        }
+    }
+
+    /**
+     * Reads from a shell stream until the delimiter, then returns EOF. The
+     * underlying stream is not closed when this stream is closed.
+     */
+    private final class DelimitedInputStream extends InputStream {
+
+        private final InputStream in;
+        private final boolean readStatus;
+        private final CountDownLatch end = new CountDownLatch(1);
+
+        private final byte[] pending = new byte[delimiterBytes.length];
+        private int pendingStart;
+        private int pendingEnd;
+        private int matched;
+        private boolean ended;
+
+        private volatile int status;
+        private volatile IOException failure;
+
+        DelimitedInputStream(InputStream in, boolean readStatus) {
+            this.in = in;
+            this.readStatus = readStatus;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (failure != null) {
+                throw failure;
+            } else if (len == 0) {
+                return 0;
+            }
+
+            int n = 0;
+            while (n < len) {
+                if (pendingStart < pendingEnd) {
+                    b[off + n++] = pending[pendingStart++];
+                } else if (ended || (n > 0 && in.available() == 0)) {
+                    break;
+                } else {
+                    scan(readByte());
+                }
+            }
+            return (n == 0 && ended) ? -1 : n;
+        }
+
+        private void scan(int c) throws IOException {
+            if (c == (delimiterBytes[matched] & 0xff)) {
+                matched++;
+                if (matched == delimiterBytes.length) {
+                    finish();
+                }
+                return;
+            }
+
+            // the first byte of the delimiter appears nowhere else, so any
+            // matched bytes are output and c can only restart the match
+            System.arraycopy(delimiterBytes, 0, pending, 0, matched);
+            pendingStart = 0;
+            pendingEnd = matched;
+            if (c == (delimiterBytes[0] & 0xff)) {
+                matched = 1;
+            } else {
+                // there is always room: matched < delimiterBytes.length
+                pending[pendingEnd++] = (byte) c;
+                matched = 0;
+            }
+        }
+
+        private void finish() throws IOException {
+            int value = 0;
+            for (int c = readByte(); c != '\n'; c = readByte()) {
+                if (readStatus && c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                }
+            }
+            status = value;
+            ended = true;
+            end.countDown();
+        }
+
+        private int readByte() throws IOException {
+            int c;
+            try {
+                c = in.read();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            if (c == -1) {
+                throw fail(new EOFException("unexpected end of shell output"));
+            }
+            return c;
+        }
+
+        private IOException fail(IOException e) {
+            failure = e;
+            ended = true;
+            end.countDown();
+            return e;
+        }
+
+        void awaitEnd() throws InterruptedException {
+            end.await();
+        }
+
+        @Override
+        public int available() {
+            return pendingEnd - pendingStart;
+        }
+
+        @Override
+        public void close() {
+            // the shell stream is shared with later commands
+        }
+    }
+
+    /**
+     * Rejects input; only commands that discard input run in a persistent
+     * shell and they read from {@code /dev/null}.
+     */
+    private static final class RejectingOutputStream extends OutputStream {
+
+        static final RejectingOutputStream INSTANCE = new RejectingOutputStream();
+
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("commands in a persistent shell discard input");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+
+import com.google.common.base.Optional;
+import com.palantir.giraffe.ssh.internal.SshChannelPermits.Permit;
+
+/**
+ * Maintains a bounded set of persistent remote shells for a host.
+ * <p>
+ * Shells are started lazily, when a command is executed and no shell is idle.
+ * If the maximum number of shells are busy, {@link #acquire()} returns
+ * immediately so that the command can run in a new exec channel instead.
+ */
+final class SshShellPool implements Closeable {
+
+    private final int maxShells;
+    private final SshConnectionGroup connections;
+    private final Logger logger;
+
+    @GuardedBy("this")
+    private final Deque<SshShell> idle = new ArrayDeque<>();
+
+    @GuardedBy("this")
+    private final List<SshShell> shells = new ArrayList<>();
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    SshShellPool(int maxShells, SshConnectionGroup connections, Logger logger) {
+        this.maxShells = maxShells;
+        this.connections = connections;
+        this.logger = logger;
+    }
+
+    /**
+     * Returns an idle shell, starting a new shell if necessary. If no shell is
+     * available, the returned {@code Optional} is absent.
+     */
+    public Optional<SshShell> acquire() {
+        synchronized (this) {
+            if (closed) {
+                return Optional.absent();
+            } else if (!idle.isEmpty()) {
+                return Optional.of(idle.pop());
+            } else if (shells.size() >= maxShells) {
+                return Optional.absent();
+            }
+        }
+
+        // shells never wait for a channel; the command can wait instead
+        Optional<Permit> permit = connections.tryAcquire();
+        if (!permit.isPresent()) {
+            return Optional.absent();
+        }
+        permit.get().markPersistent();
+
+        // start the shell without holding the lock
+        SshShell shell;
+        try {
+            shell = SshShell.start(this, permit.get());
+        } catch (IOException e) {
+            logger.debug("failed to start persistent shell", e);
+            return Optional.absent();
+        }
+
+        synchronized (this) {
+            if (!closed && shells.size() < maxShells) {
+                shells.add(shell);
+                return Optional.of(shell);
+            }
+        }
+        shell.close();
+        return Optional.absent();
+    }
+
+    /**
+     * Returns a shell to the pool after it finished executing a command.
+     */
+    public void release(SshShell shell) {
+        synchronized (this) {
+            if (!closed && shells.contains(shell)) {
+                idle.push(shell);
+                return;
+            }
+        }
+        shell.close();
+    }
+
+    /**
+     * Removes a shell from the pool and closes it. Called when a command is
+     * destroyed or the shell fails.
+     */
+    public void discard(SshShell shell) {
+        synchronized (this) {
+            shells.remove(shell);
+            idle.remove(shell);
+        }
+        shell.close();
+    }
+
+    @Override
+    public void close() {
+        List<SshShell> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(shells);
+            shells.clear();
+            idle.clear();
+        }
+
+        for (SshShell shell : toClose) {
+            shell.close();
+        }
+    }
+}
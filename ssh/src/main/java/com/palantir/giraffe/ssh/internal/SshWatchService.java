@@ -0,0 +1,653 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchEvent.Modifier;
+import java.nio.file.WatchKey;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.file.base.BasePath;
+import com.palantir.giraffe.file.base.BaseWatchKey;
+import com.palantir.giraffe.file.base.BaseWatchService;
+
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response.StatusCode;
+import net.schmizz.sshj.sftp.SFTPClient;
+import net.schmizz.sshj.sftp.SFTPException;
+
+/**
+ * Watches directories on an SSH host.
+ * <p>
+ * If the host provides {@code inotifywait}, a shell on one channel watches
+ * the registered directories and streams their events. Because
+ * {@code inotifywait} cannot add watches once it is running, each
+ * registration starts a new {@code inotifywait} in this shell for the new
+ * directory and the newest batches that are no larger than it, then stops
+ * the processes it replaces. Each directory is watched again at most a
+ * logarithmic number of times and only a logarithmic number of processes run
+ * at once. The new process starts before the old ones stop, so events are not
+ * missed but may be reported twice while this happens. Cancelled directories
+ * stay watched until their batch is replaced or empty; their events are
+ * ignored.
+ * <p>
+ * If {@code inotifywait} is not available or fails, directories are polled by
+ * listing them over a single SFTP channel and comparing the name,
+ * modification time, and size of each entry with the previous listing.
+ */
+final class SshWatchService extends BaseWatchService {
+
+    private static final int STREAM_CAPACITY = 64 * 1024;
+    private static final long ESTABLISH_TIMEOUT_SECONDS = 30;
+
+    private static final String ESTABLISHED = "Watches established.";
+
+    // reads "add DIR" lines followed by "start" to watch a batch of
+    // directories with a new process, and "stop PID" to stop a process;
+    // watched directories are passed with a trailing slash, so the watched
+    // path is everything before the last slash in each event
+    private static final String NOTIFY_SCRIPT = "pids=\n"
+            + "while IFS= read -r line; do\n"
+            + "  case $line in\n"
+            + "    'add '*) set -- \"$@\" \"${line#add }\" ;;\n"
+            + "    start)\n"
+            + "      inotifywait -m"
+            + " -e create -e moved_to -e delete -e moved_from -e modify -e attrib"
+            + " -e delete_self -e move_self --format '%e %w%f' -- \"$@\" 2>&1 &\n"
+            + "      pids=\"$pids $!\"; echo \"started $!\"; set -- ;;\n"
+            + "    'stop '*) kill ${line#stop } 2>/dev/null ;;\n"
+            + "  esac\n"
+            + "done\n"
+            + "kill $pids 2>/dev/null\n";
+
+    private static final String STARTED = "started ";
+
+    private static final Pattern EVENT_LINE = Pattern.compile("[A-Z_,]+ .*");
+
+    private static final Map<String, Kind<?>> KINDS = ImmutableMap.<String, Kind<?>>builder()
+            .put("CREATE", StandardWatchEventKinds.ENTRY_CREATE)
+            .put("MOVED_TO", StandardWatchEventKinds.ENTRY_CREATE)
+            .put("DELETE", StandardWatchEventKinds.ENTRY_DELETE)
+            .put("MOVED_FROM", StandardWatchEventKinds.ENTRY_DELETE)
+            .put("MODIFY", StandardWatchEventKinds.ENTRY_MODIFY)
+            .put("ATTRIB", StandardWatchEventKinds.ENTRY_MODIFY)
+            .build();
+
+    private static final Splitter EVENT_SPLITTER = Splitter.on(',');
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("giraffe-ssh-watch-%d")
+            .setDaemon(true)
+            .build();
+
+    public static SshWatchService create(SshFileSystem fs) throws IOException {
+        CommandResult result = fs.execute("sh", "-c", "command -v inotifywait");
+        boolean notify = result.getExitStatus() == 0;
+        if (!notify) {
+            fs.logger().debug("inotifywait is not available, polling watched directories");
+        }
+        return new SshWatchService(fs, notify);
+    }
+
+    private final SshFileSystem fs;
+    private final Map<String, SshWatchKey> keys = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private boolean notify;
+    private NotifyStream stream;
+    private final List<WatchBatch> batches = new ArrayList<>();
+    private ScheduledExecutorService poller;
+
+    private SshWatchService(SshFileSystem fs, boolean notify) {
+        this.fs = fs;
+        this.notify = notify;
+    }
+
+    @Override
+    protected synchronized WatchKey register(BasePath<?> path, Kind<?>[] events,
+            Modifier... modifiers) throws IOException {
+        checkOpen();
+        SshPath dir = fs.provider().checkPath(path);
+        if (dir.getFileSystem() != fs) {
+            throw new ProviderMismatchException("path is not associated with this watch service");
+        }
+
+        Set<Kind<?>> kinds = checkEvents(events, modifiers);
+        String id = dir.toAbsolutePath().normalize().toString();
+
+        SshWatchKey existing = keys.get(id);
+        if (existing != null) {
+            existing.setKinds(kinds);
+            return existing;
+        }
+
+        if (!Files.readAttributes(dir, BasicFileAttributes.class).isDirectory()) {
+            throw new NotDirectoryException(dir.toString());
+        }
+
+        fs.logger().debug("watching {}", dir);
+        SshWatchKey key = new SshWatchKey(this, dir, id, kinds);
+        if (notify) {
+            if (id.indexOf('\n') >= 0) {
+                throw new IOException("cannot watch " + dir + ": name contains a newline");
+            }
+            keys.put(id, key);
+            watch(id);
+        } else {
+            try (SFTPClient sftp = fs.openSftpClient()) {
+                key.snapshot = list(sftp, id);
+            }
+            keys.put(id, key);
+            startPoller();
+        }
+        return key;
+    }
+
+    @Override
+    protected synchronized void cancelled(BaseWatchKey key) {
+        keys.remove(((SshWatchKey) key).id);
+        if (!isOpen()) {
+            return;
+        }
+
+        if (notify) {
+            unwatch(((SshWatchKey) key).id);
+        } else if (keys.isEmpty() && poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    @Override
+    protected synchronized void doClose() throws IOException {
+        fs.unregisterCloseable(this);
+        stopStream();
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        keys.clear();
+    }
+
+    /**
+     * Watches {@code id} with a new {@code inotifywait} process. The process
+     * also watches the directories of the newest batches that are no larger
+     * than the new batch, replacing them. If the process fails, falls back to
+     * polling.
+     */
+    private void watch(String id) {
+        Set<String> dirs = new LinkedHashSet<>();
+        dirs.add(id);
+
+        List<WatchBatch> replaced = new ArrayList<>();
+        while (!batches.isEmpty() && batches.get(batches.size() - 1).size() <= dirs.size()) {
+            WatchBatch batch = batches.remove(batches.size() - 1);
+            for (String dir : batch.dirs) {
+                if (keys.containsKey(dir)) {
+                    dirs.add(dir);
+                }
+            }
+            replaced.add(batch);
+        }
+
+        try {
+            if (stream == null) {
+                stream = new NotifyStream();
+            }
+            batches.add(new WatchBatch(stream.watch(dirs), dirs));
+        } catch (IOException e) {
+            stopStream();
+            fs.logger().warn("inotifywait failed, polling watched directories", e);
+            startPolling();
+            return;
+        }
+
+        for (WatchBatch batch : replaced) {
+            stream.stop(batch.pid);
+        }
+    }
+
+    /**
+     * Stops watching {@code id}, stopping the process that watches it if no
+     * other registered directories remain in its batch.
+     */
+    private void unwatch(String id) {
+        if (keys.isEmpty()) {
+            stopStream();
+            return;
+        }
+
+        for (Iterator<WatchBatch> it = batches.iterator(); it.hasNext();) {
+            WatchBatch batch = it.next();
+            if (batch.dirs.remove(id)) {
+                if (batch.size() == 0) {
+                    it.remove();
+                    stream.stop(batch.pid);
+                }
+                return;
+            }
+        }
+    }
+
+    private void stopStream() {
+        if (stream != null) {
+            stream.stop();
+            stream = null;
+        }
+        batches.clear();
+    }
+
+    private synchronized void streamFailed(NotifyStream failed) {
+        if (failed == stream && isOpen()) {
+            fs.logger().warn("inotifywait exited, polling watched directories");
+            stopStream();
+            startPolling();
+            // events may have been lost before polling started
+            for (SshWatchKey key : keys.values()) {
+                key.signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+            }
+        }
+    }
+
+    private void startPolling() {
+        notify = false;
+        try (SFTPClient sftp = fs.openSftpClient()) {
+            for (SshWatchKey key : keys.values()) {
+                snapshot(sftp, key);
+            }
+        } catch (IOException | RuntimeException e) {
+            fs.logger().warn("failed to list watched directories", e);
+        }
+        startPoller();
+    }
+
+    private void startPoller() {
+        if (poller == null) {
+            int interval = fs.getWatchPollInterval();
+            poller = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+            poller.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    pollDirectories();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pollDirectories() {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        try (SFTPClient sftp = fs.openSftpClient()) {
+            for (SshWatchKey key : keys.values()) {
+                Map<String, FileState> previous = key.snapshot;
+                if (snapshot(sftp, key) && previous != null) {
+                    key.signalChanges(previous, key.snapshot);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            fs.logger().debug("failed to poll watched directories", e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot of a key's directory. If the directory no longer
+     * exists, the key is invalidated and {@code false} is returned.
+     */
+    private boolean snapshot(SFTPClient sftp, SshWatchKey key) throws IOException {
+        try {
+            key.snapshot = list(sftp, key.id);
+            return true;
+        } catch (SFTPException e) {
+            if (e.getStatusCode() == StatusCode.NO_SUCH_FILE) {
+                invalidate(key);
+                return false;
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    private static Map<String, FileState> list(SFTPClient sftp, String dir) throws IOException {
+        Map<String, FileState> entries = new HashMap<>();
+        for (RemoteResourceInfo info : sftp.ls(dir)) {
+            String name = info.getName();
+            if (!name.equals(".") && !name.equals("..")) {
+                FileAttributes attrs = info.getAttributes();
+                entries.put(name, new FileState(attrs.getMtime(), attrs.getSize()));
+            }
+        }
+        return entries;
+    }
+
+    private void invalidate(SshWatchKey key) {
+        fs.logger().debug("watched directory {} is no longer accessible", key.watchable());
+        keys.remove(key.id, key);
+        key.invalidate();
+    }
+
+    /**
+     * Dispatches an event from {@code inotifywait}. Events have the form
+     * {@code "EVENT[,EVENT...] /watched/dir/name"}; events for the watched
+     * directory itself have an empty name.
+     */
+    private void dispatch(String line) {
+        int space = line.indexOf(' ');
+        if (space < 0) {
+            return;
+        }
+
+        List<String> names = EVENT_SPLITTER.splitToList(line.substring(0, space));
+        if (names.contains("Q_OVERFLOW")) {
+            for (SshWatchKey key : keys.values()) {
+                key.signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+            }
+            return;
+        }
+
+        String path = line.substring(space + 1);
+        int slash = path.lastIndexOf('/');
+        if (slash < 0) {
+            return;
+        }
+
+        String dir = slash == 0 ? "/" : path.substring(0, slash);
+        String name = path.substring(slash + 1);
+
+        SshWatchKey key = keys.get(dir);
+        if (key == null) {
+            return;
+        } else if (name.isEmpty()) {
+            if (names.contains("DELETE_SELF") || names.contains("MOVE_SELF")) {
+                invalidate(key);
+            }
+            return;
+        }
+
+        Path context = fs.getPath(name);
+        for (String event : names) {
+            Kind<?> kind = KINDS.get(event);
+            if (kind != null) {
+                key.signalEvent(kind, context);
+            }
+        }
+    }
+
+    /**
+     * A shell that runs {@code inotifywait} processes for batches of
+     * directories and streams their events.
+     */
+    private final class NotifyStream implements Runnable {
+        private final CommandFuture future;
+
+        // only one batch starts at a time, guarded by the service
+        private volatile PendingBatch pending;
+        private volatile boolean stopped;
+
+        NotifyStream() {
+            CommandContext context = CommandContext.builder()
+                    .ignoreExitStatus()
+                    .streamOutput(STREAM_CAPACITY)
+                    .streamInput(STREAM_CAPACITY)
+                    .build();
+            future = fs.executeAsync(context, "sh", "-c", NOTIFY_SCRIPT);
+            THREAD_FACTORY.newThread(this).start();
+        }
+
+        /**
+         * Starts a process that watches {@code dirs} and returns its ID once
+         * the watches are established.
+         */
+        String watch(Collection<String> dirs) throws IOException {
+            StringBuilder commands = new StringBuilder();
+            for (String dir : dirs) {
+                commands.append("add ").append(dir.endsWith("/") ? dir : dir + "/").append('\n');
+            }
+            commands.append("start\n");
+
+            PendingBatch batch = new PendingBatch();
+            pending = batch;
+            try {
+                send(commands.toString());
+                if (!batch.ready.await(ESTABLISH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IOException("timed out waiting for inotifywait to start");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted waiting for inotifywait");
+            } finally {
+                pending = null;
+            }
+
+            if (batch.error != null) {
+                if (batch.pid != null) {
+                    stop(batch.pid);
+                }
+                throw new IOException("inotifywait failed: " + batch.error);
+            }
+            return batch.pid;
+        }
+
+        /**
+         * Stops the process with the given ID.
+         */
+        void stop(String pid) {
+            try {
+                send("stop " + pid + "\n");
+            } catch (IOException e) {
+                fs.logger().debug("failed to stop inotifywait " + pid, e);
+            }
+        }
+
+        void stop() {
+            stopped = true;
+            try {
+                future.getStdIn().close();
+            } catch (IOException e) {
+                fs.logger().debug("failed to close inotifywait input", e);
+            }
+            future.cancel(true);
+        }
+
+        private void send(String commands) throws IOException {
+            OutputStream in = future.getStdIn();
+            in.write(commands.getBytes(StandardCharsets.UTF_8));
+            in.flush();
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(future.getStdOut(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    PendingBatch batch = pending;
+                    if (line.startsWith(STARTED)) {
+                        if (batch != null) {
+                            batch.started(line.substring(STARTED.length()));
+                        }
+                    } else if (line.equals(ESTABLISHED)) {
+                        if (batch != null) {
+                            batch.established(null);
+                        }
+                    } else if (EVENT_LINE.matcher(line).matches()) {
+                        if (!stopped) {
+                            dispatch(line);
+                        }
+                    } else if (batch != null && !line.startsWith("Setting up watches")) {
+                        batch.established(line);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!stopped) {
+                    fs.logger().debug("failed to read inotifywait events", e);
+                }
+            } finally {
+                PendingBatch batch = pending;
+                if (batch != null) {
+                    batch.failed("exited before watches were established");
+                }
+                if (!stopped) {
+                    streamFailed(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * A batch that is waiting for its process to report its ID and to either
+     * establish its watches or fail.
+     */
+    private static final class PendingBatch {
+        final CountDownLatch ready = new CountDownLatch(2);
+
+        volatile String pid;
+        volatile String error;
+        private boolean done;
+
+        synchronized void started(String id) {
+            if (pid == null) {
+                pid = id;
+                ready.countDown();
+            }
+        }
+
+        synchronized void established(String failure) {
+            if (!done) {
+                done = true;
+                error = failure;
+                ready.countDown();
+            }
+        }
+
+        synchronized void failed(String failure) {
+            if (!done || pid == null) {
+                done = true;
+                error = failure;
+            }
+            while (ready.getCount() > 0) {
+                ready.countDown();
+            }
+        }
+    }
+
+    /**
+     * The registered directories watched by one {@code inotifywait} process.
+     */
+    private static final class WatchBatch {
+        final String pid;
+        final Set<String> dirs;
+
+        WatchBatch(String pid, Set<String> dirs) {
+            this.pid = pid;
+            this.dirs = dirs;
+        }
+
+        int size() {
+            return dirs.size();
+        }
+    }
+
+    private static final class SshWatchKey extends BaseWatchKey {
+        private final String id;
+
+        // written by the registering thread and then only by the poller
+        private volatile Map<String, FileState> snapshot;
+
+        SshWatchKey(SshWatchService watcher, SshPath dir, String id, Set<Kind<?>> kinds) {
+            super(watcher, dir, kinds);
+            this.id = id;
+        }
+
+        void signalChanges(Map<String, FileState> previous, Map<String, FileState> current) {
+            for (Map.Entry<String, FileState> entry : current.entrySet()) {
+                FileState state = previous.get(entry.getKey());
+                if (state == null) {
+                    signalEvent(StandardWatchEventKinds.ENTRY_CREATE, resolve(entry.getKey()));
+                } else if (!state.equals(entry.getValue())) {
+                    signalEvent(StandardWatchEventKinds.ENTRY_MODIFY, resolve(entry.getKey()));
+                }
+            }
+            for (String name : previous.keySet()) {
+                if (!current.containsKey(name)) {
+                    signalEvent(StandardWatchEventKinds.ENTRY_DELETE, resolve(name));
+                }
+            }
+        }
+
+        private Path resolve(String name) {
+            return watchable().getFileSystem().getPath(name);
+        }
+    }
+
+    private static final class FileState {
+        private final long mtime;
+        private final long size;
+
+        FileState(long mtime, long size) {
+            this.mtime = mtime;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            FileState other = (FileState) obj;
+            return mtime == other.mtime && size == other.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(mtime) + Long.hashCode(size);
+        }
+    }
+}
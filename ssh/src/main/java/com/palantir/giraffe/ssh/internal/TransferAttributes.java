@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+
+/**
+ * Reads and sets the attributes that transfers copy from the source file to
+ * the target file: permissions, when the source has them, and access and
+ * modification times.
+ */
+final class TransferAttributes {
+
+    /**
+     * Reads the attributes of a file on the local host, including
+     * permissions if the local file system supports them.
+     */
+    public static BasicFileAttributes readLocal(Path path) throws IOException {
+        if (Files.getFileAttributeView(path, PosixFileAttributeView.class) != null) {
+            return Files.readAttributes(path, PosixFileAttributes.class);
+        } else {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        }
+    }
+
+    /**
+     * Sets the attributes of a file on the SSH host in a single request.
+     */
+    public static void setRemote(SshPath target, BasicFileAttributes attrs) throws IOException {
+        SshAttributeSetter setter = new SshAttributeSetter(target)
+                .lastAccessTime(attrs.lastAccessTime())
+                .lastModifiedTime(attrs.lastModifiedTime());
+        if (attrs instanceof PosixFileAttributes) {
+            setter.permissions(((PosixFileAttributes) attrs).permissions());
+        }
+        setter.set();
+    }
+
+    /**
+     * Sets the attributes of a file on the local host. Permissions are
+     * ignored if the local file system does not support them.
+     */
+    public static void setLocal(Path target, PosixFileAttributes attrs) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(
+                target, PosixFileAttributeView.class);
+        if (view != null) {
+            view.setPermissions(attrs.permissions());
+            view.setTimes(attrs.lastModifiedTime(), attrs.lastAccessTime(), null);
+        } else {
+            Files.getFileAttributeView(target, BasicFileAttributeView.class)
+                    .setTimes(attrs.lastModifiedTime(), attrs.lastAccessTime(), null);
+        }
+    }
+
+    private TransferAttributes() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+import com.google.common.base.Optional;
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+
+import net.schmizz.sshj.xfer.FileSystemFile;
+
+/**
+ * Computes the digest of a file from the buffers used to transfer it. A
+ * transfer that does not need a digest uses {@link #none()}, which ignores
+ * all updates.
+ */
+final class TransferDigest {
+
+    private static final TransferDigest NONE = new TransferDigest(
+            Optional.<MessageDigest>absent());
+
+    public static TransferDigest none() {
+        return NONE;
+    }
+
+    public static TransferDigest of(ChecksumAlgorithm algorithm) {
+        return new TransferDigest(Optional.of(algorithm.newMessageDigest()));
+    }
+
+    private final Optional<MessageDigest> digest;
+
+    private TransferDigest(Optional<MessageDigest> digest) {
+        this.digest = digest;
+    }
+
+    public boolean isEnabled() {
+        return digest.isPresent();
+    }
+
+    public void update(byte[] bytes, int offset, int length) {
+        if (digest.isPresent()) {
+            digest.get().update(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Updates the digest with the remaining bytes of {@code buffer} without
+     * changing the buffer's position.
+     */
+    public void update(ByteBuffer buffer) {
+        if (digest.isPresent()) {
+            digest.get().update(buffer.duplicate());
+        }
+    }
+
+    /**
+     * Discards all bytes added to the digest, for transfers that fall back
+     * to another mechanism after reading part of the file.
+     */
+    public void reset() {
+        if (digest.isPresent()) {
+            digest.get().reset();
+        }
+    }
+
+    public InputStream wrap(InputStream in) {
+        return digest.isPresent() ? new DigestInputStream(in, digest.get()) : in;
+    }
+
+    public OutputStream wrap(OutputStream out) {
+        return digest.isPresent() ? new DigestOutputStream(out, digest.get()) : out;
+    }
+
+    /**
+     * Returns a local file for SCP transfers that updates this digest when
+     * the file is read or written.
+     */
+    public FileSystemFile wrapFile(String path) {
+        return new DigestFile(new File(path));
+    }
+
+    public HashCode hash() {
+        checkState(digest.isPresent(), "digest is not enabled");
+        return HashCode.fromBytes(digest.get().digest());
+    }
+
+    private final class DigestFile extends FileSystemFile {
+        DigestFile(File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return wrap(super.getInputStream());
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return wrap(super.getOutputStream());
+        }
+
+        @Override
+        public FileSystemFile getTargetFile(String filename) throws IOException {
+            return new DigestFile(super.getTargetFile(filename).getFile());
+        }
+    }
+}
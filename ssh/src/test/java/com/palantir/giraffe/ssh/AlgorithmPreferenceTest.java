@@ -0,0 +1,100 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.sshd.common.kex.KexProposalOption;
+import org.junit.Test;
+
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+
+/**
+ * Tests that connections negotiate algorithms in the requested order.
+ */
+public class AlgorithmPreferenceTest extends EmbeddedSshFileSystemBaseTest {
+
+    public AlgorithmPreferenceTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void negotiatesPreferredAlgorithms() throws IOException, TimeoutException {
+        SshAlgorithms algorithms = SshAlgorithms.builder()
+                .setCiphers("aes256-ctr")
+                .setMacs("hmac-sha2-512")
+                .setKeyExchanges("ecdh-sha2-nistp384")
+                .setCompression("zlib")
+                .build();
+
+        try (HostControlSystem hcs = open(algorithms)) {
+            CommandResult result = Commands.execute(
+                    hcs.getExecutionSystem().getCommand("echo", "compressed"),
+                    10, TimeUnit.SECONDS);
+            assertEquals("incorrect output", "compressed\n", result.getStdOut());
+        }
+
+        assertNegotiated(KexProposalOption.C2SENC, "aes256-ctr");
+        assertNegotiated(KexProposalOption.S2CENC, "aes256-ctr");
+        assertNegotiated(KexProposalOption.C2SMAC, "hmac-sha2-512");
+        assertNegotiated(KexProposalOption.ALGORITHMS, "ecdh-sha2-nistp384");
+        assertNegotiated(KexProposalOption.S2CCOMP, "zlib");
+    }
+
+    @Test
+    public void ignoresUnsupportedAlgorithms() throws IOException, TimeoutException {
+        SshAlgorithms algorithms = SshAlgorithms.builder()
+                .setCiphers("unsupported-cipher", "aes192-ctr")
+                .build();
+
+        try (HostControlSystem hcs = open(algorithms)) {
+            Commands.execute(hcs.getExecutionSystem().getCommand("true"), 10, TimeUnit.SECONDS);
+        }
+        assertNegotiated(KexProposalOption.C2SENC, "aes192-ctr");
+    }
+
+    @Test
+    public void connectsWithPresets() throws IOException, TimeoutException {
+        for (SshAlgorithms preset : new SshAlgorithms[] {
+            SshAlgorithms.throughput(),
+            SshAlgorithms.fastHandshake()
+        }) {
+            try (HostControlSystem hcs = open(preset)) {
+                Commands.execute(hcs.getExecutionSystem().getCommand("true"),
+                        10, TimeUnit.SECONDS);
+            }
+        }
+        assertNegotiated(KexProposalOption.S2CCOMP, "none");
+    }
+
+    private HostControlSystem open(SshAlgorithms algorithms) throws IOException {
+        SshHostAccessor host = getServer().getHost();
+        host.request().setAlgorithms(algorithms);
+        return host.open();
+    }
+
+    private void assertNegotiated(KexProposalOption option, String expected) {
+        String actual = getServer().getNegotiatedAlgorithm(option);
+        assertEquals("incorrect " + option.getDescription(), expected, actual);
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.ssh.internal.SshHostControlSystem;
+
+/**
+ * Tests asynchronous file channels on SSH paths.
+ */
+public class AsyncFileChannelTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final int CHUNK_SIZE = 50000;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public AsyncFileChannelTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void readsConcurrentlyWithFutures() throws Exception {
+        byte[] data = randomBytes(new Random(21), 8 * CHUNK_SIZE);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(getRemotePath(local))) {
+            assertEquals("incorrect size", data.length, channel.size());
+
+            List<ByteBuffer> buffers = new ArrayList<>();
+            List<Future<Integer>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                buffers.add(buffer);
+                reads.add(channel.read(buffer, (long) i * CHUNK_SIZE));
+            }
+
+            for (int i = 0; i < 8; i++) {
+                assertEquals("incorrect read length", CHUNK_SIZE, (int) reads.get(i).get());
+                assertArrayEquals("incorrect content in chunk " + i,
+                        Arrays.copyOfRange(data, i * CHUNK_SIZE, (i + 1) * CHUNK_SIZE),
+                        buffers.get(i).array());
+            }
+        }
+    }
+
+    @Test
+    public void readsToEndOfFile() throws Exception {
+        byte[] data = randomBytes(new Random(22), 40000);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(getRemotePath(local))) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            assertEquals("incorrect short read", 30000, (int) channel.read(buffer, 10000).get());
+            buffer.flip();
+            byte[] content = new byte[buffer.remaining()];
+            buffer.get(content);
+            assertArrayEquals("incorrect content",
+                    Arrays.copyOfRange(data, 10000, data.length), content);
+
+            buffer.clear();
+            assertEquals("read past end", -1, (int) channel.read(buffer, data.length).get());
+        }
+    }
+
+    @Test
+    public void writesConcurrentlyWithHandlers() throws Exception {
+        byte[] data = randomBytes(new Random(23), 8 * CHUNK_SIZE);
+        Path local = tempFolder.getRoot().toPath().resolve("async-write");
+
+        WriteHandler handler = new WriteHandler(8);
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(getRemotePath(local),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // write in reverse order so later chunks extend the file first
+            for (int i = 7; i >= 0; i--) {
+                ByteBuffer buffer = ByteBuffer.wrap(data, i * CHUNK_SIZE, CHUNK_SIZE);
+                channel.write(buffer, (long) i * CHUNK_SIZE, buffer, handler);
+            }
+            assertTrue("writes did not complete", handler.latch.await(30, TimeUnit.SECONDS));
+        }
+
+        assertNull("write failed", handler.failure.get());
+        assertArrayEquals("incorrect content", data, Files.readAllBytes(local));
+    }
+
+    @Test
+    public void truncatesFile() throws Exception {
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, randomBytes(new Random(24), 1000));
+
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(getRemotePath(local),
+                StandardOpenOption.WRITE)) {
+            channel.truncate(100);
+            assertEquals("incorrect size", 100, channel.size());
+        }
+        assertEquals("file not truncated", 100, Files.size(local));
+    }
+
+    @Test
+    public void writesInvalidateCachedBlocks() throws Exception {
+        Random random = new Random(26);
+        byte[] data = randomBytes(random, 1000);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+        FileTime mtime = Files.getLastModifiedTime(local);
+
+        SshHostAccessor host = getServer().getHost();
+        host.request().setBlockCacheSize(CHUNK_SIZE);
+        try (SshHostControlSystem hcs = (SshHostControlSystem) host.open()) {
+            Path remote = hcs.getPath(local.toString());
+            assertArrayEquals("incorrect content", data, readAll(remote));
+
+            // same size and modification time, so only invalidation detects the change
+            byte[] changed = randomBytes(random, data.length);
+            try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(remote,
+                    StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(changed), 0).get();
+            }
+            Files.setLastModifiedTime(local, mtime);
+
+            assertArrayEquals("read stale content", changed, readAll(remote));
+            assertTrue("blocks not invalidated",
+                    hcs.getBlockCacheStatistics().getInvalidations() > 0);
+        }
+    }
+
+    @Test
+    public void stalledChannelDoesNotDelayOthers() throws Exception {
+        byte[] data = randomBytes(new Random(27), CHUNK_SIZE);
+        Path stalledFile = tempFolder.newFile().toPath();
+        Path local = tempFolder.newFile().toPath();
+        Files.write(stalledFile, data);
+        Files.write(local, data);
+
+        CountDownLatch released = new CountDownLatch(1);
+        getServer().stallReads(stalledFile, released);
+        try (AsynchronousFileChannel stalled = AsynchronousFileChannel.open(
+                     getRemotePath(stalledFile));
+             AsynchronousFileChannel channel = AsynchronousFileChannel.open(
+                     getRemotePath(local))) {
+            Future<Integer> stalledRead = stalled.read(ByteBuffer.allocate(CHUNK_SIZE), 0);
+
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            int read = channel.read(buffer, 0).get(10, TimeUnit.SECONDS);
+            assertEquals("incorrect read length", CHUNK_SIZE, read);
+            assertArrayEquals("incorrect content", data, buffer.array());
+            assertFalse("stalled read completed", stalledRead.isDone());
+
+            released.countDown();
+            assertEquals("incorrect stalled read length",
+                    CHUNK_SIZE, (int) stalledRead.get(10, TimeUnit.SECONDS));
+        } finally {
+            released.countDown();
+        }
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void failsOperationsAfterClose() throws Exception {
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, randomBytes(new Random(25), 1000));
+
+        AsynchronousFileChannel channel = AsynchronousFileChannel.open(getRemotePath(local));
+        channel.close();
+        channel.read(ByteBuffer.allocate(10), 0).get();
+    }
+
+    private static final class WriteHandler implements CompletionHandler<Integer, ByteBuffer> {
+        private final CountDownLatch latch;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        WriteHandler(int writes) {
+            this.latch = new CountDownLatch(writes);
+        }
+
+        @Override
+        public void completed(Integer result, ByteBuffer buffer) {
+            if (result != CHUNK_SIZE || buffer.hasRemaining()) {
+                failure.compareAndSet(null, new AssertionError("incomplete write"));
+            }
+            latch.countDown();
+        }
+
+        @Override
+        public void failed(Throwable t, ByteBuffer buffer) {
+            failure.compareAndSet(null, t);
+            latch.countDown();
+        }
+    }
+
+    private static byte[] readAll(Path path) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer);
+            }
+            return buffer.array();
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.ssh.internal.SshHostControlSystem;
+
+/**
+ * Tests that random-access reads are served from the block cache.
+ */
+public class BlockCacheTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final int BLOCK_SIZE = 16 * 1024;
+    private static final int CACHE_SIZE = 16 * BLOCK_SIZE;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public BlockCacheTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void servesRepeatedReadsFromCache() throws IOException {
+        byte[] data = randomBytes(new Random(12), 64 * BLOCK_SIZE);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (SshHostControlSystem hcs = openCachedHost()) {
+            Path remote = hcs.getPath(local.toString());
+            try (SeekableByteChannel channel = Files.newByteChannel(remote)) {
+                assertRead(data, channel, 5000, 100);
+                assertRead(data, channel, 5050, 100);
+            }
+            try (SeekableByteChannel channel = Files.newByteChannel(remote)) {
+                assertRead(data, channel, 5000, 100);
+                // spans two blocks
+                assertRead(data, channel, BLOCK_SIZE - 10, 20);
+            }
+
+            SshBlockCacheStatistics stats = hcs.getBlockCacheStatistics();
+            assertEquals("incorrect misses", 2, stats.getMisses());
+            assertEquals("incorrect hits", 3, stats.getHits());
+            assertEquals("incorrect cached bytes", 2 * BLOCK_SIZE, stats.getCachedBytes());
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBlocks() throws IOException {
+        byte[] data = randomBytes(new Random(13), 64 * BLOCK_SIZE);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (SshHostControlSystem hcs = openCachedHost()) {
+            Path remote = hcs.getPath(local.toString());
+            try (SeekableByteChannel channel = Files.newByteChannel(remote)) {
+                for (int block = 0; block < 32; block++) {
+                    assertRead(data, channel, block * BLOCK_SIZE, 10);
+                }
+            }
+
+            SshBlockCacheStatistics stats = hcs.getBlockCacheStatistics();
+            assertEquals("incorrect evictions", 16, stats.getEvictions());
+            assertEquals("incorrect invalidations", 0, stats.getInvalidations());
+            assertEquals("incorrect cached bytes", CACHE_SIZE, stats.getCachedBytes());
+        }
+    }
+
+    @Test
+    public void invalidatesChangedFiles() throws IOException {
+        Random random = new Random(14);
+        byte[] data = randomBytes(random, 4 * BLOCK_SIZE);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (SshHostControlSystem hcs = openCachedHost()) {
+            Path remote = hcs.getPath(local.toString());
+            try (SeekableByteChannel channel = Files.newByteChannel(remote)) {
+                assertRead(data, channel, 0, 100);
+            }
+
+            byte[] changed = randomBytes(random, 3 * BLOCK_SIZE);
+            Files.write(local, changed);
+            try (SeekableByteChannel channel = Files.newByteChannel(remote)) {
+                assertRead(changed, channel, 0, 100);
+            }
+
+            SshBlockCacheStatistics stats = hcs.getBlockCacheStatistics();
+            assertEquals("incorrect misses", 2, stats.getMisses());
+            assertTrue("stale block not invalidated", stats.getInvalidations() >= 1);
+            assertEquals("incorrect evictions", 0, stats.getEvictions());
+        }
+    }
+
+    private SshHostControlSystem openCachedHost() throws IOException {
+        SshHostAccessor host = getServer().getHost();
+        host.request().setBlockCacheSize(CACHE_SIZE);
+        host.request().setBlockCacheBlockSize(BLOCK_SIZE);
+        return (SshHostControlSystem) host.open();
+    }
+
+    private static void assertRead(byte[] data, SeekableByteChannel channel, int position,
+            int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        channel.position(position);
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer);
+        }
+        assertArrayEquals("incorrect content at " + position,
+                Arrays.copyOfRange(data, position, position + length),
+                buffer.array());
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+}
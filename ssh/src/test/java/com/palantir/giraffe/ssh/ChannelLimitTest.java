@@ -0,0 +1,105 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.SystemUpgrader;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.ExecutionSystem;
+import com.palantir.giraffe.command.test.ExecutionSystemBaseTest;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.util.MinaSshdChannelLimitExecutionSystemRule;
+
+/**
+ * Tests that SSH systems queue operations when the number of channels is
+ * limited.
+ */
+public class ChannelLimitTest extends ExecutionSystemBaseTest {
+
+    private static final int MAX_CHANNELS = MinaSshdChannelLimitExecutionSystemRule.MAX_CHANNELS;
+    private static final int CONNECTIONS = MinaSshdChannelLimitExecutionSystemRule.CONNECTIONS;
+
+    public ChannelLimitTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void queuesCommandsBeyondLimit() throws IOException, TimeoutException {
+        List<CommandFuture> futures = startSleeps(3 * CONNECTIONS * MAX_CHANNELS);
+        for (CommandFuture future : futures) {
+            assertEquals("incorrect status", 0, waitFor(future));
+        }
+    }
+
+    @Test
+    public void runsCommandsOnAllConnections() throws IOException, TimeoutException {
+        long start = System.nanoTime();
+        List<CommandFuture> futures = startSleeps(CONNECTIONS * MAX_CHANNELS, 2);
+        for (CommandFuture future : futures) {
+            assertEquals("incorrect status", 0, waitFor(future));
+        }
+
+        // on a single connection, the commands would run in two rounds
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        assertTrue("commands did not run in parallel: " + elapsed + "s", elapsed < 4);
+    }
+
+    @Test
+    public void sharesChannelsWithFileSystem() throws IOException, TimeoutException {
+        List<CommandFuture> futures = startSleeps(2 * CONNECTIONS * MAX_CHANNELS);
+
+        ExecutionSystem es = getSystemCommand("true").getExecutionSystem();
+        try (HostControlSystem hcs = SystemUpgrader.upgrade(es)) {
+            String root = getExecutionSystemRule().getTestFilesRoot().toString();
+            Path path = hcs.getFileSystem().getPath(root);
+            assertTrue("test files root is not a directory", Files.isDirectory(path));
+        }
+
+        for (CommandFuture future : futures) {
+            assertEquals("incorrect status", 0, waitFor(future));
+        }
+    }
+
+    private List<CommandFuture> startSleeps(int count) {
+        return startSleeps(count, 1);
+    }
+
+    private List<CommandFuture> startSleeps(int count, int seconds) {
+        List<CommandFuture> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(Commands.executeAsync(getSystemCommand("sleep", seconds)));
+        }
+        return futures;
+    }
+
+    private static int waitFor(CommandFuture future) throws IOException, TimeoutException {
+        return Commands.waitFor(future, 20, TimeUnit.SECONDS).getExitStatus();
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+
+/**
+ * Tests that checksums of remote files are computed correctly.
+ */
+public class ChecksumTest extends EmbeddedSshFileSystemBaseTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public ChecksumTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void computesChecksums() throws IOException {
+        Random random = new Random(3);
+        List<Path> localFiles = new ArrayList<>();
+        List<Path> remoteFiles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            byte[] data = new byte[random.nextInt(64 * 1024)];
+            random.nextBytes(data);
+
+            Path file = tempFolder.newFile("file with spaces " + i).toPath();
+            Files.write(file, data);
+            localFiles.add(file);
+            remoteFiles.add(getRemotePath(file));
+        }
+
+        for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+            Map<Path, HashCode> checksums = MoreFiles.checksums(remoteFiles, algorithm);
+            assertEquals("incorrect number of checksums", remoteFiles.size(), checksums.size());
+            for (int i = 0; i < localFiles.size(); i++) {
+                HashCode expected = digest(localFiles.get(i), algorithm);
+                assertEquals("incorrect " + algorithm + " checksum",
+                        expected, checksums.get(remoteFiles.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void computesEmptyFileChecksum() throws IOException {
+        Path file = tempFolder.newFile().toPath();
+        HashCode checksum = MoreFiles.checksum(getRemotePath(file), ChecksumAlgorithm.SHA_256);
+        assertEquals("incorrect checksum", digest(file, ChecksumAlgorithm.SHA_256), checksum);
+    }
+
+    @Test
+    public void computesDigestWhileCopying() throws IOException {
+        byte[] data = new byte[512 * 1024];
+        new Random(4).nextBytes(data);
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, data);
+        HashCode expected = digest(source, ChecksumAlgorithm.SHA_256);
+
+        for (TransferCompression compression : TransferCompression.values()) {
+            Path remote = tempFolder.getRoot().toPath().resolve(compression + ".remote");
+            Path copy = tempFolder.getRoot().toPath().resolve(compression + ".copy");
+
+            SshHostAccessor host = getServer().getHost();
+            host.request().setTransferCompression(compression);
+            try (HostControlSystem hcs = host.open()) {
+                HashCode uploaded = MoreFiles.copyLargeVerified(source,
+                        hcs.getPath(remote.toString()), ChecksumAlgorithm.SHA_256);
+                assertEquals("incorrect upload digest with " + compression, expected, uploaded);
+
+                HashCode downloaded = MoreFiles.copyLargeVerified(hcs.getPath(remote.toString()),
+                        copy, ChecksumAlgorithm.SHA_256);
+                assertEquals("incorrect download digest with " + compression, expected,
+                        downloaded);
+            }
+            assertEquals("incorrect copy", expected, digest(copy, ChecksumAlgorithm.SHA_256));
+        }
+    }
+
+    @Test
+    public void missingFileThrowsException() throws IOException {
+        Path file = tempFolder.getRoot().toPath().resolve("missing");
+        try {
+            MoreFiles.checksum(getRemotePath(file), ChecksumAlgorithm.MD5);
+            fail("computed checksum of missing file");
+        } catch (NoSuchFileException expected) {
+            // expected
+        }
+    }
+
+    private static HashCode digest(Path file, ChecksumAlgorithm algorithm) throws IOException {
+        MessageDigest digest = algorithm.newMessageDigest();
+        return HashCode.fromBytes(digest.digest(Files.readAllBytes(file)));
+    }
+}
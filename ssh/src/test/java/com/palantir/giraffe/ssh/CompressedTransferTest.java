@@ -0,0 +1,164 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+
+/**
+ * Tests that files transferred with compression are copied correctly and that
+ * compression is used only when it should be.
+ */
+public class CompressedTransferTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final int FILE_SIZE = 2 * 1024 * 1024;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public CompressedTransferTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void copiesCompressibleFile() throws IOException {
+        byte[] data = compressibleData();
+        assertEquals("did not compress", 2, roundTrip(data, TransferCompression.ALWAYS));
+        assertEquals("did not compress", 2, roundTrip(data, TransferCompression.ADAPTIVE));
+    }
+
+    @Test
+    public void copiesIncompressibleFile() throws IOException {
+        byte[] data = new byte[FILE_SIZE];
+        new Random(7).nextBytes(data);
+
+        assertEquals("did not compress", 2, roundTrip(data, TransferCompression.ALWAYS));
+        assertEquals("compressed random data",
+                0, roundTrip(data, TransferCompression.ADAPTIVE));
+    }
+
+    @Test
+    public void copiesEmptyFile() throws IOException {
+        assertEquals("did not compress", 2, roundTrip(new byte[0], TransferCompression.ALWAYS));
+    }
+
+    @Test
+    public void adaptiveSkipsSmallFiles() throws IOException {
+        byte[] data = Arrays.copyOf(compressibleData(), 64 * 1024);
+        assertEquals("compressed small file", 0, roundTrip(data, TransferCompression.ADAPTIVE));
+    }
+
+    @Test
+    public void neverCompresses() throws IOException {
+        byte[] data = compressibleData();
+        assertEquals("compressed with NEVER", 0, roundTrip(data, TransferCompression.NEVER));
+    }
+
+    @Test
+    public void preservesPermissionsAndModifiedTime() throws IOException {
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, new byte[] { 1, 2, 3 });
+
+        Set<PosixFilePermission> perms = PosixFilePermissions.fromString("rwxr-x---");
+        FileTime mtime = FileTime.from(1234567890L, TimeUnit.SECONDS);
+        Files.setPosixFilePermissions(source, perms);
+        Files.setLastModifiedTime(source, mtime);
+
+        Path copy = tempFolder.getRoot().toPath().resolve(source.getFileName() + ".copy");
+
+        SshHostAccessor host = getServer().getHost();
+        host.request().setTransferCompression(TransferCompression.ALWAYS);
+        try (HostControlSystem hcs = host.open()) {
+            Path remote = hcs.getPath(source.toString() + ".remote");
+            MoreFiles.copyLarge(source, remote);
+            assertEquals("incorrect uploaded permissions",
+                    perms, Files.getPosixFilePermissions(remote));
+            assertEquals("incorrect uploaded time", mtime, Files.getLastModifiedTime(remote));
+
+            // change the remote file so the download must restore both attributes
+            Files.setPosixFilePermissions(remote, PosixFilePermissions.fromString("rw-r-----"));
+            FileTime remoteTime = FileTime.from(1300000000L, TimeUnit.SECONDS);
+            Files.setLastModifiedTime(remote, remoteTime);
+
+            MoreFiles.copyLarge(remote, copy);
+            assertEquals("incorrect downloaded permissions",
+                    PosixFilePermissions.fromString("rw-r-----"),
+                    Files.getPosixFilePermissions(copy));
+            assertEquals("incorrect downloaded time", remoteTime, Files.getLastModifiedTime(copy));
+        }
+    }
+
+    private static byte[] compressibleData() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < FILE_SIZE; i++) {
+            text.append("line ").append(i).append(": the quick brown fox\n");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Uploads and downloads {@code data}, checks the result, and returns the
+     * number of transfers that used gzip.
+     */
+    private int roundTrip(byte[] data, TransferCompression compression) throws IOException {
+        int before = countGzipTransfers();
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, data);
+        Path copy = tempFolder.getRoot().toPath().resolve(source.getFileName() + ".copy");
+
+        SshHostAccessor host = getServer().getHost();
+        host.request().setTransferCompression(compression);
+        try (HostControlSystem hcs = host.open()) {
+            Path remote = hcs.getPath(source.toString() + ".remote");
+            MoreFiles.copyLarge(source, remote);
+            MoreFiles.copyLarge(remote, copy);
+        }
+
+        assertArrayEquals("incorrect content with " + compression, data, Files.readAllBytes(copy));
+        return countGzipTransfers() - before;
+    }
+
+    private int countGzipTransfers() {
+        int count = 0;
+        for (String command : getServer().getCommandLines()) {
+            // exclude the availability check
+            if (command.contains("gzip") && !command.contains("command -v")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
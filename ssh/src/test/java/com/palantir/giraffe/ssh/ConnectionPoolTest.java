@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.command.ClosedExecutionSystemException;
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.ExecutionSystem;
+import com.palantir.giraffe.command.test.ExecutionSystemBaseTest;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.util.MinaSshdPooledExecutionSystemRule;
+
+/**
+ * Tests that systems lease connections from a {@link SshConnectionPool}.
+ */
+public class ConnectionPoolTest extends ExecutionSystemBaseTest {
+
+    public ConnectionPoolTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void reusesConnectionsOfClosedSystems() throws IOException, TimeoutException {
+        runAndClose(getRule().openHostControlSystem());
+        SshConnectionPoolStatistics before = getPool().statistics();
+
+        runAndClose(getRule().openHostControlSystem());
+        SshConnectionPoolStatistics after = getPool().statistics();
+
+        assertEquals("incorrect opened connections",
+                before.getOpenedConnections(), after.getOpenedConnections());
+        assertEquals("incorrect leases", before.getLeases() + 1, after.getLeases());
+        assertEquals("incorrect leased connections",
+                before.getLeasedConnections(), after.getLeasedConnections());
+    }
+
+    @Test
+    public void leasesDistinctConnectionsToOpenSystems() throws IOException, TimeoutException {
+        SshConnectionPoolStatistics before = getPool().statistics();
+        try (HostControlSystem first = getRule().openHostControlSystem();
+             HostControlSystem second = getRule().openHostControlSystem()) {
+            SshConnectionPoolStatistics during = getPool().statistics();
+            assertEquals("incorrect leased connections",
+                    before.getLeasedConnections() + 2, during.getLeasedConnections());
+
+            assertEquals("incorrect status", 0, execute(first).getExitStatus());
+            assertEquals("incorrect status", 0, execute(second).getExitStatus());
+        }
+    }
+
+    @Test
+    public void closedSystemsStayClosed() throws IOException, TimeoutException {
+        HostControlSystem hcs = getRule().openHostControlSystem();
+        ExecutionSystem es = hcs.getExecutionSystem();
+        hcs.close();
+
+        assertFalse("execution system is open", es.isOpen());
+        assertFalse("file system is open", hcs.getFileSystem().isOpen());
+        try {
+            execute(hcs);
+            fail("executed command on closed system");
+        } catch (ClosedExecutionSystemException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void evictsIdleConnections() throws IOException, TimeoutException {
+        runAndClose(getRule().openHostControlSystem());
+        getPool().evictIdle();
+
+        assertEquals("incorrect idle connections", 0, getPool().statistics().getIdleConnections());
+    }
+
+    private MinaSshdPooledExecutionSystemRule getRule() {
+        return (MinaSshdPooledExecutionSystemRule) getExecutionSystemRule();
+    }
+
+    private SshConnectionPool getPool() {
+        return getRule().getConnectionPool();
+    }
+
+    private static void runAndClose(HostControlSystem hcs) throws IOException, TimeoutException {
+        try (HostControlSystem system = hcs) {
+            assertEquals("incorrect status", 0, execute(system).getExitStatus());
+        }
+    }
+
+    private static CommandResult execute(HostControlSystem hcs)
+            throws IOException, TimeoutException {
+        Command command = hcs.getExecutionSystem().getCommandBuilder("true").build();
+        return Commands.execute(command, 10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+
+/**
+ * Tests creation of directories and their parents on SSH hosts.
+ */
+public class CreateDirectoriesTest extends EmbeddedSshFileSystemBaseTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public CreateDirectoriesTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void createsParentsWithPermissions() throws IOException {
+        Path local = tempFolder.getRoot().toPath();
+        Set<PosixFilePermission> existingPerms = Files.getPosixFilePermissions(local);
+        Set<PosixFilePermission> perms = PosixFilePermissions.fromString("rwx--x---");
+
+        Path leaf = getRemotePath(local).resolve("a/b c/d");
+        assertEquals("incorrect path", leaf, MoreFiles.createDirectories(leaf,
+                PosixFilePermissions.asFileAttribute(perms)));
+
+        for (Path dir : new Path[] { local.resolve("a"), local.resolve("a/b c"),
+                local.resolve("a/b c/d") }) {
+            assertTrue(dir + " is not a directory", Files.isDirectory(dir));
+            assertEquals("incorrect permissions", perms, Files.getPosixFilePermissions(dir));
+        }
+        assertEquals("existing parent changed", existingPerms,
+                Files.getPosixFilePermissions(local));
+    }
+
+    @Test
+    public void defaultPermissions() throws IOException {
+        Path local = tempFolder.getRoot().toPath().resolve("a/b");
+        MoreFiles.createDirectories(getRemotePath(local));
+
+        assertEquals("incorrect permissions", PosixFilePermissions.fromString("rwxr-xr-x"),
+                Files.getPosixFilePermissions(local));
+    }
+
+    @Test
+    public void existingDirectorySucceeds() throws IOException {
+        Path local = tempFolder.newFolder("exists").toPath();
+        MoreFiles.createDirectories(getRemotePath(local));
+        assertTrue("directory does not exist", Files.isDirectory(local));
+    }
+
+    @Test(expected = FileAlreadyExistsException.class)
+    public void existingFileThrows() throws IOException {
+        Path local = tempFolder.newFile("file").toPath();
+        MoreFiles.createDirectories(getRemotePath(local));
+    }
+}
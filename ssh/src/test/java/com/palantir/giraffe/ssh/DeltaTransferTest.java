@@ -0,0 +1,204 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.hash.HashCode;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+
+/**
+ * Tests that files updated with delta transfers are copied correctly and keep
+ * the attributes of the source.
+ */
+public class DeltaTransferTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final int FILE_SIZE = 3 * 1024 * 1024;
+
+    private static final Set<PosixFilePermission> SOURCE_PERMS =
+            PosixFilePermissions.fromString("rwxr-x---");
+    private static final FileTime SOURCE_TIME = FileTime.from(1234567890L, TimeUnit.SECONDS);
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public DeltaTransferTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void uploadsChangedFile() throws IOException {
+        Random random = new Random(5);
+        byte[] original = randomBytes(random, FILE_SIZE);
+        byte[] modified = modify(original, random);
+
+        Path local = tempFolder.newFile().toPath();
+        Path remoteCopy = tempFolder.getRoot().toPath().resolve(local.getFileName() + ".remote");
+        Files.write(local, modified);
+        Files.write(remoteCopy, original);
+        setSourceAttributes(local);
+
+        int start = getServer().getCommandLines().size();
+        try (HostControlSystem hcs = openDeltaHost()) {
+            HashCode digest = MoreFiles.copyLarge(local, hcs.getPath(remoteCopy.toString()),
+                    ChecksumAlgorithm.MD5);
+            assertEquals("incorrect digest", md5(modified), digest);
+        }
+        assertDeltaTransfer(commandsSince(start));
+        assertUpdated(modified, remoteCopy);
+        assertSourceAttributes(remoteCopy);
+    }
+
+    @Test
+    public void downloadsChangedFile() throws IOException {
+        Random random = new Random(6);
+        byte[] original = randomBytes(random, FILE_SIZE);
+        byte[] modified = modify(original, random);
+
+        Path local = tempFolder.newFile().toPath();
+        Path remoteCopy = tempFolder.getRoot().toPath().resolve(local.getFileName() + ".remote");
+        Files.write(local, original);
+        Files.write(remoteCopy, modified);
+        setSourceAttributes(remoteCopy);
+
+        int start = getServer().getCommandLines().size();
+        try (HostControlSystem hcs = openDeltaHost()) {
+            HashCode digest = MoreFiles.copyLarge(hcs.getPath(remoteCopy.toString()), local,
+                    ChecksumAlgorithm.MD5);
+            assertEquals("incorrect digest", md5(modified), digest);
+        }
+        assertDeltaTransfer(commandsSince(start));
+        assertUpdated(modified, local);
+        assertSourceAttributes(local);
+    }
+
+    @Test
+    public void replacesUnrelatedFile() throws IOException {
+        Random random = new Random(7);
+        byte[] data = randomBytes(random, FILE_SIZE);
+
+        Path local = tempFolder.newFile().toPath();
+        Path remoteCopy = tempFolder.getRoot().toPath().resolve(local.getFileName() + ".remote");
+        Files.write(local, data);
+        Files.write(remoteCopy, randomBytes(random, FILE_SIZE));
+
+        int start = getServer().getCommandLines().size();
+        try (HostControlSystem hcs = openDeltaHost()) {
+            MoreFiles.copyLarge(local, hcs.getPath(remoteCopy.toString()));
+        }
+        assertTrue("did not fall back to a full copy", containsFullCopy(commandsSince(start)));
+        assertUpdated(data, remoteCopy);
+    }
+
+    private HostControlSystem openDeltaHost() throws IOException {
+        SshHostAccessor host = getServer().getHost();
+        host.request().setDeltaTransfer(true);
+        return host.open();
+    }
+
+    private List<String> commandsSince(int start) {
+        List<String> commands = getServer().getCommandLines();
+        return commands.subList(start, commands.size());
+    }
+
+    /**
+     * Checks that the commands computed block signatures and did not copy the
+     * whole file with scp or gzip.
+     */
+    private static void assertDeltaTransfer(List<String> commands) {
+        boolean signatures = false;
+        for (String command : commands) {
+            signatures |= command.contains("--filter=md5sum");
+        }
+        assertTrue("did not compute signatures: " + commands, signatures);
+        assertFalse("copied the whole file: " + commands, containsFullCopy(commands));
+    }
+
+    private static boolean containsFullCopy(List<String> commands) {
+        for (String command : commands) {
+            if (command.startsWith("scp ") || command.contains("gzip -")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void setSourceAttributes(Path source) throws IOException {
+        Files.setPosixFilePermissions(source, SOURCE_PERMS);
+        Files.setLastModifiedTime(source, SOURCE_TIME);
+    }
+
+    private static void assertSourceAttributes(Path target) throws IOException {
+        assertEquals("incorrect permissions", SOURCE_PERMS, Files.getPosixFilePermissions(target));
+        assertEquals("incorrect modified time", SOURCE_TIME, Files.getLastModifiedTime(target));
+    }
+
+    private static void assertUpdated(byte[] expected, Path file) throws IOException {
+        assertArrayEquals("incorrect content", expected, Files.readAllBytes(file));
+        Path temp = file.resolveSibling(file.getFileName() + ".giraffe-delta");
+        assertFalse("temporary file exists", Files.exists(temp));
+    }
+
+    /**
+     * Inserts data near the start, overwrites data in the middle, and appends
+     * data to the end.
+     */
+    private static byte[] modify(byte[] original, Random random) throws IOException {
+        int insertAt = 100 * 1024 + 17;
+        byte[] changed = Arrays.copyOf(original, original.length);
+        System.arraycopy(randomBytes(random, 5000), 0, changed, original.length / 2, 5000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(changed, 0, insertAt);
+        out.write(randomBytes(random, 1234));
+        out.write(changed, insertAt, changed.length - insertAt);
+        out.write(randomBytes(random, 70000));
+        return out.toByteArray();
+    }
+
+    private static HashCode md5(byte[] data) {
+        return HashCode.fromBytes(ChecksumAlgorithm.MD5.newMessageDigest().digest(data));
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+}
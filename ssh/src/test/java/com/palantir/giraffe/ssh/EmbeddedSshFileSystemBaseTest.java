@@ -0,0 +1,46 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import java.nio.file.Path;
+
+import com.palantir.giraffe.file.test.FileSystemBaseTest;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.ssh.util.MinaSshdFileSystemRule;
+import com.palantir.giraffe.ssh.util.MinaTestServer;
+
+/**
+ * Base class for SSH tests that need the embedded server. Run subclasses as
+ * part of {@link com.palantir.giraffe.ssh.suite.EmbeddedSshFileSystemSuite}.
+ */
+public class EmbeddedSshFileSystemBaseTest extends FileSystemBaseTest {
+
+    protected EmbeddedSshFileSystemBaseTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    protected MinaTestServer getServer() {
+        return ((MinaSshdFileSystemRule) getFileSystemRule()).getServer();
+    }
+
+    /**
+     * Returns the SSH path for a file that the test created on the local file
+     * system. The embedded server shares the local file system.
+     */
+    protected Path getRemotePath(Path localPath) {
+        return getPath(localPath.toString());
+    }
+}
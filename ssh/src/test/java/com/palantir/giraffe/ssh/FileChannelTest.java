@@ -0,0 +1,166 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+
+/**
+ * Tests file channels on SSH paths.
+ */
+public class FileChannelTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final int SIZE = 1024 * 1024 + 12345;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public FileChannelTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void positionalReadsDoNotMovePosition() throws IOException {
+        byte[] data = randomBytes(new Random(31), SIZE);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        try (FileChannel channel = FileChannel.open(getRemotePath(local))) {
+            channel.position(100);
+
+            ByteBuffer buffer = ByteBuffer.allocate(50000);
+            fill(channel, buffer, 500000);
+            assertArrayEquals("incorrect content",
+                    Arrays.copyOfRange(data, 500000, 550000), buffer.array());
+            assertEquals("position changed", 100, channel.position());
+
+            buffer = ByteBuffer.allocate(10);
+            channel.read(buffer);
+            assertArrayEquals("incorrect content at position",
+                    Arrays.copyOfRange(data, 100, 110), buffer.array());
+        }
+    }
+
+    @Test
+    public void positionalWritesDoNotMovePosition() throws IOException {
+        byte[] data = randomBytes(new Random(32), 1000);
+        Path local = tempFolder.newFile().toPath();
+        Files.write(local, data);
+
+        byte[] update = randomBytes(new Random(33), 100);
+        Path remote = getRemotePath(local);
+        try (FileChannel channel = FileChannel.open(remote, StandardOpenOption.WRITE)) {
+            assertEquals("incorrect write", 100, channel.write(ByteBuffer.wrap(update), 950));
+            assertEquals("position changed", 0, channel.position());
+        }
+
+        byte[] expected = Arrays.copyOf(data, 1050);
+        System.arraycopy(update, 0, expected, 950, update.length);
+        assertArrayEquals("incorrect content", expected, Files.readAllBytes(local));
+    }
+
+    @Test
+    public void transfersToLocalChannel() throws IOException {
+        byte[] data = randomBytes(new Random(34), SIZE);
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, data);
+        Path target = tempFolder.newFile().toPath();
+
+        try (FileChannel in = FileChannel.open(getRemotePath(source));
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            long transferred = in.transferTo(10, SIZE, out);
+            assertEquals("incorrect transfer size", SIZE - 10, transferred);
+            assertEquals("source position changed", 0, in.position());
+        }
+        assertArrayEquals("incorrect content",
+                Arrays.copyOfRange(data, 10, SIZE), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void transfersFromLocalChannel() throws IOException {
+        byte[] data = randomBytes(new Random(35), SIZE);
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, data);
+        Path target = tempFolder.getRoot().toPath().resolve("transfer-target");
+
+        try (FileChannel in = FileChannel.open(source);
+             FileChannel out = FileChannel.open(getRemotePath(target),
+                     StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long transferred = out.transferFrom(in, 0, SIZE);
+            assertEquals("incorrect transfer size", SIZE, transferred);
+            assertEquals("target position changed", 0, out.position());
+            assertEquals("incorrect target size", SIZE, out.size());
+        }
+        assertArrayEquals("incorrect content", data, Files.readAllBytes(target));
+    }
+
+    @Test(expected = NonReadableChannelException.class)
+    public void transferToRequiresRead() throws IOException {
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, randomBytes(new Random(36), 100));
+        Path target = tempFolder.newFile().toPath();
+
+        try (FileChannel in = FileChannel.open(getRemotePath(source), StandardOpenOption.WRITE);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            in.transferTo(0, 100, out);
+        }
+    }
+
+    @Test(expected = NonWritableChannelException.class)
+    public void transferFromRequiresWrite() throws IOException {
+        Path source = tempFolder.newFile().toPath();
+        Files.write(source, randomBytes(new Random(37), 100));
+        Path target = tempFolder.newFile().toPath();
+
+        try (FileChannel in = FileChannel.open(source);
+             FileChannel out = FileChannel.open(getRemotePath(target))) {
+            out.transferFrom(in, 0, 100);
+        }
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.FileFollower;
+import com.palantir.giraffe.file.FollowListener;
+import com.palantir.giraffe.file.FollowOptions;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+
+/**
+ * Tests that remote files are followed through an open channel.
+ */
+public class FollowTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final String ROTATE = "<rotate>";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public FollowTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void followsRemoteFile() throws IOException, InterruptedException {
+        Path local = tempFolder.newFile("app.log").toPath();
+        Path remote = getRemotePath(local);
+
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String line = "line " + i + " of the remote application log";
+            content.append(line).append('\n');
+            expected.add(line);
+        }
+
+        FollowOptions options = FollowOptions.builder()
+                .pollInterval(10, 100, TimeUnit.MILLISECONDS)
+                .build();
+        QueueListener listener = new QueueListener();
+        try (FileFollower follower = FileFollower.create(1)) {
+            follower.follow(remote, options, listener);
+
+            append(local, content.toString());
+            assertEquals("incorrect lines", expected, listener.take(expected.size()));
+
+            // the embedded server reads handle attributes by path, so test
+            // copy-and-truncate rotation instead of rename rotation
+            Files.write(local, "truncated\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals("incorrect events",
+                    Arrays.asList(ROTATE, "truncated"),
+                    listener.take(2));
+        }
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static final class QueueListener implements FollowListener {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onLines(Path file, List<String> lines) {
+            events.addAll(lines);
+        }
+
+        @Override
+        public void onRotate(Path file) {
+            events.add(ROTATE);
+        }
+
+        @Override
+        public void onError(Path file, Exception e) {
+            events.add("<error: " + e + ">");
+        }
+
+        List<String> take(int count) throws InterruptedException {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = events.poll(10, TimeUnit.SECONDS);
+                if (event == null) {
+                    break;
+                }
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}
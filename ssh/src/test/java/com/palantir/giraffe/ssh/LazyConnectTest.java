@@ -0,0 +1,110 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.test.ExecutionSystemBaseTest;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+import com.palantir.giraffe.host.Host;
+import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.util.MinaSshdLazyExecutionSystemRule;
+import com.palantir.giraffe.ssh.util.MinaTestServer;
+
+/**
+ * Tests that lazy systems connect on first use.
+ */
+public class LazyConnectTest extends ExecutionSystemBaseTest {
+
+    private static final int CONNECTIONS = MinaSshdLazyExecutionSystemRule.CONNECTIONS;
+
+    public LazyConnectTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void connectsOnceOnFirstUse() throws IOException, TimeoutException {
+        MinaTestServer server = getRule().getServer();
+        int before = server.getAuthentications();
+
+        try (HostControlSystem hcs = getRule().openHostControlSystem()) {
+            assertEquals("connected before first use", before, server.getAuthentications());
+
+            List<CommandFuture> futures = new ArrayList<>();
+            for (int i = 0; i < 4 * CONNECTIONS; i++) {
+                futures.add(Commands.executeAsync(getTrue(hcs)));
+            }
+            for (CommandFuture future : futures) {
+                int status = Commands.waitFor(future, 10, TimeUnit.SECONDS).getExitStatus();
+                assertEquals("incorrect status", 0, status);
+            }
+
+            int connects = server.getAuthentications() - before;
+            assertEquals("incorrect number of connections", CONNECTIONS, connects);
+        }
+    }
+
+    @Test
+    public void failsOnFirstUse() throws IOException, TimeoutException {
+        int port;
+        try (ServerSocket ss = new ServerSocket(0)) {
+            port = ss.getLocalPort();
+        }
+
+        SshCredential credential = PasswordSshCredential.of("giraffe", "giraffe");
+        SshHostAccessor host = SshHostAccessor.forCredential(Host.localhost(), port, credential);
+        host.request().setLazyConnect(true);
+
+        try (HostControlSystem hcs = host.open()) {
+            try {
+                Commands.execute(getTrue(hcs), 10, TimeUnit.SECONDS);
+                fail("executed command without a connection");
+            } catch (IOException expected) {
+                // expected
+            }
+
+            try {
+                Files.readAttributes(hcs.getPath("/"), BasicFileAttributes.class);
+                fail("read attributes without a connection");
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    private MinaSshdLazyExecutionSystemRule getRule() {
+        return (MinaSshdLazyExecutionSystemRule) getExecutionSystemRule();
+    }
+
+    private static Command getTrue(HostControlSystem hcs) {
+        return hcs.getExecutionSystem().getCommandBuilder("true").build();
+    }
+}
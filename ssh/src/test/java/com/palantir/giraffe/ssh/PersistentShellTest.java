@@ -0,0 +1,104 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.command.Command;
+import com.palantir.giraffe.command.CommandContext;
+import com.palantir.giraffe.command.CommandFuture;
+import com.palantir.giraffe.command.CommandResult;
+import com.palantir.giraffe.command.Commands;
+import com.palantir.giraffe.command.test.ExecutionSystemBaseTest;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+import com.palantir.giraffe.ssh.util.MinaSshdExecutionSystemRule;
+import com.palantir.giraffe.ssh.util.MinaTestServer;
+
+/**
+ * Tests that commands that discard input run in persistent shells. Run as
+ * part of {@link com.palantir.giraffe.ssh.suite.EmbeddedSshShellExecutionSystemSuite}.
+ */
+public class PersistentShellTest extends ExecutionSystemBaseTest {
+
+    private static final CommandContext NO_INPUT = CommandContext.builder()
+            .ignoreExitStatus()
+            .discardInput()
+            .build();
+
+    public PersistentShellTest(ExecutionSystemTestRule esRule) {
+        super(esRule);
+    }
+
+    @Test
+    public void reusesShellsForCommandsWithoutInput() throws IOException {
+        execute(getSystemCommand("true"));
+
+        int commands = getServer().getCommands();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("incorrect output", i + "\n",
+                    execute(getSystemCommand("echo", i)).getStdOut());
+        }
+        assertEquals("commands did not use a shell", commands, getServer().getCommands());
+    }
+
+    @Test
+    public void commandsWithInputUseNewChannel() throws IOException, TimeoutException {
+        int commands = getServer().getCommands();
+
+        CommandFuture future = Commands.executeAsync(getSystemCommand("head", "-c", 5));
+        future.getStdIn().write("input".getBytes());
+        future.getStdIn().flush();
+
+        CommandResult result = Commands.waitFor(future, 10, TimeUnit.SECONDS);
+        assertEquals("incorrect output", "input", result.getStdOut());
+        assertEquals("command did not open a channel", commands + 1, getServer().getCommands());
+    }
+
+    @Test
+    public void shellStateDoesNotLeak() throws IOException {
+        String pwd = execute(getSystemCommand("pwd")).getStdOut();
+        int commands = getServer().getCommands();
+
+        String script = "cd /; export GIRAFFE_LEAK=leaked; exit 3";
+        assertEquals("incorrect exit status", 3,
+                execute(getSystemCommand("sh", "-c", script)).getExitStatus());
+
+        // builtins run in the command's subshell, not in the shell itself
+        execute(getSystemCommand("cd", "/"));
+        execute(getSystemCommand("export", "GIRAFFE_LEAK=leaked"));
+        assertEquals("incorrect exit status", 4,
+                execute(getSystemCommand("exit", 4)).getExitStatus());
+
+        assertEquals("working directory leaked", pwd, execute(getSystemCommand("pwd")).getStdOut());
+        CommandResult env = execute(getSystemCommand("sh", "-c", "echo ${GIRAFFE_LEAK:-unset}"));
+        assertEquals("environment leaked", "unset\n", env.getStdOut());
+        assertEquals("shell did not survive", commands, getServer().getCommands());
+    }
+
+    private static CommandResult execute(Command command) throws IOException {
+        return Commands.execute(command, NO_INPUT);
+    }
+
+    private MinaTestServer getServer() {
+        return ((MinaSshdExecutionSystemRule) getExecutionSystemRule()).getServer();
+    }
+}
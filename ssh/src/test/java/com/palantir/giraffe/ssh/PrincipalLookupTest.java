@@ -0,0 +1,168 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.attribute.UserPrincipalNotFoundException;
+import java.util.Arrays;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Optional;
+import com.palantir.giraffe.file.base.attribute.GroupIdPrincipal;
+import com.palantir.giraffe.file.base.attribute.UserIdPrincipal;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+
+/**
+ * Tests resolution of user and group names on SSH hosts.
+ */
+public class PrincipalLookupTest extends EmbeddedSshFileSystemBaseTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public PrincipalLookupTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void resolvesUserNames() throws IOException {
+        UserPrincipalLookupService lookup = getLookupService();
+
+        UserIdPrincipal root = (UserIdPrincipal) lookup.lookupPrincipalByName("root");
+        assertEquals("incorrect uid", 0, root.getUid());
+        assertEquals("incorrect name", Optional.of("root"), root.getUserName());
+
+        UserIdPrincipal byId = (UserIdPrincipal) lookup.lookupPrincipalByName("0");
+        assertEquals("incorrect principal", root, byId);
+        assertEquals("incorrect name", Optional.of("root"), byId.getUserName());
+    }
+
+    @Test
+    public void resolvesGroupNames() throws IOException {
+        UserPrincipalLookupService lookup = getLookupService();
+
+        GroupIdPrincipal root = (GroupIdPrincipal) lookup.lookupPrincipalByGroupName("root");
+        assertEquals("incorrect gid", 0, root.getGid());
+        assertEquals("incorrect name", Optional.of("root"), root.getGroupName());
+    }
+
+    @Test(expected = UserPrincipalNotFoundException.class)
+    public void unknownUserNameThrows() throws IOException {
+        getLookupService().lookupPrincipalByName("giraffe-no-such-user");
+    }
+
+    @Test
+    public void queriesEntriesMissingFromEnumeration() throws IOException {
+        // the stand-in getent knows entries that enumeration does not list,
+        // like some LDAP configurations, and passes other calls to getent
+        Path bin = tempFolder.newFolder().toPath();
+        Path getent = bin.resolve("getent");
+        Files.write(getent, Arrays.asList(
+                "#!/bin/sh",
+                "case \"$1 $2\" in",
+                "    'passwd giraffe-nss-user'|'passwd 54321')",
+                "        echo 'giraffe-nss-user:x:54321:54321::/:/bin/sh'; exit 0 ;;",
+                "    'group giraffe-nss-group'|'group 54322')",
+                "        echo 'giraffe-nss-group:x:54322:'; exit 0 ;;",
+                "esac",
+                "PATH=${PATH#*:} exec getent \"$@\""), StandardCharsets.UTF_8);
+        Files.setPosixFilePermissions(getent, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        getServer().setCommandPath(bin);
+        try {
+            UserPrincipalLookupService lookup = getLookupService();
+            UserIdPrincipal user = (UserIdPrincipal) lookup.lookupPrincipalByName(
+                    "giraffe-nss-user");
+            assertEquals("incorrect uid", 54321, user.getUid());
+
+            UserIdPrincipal byId = (UserIdPrincipal) lookup.lookupPrincipalByName("54321");
+            assertEquals("incorrect name", Optional.of("giraffe-nss-user"), byId.getUserName());
+
+            GroupIdPrincipal group = (GroupIdPrincipal) lookup.lookupPrincipalByGroupName(
+                    "giraffe-nss-group");
+            assertEquals("incorrect gid", 54322, group.getGid());
+
+            GroupIdPrincipal byGid = (GroupIdPrincipal) lookup.lookupPrincipalByGroupName("54322");
+            assertEquals("incorrect name", Optional.of("giraffe-nss-group"), byGid.getGroupName());
+
+            // repeated lookups in either direction use the cached results
+            lookup.lookupPrincipalByName("giraffe-nss-user");
+            lookup.lookupPrincipalByGroupName("54322");
+            assertEquals("incorrect query count", 2, countQueries());
+        } finally {
+            getServer().setCommandPath(null);
+        }
+    }
+
+    @Test
+    public void setsOwnerAndGroupByName() throws IOException {
+        Path local = tempFolder.newFile().toPath();
+        PosixFileAttributes localAttrs = Files.readAttributes(local, PosixFileAttributes.class);
+        Path remote = getRemotePath(local);
+
+        // changing to the current owner and group is allowed for any user
+        UserPrincipalLookupService lookup = getLookupService();
+        UserIdPrincipal owner = (UserIdPrincipal) lookup.lookupPrincipalByName(
+                localAttrs.owner().getName());
+        Files.setOwner(remote, owner);
+        assertEquals("incorrect uid", owner.getUid(), Files.getAttribute(local, "unix:uid"));
+
+        GroupPrincipal group = lookup.lookupPrincipalByGroupName(localAttrs.group().getName());
+        Files.getFileAttributeView(remote, PosixFileAttributeView.class).setGroup(group);
+        assertEquals("incorrect gid", ((GroupIdPrincipal) group).getGid(),
+                Files.getAttribute(local, "unix:gid"));
+    }
+
+    @Test
+    public void attributesIncludeOwnerNames() throws IOException {
+        Path local = tempFolder.newFile().toPath();
+        Assume.assumeTrue("root-owned files have unknown owners",
+                !Files.getAttribute(local, "unix:uid").equals(0));
+
+        UserIdPrincipal owner = (UserIdPrincipal) Files.getOwner(getRemotePath(local));
+        assertEquals("incorrect name", Optional.of(Files.getOwner(local).getName()),
+                owner.getUserName());
+    }
+
+    private int countQueries() {
+        int count = 0;
+        for (String command : getServer().getCommandLines()) {
+            if (command.contains("giraffe-nss-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private UserPrincipalLookupService getLookupService() {
+        return getFileSystemRule().getTestFilesRoot().getFileSystem()
+                .getUserPrincipalLookupService();
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.io.ByteStreams;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.util.MinaTestServer;
+
+/**
+ * Measures handshake time and bulk transfer throughput for each
+ * {@link SshAlgorithms} preset against the embedded SSH server.
+ * <p>
+ * This is not run as part of the test suite. Run the {@code main} method with
+ * optional arguments for the number of handshakes and the transfer size in
+ * megabytes.
+ */
+public final class SshAlgorithmsBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int TRANSFER_ITERATIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int handshakes = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int transferMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        Map<String, SshAlgorithms> presets = new LinkedHashMap<>();
+        presets.put("default", SshAlgorithms.defaults());
+        presets.put("throughput", SshAlgorithms.throughput());
+        presets.put("fast-handshake", SshAlgorithms.fastHandshake());
+
+        Path workingDir = Files.createTempDirectory("giraffe-benchmark");
+        MinaTestServer server = new MinaTestServer(workingDir);
+        server.start();
+        try {
+            Path data = createData(workingDir, transferMegabytes);
+            for (Map.Entry<String, SshAlgorithms> e : presets.entrySet()) {
+                double handshakeMillis = measureHandshake(server, e.getValue(), handshakes);
+                double megabytesPerSecond = measureTransfer(server, e.getValue(), data);
+                System.out.printf("%-16s handshake = %7.2f ms, throughput = %7.2f MB/s%n",
+                        e.getKey(), handshakeMillis, megabytesPerSecond);
+            }
+        } finally {
+            server.stop();
+            MoreFiles.deleteRecursive(workingDir);
+        }
+    }
+
+    private static Path createData(Path dir, int megabytes) throws IOException {
+        Path data = dir.resolve("data");
+        byte[] block = new byte[1024 * 1024];
+        try (OutputStream out = Files.newOutputStream(data)) {
+            for (int i = 0; i < megabytes; i++) {
+                // vary the content so compression does not skew results
+                for (int j = 0; j < block.length; j++) {
+                    block[j] = (byte) (i * 31 + j * 17 + (j >> 8));
+                }
+                out.write(block);
+            }
+        }
+        return data;
+    }
+
+    private static double measureHandshake(MinaTestServer server, SshAlgorithms algorithms,
+            int handshakes) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            open(server, algorithms).close();
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        for (int i = 0; i < handshakes; i++) {
+            open(server, algorithms).close();
+        }
+        return (double) stopwatch.elapsed(TimeUnit.MICROSECONDS) / handshakes / 1000;
+    }
+
+    private static double measureTransfer(MinaTestServer server, SshAlgorithms algorithms,
+            Path data) throws IOException {
+        try (HostControlSystem hcs = open(server, algorithms)) {
+            Path remoteData = hcs.getPath(data.toString());
+            Files.copy(remoteData, ByteStreams.nullOutputStream());
+
+            long bytes = 0;
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            for (int i = 0; i < TRANSFER_ITERATIONS; i++) {
+                bytes += Files.copy(remoteData, ByteStreams.nullOutputStream());
+            }
+            double seconds = stopwatch.elapsed(TimeUnit.MICROSECONDS) / 1e6;
+            return bytes / (1024.0 * 1024.0) / seconds;
+        }
+    }
+
+    private static HostControlSystem open(MinaTestServer server, SshAlgorithms algorithms)
+            throws IOException {
+        SshHostAccessor host = server.getHost();
+        host.request().setAlgorithms(algorithms);
+        return host.open();
+    }
+
+    private SshAlgorithmsBenchmark() {
+        throw new UnsupportedOperationException();
+    }
+}
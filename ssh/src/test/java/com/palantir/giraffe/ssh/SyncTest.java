@@ -0,0 +1,121 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.giraffe.file.ChecksumAlgorithm;
+import com.palantir.giraffe.file.MoreFiles;
+import com.palantir.giraffe.file.SyncOptions;
+import com.palantir.giraffe.file.SyncReport;
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+
+/**
+ * Tests that directories are synchronized between local and remote systems.
+ */
+public class SyncTest extends EmbeddedSshFileSystemBaseTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public SyncTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void syncsToAndFromRemote() throws IOException {
+        Random random = new Random(11);
+        Path source = tempFolder.newFolder("source").toPath();
+        Files.createDirectory(source.resolve("dir"));
+        write(source.resolve("a"), random);
+        byte[] b = write(source.resolve("dir").resolve("b"), random);
+
+        Path remote = getRemotePath(tempFolder.getRoot().toPath().resolve("remote"));
+        SyncOptions options = SyncOptions.builder()
+                .compareChecksums(ChecksumAlgorithm.SHA_1)
+                .deleteExtraneous()
+                .parallelism(2)
+                .build();
+
+        SyncReport report = MoreFiles.sync(source, remote, options);
+        assertEquals("incorrect created files", 2, report.getCreatedFiles().size());
+
+        Files.delete(source.resolve("a"));
+        byte[] c = write(source.resolve("c"), random);
+        report = MoreFiles.sync(source, remote, options);
+        assertEquals("incorrect created files",
+                Collections.singletonList(remote.resolve("c")),
+                report.getCreatedFiles());
+        assertEquals("incorrect deleted paths",
+                Collections.singletonList(remote.resolve("a")),
+                report.getDeletedPaths());
+        assertEquals("incorrect unchanged count", 1, report.getUnchangedFileCount());
+
+        Path copy = tempFolder.getRoot().toPath().resolve("copy");
+        report = MoreFiles.sync(remote, copy);
+        assertEquals("incorrect created files",
+                ImmutableSet.of(copy.resolve("c"), copy.resolve("dir").resolve("b")),
+                ImmutableSet.copyOf(report.getCreatedFiles()));
+        assertArrayEquals("incorrect content", b,
+                Files.readAllBytes(copy.resolve("dir").resolve("b")));
+        assertArrayEquals("incorrect content", c, Files.readAllBytes(copy.resolve("c")));
+
+        report = MoreFiles.sync(remote, copy);
+        assertFalse("unexpected changes: " + report, report.hasChanges());
+        assertFalse("deleted file exists", Files.exists(copy.resolve("a")));
+    }
+
+    @Test
+    public void createsNestedDirectoriesOnRemote() throws IOException {
+        Path source = tempFolder.newFolder("source").toPath();
+        Files.createDirectories(source.resolve("a").resolve("b").resolve("c"));
+        Files.createDirectories(source.resolve("a").resolve("d"));
+        write(source.resolve("a").resolve("b").resolve("file"), new Random(12));
+
+        Path remote = getRemotePath(tempFolder.getRoot().toPath().resolve("remote"));
+        SyncReport report = MoreFiles.sync(source, remote);
+        Path a = remote.resolve("a");
+        assertEquals("incorrect created directories",
+                ImmutableSet.of(remote, a, a.resolve("b"), a.resolve("b").resolve("c"),
+                        a.resolve("d")),
+                ImmutableSet.copyOf(report.getCreatedDirectories()));
+        for (Path dir : report.getCreatedDirectories()) {
+            assertTrue("missing directory " + dir, Files.isDirectory(dir));
+        }
+        assertTrue("missing file", Files.isRegularFile(a.resolve("b").resolve("file")));
+    }
+
+    private static byte[] write(Path file, Random random) throws IOException {
+        byte[] data = new byte[4096];
+        random.nextBytes(data);
+        Files.write(file, data);
+        return data;
+    }
+}
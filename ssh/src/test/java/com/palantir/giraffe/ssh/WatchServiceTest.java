@@ -0,0 +1,220 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.host.HostControlSystem;
+
+/**
+ * Tests watch services on SSH file systems.
+ */
+public class WatchServiceTest extends EmbeddedSshFileSystemBaseTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    public WatchServiceTest(FileSystemTestRule fsRule) {
+        super(fsRule);
+    }
+
+    @Test
+    public void reportsCreateModifyAndDelete() throws Exception {
+        Path local = tempFolder.newFolder().toPath();
+
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            Path dir = hcs.getPath(local.toString());
+            WatchKey key = dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+            Path file = local.resolve("file.txt");
+            Files.write(file, "created".getBytes());
+            assertEvent(watcher, key, StandardWatchEventKinds.ENTRY_CREATE, "file.txt");
+
+            Files.write(file, " and modified".getBytes(), StandardOpenOption.APPEND);
+            assertEvent(watcher, key, StandardWatchEventKinds.ENTRY_MODIFY, "file.txt");
+
+            Files.delete(file);
+            assertEvent(watcher, key, StandardWatchEventKinds.ENTRY_DELETE, "file.txt");
+        }
+    }
+
+    @Test
+    public void watchesManyDirectories() throws Exception {
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            Path[] locals = new Path[5];
+            WatchKey[] keys = new WatchKey[locals.length];
+            for (int i = 0; i < locals.length; i++) {
+                locals[i] = tempFolder.newFolder().toPath();
+                keys[i] = hcs.getPath(locals[i].toString())
+                        .register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+
+            Files.createFile(locals[3].resolve("new"));
+            WatchKey key = assertEvent(watcher, keys[3],
+                    StandardWatchEventKinds.ENTRY_CREATE, "new");
+            assertEquals("incorrect watchable", hcs.getPath(locals[3].toString()),
+                    key.watchable());
+        }
+    }
+
+    @Test
+    public void ignoresUnregisteredKinds() throws Exception {
+        Path local = tempFolder.newFolder().toPath();
+        Files.createFile(local.resolve("existing"));
+
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            WatchKey key = hcs.getPath(local.toString())
+                    .register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+
+            Files.delete(local.resolve("existing"));
+            Files.createFile(local.resolve("created"));
+            assertEvent(watcher, key, StandardWatchEventKinds.ENTRY_CREATE, "created");
+            assertTrue("unexpected events", key.pollEvents().isEmpty());
+        }
+    }
+
+    @Test
+    public void invalidatesDeletedDirectory() throws Exception {
+        Path local = tempFolder.newFolder().toPath();
+
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            WatchKey key = hcs.getPath(local.toString())
+                    .register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+
+            Files.delete(local);
+            assertEquals("incorrect key", key, watcher.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertFalse("key is valid", key.isValid());
+        }
+    }
+
+    @Test
+    public void cancelledKeysAreNotSignalled() throws Exception {
+        Path local = tempFolder.newFolder().toPath();
+
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            WatchKey key = hcs.getPath(local.toString())
+                    .register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+            key.cancel();
+            assertFalse("key is valid", key.isValid());
+
+            Files.createFile(local.resolve("ignored"));
+            assertNull("cancelled key signalled", watcher.poll(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void cancelsSomeOfManyDirectories() throws Exception {
+        try (HostControlSystem hcs = openHost();
+             WatchService watcher = hcs.getFileSystem().newWatchService()) {
+            Path[] locals = new Path[12];
+            Set<WatchKey> expected = new HashSet<>();
+            for (int i = 0; i < locals.length; i++) {
+                locals[i] = tempFolder.newFolder().toPath();
+                WatchKey key = hcs.getPath(locals[i].toString())
+                        .register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+                if (i % 2 == 0) {
+                    expected.add(key);
+                } else {
+                    key.cancel();
+                }
+            }
+
+            for (Path local : locals) {
+                Files.createFile(local.resolve("new"));
+            }
+
+            Set<WatchKey> signalled = new HashSet<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadline) {
+                long timeout = signalled.containsAll(expected)
+                        ? TimeUnit.MILLISECONDS.toNanos(500)
+                        : deadline - System.nanoTime();
+                WatchKey key = watcher.poll(timeout, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    break;
+                }
+                key.pollEvents();
+                key.reset();
+                signalled.add(key);
+            }
+            assertEquals("incorrect signalled keys", expected, signalled);
+        }
+    }
+
+    private HostControlSystem openHost() throws IOException {
+        SshHostAccessor host = getServer().getHost();
+        host.request().setWatchPollInterval(100);
+        return host.open();
+    }
+
+    /**
+     * Waits for {@code key} to report an event of the given kind for
+     * {@code name}, ignoring other events, and resets the key.
+     */
+    private static WatchKey assertEvent(WatchService watcher, WatchKey expected, Kind<?> kind,
+            String name) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        Set<String> seen = new HashSet<>();
+        while (System.nanoTime() < deadline) {
+            WatchKey key = watcher.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertNotNull("no event for " + name + ", saw " + seen, key);
+            assertEquals("incorrect key", expected, key);
+
+            boolean found = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                seen.add(event.kind() + " " + event.context());
+                if (event.kind() == kind && event.context().toString().equals(name)) {
+                    found = true;
+                }
+            }
+            key.reset();
+            if (found) {
+                return key;
+            }
+        }
+        throw new AssertionError("no " + kind + " event for " + name + ", saw " + seen);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.palantir.giraffe.ssh.KerberosSshCredential;
+import com.palantir.giraffe.ssh.PasswordSshCredential;
+import com.palantir.giraffe.ssh.PublicKeySshCredential;
+
+/**
+ * Tests that {@link CredentialDigest} identifies credentials by content.
+ */
+public class CredentialDigestTest {
+
+    @Test
+    public void sameContentHasSameDigest() {
+        assertEquals("incorrect password digest",
+                CredentialDigest.of(PasswordSshCredential.of("giraffe", "secret")),
+                CredentialDigest.of(PasswordSshCredential.of("giraffe", "secret")));
+        assertEquals("incorrect key digest",
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key")),
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key")));
+        assertEquals("incorrect kerberos digest",
+                CredentialDigest.of(KerberosSshCredential.of("giraffe")),
+                CredentialDigest.of(KerberosSshCredential.of("giraffe")));
+    }
+
+    @Test
+    public void changedSecretChangesDigest() {
+        assertNotEquals("password change not detected",
+                CredentialDigest.of(PasswordSshCredential.of("giraffe", "secret")),
+                CredentialDigest.of(PasswordSshCredential.of("giraffe", "secret2")));
+        assertNotEquals("key change not detected",
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key")),
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key2")));
+    }
+
+    @Test
+    public void changedUsernameChangesDigest() {
+        assertNotEquals("username change not detected",
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key")),
+                CredentialDigest.of(PublicKeySshCredential.of("okapi", "key")));
+        assertNotEquals("username change not detected",
+                CredentialDigest.of(KerberosSshCredential.of("giraffe")),
+                CredentialDigest.of(KerberosSshCredential.of("okapi")));
+    }
+
+    @Test
+    public void fieldBoundariesDoNotCollide() {
+        assertNotEquals("field boundary collision",
+                CredentialDigest.of(PasswordSshCredential.of("gir", "affe")),
+                CredentialDigest.of(PasswordSshCredential.of("gira", "ffe")));
+    }
+
+    @Test
+    public void typeChangesDigest() {
+        assertNotEquals("type change not detected",
+                CredentialDigest.of(PasswordSshCredential.of("giraffe", "key")),
+                CredentialDigest.of(PublicKeySshCredential.of("giraffe", "key")));
+    }
+
+    @Test
+    public void digestDoesNotContainSecret() {
+        String digest = CredentialDigest.of(PasswordSshCredential.of("giraffe", "secret"));
+        assertFalse("digest contains secret", digest.contains("secret"));
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.AppConfigurationEntry.LoginModuleControlFlag;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.LoginContext;
+import javax.security.auth.login.LoginException;
+
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.palantir.giraffe.ssh.PublicKeySshCredential;
+
+import net.schmizz.sshj.DefaultConfig;
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.userauth.UserAuthException;
+
+/**
+ * Tests that {@link SshConnectionFactory} reuses parsed keys and Kerberos
+ * logins for unchanged credentials.
+ */
+public class SshConnectionFactoryTest {
+
+    private CountingFactory factory;
+    private SSHClient client;
+
+    @Before
+    public void setup() {
+        factory = new CountingFactory();
+        client = new SSHClient(new DefaultConfig());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        client.close();
+    }
+
+    @Test
+    public void reusesParsedKey() throws Exception {
+        String key = generateKey();
+        assertSame("key was parsed again",
+                factory.getKeyProvider(client, PublicKeySshCredential.of("giraffe", key)),
+                factory.getKeyProvider(client, PublicKeySshCredential.of("giraffe", key)));
+    }
+
+    @Test
+    public void changedKeyMissesCache() throws Exception {
+        String key = generateKey();
+        String changedKey = generateKey();
+        assertNotSame("changed key used cached provider",
+                factory.getKeyProvider(client, PublicKeySshCredential.of("giraffe", key)),
+                factory.getKeyProvider(client, PublicKeySshCredential.of("giraffe", changedKey)));
+    }
+
+    @Test
+    public void reusesKerberosLogin() throws Exception {
+        factory.ticketLifetimeMillis = TimeUnit.HOURS.toMillis(1);
+        LoginContext first = factory.getKerberosLogin("giraffe");
+        assertSame("logged in again", first, factory.getKerberosLogin("giraffe"));
+        assertEquals("incorrect number of logins", 1, factory.logins);
+    }
+
+    @Test
+    public void changedPrincipalMissesCache() throws Exception {
+        factory.ticketLifetimeMillis = TimeUnit.HOURS.toMillis(1);
+        LoginContext first = factory.getKerberosLogin("giraffe");
+        assertNotSame("changed principal used cached login",
+                first, factory.getKerberosLogin("okapi"));
+        assertEquals("incorrect number of logins", 2, factory.logins);
+    }
+
+    @Test
+    public void expiringTicketMissesCache() throws Exception {
+        // tickets that expire within the refresh window are not reused
+        factory.ticketLifetimeMillis = TimeUnit.MINUTES.toMillis(1);
+        LoginContext first = factory.getKerberosLogin("giraffe");
+        assertNotSame("used expiring login", first, factory.getKerberosLogin("giraffe"));
+        assertEquals("incorrect number of logins", 2, factory.logins);
+    }
+
+    private static String generateKey() throws NoSuchAlgorithmException, IOException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+
+        StringWriter pem = new StringWriter();
+        try (JcaPEMWriter writer = new JcaPEMWriter(pem)) {
+            writer.writeObject(generator.generateKeyPair().getPrivate());
+        }
+        return pem.toString();
+    }
+
+    /**
+     * Replaces Kerberos login with a fake login that holds a ticket-granting
+     * ticket with a configurable lifetime.
+     */
+    private static final class CountingFactory extends SshConnectionFactory {
+        private long ticketLifetimeMillis;
+        private int logins;
+
+        CountingFactory() {
+            super(new DefaultConfig());
+        }
+
+        @Override
+        LoginContext login(String user) throws UserAuthException {
+            logins++;
+
+            Subject subject = new Subject();
+            subject.getPrivateCredentials().add(newTicket(user));
+            try {
+                return new LoginContext("test", subject, null, new FakeConfiguration());
+            } catch (LoginException e) {
+                throw new UserAuthException(e);
+            }
+        }
+
+        private KerberosTicket newTicket(String user) {
+            long now = System.currentTimeMillis();
+            return new KerberosTicket(
+                    new byte[0],
+                    new KerberosPrincipal(user + "@EXAMPLE.COM"),
+                    new KerberosPrincipal("krbtgt/EXAMPLE.COM@EXAMPLE.COM"),
+                    new byte[16],
+                    17,
+                    null,
+                    new Date(now),
+                    new Date(now),
+                    new Date(now + ticketLifetimeMillis),
+                    null,
+                    null);
+        }
+    }
+
+    private static final class FakeConfiguration extends Configuration {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return new AppConfigurationEntry[] {
+                new AppConfigurationEntry(
+                        "unused",
+                        LoginModuleControlFlag.REQUIRED,
+                        Collections.<String, Object>emptyMap()),
+            };
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.suite;
+
+import java.nio.file.Paths;
+
+import org.junit.ClassRule;
+import org.junit.runner.RunWith;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.Suite.SuiteClasses;
+
+import com.palantir.giraffe.command.test.ExecutionSystemBatchTest;
+import com.palantir.giraffe.command.test.ExecutionSystemIoTest;
+import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
+import com.palantir.giraffe.ssh.ConnectionPoolTest;
+import com.palantir.giraffe.ssh.util.MinaSshdPooledExecutionSystemRule;
+import com.palantir.giraffe.test.runner.SystemSuite;
+import com.palantir.giraffe.test.runner.SystemSuite.Filterable;
+import com.palantir.giraffe.test.runner.SystemSuite.SystemRule;
+
+/**
+ * Test suite for SSH execution systems that lease connections from a pool.
+ */
+@RunWith(SystemSuite.class)
+@SystemRule(ExecutionSystemTestRule.class)
+@SuiteClasses({
+    ExecutionSystemIoTest.class,
+    ExecutionSystemBatchTest.class,
+    ConnectionPoolTest.class
+})
+public class EmbeddedSshConnectionPoolSuite implements Filterable {
+
+    @ClassRule
+    public static final ExecutionSystemTestRule ES_RULE =
+            new MinaSshdPooledExecutionSystemRule(Paths.get("build/system-test-files/exec"));
+
+    @Override
+    public Filter getFilter() {
+        return Filter.ALL;
+    }
+
+}
@@ -23,8 +23,10 @@ import org.junit.runner.manipulation.Filter;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.palantir.giraffe.command.test.ExecutionSystemArgumentsTest;
+import com.palantir.giraffe.command.test.ExecutionSystemBatchTest;
 import com.palantir.giraffe.command.test.ExecutionSystemContextTest;
 import com.palantir.giraffe.command.test.ExecutionSystemIoTest;
+import com.palantir.giraffe.command.test.ExecutionSystemPipelineTest;
 import com.palantir.giraffe.command.test.runner.ExecutionSystemTestRule;
 import com.palantir.giraffe.ssh.ExecutionSystemUpgradeTest;
 import com.palantir.giraffe.ssh.util.MinaSshdExecutionSystemRule;
@@ -43,6 +45,8 @@ import com.palantir.giraffe.test.runner.SystemSuite.SystemRule;
     ExecutionSystemIoTest.class,
     ExecutionSystemArgumentsTest.class,
     ExecutionSystemContextTest.class,
+    ExecutionSystemPipelineTest.class,
+    ExecutionSystemBatchTest.class,
     ExecutionSystemUpgradeTest.class
 })
 public class EmbeddedSshExecutionSystemSuite implements Filterable {
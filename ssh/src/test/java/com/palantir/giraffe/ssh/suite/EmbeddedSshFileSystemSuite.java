@@ -31,7 +31,19 @@ import com.palantir.giraffe.file.test.FileSystemReadAttributesTest;
 import com.palantir.giraffe.file.test.FileSystemSymlinkTest;
 import com.palantir.giraffe.file.test.FileSystemWriteAttributesTest;
 import com.palantir.giraffe.file.test.runner.FileSystemTestRule;
+import com.palantir.giraffe.ssh.AlgorithmPreferenceTest;
+import com.palantir.giraffe.ssh.AsyncFileChannelTest;
+import com.palantir.giraffe.ssh.BlockCacheTest;
+import com.palantir.giraffe.ssh.ChecksumTest;
+import com.palantir.giraffe.ssh.CompressedTransferTest;
+import com.palantir.giraffe.ssh.CreateDirectoriesTest;
+import com.palantir.giraffe.ssh.DeltaTransferTest;
+import com.palantir.giraffe.ssh.FileChannelTest;
 import com.palantir.giraffe.ssh.FileSystemUpgradeTest;
+import com.palantir.giraffe.ssh.FollowTest;
+import com.palantir.giraffe.ssh.PrincipalLookupTest;
+import com.palantir.giraffe.ssh.SyncTest;
+import com.palantir.giraffe.ssh.WatchServiceTest;
 import com.palantir.giraffe.ssh.util.MinaSshdFileSystemRule;
 import com.palantir.giraffe.test.runner.RemoveTestsFilter;
 import com.palantir.giraffe.test.runner.SystemSuite;
@@ -54,7 +66,19 @@ import com.palantir.giraffe.test.runner.SystemSuite.SystemRule;
     FileSystemSymlinkTest.class,
     FileSystemCopyMoveTest.class,
     FileSystemProviderMismatchTest.class,
-    FileSystemUpgradeTest.class
+    FileSystemUpgradeTest.class,
+    AlgorithmPreferenceTest.class,
+    CompressedTransferTest.class,
+    ChecksumTest.class,
+    SyncTest.class,
+    DeltaTransferTest.class,
+    FollowTest.class,
+    BlockCacheTest.class,
+    AsyncFileChannelTest.class,
+    FileChannelTest.class,
+    WatchServiceTest.class,
+    PrincipalLookupTest.class,
+    CreateDirectoriesTest.class
 })
 public class EmbeddedSshFileSystemSuite implements Filterable {
 
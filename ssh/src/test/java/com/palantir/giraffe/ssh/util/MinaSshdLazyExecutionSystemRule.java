@@ -0,0 +1,44 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.util;
+
+import java.nio.file.Path;
+
+import com.palantir.giraffe.ssh.SshSystemRequest;
+
+/**
+ * Starts and stops an embedded SSH server for execution system tests that
+ * connect on first use.
+ */
+public class MinaSshdLazyExecutionSystemRule extends MinaSshdExecutionSystemRule {
+
+    public static final int CONNECTIONS = 2;
+
+    public MinaSshdLazyExecutionSystemRule(Path workingDir) {
+        super(workingDir);
+    }
+
+    @Override
+    protected void configureRequest(SshSystemRequest request) {
+        request.setLazyConnect(true);
+        request.setConnections(CONNECTIONS);
+    }
+
+    @Override
+    public String name() {
+        return "embedded-ssh-lazy";
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2026 Palantir Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.giraffe.ssh.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.palantir.giraffe.ssh.SshConnectionPool;
+import com.palantir.giraffe.ssh.SshSystemRequest;
+
+/**
+ * Starts and stops an embedded SSH server for execution system tests that
+ * lease connections from a connection pool.
+ */
+public class MinaSshdPooledExecutionSystemRule extends MinaSshdExecutionSystemRule {
+
+    private final SshConnectionPool pool = SshConnectionPool.builder()
+            .setHealthCheckInterval(1, TimeUnit.SECONDS)
+            .build();
+
+    public MinaSshdPooledExecutionSystemRule(Path workingDir) {
+        super(workingDir);
+    }
+
+    public SshConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    @Override
+    protected void configureRequest(SshSystemRequest request) {
+        request.setConnectionPool(pool);
+    }
+
+    @Override
+    protected void closeSystems() throws IOException {
+        try {
+            super.closeSystems();
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "embedded-ssh-pooled";
+    }
+}
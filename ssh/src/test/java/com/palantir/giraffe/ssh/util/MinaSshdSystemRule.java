@@ -21,6 +21,8 @@ import java.nio.file.Path;
 import org.junit.rules.ExternalResource;
 
 import com.palantir.giraffe.host.HostControlSystem;
+import com.palantir.giraffe.ssh.SshHostAccessor;
+import com.palantir.giraffe.ssh.SshSystemRequest;
 import com.palantir.giraffe.test.runner.SystemTestRule;
 
 class MinaSshdSystemRule extends ExternalResource implements SystemTestRule {
@@ -37,14 +39,38 @@ class MinaSshdSystemRule extends ExternalResource implements SystemTestRule {
 
     @Override
     protected void before() throws Throwable {
+        configureServer(server);
         server.start();
-        hcs = server.getHost().open();
+
+        hcs = openHostControlSystem();
+    }
+
+    /**
+     * Opens a new system connected to the server using a request modified by
+     * {@link #configureRequest(SshSystemRequest)}.
+     */
+    public HostControlSystem openHostControlSystem() throws IOException {
+        SshHostAccessor host = server.getHost();
+        configureRequest(host.request());
+        return host.open();
     }
 
+    /**
+     * Modifies the server before it starts. By default, the server is not
+     * modified.
+     */
+    protected void configureServer(MinaTestServer testServer) {}
+
+    /**
+     * Modifies the request used to open the system. By default, the request
+     * is not modified.
+     */
+    protected void configureRequest(SshSystemRequest request) {}
+
     @Override
     protected void after() {
         try {
-            hcs.close();
+            closeSystems();
         } catch (IOException e) {
             throw new IllegalStateException("failed to close systems", e);
         } finally {
@@ -52,6 +78,17 @@ class MinaSshdSystemRule extends ExternalResource implements SystemTestRule {
         }
     }
 
+    /**
+     * Closes the systems opened by this rule before the server stops.
+     */
+    protected void closeSystems() throws IOException {
+        hcs.close();
+    }
+
+    public MinaTestServer getServer() {
+        return server;
+    }
+
     protected HostControlSystem getHostControlSystem() {
         return hcs;
     }
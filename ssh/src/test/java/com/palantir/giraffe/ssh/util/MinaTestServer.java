@@ -16,13 +16,25 @@
 package com.palantir.giraffe.ssh.util;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.ServerSocket;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.sshd.common.NamedFactory;
+import org.apache.sshd.common.PropertyResolverUtils;
 import org.apache.sshd.common.file.nativefs.NativeFileSystemFactory;
+import org.apache.sshd.common.kex.KexProposalOption;
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.common.session.helpers.AbstractConnectionService;
 import org.apache.sshd.server.SshServer;
 import org.apache.sshd.server.auth.UserAuth;
 import org.apache.sshd.server.auth.password.PasswordAuthenticator;
@@ -32,6 +44,8 @@ import org.apache.sshd.server.command.CommandFactory;
 import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
 import org.apache.sshd.server.session.ServerSession;
 import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.apache.sshd.server.subsystem.sftp.AbstractSftpEventListenerAdapter;
+import org.apache.sshd.server.subsystem.sftp.FileHandle;
 import org.apache.sshd.server.subsystem.sftp.SftpSubsystemFactory;
 
 import com.palantir.giraffe.host.Host;
@@ -50,6 +64,16 @@ public class MinaTestServer {
     private static final String PASSWORD = "l0ngN3ck";
 
     private final Path workingDir;
+    private final AtomicInteger authentications = new AtomicInteger();
+    private final AtomicInteger commands = new AtomicInteger();
+    private final List<String> commandLines = new CopyOnWriteArrayList<>();
+    private final Map<Path, CountDownLatch> stalledReads = new ConcurrentHashMap<>();
+
+    private volatile Path commandPath;
+
+    private volatile Map<KexProposalOption, String> negotiated = Collections.emptyMap();
+
+    private int maxChannels;
 
     private int port;
     private SshServer sshd;
@@ -58,6 +82,15 @@ public class MinaTestServer {
         this.workingDir = workingDir;
     }
 
+    /**
+     * Sets the maximum number of channels the server allows for each
+     * connection. If {@code maxChannels} is 0, the number of channels is not
+     * limited. Must be called before the server starts.
+     */
+    public void setMaxChannels(int maxChannels) {
+        this.maxChannels = maxChannels;
+    }
+
     public void start() throws IOException {
         try (ServerSocket ss = new ServerSocket(0)) {
             port = ss.getLocalPort();
@@ -66,12 +99,31 @@ public class MinaTestServer {
         sshd = SshServer.setUpDefaultServer();
         sshd.setPort(port);
         sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        if (maxChannels > 0) {
+            PropertyResolverUtils.updateProperty(sshd,
+                    AbstractConnectionService.MAX_CONCURRENT_CHANNELS_PROP, maxChannels);
+        }
+
+        sshd.addSessionListener(new SessionListener() {
+            @Override
+            public void sessionNegotiationEnd(Session session,
+                                              Map<KexProposalOption, String> clientProposal,
+                                              Map<KexProposalOption, String> serverProposal,
+                                              Map<KexProposalOption, String> negotiatedOptions,
+                                              Throwable reason) {
+                if (reason == null) {
+                    negotiated = negotiatedOptions;
+                }
+            }
+        });
 
         sshd.setCommandFactory(new CommandFactory() {
             @Override
             public Command createCommand(String command) {
+                commands.incrementAndGet();
+                commandLines.add(command);
                 String[] shellCommand = new String[] {
-                    "/bin/sh", "-c", "cd " + workingDir + " && " + command
+                    "/bin/sh", "-c", "cd " + workingDir + " && " + getPathExport() + command
                 };
                 return new ProcessShellFactory(shellCommand).create();
             }
@@ -80,8 +132,9 @@ public class MinaTestServer {
         sshd.setPasswordAuthenticator(new PasswordAuthenticator() {
             @Override
             public boolean authenticate(String username, String password, ServerSession session) {
-                if (USERNAME.equals(username)) {
-                    return PASSWORD.equals(password);
+                if (USERNAME.equals(username) && PASSWORD.equals(password)) {
+                    authentications.incrementAndGet();
+                    return true;
                 } else {
                     return false;
                 }
@@ -96,7 +149,23 @@ public class MinaTestServer {
         sshd.setFileSystemFactory(fsFactory);
 
         List<NamedFactory<Command>> subsystems = new ArrayList<>();
-        subsystems.add(new SftpSubsystemFactory());
+        SftpSubsystemFactory sftpFactory = new SftpSubsystemFactory();
+        sftpFactory.addSftpEventListener(new AbstractSftpEventListenerAdapter() {
+            @Override
+            public void reading(ServerSession session, String remoteHandle,
+                                FileHandle localHandle, long offset, byte[] data,
+                                int dataOffset, int dataLen) throws IOException {
+                CountDownLatch released = stalledReads.get(localHandle.getFile());
+                if (released != null) {
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException("interrupted while stalled");
+                    }
+                }
+            }
+        });
+        subsystems.add(sftpFactory);
         sshd.setSubsystemFactories(subsystems);
 
         sshd.start();
@@ -110,6 +179,62 @@ public class MinaTestServer {
         }
     }
 
+    /**
+     * Returns the number of successful authentications since the server
+     * started.
+     */
+    public int getAuthentications() {
+        return authentications.get();
+    }
+
+    /**
+     * Returns the number of exec requests since the server started. Each
+     * command executed on a new channel and each persistent shell is one
+     * request.
+     */
+    public int getCommands() {
+        return commands.get();
+    }
+
+    /**
+     * Adds {@code dir} to the start of {@code PATH} for commands executed
+     * after this call, so tests can replace system commands. If {@code dir}
+     * is {@code null}, commands use the server's {@code PATH}.
+     */
+    public void setCommandPath(Path dir) {
+        this.commandPath = dir;
+    }
+
+    private String getPathExport() {
+        Path dir = commandPath;
+        return dir == null ? "" : "export PATH='" + dir + "':\"$PATH\" && ";
+    }
+
+    /**
+     * Delays every SFTP read of {@code file} until {@code released} reaches
+     * zero. The SFTP session that sent the read stops answering requests
+     * while it waits. {@code file} must be an absolute path.
+     */
+    public void stallReads(Path file, CountDownLatch released) {
+        stalledReads.put(file, released);
+    }
+
+    /**
+     * Returns the command line of each exec request since the server started,
+     * in the order they were received.
+     */
+    public List<String> getCommandLines() {
+        return Collections.unmodifiableList(commandLines);
+    }
+
+    /**
+     * Returns the algorithm negotiated for {@code option} by the most recent
+     * key exchange, or {@code null} if no key exchange completed.
+     */
+    public String getNegotiatedAlgorithm(KexProposalOption option) {
+        return negotiated.get(option);
+    }
+
     public SshHostAccessor getHost() {
         SshCredential credential = PasswordSshCredential.of(USERNAME, PASSWORD);
         return SshHostAccessor.forCredential(Host.localhost(), port, credential);